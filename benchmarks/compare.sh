@@ -0,0 +1,11 @@
+#!/usr/bin/env sh
+# Flags benchmarks that got slower than the baseline; exits 1 if any did.
+#
+#   ./compare.sh                                        results/baseline.json vs results/current.json, 10% threshold
+#   ./compare.sh old.json new.json 5                    explicit files and threshold in percent
+set -e
+cd "$(dirname "$0")"
+BASELINE="${1:-results/baseline.json}"
+CURRENT="${2:-results/current.json}"
+THRESHOLD="${3:-10}"
+java -cp target/benchmarks.jar com.myspot.backend.benchmarks.CompareResults "$BASELINE" "$CURRENT" "$THRESHOLD"
@@ -0,0 +1,15 @@
+#!/usr/bin/env sh
+# Builds the backend classes and the benchmark jar, then runs JMH with JSON output.
+#
+#   ./run.sh                         all benchmarks, results in results/current.json
+#   ./run.sh Jwt -f 1 -wi 1 -i 3     any JMH options or benchmark regex are passed through
+#   RESULTS=results/baseline.json ./run.sh    record a new baseline
+#
+# Compare a run against the baseline with ./compare.sh.
+set -e
+cd "$(dirname "$0")"
+RESULTS="${RESULTS:-results/current.json}"
+mkdir -p "$(dirname "$RESULTS")"
+(cd .. && sh mvnw -B -q -DskipTests install)
+sh ../mvnw -B -q package
+java -jar target/benchmarks.jar -rf json -rff "$RESULTS" "$@"
@@ -0,0 +1,123 @@
+package com.myspot.backend.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files and exits with status 1 if any benchmark regressed.
+ *
+ * Usage: CompareResults baseline.json current.json [threshold-percent]
+ *
+ * Benchmarks are matched by name and parameters. A result regresses when it is worse than the
+ * baseline by more than the threshold (10% by default) and the two error intervals do not
+ * overlap, so a noisy run does not fail on its own. Throughput is better when higher, every
+ * other mode when lower. Benchmarks present in only one file are listed but never fail the run.
+ */
+public final class CompareResults {
+    
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+    
+    private record Score(String mode, double score, double error, String unit) {
+        
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+    
+    private CompareResults() {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: CompareResults baseline.json current.json [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+        
+        List<String> regressions = new ArrayList<>();
+        System.out.printf(Locale.ROOT, "%-90s %14s %14s %9s  %s%n", "Benchmark", "Baseline", "Current", "Change", "Unit");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf(Locale.ROOT, "%-90s %14s %14.3f %9s  %s  (new)%n",
+                    entry.getKey(), "-", now.score(), "-", now.unit());
+                continue;
+            }
+            // Positive change means worse, whichever direction the mode counts as better
+            double change = (now.score() - before.score()) / before.score() * 100.0;
+            if (now.higherIsBetter()) {
+                change = -change;
+            }
+            boolean outsideNoise = now.higherIsBetter()
+                ? now.score() + now.error() < before.score() - before.error()
+                : now.score() - now.error() > before.score() + before.error();
+            boolean regressed = change > threshold && outsideNoise && before.mode().equals(now.mode());
+            if (regressed) {
+                regressions.add(entry.getKey());
+            }
+            System.out.printf(Locale.ROOT, "%-90s %14.3f %14.3f %+8.1f%%  %s%s%n",
+                entry.getKey(), before.score(), now.score(), change, now.unit(), regressed ? "  REGRESSION" : "");
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf(Locale.ROOT, "%-90s  (missing from current results)%n", key);
+            }
+        }
+        
+        if (!regressions.isEmpty()) {
+            System.out.printf(Locale.ROOT, "%n%d benchmark(s) regressed by more than %.1f%%:%n", regressions.size(), threshold);
+            regressions.forEach(key -> System.out.println("  " + key));
+            System.exit(1);
+        }
+        System.out.printf(Locale.ROOT, "%nNo regressions beyond %.1f%%%n", threshold);
+    }
+    
+    private static Map<String, Score> read(File file) throws IOException {
+        JsonNode results = new ObjectMapper().readTree(file);
+        if (!results.isArray()) {
+            throw new IllegalArgumentException(file + " is not a JMH JSON result file");
+        }
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            JsonNode metric = result.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0.0);
+            scores.put(key(result), new Score(
+                result.path("mode").asText(),
+                metric.path("score").asDouble(),
+                Double.isNaN(error) ? 0.0 : error,
+                metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+    
+    private static String key(JsonNode result) {
+        String name = result.path("benchmark").asText().replace("com.myspot.backend.", "");
+        JsonNode params = result.path("params");
+        if (params.isMissingNode() || params.isEmpty()) {
+            return name;
+        }
+        Map<String, String> sorted = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            sorted.put(field.getKey(), field.getValue().asText());
+        }
+        StringJoiner key = new StringJoiner(", ", name + " (", ")");
+        sorted.forEach((param, value) -> key.add(param + "=" + value));
+        return key.toString();
+    }
+}
@@ -0,0 +1,29 @@
+package com.myspot.backend.benchmarks;
+
+/**
+ * Rough retained-size figures for the in-memory indexes, printed from benchmark setup so they
+ * land in the JMH log next to the timings. Good for spotting a doubling, not for exact bytes.
+ */
+public final class HeapMeter {
+    
+    private HeapMeter() {
+    }
+    
+    public static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+    
+    public static void report(String name, long before, long after, String details) {
+        System.out.printf("%n# %s: ~%.1f MB retained, %s%n", name, (after - before) / (1024.0 * 1024.0), details);
+    }
+}
@@ -0,0 +1,33 @@
+package com.myspot.backend.entities;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BigDecimal occupancy rate computed for every PG detail row in dashboard and listing responses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PGDetailsBenchmark {
+    
+    private PGDetails pgDetails;
+    
+    @Setup
+    public void setUp() {
+        pgDetails = PGDetails.builder()
+            .totalCapacity(48)
+            .currentOccupancy(37)
+            .build();
+    }
+    
+    @Benchmark
+    public BigDecimal getOccupancyRate() {
+        return pgDetails.getOccupancyRate();
+    }
+}
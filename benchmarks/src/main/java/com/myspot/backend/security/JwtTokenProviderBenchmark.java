@@ -0,0 +1,52 @@
+package com.myspot.backend.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing and verification as done on login and on every authenticated request.
+ * The secret is the same length as the one in application.properties, since HS512 cost
+ * depends on it only through the key setup that JwtTokenProvider repeats per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+    
+    private static final String SECRET = "BenchmarkSecureJWTSigningKeyForHS512AlgorithmWithMoreThan64Characters!!!!!";
+    
+    private JwtTokenProvider jwtTokenProvider;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "refreshExpiration", 86_400_000L);
+        token = jwtTokenProvider.createToken("owner@example.com", "42");
+    }
+    
+    @Benchmark
+    public String createToken() {
+        return jwtTokenProvider.createToken("owner@example.com", "42");
+    }
+    
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+    
+    /**
+     * What JwtAuthenticationFilter does per request: validate, then parse again for the email.
+     */
+    @Benchmark
+    public String validateAndReadEmail() {
+        return jwtTokenProvider.validateToken(token) ? jwtTokenProvider.getEmailFromToken(token) : null;
+    }
+}
@@ -0,0 +1,106 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.BookingSpan;
+import com.myspot.backend.entities.Booking;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Occupant and conflict lookups on one room's interval tree against the linear scan over the
+ * same bookings that the repository queries used to do, plus the cost of an update.
+ * Stays are 1 to 180 nights spread over five years, so most queries match a handful of spans.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingIntervalTreeBenchmark {
+    
+    private static final LocalDate FIRST_DAY = LocalDate.of(2021, 1, 1);
+    private static final int DAYS = 5 * 365;
+    private static final int QUERIES = 1024;
+    
+    @Param({"1000", "10000"})
+    private int bookings;
+    
+    private BookingIntervalTree tree;
+    private List<BookingSpan> spans;
+    private long[] queryDays;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(17);
+        tree = new BookingIntervalTree();
+        spans = new ArrayList<>(bookings);
+        for (int i = 0; i < bookings; i++) {
+            LocalDate checkIn = FIRST_DAY.plusDays(random.nextInt(DAYS));
+            BookingSpan span = new BookingSpan((long) i, 1L, "101", Booking.RoomType.DOUBLE_SHARING,
+                checkIn, checkIn.plusDays(1 + random.nextInt(180)), Booking.BookingStatus.CONFIRMED);
+            spans.add(span);
+            tree.insert(span);
+        }
+        queryDays = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryDays[i] = FIRST_DAY.toEpochDay() + random.nextInt(DAYS);
+        }
+    }
+    
+    private long nextDay() {
+        return queryDays[next++ & (QUERIES - 1)];
+    }
+    
+    @Benchmark
+    public List<BookingSpan> treeStab() {
+        return tree.stab(nextDay());
+    }
+    
+    @Benchmark
+    public List<BookingSpan> linearStab() {
+        long day = nextDay();
+        List<BookingSpan> result = new ArrayList<>();
+        for (BookingSpan span : spans) {
+            if (span.startDay() <= day && span.endDay() >= day) {
+                result.add(span);
+            }
+        }
+        return result;
+    }
+    
+    @Benchmark
+    public List<BookingSpan> treeOverlapping() {
+        long from = nextDay();
+        return tree.overlapping(from, from + 30);
+    }
+    
+    @Benchmark
+    public List<BookingSpan> linearOverlapping() {
+        long from = nextDay();
+        long to = from + 30;
+        List<BookingSpan> result = new ArrayList<>();
+        for (BookingSpan span : spans) {
+            if (span.startDay() <= to && span.endDay() >= from) {
+                result.add(span);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * A status change: the span is taken out and put back, as BookingIntervalIndex applies it.
+     */
+    @Benchmark
+    public void treeRemoveAndInsert(Blackhole blackhole) {
+        BookingSpan span = spans.get(next++ % bookings);
+        blackhole.consume(tree.remove(span.startDay(), span.bookingId()));
+        tree.insert(span);
+    }
+}
@@ -0,0 +1,94 @@
+package com.myspot.backend.services;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Rows per second through the CSV layers of the booking export and the guest import, with the
+ * database left out: the export writes booking-shaped rows through the same gzip and buffer
+ * stack as ExportService into a discarding stream, and the import parses guest-shaped rows
+ * the way GuestImportService reads its upload.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvThroughputBenchmark {
+    
+    private static final int ROWS = 10_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private String[][] bookingRows;
+    private byte[] guestCsv;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Random random = new Random(37);
+        bookingRows = new String[ROWS][];
+        for (int i = 0; i < ROWS; i++) {
+            bookingRows[i] = new String[] {
+                "BK2506" + String.format("%06d", i), "Guest " + i + " Kumar", "+91 98765 " + String.format("%05d", i),
+                "guest" + i + "@example.com", String.valueOf(101 + random.nextInt(300)), "DOUBLE_SHARING", "1",
+                "2025-05-20", "2025-06-01", "2025-12-01", "2025-06-01 12:04:11", null, "51000.00", "0.00", "0.00",
+                "51000.00", "10000.00", "41000.00", "CONFIRMED", "ADVANCE_PAID", "183", "6",
+                i % 10 == 0 ? "Moved to another city, \"urgent\"" : null, null, "2025-05-20 11:15:00"
+            };
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+            CsvRowWriter csv = new CsvRowWriter(writer);
+            csv.row("First Name", "Last Name", "Email Address", "Phone Number", "Room Number", "Room Type",
+                "Check In Date", "Monthly Rent", "Permanent Address");
+            for (int i = 0; i < ROWS; i++) {
+                csv.row("Guest" + i, "Kumar", "guest" + i + "@example.com", "+91 98765 " + String.format("%05d", i),
+                    String.valueOf(101 + random.nextInt(300)), "DOUBLE_SHARING", "2025-06-01", "8500",
+                    i % 4 == 0 ? "12, MG Road,\nBengaluru" : "12 MG Road Bengaluru");
+            }
+        }
+        guestCsv = bytes.toByteArray();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void exportRows() throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(OutputStream.nullOutputStream(), BUFFER_SIZE);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+        CsvRowWriter csv = new CsvRowWriter(writer);
+        for (String[] row : bookingRows) {
+            for (String value : row) {
+                csv.field(value);
+            }
+            csv.endRow();
+        }
+        writer.flush();
+        gzip.finish();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long importRows() throws IOException {
+        CsvRowReader csv = new CsvRowReader(new BufferedReader(
+            new InputStreamReader(new ByteArrayInputStream(guestCsv), StandardCharsets.UTF_8)));
+        long fields = 0;
+        for (List<String> row = csv.next(); row != null; row = csv.next()) {
+            fields += row.size();
+        }
+        return fields;
+    }
+}
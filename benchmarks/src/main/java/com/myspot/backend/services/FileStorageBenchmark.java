@@ -0,0 +1,61 @@
+package com.myspot.backend.services;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Profile picture upload: validation, unique name generation and the copy to disk, into a
+ * temporary directory that is emptied after every iteration. Results depend on the disk
+ * the temporary directory is on, so compare runs from the same machine only.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileStorageBenchmark {
+    
+    @Param({"51200", "1048576"})
+    private int fileSize;
+    
+    private Path directory;
+    private FileStorageService fileStorageService;
+    private MockMultipartFile file;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("file-storage-benchmark");
+        fileStorageService = new FileStorageService(directory.toString());
+        byte[] content = new byte[fileSize];
+        new Random(7).nextBytes(content);
+        file = new MockMultipartFile("file", "profile.jpg", "image/jpeg", content);
+    }
+    
+    @TearDown(Level.Iteration)
+    public void clearDirectory() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path stored : (Iterable<Path>) files::iterator) {
+                Files.delete(stored);
+            }
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        clearDirectory();
+        Files.deleteIfExists(directory);
+    }
+    
+    @Benchmark
+    public String storeFile() {
+        return fileStorageService.storeFile(file, "pg");
+    }
+}
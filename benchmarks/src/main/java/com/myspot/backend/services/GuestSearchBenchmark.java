@@ -0,0 +1,75 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.benchmarks.HeapMeter;
+import com.myspot.backend.dto.projection.GuestDoc;
+import com.myspot.backend.entities.Guest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guest search over one PG's trigram index at 50k guests: name substrings, phone digits,
+ * e-mail fragments and the short-query prefix path, plus re-indexing an edited guest.
+ * The index's retained size is printed once per fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class GuestSearchBenchmark {
+    
+    private static final String[] FIRST_NAMES = {"Aarav", "Vivaan", "Aditya", "Vihaan", "Arjun", "Sai", "Reyansh",
+        "Ananya", "Diya", "Priya", "Kavya", "Isha", "Meera", "Rohan", "Karthik", "Sneha", "Rahul", "Pooja", "Neha", "Varun"};
+    private static final String[] LAST_NAMES = {"Sharma", "Verma", "Iyer", "Reddy", "Nair", "Gupta", "Kumar", "Singh",
+        "Patel", "Rao", "Menon", "Das", "Joshi", "Kulkarni", "Bhat", "Pillai", "Mehta", "Chopra", "Shetty", "Mishra"};
+    
+    @Param({"50000"})
+    private int guests;
+    
+    @Param({"kumar", "9876", "mail.com", "ra", "priya sharma"})
+    private String query;
+    
+    private GuestNgramIndex index;
+    private GuestDoc edited;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(29);
+        long before = HeapMeter.usedAfterGc();
+        index = new GuestNgramIndex();
+        for (int i = 0; i < guests; i++) {
+            index.put(guest(i, random));
+        }
+        long after = HeapMeter.usedAfterGc();
+        HeapMeter.report("GuestNgramIndex", before, after,
+            index.size() + " guests, " + index.gramCount() + " grams, " + index.postingCount() + " postings");
+        edited = guest(guests / 2, random);
+    }
+    
+    @Benchmark
+    public List<GuestNgramIndex.Hit> search() {
+        return index.search(query);
+    }
+    
+    @Benchmark
+    public void reindexGuest() {
+        index.put(edited);
+    }
+    
+    private static GuestDoc guest(int i, Random random) {
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        return new GuestDoc(
+            (long) i + 1,
+            1L,
+            first + " " + last,
+            String.format("+91 %05d %05d", 70000 + random.nextInt(30000), random.nextInt(100000)),
+            first.toLowerCase() + "." + last.toLowerCase() + i + (i % 2 == 0 ? "@gmail.com" : "@outlook.com"),
+            String.valueOf(100 + random.nextInt(400)),
+            i % 5 == 0 ? Guest.GuestStatus.FORMER : Guest.GuestStatus.ACTIVE);
+    }
+}
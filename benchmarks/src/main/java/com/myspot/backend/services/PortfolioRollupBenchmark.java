@@ -0,0 +1,114 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.PgRollup;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Folding 100k PG rows into the admin portfolio rollup in one pass and split the way
+ * AdminAnalyticsService splits the pg_id range, halving until a piece spans partitionSize rows.
+ * Rows come from memory, so this isolates the aggregation and merge cost from the JDBC reads.
+ *
+ * It says nothing about end-to-end latency: the ROLLUP_SQL partition reads, which join bookings,
+ * beds and ratings per pg_id range, have not been measured against a seeded 100k-PG MySQL schema.
+ * On such a schema, getPortfolio reports the full time as tookMs, and with DEBUG logging for
+ * AdminAnalyticsService each partition's read time is logged separately.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PortfolioRollupBenchmark {
+    
+    private static final String[] STATES = {"Karnataka", "Maharashtra", "Tamil Nadu", "Telangana", "Delhi", "West Bengal"};
+    private static final String[] STATUSES = {"PENDING", "VERIFIED", "REJECTED"};
+    
+    @Param({"100000"})
+    private int pgs;
+    
+    @Param({"5000"})
+    private int partitionSize;
+    
+    @Param({"4"})
+    private int parallelism;
+    
+    private PgRollup[] rows;
+    private ForkJoinPool pool;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(23);
+        rows = new PgRollup[pgs];
+        for (int i = 0; i < pgs; i++) {
+            int state = random.nextInt(STATES.length);
+            long capacity = 10 + random.nextInt(90);
+            long reviews = random.nextInt(200);
+            rows[i] = new PgRollup(
+                i + 1L,
+                "City " + state + "-" + random.nextInt(400),
+                STATES[state],
+                STATUSES[random.nextInt(STATUSES.length)],
+                random.nextInt(10) > 0,
+                capacity,
+                random.nextLong(capacity + 1),
+                reviews,
+                BigDecimal.valueOf(reviews * (1 + random.nextInt(5))),
+                random.nextInt(40),
+                BigDecimal.valueOf(random.nextInt(500_000), 2));
+        }
+        pool = new ForkJoinPool(parallelism);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+    
+    @Benchmark
+    public Map<String, Object> singlePass() {
+        PortfolioRollup rollup = new PortfolioRollup();
+        for (PgRollup row : rows) {
+            rollup.add(row);
+        }
+        return rollup.toMap(20);
+    }
+    
+    @Benchmark
+    public Map<String, Object> forkJoin() {
+        return pool.invoke(new PartitionTask(0, rows.length)).toMap(20);
+    }
+    
+    private final class PartitionTask extends RecursiveTask<PortfolioRollup> {
+        
+        private final int from;
+        private final int to;
+        
+        PartitionTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected PortfolioRollup compute() {
+            if (to - from <= partitionSize) {
+                PortfolioRollup rollup = new PortfolioRollup();
+                for (int i = from; i < to; i++) {
+                    rollup.add(rows[i]);
+                }
+                return rollup;
+            }
+            int middle = from + (to - from) / 2;
+            PartitionTask left = new PartitionTask(from, middle);
+            left.fork();
+            return new PartitionTask(middle, to).compute().merge(left.join());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.myspot.backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myspot.backend.dto.response.ApiResponse;
+import com.myspot.backend.entities.Booking;
+import com.myspot.backend.entities.Guest;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-map conversion for booking and guest responses, and Jackson serialization of a
+ * list of them wrapped in ApiResponse, with an ObjectMapper built the way Spring Boot builds it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+    
+    private static final int LIST_SIZE = 20;
+    
+    private Booking booking;
+    private Guest guest;
+    private List<Booking> bookingList;
+    private List<Guest> guestList;
+    private ObjectMapper objectMapper;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        bookingList = new ArrayList<>(LIST_SIZE);
+        guestList = new ArrayList<>(LIST_SIZE);
+        for (int i = 0; i < LIST_SIZE; i++) {
+            Guest pageGuest = guest(i);
+            guestList.add(pageGuest);
+            bookingList.add(booking(i, pageGuest));
+        }
+        guest = guestList.get(0);
+        booking = bookingList.get(0);
+    }
+    
+    @Benchmark
+    public Map<String, Object> convertBookingToMap() {
+        return BookingService.convertBookingToMap(booking);
+    }
+    
+    @Benchmark
+    public Map<String, Object> convertGuestToMap() {
+        return GuestService.convertGuestToMap(guest);
+    }
+    
+    @Benchmark
+    public byte[] serializeBookingList() throws Exception {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(bookingList.stream()
+            .map(BookingService::convertBookingToMap).toList(), "Bookings retrieved successfully"));
+    }
+    
+    @Benchmark
+    public byte[] serializeGuestList() throws Exception {
+        return objectMapper.writeValueAsBytes(ApiResponse.success(guestList.stream()
+            .map(GuestService::convertGuestToMap).toList(), "Guests retrieved successfully"));
+    }
+    
+    static Guest guest(int i) {
+        return Guest.builder()
+            .guestId(1000L + i)
+            .firstName("Guest" + i)
+            .lastName("Kumar")
+            .fullName("Guest" + i + " Kumar")
+            .emailAddress("guest" + i + "@example.com")
+            .phoneNumber("+91 98765 " + String.format("%05d", i))
+            .dateOfBirth(LocalDate.of(1998, 1 + i % 12, 1 + i % 28))
+            .gender(Guest.Gender.values()[i % Guest.Gender.values().length])
+            .maritalStatus(Guest.MaritalStatus.SINGLE)
+            .permanentAddress("12, MG Road, Near City Mall")
+            .permanentCity("Bengaluru")
+            .permanentState("Karnataka")
+            .permanentPincode("560001")
+            .occupation("Software Engineer")
+            .companyName("Acme Technologies")
+            .monthlyIncome("85000")
+            .emergencyContactName("Parent " + i)
+            .emergencyContactRelation("Father")
+            .emergencyContactPhone("+91 91234 " + String.format("%05d", i))
+            .aadharNumber("1234 5678 " + String.format("%04d", i))
+            .panNumber("ABCDE" + String.format("%04d", i) + "F")
+            .roomNumber(String.valueOf(101 + i % 30))
+            .roomType(Booking.RoomType.values()[i % Booking.RoomType.values().length])
+            .isAcRoom(i % 2 == 0)
+            .bedNumber("B" + (1 + i % 3))
+            .guestStatus(Guest.GuestStatus.ACTIVE)
+            .isActive(true)
+            .checkInDate(LocalDate.of(2025, 6, 1).plusDays(i))
+            .expectedStayDuration("6 months")
+            .foodPreference(Guest.FoodPreference.VEGETARIAN)
+            .hasFoodService(true)
+            .hasVehicle(false)
+            .securityDepositPaid(new BigDecimal("10000.00"))
+            .monthlyRent(new BigDecimal("8500.00"))
+            .lastPaymentDate(LocalDate.of(2025, 9, 1))
+            .nextPaymentDue(LocalDate.of(2025, 10, 1))
+            .createdAt(LocalDateTime.of(2025, 5, 28, 10, 30))
+            .updatedAt(LocalDateTime.of(2025, 9, 1, 9, 0))
+            .build();
+    }
+    
+    static Booking booking(int i, Guest guest) {
+        LocalDate checkIn = LocalDate.of(2025, 6, 1).plusDays(i);
+        return Booking.builder()
+            .bookingId(5000L + i)
+            .bookingReference("BK2506" + String.format("%06d", i))
+            .guest(guest)
+            .guestName(guest.getFullName())
+            .contactNumber(guest.getPhoneNumber())
+            .emailAddress(guest.getEmailAddress())
+            .roomType(guest.getRoomType())
+            .roomNumber(guest.getRoomNumber())
+            .isAcRoom(guest.getIsAcRoom())
+            .bookingDate(checkIn.minusDays(10))
+            .checkInDate(checkIn)
+            .checkOutDate(checkIn.plusDays(180))
+            .baseAmount(new BigDecimal("51000.00"))
+            .totalAmount(new BigDecimal("51000.00"))
+            .advancePaid(new BigDecimal("10000.00"))
+            .remainingAmount(new BigDecimal("41000.00"))
+            .status(Booking.BookingStatus.CONFIRMED)
+            .paymentStatus(Booking.PaymentStatus.ADVANCE_PAID)
+            .specialRequests("Ground floor room if possible")
+            .durationDays(180)
+            .createdAt(checkIn.minusDays(10).atTime(11, 15))
+            .updatedAt(checkIn.minusDays(10).atTime(11, 15))
+            .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.benchmarks.HeapMeter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Review keyword search and top terms at up to one million indexed reviews, plus the cost of
+ * re-indexing an edited review. Review text is drawn from a Zipf-like vocabulary so a few
+ * terms have very long posting lists, as in real reviews. The retained size of the index is
+ * printed once per fork.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class ReviewTermIndexBenchmark {
+    
+    private static final String[] COMMON = {"clean", "room", "food", "staff", "good", "location", "wifi", "bathroom",
+        "owner", "price", "water", "friendly", "quiet", "noise", "bed", "kitchen", "security", "laundry", "metro", "rent"};
+    private static final int VOCABULARY = 5000;
+    
+    @Param({"100000", "1000000"})
+    private int reviews;
+    
+    private ReviewTermIndex index;
+    private String[] vocabulary;
+    private Random random;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new Random(31);
+        vocabulary = new String[VOCABULARY];
+        System.arraycopy(COMMON, 0, vocabulary, 0, COMMON.length);
+        for (int i = COMMON.length; i < VOCABULARY; i++) {
+            vocabulary[i] = word(i);
+        }
+        long before = HeapMeter.usedAfterGc();
+        index = new ReviewTermIndex();
+        for (int i = 0; i < reviews; i++) {
+            index.put(i + 1L, text(8 + random.nextInt(40)));
+        }
+        long after = HeapMeter.usedAfterGc();
+        HeapMeter.report("ReviewTermIndex", before, after,
+            index.size() + " reviews, " + index.termCount() + " terms, " + index.postingCount() + " postings");
+    }
+    
+    @Benchmark
+    public List<ReviewTermIndex.Hit> searchCommonTerm() {
+        return index.search("clean");
+    }
+    
+    @Benchmark
+    public List<ReviewTermIndex.Hit> searchTwoTerms() {
+        return index.search("friendly staff");
+    }
+    
+    @Benchmark
+    public List<ReviewTermIndex.Hit> searchRareTerm() {
+        return index.search(vocabulary[VOCABULARY - 1]);
+    }
+    
+    @Benchmark
+    public List<ReviewTermIndex.TermCount> topTerms() {
+        return index.topTerms(20);
+    }
+    
+    @Benchmark
+    public void reindexReview() {
+        index.put(1 + random.nextInt(reviews), text(24));
+    }
+    
+    private String text(int words) {
+        StringBuilder text = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            // Cubing a uniform draw skews picks toward the front of the vocabulary
+            double draw = random.nextDouble();
+            text.append(vocabulary[(int) (draw * draw * draw * VOCABULARY)]).append(' ');
+        }
+        return text.toString();
+    }
+    
+    private static String word(int i) {
+        StringBuilder word = new StringBuilder();
+        for (int n = i; n > 0; n /= 20) {
+            word.append("bcdfghjklmnprstvwxyz".charAt(n % 20)).append("aeiou".charAt(n % 5));
+        }
+        return word.toString();
+    }
+}
@@ -1,8 +1,12 @@
 package com.myspot.backend.config;
 
 import com.myspot.backend.security.CustomUserDetailsService;
+import com.myspot.backend.security.IdempotencyKeyFilter;
 import com.myspot.backend.security.JwtAuthenticationFilter;
+import com.myspot.backend.services.IdempotencyStore;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,6 +17,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -28,6 +33,13 @@ public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final IdempotencyStore idempotencyStore;
+
+    @Value("${app.idempotency.wait-seconds:30}")
+    private long idempotencyWaitSeconds;
+
+    @Value("${app.idempotency.max-body-bytes:262144}")
+    private int idempotencyMaxBodyBytes;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -41,9 +53,12 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Async re-dispatches (streamed exports, long-polled report jobs) were authorised on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/pg-auth/**").permitAll()
                 .requestMatchers("/swagger-ui.html", "/swagger-ui/**", "/api-docs/**", "/v3/api-docs/**").permitAll()
                 .requestMatchers("/actuator/health", "/error").permitAll()
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             // wire in userDetailsService for authentication manager if needed
@@ -52,6 +67,10 @@ public class SecurityConfig {
         // Register JWT filter before UsernamePasswordAuthenticationFilter
         http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
+        // Replay retried mutations that carry an Idempotency-Key, once the caller is authorised
+        http.addFilterAfter(new IdempotencyKeyFilter(idempotencyStore, idempotencyWaitSeconds, idempotencyMaxBodyBytes),
+                AuthorizationFilter.class);
+
         return http.build();
     }
 
@@ -0,0 +1,59 @@
+package com.myspot.backend.controllers;
+
+import com.myspot.backend.services.AdminAnalyticsService;
+import com.myspot.backend.dto.response.ApiResponse;
+import com.myspot.backend.security.CustomUserPrincipal;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Admin", description = "Platform-wide APIs for administrators")
+public class AdminController {
+    
+    private final AdminAnalyticsService adminAnalyticsService;
+    
+    @GetMapping("/analytics/portfolio")
+    @Operation(summary = "Get portfolio analytics", description = "Revenue, occupancy and ratings across all PGs with city, state and verification-status breakdowns; revenue covers bookings made from from to to (defaults to this month)")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getPortfolio(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false, defaultValue = "50") int cityLimit,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Getting portfolio analytics for admin: {} from {} to {}", user.getEmail(), from, to);
+        
+        Map<String, Object> portfolio = adminAnalyticsService.getPortfolio(from, to, cityLimit);
+        
+        return ResponseEntity.ok(ApiResponse.success(portfolio, "Portfolio analytics retrieved successfully"));
+    }
+    
+    @GetMapping("/analytics/booking-distribution")
+    @Operation(summary = "Get platform booking distribution", description = "Stay-length and booking-amount percentiles across the given PG IDs, or all PGs, for bookings made from from to to (yyyy-MM)")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getBookingDistribution(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) List<Long> pgIds,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Getting booking distribution for admin: {} from {} to {}", user.getEmail(), from, to);
+        
+        Map<String, Object> distribution = adminAnalyticsService.getBookingDistribution(from, to, pgIds);
+        
+        return ResponseEntity.ok(ApiResponse.success(distribution, "Booking distribution retrieved successfully"));
+    }
+}
@@ -9,10 +9,12 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 @Slf4j
@@ -50,6 +52,21 @@ public class AnalyticsController {
         return ResponseEntity.ok(ApiResponse.success(analytics, "Occupancy analytics retrieved successfully"));
     }
     
+    @GetMapping("/occupancy/history")
+    @Operation(summary = "Get occupancy history", description = "Daily occupancy snapshots downsampled by day, week or month; defaults to the last 90 days")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getOccupancyHistory(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false, defaultValue = "day") String granularity,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Getting occupancy history for PG ID: {} from {} to {} by {}", user.getId(), from, to, granularity);
+        
+        Map<String, Object> history = analyticsService.getOccupancyHistory(user.getId(), from, to, granularity);
+        
+        return ResponseEntity.ok(ApiResponse.success(history, "Occupancy history retrieved successfully"));
+    }
+    
     @GetMapping("/monthly-report/{month}")
     @Operation(summary = "Get monthly report", description = "Get comprehensive monthly report")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getMonthlyReport(
@@ -62,4 +79,58 @@ public class AnalyticsController {
         
         return ResponseEntity.ok(ApiResponse.success(report, "Monthly report retrieved successfully"));
     }
+    
+    @GetMapping("/monthly-report")
+    @Operation(summary = "Get monthly report range", description = "Monthly reports for every month from from to to (yyyy-MM, at most 36 months); defaults to the last 12 months")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getMonthlyReportRange(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Getting monthly report range for PG ID: {} from {} to {}", user.getId(), from, to);
+        
+        Map<String, Object> report = analyticsService.getMonthlyReportRange(user.getId(), from, to);
+        
+        return ResponseEntity.ok(ApiResponse.success(report, "Monthly report range retrieved successfully"));
+    }
+    
+    @GetMapping("/booking-distribution")
+    @Operation(summary = "Get booking distribution", description = "Stay-length and booking-amount percentiles for bookings made from from to to (yyyy-MM); defaults to the last 12 months")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getBookingDistribution(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Getting booking distribution for PG ID: {} from {} to {}", user.getId(), from, to);
+        
+        Map<String, Object> distribution = analyticsService.getBookingDistribution(user.getId(), from, to);
+        
+        return ResponseEntity.ok(ApiResponse.success(distribution, "Booking distribution retrieved successfully"));
+    }
+    
+    @GetMapping("/forecast")
+    @Operation(summary = "Get occupancy and revenue forecast", description = "Daily occupancy and revenue forecast for the next days days (1-90) with 30, 60 and 90 day summaries")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getForecast(
+            @RequestParam(required = false, defaultValue = "90") int days,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Getting forecast for PG ID: {}, days: {}", user.getId(), days);
+        
+        Map<String, Object> forecast = analyticsService.getForecast(user.getId(), days);
+        
+        return ResponseEntity.ok(ApiResponse.success(forecast, "Forecast retrieved successfully"));
+    }
+    
+    @GetMapping("/booking-trends")
+    @Operation(summary = "Get booking trends", description = "Get monthly booking transition counts and cancellation rates")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getBookingTrends(
+            @RequestParam(required = false, defaultValue = "12") int months,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Getting booking trends for PG ID: {}, months: {}", user.getId(), months);
+        
+        Map<String, Object> trends = analyticsService.getBookingTrends(user.getId(), months);
+        
+        return ResponseEntity.ok(ApiResponse.success(trends, "Booking trends retrieved successfully"));
+    }
 }
@@ -3,17 +3,28 @@
 package com.myspot.backend.controllers;
 
 import com.myspot.backend.services.BookingService;
+import com.myspot.backend.services.BookingCreationService;
+import com.myspot.backend.services.ExportService;
+import com.myspot.backend.dto.request.BulkBookingStatusRequest;
+import com.myspot.backend.dto.request.CreateBookingRequest;
 import com.myspot.backend.dto.response.ApiResponse;
 import com.myspot.backend.security.CustomUserPrincipal;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -26,21 +37,42 @@ import java.util.Map;
 public class BookingController {
     
     private final BookingService bookingService;
+    private final BookingCreationService bookingCreationService;
+    private final ExportService exportService;
     
     @GetMapping
-    @Operation(summary = "Get all bookings", description = "Get all bookings with optional filters")
+    @Operation(summary = "Get all bookings", description = "Get all bookings with optional filters; fields=bookingId,guestName,... returns only those fields")
     public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAllBookings(
             @RequestParam(required = false, defaultValue = "all") String month,
             @RequestParam(required = false, defaultValue = "all") String status,
+            @RequestParam(required = false) String fields,
             @AuthenticationPrincipal CustomUserPrincipal user) {
         
         log.info("Getting all bookings for PG ID: {}, month: {}, status: {}", user.getId(), month, status);
         
-        List<Map<String, Object>> bookings = bookingService.getAllBookings(user.getId(), month, status);
+        List<Map<String, Object>> bookings = bookingService.getAllBookings(user.getId(), month, status, fields);
         
         return ResponseEntity.ok(ApiResponse.success(bookings, "Bookings retrieved successfully"));
     }
     
+    @PostMapping
+    @Operation(summary = "Create booking", description = "Book a guest into a room, failing fast if the room is full or being booked concurrently")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> createBooking(
+            @Valid @RequestBody CreateBookingRequest request,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Creating booking in room: {} for PG ID: {}", request.getRoomNumber(), user.getId());
+        
+        try {
+            Map<String, Object> booking = bookingCreationService.createBooking(user.getId(), request);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success(booking, "Booking created successfully"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
     @GetMapping("/{bookingId}")
     @Operation(summary = "Get booking details", description = "Get detailed information for a specific booking")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getBookingDetails(
@@ -82,6 +114,62 @@ public class BookingController {
         return ResponseEntity.ok(ApiResponse.success(updatedBooking, "Booking status updated successfully"));
     }
     
+    @PutMapping("/status/bulk")
+    @Operation(summary = "Bulk update booking status", description = "Move many bookings to one status and report the result for each")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> bulkUpdateBookingStatus(
+            @Valid @RequestBody BulkBookingStatusRequest request,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Bulk updating {} bookings to status: {} for PG ID: {}", request.getBookingIds().size(), request.getStatus(), user.getId());
+        
+        Map<String, Object> result = bookingService.bulkUpdateBookingStatus(user.getId(), request);
+        
+        return ResponseEntity.ok(ApiResponse.success(result, "Booking statuses updated successfully"));
+    }
+    
+    @GetMapping("/rooms/{roomNumber}/occupants")
+    @Operation(summary = "Get room occupants", description = "Get bookings occupying a room on a given date (defaults to today)")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getRoomOccupants(
+            @PathVariable String roomNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        LocalDate onDate = date != null ? date : LocalDate.now();
+        log.info("Getting occupants of room: {} on {} for PG ID: {}", roomNumber, onDate, user.getId());
+        
+        List<Map<String, Object>> occupants = bookingService.getRoomOccupants(user.getId(), roomNumber, onDate);
+        
+        return ResponseEntity.ok(ApiResponse.success(occupants, "Room occupants retrieved successfully"));
+    }
+    
+    @GetMapping("/availability")
+    @Operation(summary = "Get bed availability", description = "Get free beds per room type for each of the next days")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getBedAvailability(
+            @RequestParam(required = false, defaultValue = "90") int days,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Getting bed availability for {} days for PG ID: {}", days, user.getId());
+        
+        Map<String, Object> availability = bookingService.getBedAvailability(user.getId(), days);
+        
+        return ResponseEntity.ok(ApiResponse.success(availability, "Bed availability retrieved successfully"));
+    }
+    
+    @GetMapping("/rooms/{roomNumber}/conflicts")
+    @Operation(summary = "Check room conflicts", description = "Check whether a stay in a room overlaps existing bookings")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> checkRoomConflicts(
+            @PathVariable String roomNumber,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkInDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOutDate,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Checking conflicts for room: {} from {} to {} in PG ID: {}", roomNumber, checkInDate, checkOutDate, user.getId());
+        
+        Map<String, Object> result = bookingService.checkRoomConflicts(user.getId(), roomNumber, checkInDate, checkOutDate);
+        
+        return ResponseEntity.ok(ApiResponse.success(result, "Room conflicts checked successfully"));
+    }
+    
     @GetMapping("/stats")
     @Operation(summary = "Get booking statistics", description = "Get booking statistics for dashboard")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getBookingStats(
@@ -94,4 +182,19 @@ public class BookingController {
         
         return ResponseEntity.ok(ApiResponse.success(stats, "Booking statistics retrieved successfully"));
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/export")
+    @Operation(summary = "Export bookings", description = "Download all bookings as a gzip-compressed CSV file")
+    public ResponseEntity<StreamingResponseBody> exportBookings(@AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        Long pgId = user.getId();
+        log.info("Exporting bookings for PG ID: {}", pgId);
+        
+        StreamingResponseBody body = out -> exportService.exportBookings(pgId, out);
+        
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings-" + LocalDate.now() + ".csv.gz\"")
+            .contentType(MediaType.parseMediaType("application/gzip"))
+            .body(body);
+    }
+}
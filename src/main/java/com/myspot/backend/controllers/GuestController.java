@@ -3,17 +3,31 @@
 package com.myspot.backend.controllers;
 
 import com.myspot.backend.services.GuestService;
+import com.myspot.backend.services.ExportService;
+import com.myspot.backend.services.GuestImportService;
+import com.myspot.backend.services.GuestLifecycleScheduler;
+import com.myspot.backend.dto.request.RecordRentPaymentRequest;
 import com.myspot.backend.dto.response.ApiResponse;
 import com.myspot.backend.security.CustomUserPrincipal;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -26,20 +40,41 @@ import java.util.Map;
 public class GuestController {
     
     private final GuestService guestService;
+    private final ExportService exportService;
+    private final GuestLifecycleScheduler guestLifecycleScheduler;
+    private final GuestImportService guestImportService;
     
     @GetMapping
-    @Operation(summary = "Get all guests", description = "Get all guests with optional status filter")
+    @Operation(summary = "Get all guests", description = "Get all guests with optional status filter; fields=guestId,fullName,... returns only those fields")
     public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAllGuests(
             @RequestParam(required = false, defaultValue = "all") String status,
+            @RequestParam(required = false) String fields,
             @AuthenticationPrincipal CustomUserPrincipal user) {
         
         log.info("Getting all guests for PG ID: {}, status: {}", user.getId(), status);
         
-        List<Map<String, Object>> guests = guestService.getAllGuests(user.getId(), status);
+        List<Map<String, Object>> guests = guestService.getAllGuests(user.getId(), status, fields);
         
         return ResponseEntity.ok(ApiResponse.success(guests, "Guests retrieved successfully"));
     }
     
+    @GetMapping("/search")
+    @Operation(summary = "Search guests", description = "Type-ahead search by name, phone, email or room number")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> searchGuests(
+            @RequestParam String q,
+            @RequestParam(required = false, defaultValue = "all") String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Searching guests for PG ID: {}, query: {}", user.getId(), q);
+        
+        Map<String, Object> results = guestService.searchGuests(user.getId(), q, status,
+            Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+        
+        return ResponseEntity.ok(ApiResponse.success(results, "Guest search results retrieved successfully"));
+    }
+    
     @GetMapping("/{guestId}")
     @Operation(summary = "Get guest details", description = "Get detailed information for a specific guest")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getGuestDetails(
@@ -68,6 +103,21 @@ public class GuestController {
         return ResponseEntity.ok(ApiResponse.success(updatedGuest, "Guest status updated successfully"));
     }
     
+    @PostMapping("/{guestId}/payments")
+    @Operation(summary = "Record rent payment", description = "Record a rent payment and move the guest's next payment due date")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> recordRentPayment(
+            @PathVariable Long guestId,
+            @RequestBody(required = false) RecordRentPaymentRequest request,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Recording rent payment for guest ID: {} in PG ID: {}", guestId, user.getId());
+        
+        Map<String, Object> guest = guestService.recordRentPayment(user.getId(), guestId,
+            request != null ? request : new RecordRentPaymentRequest());
+        
+        return ResponseEntity.ok(ApiResponse.success(guest, "Rent payment recorded successfully"));
+    }
+    
     @GetMapping("/stats")
     @Operation(summary = "Get guest statistics", description = "Get guest statistics for dashboard")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getGuestStats(
@@ -79,4 +129,45 @@ public class GuestController {
         
         return ResponseEntity.ok(ApiResponse.success(stats, "Guest statistics retrieved successfully"));
     }
+    
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    @Operation(summary = "Import guests", description = "Import guests from a CSV request body with a header row; returns a per-row error report")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> importGuests(
+            HttpServletRequest request,
+            @AuthenticationPrincipal CustomUserPrincipal user) throws IOException {
+        
+        log.info("Importing guests for PG ID: {}", user.getId());
+        
+        Reader reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8), 64 * 1024);
+        Map<String, Object> result = guestImportService.importGuests(user.getId(), reader);
+        
+        String message = Boolean.TRUE.equals(result.get("complete")) ? "Guest import completed" : "Guest import stopped before the end of the file";
+        return ResponseEntity.ok(ApiResponse.success(result, message));
+    }
+    
+    @PostMapping("/lifecycle/sweep")
+    @Operation(summary = "Sweep guest lifecycle", description = "Mark guests past their check-out date as former now instead of waiting for the nightly sweep")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> sweepGuestLifecycle(@AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Sweeping guest lifecycle for PG ID: {}", user.getId());
+        
+        Map<String, Object> result = guestLifecycleScheduler.sweep(user.getId()).toMap();
+        
+        return ResponseEntity.ok(ApiResponse.success(result, "Guest lifecycle swept successfully"));
+    }
+    
+    @GetMapping("/export")
+    @Operation(summary = "Export guests", description = "Download all guests as a gzip-compressed CSV file")
+    public ResponseEntity<StreamingResponseBody> exportGuests(@AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        Long pgId = user.getId();
+        log.info("Exporting guests for PG ID: {}", pgId);
+        
+        StreamingResponseBody body = out -> exportService.exportGuests(pgId, out);
+        
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"guests-" + LocalDate.now() + ".csv.gz\"")
+            .contentType(MediaType.parseMediaType("application/gzip"))
+            .body(body);
+    }
 }
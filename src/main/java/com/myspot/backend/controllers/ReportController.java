@@ -0,0 +1,108 @@
+package com.myspot.backend.controllers;
+
+import com.myspot.backend.services.ReportJobService;
+import com.myspot.backend.dto.request.ReportJobRequest;
+import com.myspot.backend.dto.response.ApiResponse;
+import com.myspot.backend.security.CustomUserPrincipal;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+@Tag(name = "Reports", description = "Background report and export job APIs")
+public class ReportController {
+    
+    private static final long MAX_WAIT_SECONDS = 30;
+    
+    private final ReportJobService reportJobService;
+    
+    @PostMapping("/jobs")
+    @Operation(summary = "Submit report job", description = "Queue a report or export (monthly-report, monthly-report-range, revenue, dashboard-overview, monthly-stats, bookings-export, guests-export); identical jobs in flight or just finished are reused")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> submitJob(
+            @Valid @RequestBody ReportJobRequest request,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Submitting {} report job for PG ID: {}", request.getType(), user.getId());
+        
+        try {
+            Map<String, Object> job = reportJobService.submit(user.getId(), request);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success(job, "Report job submitted successfully"));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/jobs")
+    @Operation(summary = "Get report jobs", description = "Get this PG's report jobs, newest first")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getJobs(
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Getting report jobs for PG ID: {}", user.getId());
+        
+        List<Map<String, Object>> jobs = reportJobService.getJobs(user.getId());
+        
+        return ResponseEntity.ok(ApiResponse.success(jobs, "Report jobs retrieved successfully"));
+    }
+    
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get report job", description = "Get a report job's status; with waitSeconds (at most 30) the response is held until the job finishes or the wait runs out")
+    public CompletableFuture<ResponseEntity<ApiResponse<Map<String, Object>>>> getJob(
+            @PathVariable String jobId,
+            @RequestParam(required = false, defaultValue = "0") long waitSeconds,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Getting report job: {} for PG ID: {}, wait: {}s", jobId, user.getId(), waitSeconds);
+        
+        if (waitSeconds <= 0) {
+            Map<String, Object> job = reportJobService.getJob(user.getId(), jobId);
+            return CompletableFuture.completedFuture(ResponseEntity.ok(ApiResponse.success(job, "Report job retrieved successfully")));
+        }
+        // Waiting happens off the request thread, so a long poll does not hold a Tomcat worker
+        return reportJobService.awaitJob(user.getId(), jobId, Math.min(waitSeconds, MAX_WAIT_SECONDS))
+            .thenApply(job -> ResponseEntity.ok(ApiResponse.success(job, "Report job retrieved successfully")));
+    }
+    
+    @GetMapping("/jobs/{jobId}/result")
+    @Operation(summary = "Download report result", description = "Download a completed job's result as JSON or gzip-compressed CSV")
+    public ResponseEntity<?> downloadResult(
+            @PathVariable String jobId,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Downloading report job: {} for PG ID: {}", jobId, user.getId());
+        
+        ReportJobService.Result result;
+        try {
+            result = reportJobService.getResult(user.getId(), jobId);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+        Resource body = new FileSystemResource(result.path());
+        
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + result.fileName() + "\"")
+            .contentType(MediaType.parseMediaType(result.contentType()))
+            .body(body);
+    }
+}
@@ -38,6 +38,50 @@ public class ReviewController {
         return ResponseEntity.ok(ApiResponse.success(reviews, "Reviews retrieved successfully"));
     }
     
+    @GetMapping("/feed")
+    @Operation(summary = "Get review feed", description = "Cursor-paginated reviews sorted by newest, highest, lowest or unanswered first")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getReviewFeed(
+            @RequestParam(required = false, defaultValue = "newest") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Getting review feed for PG ID: {}, sort: {}", user.getId(), sort);
+        
+        Map<String, Object> feed = reviewService.getReviewFeed(user.getId(), sort, cursor, Math.min(Math.max(size, 1), 100));
+        
+        return ResponseEntity.ok(ApiResponse.success(feed, "Review feed retrieved successfully"));
+    }
+    
+    @GetMapping("/search")
+    @Operation(summary = "Search reviews", description = "Find reviews whose comment or response mentions every keyword")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> searchReviews(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Searching reviews for PG ID: {}, query: {}", user.getId(), q);
+        
+        Map<String, Object> results = reviewService.searchReviews(user.getId(), q,
+            Math.max(page, 0), Math.min(Math.max(size, 1), 100));
+        
+        return ResponseEntity.ok(ApiResponse.success(results, "Review search results retrieved successfully"));
+    }
+    
+    @GetMapping("/terms")
+    @Operation(summary = "Get top review terms", description = "Most mentioned words across active reviews, by number of reviews")
+    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getTopTerms(
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Getting top review terms for PG ID: {}", user.getId());
+        
+        List<Map<String, Object>> terms = reviewService.getTopTerms(user.getId(), Math.min(Math.max(limit, 1), 100));
+        
+        return ResponseEntity.ok(ApiResponse.success(terms, "Review terms retrieved successfully"));
+    }
+    
     @PutMapping("/{reviewId}/response")
     @Operation(summary = "Respond to review", description = "Add or update response to a customer review")
     public ResponseEntity<ApiResponse<String>> respondToReview(
@@ -53,6 +97,42 @@ public class ReviewController {
         return ResponseEntity.ok(ApiResponse.success("Responded", "Review response added successfully"));
     }
     
+    @PutMapping("/{reviewId}/active")
+    @Operation(summary = "Show or hide review", description = "Activate or deactivate a customer review; inactive reviews do not count towards PG ratings")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> setReviewActive(
+            @PathVariable Long reviewId,
+            @RequestBody Map<String, Boolean> request,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Setting review ID: {} active for PG ID: {}", reviewId, user.getId());
+        
+        Boolean active = request.get("isActive");
+        if (active == null) {
+            throw new IllegalArgumentException("isActive is required");
+        }
+        Map<String, Object> review = reviewService.setReviewActive(user.getId(), reviewId, active);
+        
+        return ResponseEntity.ok(ApiResponse.success(review, "Review updated successfully"));
+    }
+    
+    @PutMapping("/{reviewId}/verify")
+    @Operation(summary = "Verify review", description = "Mark a customer review as verified or unverified")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> setReviewVerified(
+            @PathVariable Long reviewId,
+            @RequestBody Map<String, Boolean> request,
+            @AuthenticationPrincipal CustomUserPrincipal user) {
+        
+        log.info("Setting review ID: {} verified for PG ID: {}", reviewId, user.getId());
+        
+        Boolean verified = request.get("isVerified");
+        if (verified == null) {
+            throw new IllegalArgumentException("isVerified is required");
+        }
+        Map<String, Object> review = reviewService.setReviewVerified(user.getId(), reviewId, verified);
+        
+        return ResponseEntity.ok(ApiResponse.success(review, "Review updated successfully"));
+    }
+    
     @GetMapping("/stats")
     @Operation(summary = "Get review statistics", description = "Get review statistics and ratings summary")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getReviewStats(
@@ -0,0 +1,10 @@
+package com.myspot.backend.dto.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The immutable measures of a booking that feed the distribution sketches.
+ */
+public record BookingMeasure(Long bookingId, Long pgId, LocalDate bookingDate, Integer durationDays, BigDecimal totalAmount) {
+}
@@ -0,0 +1,16 @@
+package com.myspot.backend.dto.projection;
+
+import com.myspot.backend.entities.Booking;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Booking count and total amount for one PG, booking month and status.
+ */
+public record BookingMonthRow(Integer year, Integer month, Booking.BookingStatus status, Long bookings, BigDecimal amount) {
+    
+    public YearMonth yearMonth() {
+        return YearMonth.of(year, month);
+    }
+}
@@ -0,0 +1,7 @@
+package com.myspot.backend.dto.projection;
+
+/**
+ * Identity and owning PG of a booking, enough to resolve and authorise a reference lookup.
+ */
+public record BookingRef(Long bookingId, Long pgId) {
+}
@@ -0,0 +1,27 @@
+package com.myspot.backend.dto.projection;
+
+import com.myspot.backend.entities.Booking;
+
+import java.time.LocalDate;
+
+/**
+ * Lean booking projection used by the in-memory booking indexes.
+ * Loaded with a JPQL constructor expression so no Booking entity is hydrated.
+ */
+public record BookingSpan(
+        Long bookingId,
+        Long pgId,
+        String roomNumber,
+        Booking.RoomType roomType,
+        LocalDate checkInDate,
+        LocalDate checkOutDate,
+        Booking.BookingStatus status) {
+    
+    public long startDay() {
+        return checkInDate.toEpochDay();
+    }
+    
+    public long endDay() {
+        return checkOutDate.toEpochDay();
+    }
+}
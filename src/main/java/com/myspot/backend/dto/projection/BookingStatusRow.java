@@ -0,0 +1,24 @@
+package com.myspot.backend.dto.projection;
+
+import com.myspot.backend.entities.Booking;
+
+import java.time.LocalDate;
+
+/**
+ * Booking columns needed to apply a status transition without loading the entity.
+ */
+public record BookingStatusRow(
+        Long bookingId,
+        Long pgId,
+        String roomNumber,
+        Booking.RoomType roomType,
+        LocalDate checkInDate,
+        LocalDate checkOutDate,
+        Booking.BookingStatus status,
+        Booking.PaymentStatus paymentStatus,
+        Long version) {
+    
+    public BookingSpan toSpan(Booking.BookingStatus newStatus) {
+        return new BookingSpan(bookingId, pgId, roomNumber, roomType, checkInDate, checkOutDate, newStatus);
+    }
+}
@@ -0,0 +1,9 @@
+package com.myspot.backend.dto.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Forecast for one day: occupancy rate in percent, the part of it already committed by bookings, and revenue.
+ */
+public record ForecastPoint(LocalDate date, double occupancyRate, double committedOccupancyRate, double revenue) {
+}
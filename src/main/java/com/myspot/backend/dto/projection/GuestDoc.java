@@ -0,0 +1,27 @@
+package com.myspot.backend.dto.projection;
+
+import com.myspot.backend.entities.Guest;
+
+/**
+ * Searchable guest fields, read without loading the full entity.
+ */
+public record GuestDoc(
+        Long guestId,
+        Long pgId,
+        String fullName,
+        String phoneNumber,
+        String emailAddress,
+        String roomNumber,
+        Guest.GuestStatus guestStatus) {
+    
+    public static GuestDoc of(Guest guest) {
+        return new GuestDoc(
+            guest.getGuestId(),
+            guest.getPgManagementOwner().getPgId(),
+            guest.getFullName(),
+            guest.getPhoneNumber(),
+            guest.getEmailAddress(),
+            guest.getRoomNumber(),
+            guest.getGuestStatus());
+    }
+}
@@ -0,0 +1,17 @@
+package com.myspot.backend.dto.projection;
+
+import java.time.YearMonth;
+
+/**
+ * Occupancy snapshots summed over one calendar month: recorded days, occupied bed-nights and bed-nights.
+ */
+public record OccupancyMonthRow(Integer year, Integer month, Long days, Long occupiedBedNights, Long bedNights) {
+    
+    public YearMonth yearMonth() {
+        return YearMonth.of(year, month);
+    }
+    
+    public double occupancyRate() {
+        return bedNights != null && bedNights > 0 ? occupiedBedNights * 100.0 / bedNights : 0.0;
+    }
+}
@@ -0,0 +1,7 @@
+package com.myspot.backend.dto.projection;
+
+/**
+ * A count for one PG from a grouped query.
+ */
+public record PgCount(Long pgId, Long count) {
+}
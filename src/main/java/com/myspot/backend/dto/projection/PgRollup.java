@@ -0,0 +1,21 @@
+package com.myspot.backend.dto.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * One PG's figures for the admin portfolio view: location, verification, beds, ratings and
+ * bookings made in the requested window.
+ */
+public record PgRollup(
+        long pgId,
+        String city,
+        String state,
+        String verificationStatus,
+        boolean active,
+        long totalCapacity,
+        long currentOccupancy,
+        long reviewCount,
+        BigDecimal ratingSum,
+        long bookings,
+        BigDecimal revenue) {
+}
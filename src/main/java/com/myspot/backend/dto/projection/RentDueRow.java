@@ -0,0 +1,9 @@
+package com.myspot.backend.dto.projection;
+
+import java.time.LocalDate;
+
+/**
+ * A guest's next rent due date, as loaded into the rent-due queue.
+ */
+public record RentDueRow(Long guestId, LocalDate nextPaymentDue) {
+}
@@ -0,0 +1,13 @@
+package com.myspot.backend.dto.projection;
+
+import java.time.YearMonth;
+
+/**
+ * Active reviews written in one calendar month with their average overall rating.
+ */
+public record ReviewMonthRow(Integer year, Integer month, Long reviews, Double averageRating) {
+    
+    public YearMonth yearMonth() {
+        return YearMonth.of(year, month);
+    }
+}
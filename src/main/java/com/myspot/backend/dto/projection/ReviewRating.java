@@ -0,0 +1,35 @@
+package com.myspot.backend.dto.projection;
+
+import com.myspot.backend.entities.Review;
+
+import java.math.BigDecimal;
+
+/**
+ * The parts of a review that feed a PG's rating aggregate, captured before and after a change.
+ */
+public record ReviewRating(
+        Long pgId,
+        boolean active,
+        boolean verified,
+        BigDecimal overallRating,
+        BigDecimal cleanlinessRating,
+        BigDecimal locationRating,
+        BigDecimal valueForMoneyRating,
+        BigDecimal staffBehaviorRating,
+        BigDecimal amenitiesRating,
+        BigDecimal foodQualityRating) {
+    
+    public static ReviewRating of(Review review) {
+        return new ReviewRating(
+            review.getPgManagementOwner().getPgId(),
+            Boolean.TRUE.equals(review.getIsActive()),
+            Boolean.TRUE.equals(review.getIsVerified()),
+            review.getOverallRating(),
+            review.getCleanlinessRating(),
+            review.getLocationRating(),
+            review.getValueForMoneyRating(),
+            review.getStaffBehaviorRating(),
+            review.getAmenitiesRating(),
+            review.getFoodQualityRating());
+    }
+}
@@ -0,0 +1,66 @@
+package com.myspot.backend.dto.projection;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Active-review aggregates for one PG: count, overall and per-category averages (over reviews
+ * that rated the category) and the overall rating rounded to 1-5 stars.
+ */
+public record ReviewStats(
+        long totalReviews,
+        BigDecimal averageRating,
+        BigDecimal cleanlinessRating,
+        BigDecimal locationRating,
+        BigDecimal valueForMoneyRating,
+        BigDecimal staffBehaviorRating,
+        BigDecimal amenitiesRating,
+        BigDecimal foodQualityRating,
+        long fiveStar,
+        long fourStar,
+        long threeStar,
+        long twoStar,
+        long oneStar) {
+    
+    /**
+     * Takes the raw JPQL aggregate types: AVG yields Double and SUM/COUNT Long, null over no rows.
+     */
+    public ReviewStats(Long totalReviews, Double averageRating, Double cleanlinessRating, Double locationRating,
+                       Double valueForMoneyRating, Double staffBehaviorRating, Double amenitiesRating,
+                       Double foodQualityRating, Long fiveStar, Long fourStar, Long threeStar, Long twoStar, Long oneStar) {
+        this(count(totalReviews), rating(averageRating), rating(cleanlinessRating), rating(locationRating),
+            rating(valueForMoneyRating), rating(staffBehaviorRating), rating(amenitiesRating), rating(foodQualityRating),
+            count(fiveStar), count(fourStar), count(threeStar), count(twoStar), count(oneStar));
+    }
+    
+    public Map<String, BigDecimal> categoryRatings() {
+        Map<String, BigDecimal> categoryRatings = new HashMap<>();
+        categoryRatings.put("cleanliness", cleanlinessRating);
+        categoryRatings.put("location", locationRating);
+        categoryRatings.put("valueForMoney", valueForMoneyRating);
+        categoryRatings.put("staffBehavior", staffBehaviorRating);
+        categoryRatings.put("amenities", amenitiesRating);
+        categoryRatings.put("foodQuality", foodQualityRating);
+        return categoryRatings;
+    }
+    
+    public Map<String, Long> ratingDistribution() {
+        Map<String, Long> ratingDistribution = new HashMap<>();
+        ratingDistribution.put("5star", fiveStar);
+        ratingDistribution.put("4star", fourStar);
+        ratingDistribution.put("3star", threeStar);
+        ratingDistribution.put("2star", twoStar);
+        ratingDistribution.put("1star", oneStar);
+        return ratingDistribution;
+    }
+    
+    private static long count(Long value) {
+        return value != null ? value : 0;
+    }
+    
+    private static BigDecimal rating(Double value) {
+        return value != null ? BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
+    }
+}
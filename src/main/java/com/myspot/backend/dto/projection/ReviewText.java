@@ -0,0 +1,11 @@
+package com.myspot.backend.dto.projection;
+
+/**
+ * The searchable text of a review, read without loading the full entity.
+ */
+public record ReviewText(Long reviewId, Long pgId, Boolean isActive, String comment, String response) {
+    
+    public boolean active() {
+        return Boolean.TRUE.equals(isActive);
+    }
+}
@@ -0,0 +1,24 @@
+package com.myspot.backend.dto.projection;
+
+import com.myspot.backend.entities.Booking;
+
+/**
+ * Room counts per sharing type for one PG, read from pg_details without loading the entity.
+ */
+public record RoomCapacity(
+        Long pgId,
+        Integer singleSharingRooms,
+        Integer doubleSharingRooms,
+        Integer tripleSharingRooms,
+        Integer quadSharingRooms) {
+    
+    public int totalBeds(Booking.RoomType roomType) {
+        Integer rooms = switch (roomType) {
+            case SINGLE_SHARING -> singleSharingRooms;
+            case DOUBLE_SHARING -> doubleSharingRooms;
+            case TRIPLE_SHARING -> tripleSharingRooms;
+            case QUAD_SHARING -> quadSharingRooms;
+        };
+        return (rooms != null ? rooms : 0) * roomType.getBedsPerRoom();
+    }
+}
@@ -0,0 +1,30 @@
+package com.myspot.backend.dto.request;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk Booking Status Request DTO
+ * Used for moving many bookings to the same status in one call
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkBookingStatusRequest {
+
+    @NotBlank(message = "Status is required")
+    private String status;
+
+    @NotEmpty(message = "At least one booking ID is required")
+    private List<@NotNull Long> bookingIds;
+
+    /**
+     * Optional booking ID to version map; bookings whose current version differs are reported as conflicts
+     */
+    private Map<Long, Long> expectedVersions;
+}
@@ -0,0 +1,54 @@
+package com.myspot.backend.dto.request;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Create Booking Request DTO
+ * Used for booking a guest into a room for a stay
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateBookingRequest {
+
+    @NotNull(message = "Guest ID is required")
+    private Long guestId;
+
+    @NotBlank(message = "Room number is required")
+    @Size(max = 10, message = "Room number must not exceed 10 characters")
+    private String roomNumber;
+
+    @NotBlank(message = "Room type is required")
+    private String roomType;
+
+    private Boolean isAcRoom = false;
+
+    @NotNull(message = "Check-in date is required")
+    private LocalDate checkInDate;
+
+    @NotNull(message = "Check-out date is required")
+    private LocalDate checkOutDate;
+
+    @NotNull(message = "Base amount is required")
+    @DecimalMin(value = "0.0", message = "Base amount must not be negative")
+    private BigDecimal baseAmount;
+
+    @DecimalMin(value = "0.0", message = "Extra charges must not be negative")
+    private BigDecimal extraCharges;
+
+    @DecimalMin(value = "0.0", message = "Discount amount must not be negative")
+    private BigDecimal discountAmount;
+
+    @DecimalMin(value = "0.0", message = "Advance paid must not be negative")
+    private BigDecimal advancePaid;
+
+    private String specialRequests;
+
+    private String notes;
+}
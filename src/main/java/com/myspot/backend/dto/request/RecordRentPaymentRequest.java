@@ -0,0 +1,27 @@
+package com.myspot.backend.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Record Rent Payment Request DTO
+ * Used for recording a guest's rent payment and moving the next due date
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordRentPaymentRequest {
+
+    /**
+     * Payment date; defaults to today
+     */
+    private LocalDate paidOn;
+
+    /**
+     * Next due date; defaults to one month after the current due date, or after paidOn when none is set
+     */
+    private LocalDate nextPaymentDue;
+}
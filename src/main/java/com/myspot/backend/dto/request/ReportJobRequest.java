@@ -0,0 +1,31 @@
+package com.myspot.backend.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Report Job Request DTO
+ * Used for queueing a report or export to be generated in the background
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobRequest {
+
+    @NotBlank(message = "Report type is required")
+    private String type;
+
+    /**
+     * Month as yyyy-MM, for monthly-report, revenue and monthly-stats; revenue also accepts "all"
+     */
+    private String month;
+
+    /**
+     * Month range as yyyy-MM, for monthly-report-range
+     */
+    private String from;
+
+    private String to;
+}
@@ -8,15 +8,21 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Entity
 @Table(name = "bookings", indexes = {
     @Index(name = "idx_booking_owner_id", columnList = "pg_owner_id"),
     @Index(name = "idx_booking_guest_id", columnList = "guest_id"),
     @Index(name = "idx_booking_status", columnList = "status"),
+    @Index(name = "idx_booking_status_check_in", columnList = "status, check_in_date"),
+    @Index(name = "idx_booking_status_check_out", columnList = "status, check_out_date"),
     @Index(name = "idx_booking_check_in", columnList = "check_in_date"),
     @Index(name = "idx_booking_check_out", columnList = "check_out_date"),
-    @Index(name = "idx_booking_date", columnList = "booking_date")
+    @Index(name = "idx_booking_owner_room_check_in", columnList = "pg_owner_id, room_number, check_in_date"),
+    @Index(name = "idx_booking_date", columnList = "booking_date"),
+    @Index(name = "idx_booking_owner_booking_date", columnList = "pg_owner_id, booking_date")
 })
 @Data
 @NoArgsConstructor
@@ -136,20 +142,26 @@ public class Booking {
     private Long version;
     
     public enum RoomType {
-        SINGLE_SHARING("Single Sharing"),
-        DOUBLE_SHARING("Double Sharing"),
-        TRIPLE_SHARING("Triple Sharing"),
-        QUAD_SHARING("Quad Sharing");
+        SINGLE_SHARING("Single Sharing", 1),
+        DOUBLE_SHARING("Double Sharing", 2),
+        TRIPLE_SHARING("Triple Sharing", 3),
+        QUAD_SHARING("Quad Sharing", 4);
         
         private final String displayName;
+        private final int bedsPerRoom;
         
-        RoomType(String displayName) {
+        RoomType(String displayName, int bedsPerRoom) {
             this.displayName = displayName;
+            this.bedsPerRoom = bedsPerRoom;
         }
         
         public String getDisplayName() {
             return displayName;
         }
+        
+        public int getBedsPerRoom() {
+            return bedsPerRoom;
+        }
     }
     
     public enum BookingStatus {
@@ -169,6 +181,30 @@ public class Booking {
         public String getDisplayName() {
             return displayName;
         }
+        
+        /**
+         * Payment status implied by moving a booking into this status, or null to keep the current one.
+         */
+        public PaymentStatus impliedPaymentStatus() {
+            return switch (this) {
+                case CONFIRMED -> PaymentStatus.ADVANCE_PAID;
+                case COMPLETED -> PaymentStatus.PAID;
+                default -> null;
+            };
+        }
+        
+        public boolean holdsRoom() {
+            return this != CANCELLED && this != NO_SHOW;
+        }
+        
+        // Matches the status filter of BookingRepository.sumRevenueByDateRange
+        public boolean countsAsRevenue() {
+            return this == CONFIRMED || this == ACTIVE || this == COMPLETED;
+        }
+        
+        public static Set<BookingStatus> nonHoldingStatuses() {
+            return EnumSet.of(CANCELLED, NO_SHOW);
+        }
     }
     
     public enum PaymentStatus {
@@ -0,0 +1,81 @@
+package com.myspot.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of a booking state change. The event id doubles as the stream offset
+ * that projections checkpoint against, so rows are never updated or deleted.
+ */
+@Entity
+@Table(name = "booking_events", indexes = {
+    @Index(name = "idx_booking_event_booking_id", columnList = "booking_id"),
+    @Index(name = "idx_booking_event_owner_occurred", columnList = "pg_owner_id, occurred_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = {"eventId"})
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "event_id")
+    private Long eventId;
+    
+    @Column(name = "booking_id", nullable = false, updatable = false)
+    private Long bookingId;
+    
+    @Column(name = "pg_owner_id", nullable = false, updatable = false)
+    private Long pgId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, updatable = false, length = 32)
+    private EventType eventType;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status", updatable = false)
+    private Booking.BookingStatus fromStatus;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false, updatable = false)
+    private Booking.BookingStatus toStatus;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_payment_status", updatable = false)
+    private Booking.PaymentStatus fromPaymentStatus;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_payment_status", updatable = false)
+    private Booking.PaymentStatus toPaymentStatus;
+    
+    @Column(name = "check_in_date", updatable = false)
+    private LocalDate checkInDate;
+    
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+    
+    public enum EventType {
+        CREATED,
+        REOPENED,
+        CONFIRMED,
+        ACTIVATED,
+        COMPLETED,
+        CANCELLED,
+        NO_SHOW,
+        PAYMENT_CHANGED;
+        
+        public static EventType forStatus(Booking.BookingStatus status) {
+            return switch (status) {
+                case PENDING -> REOPENED;
+                case CONFIRMED -> CONFIRMED;
+                case ACTIVE -> ACTIVATED;
+                case COMPLETED -> COMPLETED;
+                case CANCELLED -> CANCELLED;
+                case NO_SHOW -> NO_SHOW;
+            };
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.myspot.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One row per (PG, room) that booking writers lock with SELECT ... FOR UPDATE NOWAIT,
+ * so room assignment is serialised across nodes without table locks.
+ */
+@Entity
+@Table(name = "booking_room_locks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingRoomLock {
+    @EmbeddedId
+    private Key id;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "pg_owner_id", nullable = false)
+        private Long pgId;
+        
+        @Column(name = "room_number", nullable = false, length = 10)
+        private String roomNumber;
+    }
+}
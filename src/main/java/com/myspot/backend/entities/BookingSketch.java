@@ -0,0 +1,53 @@
+package com.myspot.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Serialized QuantileSketch of one booking measure for one PG and booking month, over bookings
+ * that still hold their room. Maintained by BookingSketchProjection from booking_events.
+ */
+@Entity
+@Table(name = "booking_sketches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = {"sketch"})
+public class BookingSketch {
+    @EmbeddedId
+    private Key id;
+    
+    @Lob
+    @Column(name = "sketch", nullable = false, columnDefinition = "BLOB")
+    private byte[] sketch;
+    
+    @Column(name = "value_count", nullable = false)
+    private long valueCount;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public enum Metric {
+        STAY_DAYS,
+        BOOKING_AMOUNT
+    }
+    
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "pg_owner_id", nullable = false)
+        private Long pgId;
+        
+        @Column(name = "sketch_month", nullable = false, length = 7)
+        private String month;
+        
+        @Enumerated(EnumType.STRING)
+        @Column(name = "metric", nullable = false, length = 20)
+        private Metric metric;
+    }
+}
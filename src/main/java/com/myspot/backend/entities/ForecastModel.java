@@ -0,0 +1,58 @@
+package com.myspot.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Stored state of one PG's HoltWintersModel for one daily series, advanced nightly by
+ * ForecastRefreshScheduler with the days observed since last_date.
+ */
+@Entity
+@Table(name = "forecast_models")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ForecastModel {
+    @EmbeddedId
+    private Key id;
+    
+    @Column(name = "level_value", nullable = false)
+    private double level;
+    
+    @Column(name = "trend_value", nullable = false)
+    private double trend;
+    
+    @Column(name = "seasonal", nullable = false, length = 200)
+    private String seasonal;
+    
+    @Column(name = "observations", nullable = false)
+    private long observations;
+    
+    @Column(name = "last_date")
+    private LocalDate lastDate;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public enum Series {
+        OCCUPANCY_RATE,
+        DAILY_REVENUE
+    }
+    
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "pg_owner_id", nullable = false)
+        private Long pgId;
+        
+        @Enumerated(EnumType.STRING)
+        @Column(name = "series", nullable = false, length = 20)
+        private Series series;
+    }
+}
@@ -16,6 +16,9 @@ import java.util.List;
     @Index(name = "idx_guest_email", columnList = "email_address"),
     @Index(name = "idx_guest_phone", columnList = "phone_number"),
     @Index(name = "idx_guest_status", columnList = "guest_status"),
+    @Index(name = "idx_guest_owner_status", columnList = "pg_owner_id, guest_status"),
+    @Index(name = "idx_guest_status_check_out", columnList = "guest_status, check_out_date"),
+    @Index(name = "idx_guest_status_payment_due", columnList = "guest_status, next_payment_due"),
     @Index(name = "idx_guest_active", columnList = "is_active")
 })
 @Data
@@ -185,6 +188,10 @@ public class Guest {
     @Column(name = "next_payment_due")
     private LocalDate nextPaymentDue;
     
+    // Due date the last rent reminder was sent for, claimed atomically so each due date is reminded once
+    @Column(name = "rent_reminder_sent_for")
+    private LocalDate rentReminderSentFor;
+    
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
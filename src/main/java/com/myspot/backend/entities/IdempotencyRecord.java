@@ -0,0 +1,43 @@
+package com.myspot.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Completed response for an Idempotency-Key, kept so a retry reaching another node
+ * or arriving after a restart is replayed instead of re-executed.
+ */
+@Entity
+@Table(name = "idempotency_records", indexes = {
+    @Index(name = "idx_idempotency_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = {"responseBody"})
+public class IdempotencyRecord {
+    @Id
+    @Column(name = "key_hash", length = 64)
+    private String keyHash;
+    
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+    
+    @Column(name = "status_code", nullable = false)
+    private Integer statusCode;
+    
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+    
+    @Lob
+    @Column(name = "response_body", columnDefinition = "MEDIUMBLOB")
+    private byte[] responseBody;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
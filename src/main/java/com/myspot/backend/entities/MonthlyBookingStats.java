@@ -0,0 +1,61 @@
+package com.myspot.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Read model of booking transitions per PG and calendar month, maintained from booking_events.
+ */
+@Entity
+@Table(name = "monthly_booking_stats", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_monthly_booking_stats_owner_month", columnNames = {"pg_owner_id", "stats_month"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = {"statsId"})
+public class MonthlyBookingStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "stats_id")
+    private Long statsId;
+    
+    @Column(name = "pg_owner_id", nullable = false)
+    private Long pgId;
+    
+    @Column(name = "stats_month", nullable = false, length = 7)
+    private String month;
+    
+    @Builder.Default
+    @Column(name = "created_count", nullable = false)
+    private Long createdCount = 0L;
+    
+    @Builder.Default
+    @Column(name = "confirmed_count", nullable = false)
+    private Long confirmedCount = 0L;
+    
+    @Builder.Default
+    @Column(name = "activated_count", nullable = false)
+    private Long activatedCount = 0L;
+    
+    @Builder.Default
+    @Column(name = "completed_count", nullable = false)
+    private Long completedCount = 0L;
+    
+    @Builder.Default
+    @Column(name = "cancelled_count", nullable = false)
+    private Long cancelledCount = 0L;
+    
+    @Builder.Default
+    @Column(name = "no_show_count", nullable = false)
+    private Long noShowCount = 0L;
+    
+    @Builder.Default
+    @Column(name = "payment_changed_count", nullable = false)
+    private Long paymentChangedCount = 0L;
+    
+    public double getCancellationRate() {
+        return createdCount != null && createdCount > 0 ? (double) cancelledCount / createdCount : 0.0;
+    }
+}
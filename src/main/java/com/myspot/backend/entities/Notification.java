@@ -66,6 +66,7 @@ public class Notification {
         BOOKING_CONFIRMED("Booking Confirmed"),
         BOOKING_CANCELLED("Booking Cancelled"),
         PAYMENT_RECEIVED("Payment Received"),
+        PAYMENT_DUE("Payment Due"),
         PAYMENT_OVERDUE("Payment Overdue"),
         NEW_REVIEW("New Review"),
         GUEST_CHECK_IN("Guest Check-in"),
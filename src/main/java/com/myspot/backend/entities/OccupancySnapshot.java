@@ -0,0 +1,85 @@
+package com.myspot.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Occupied and total beds of one PG at the end of one day, overall and per room type.
+ * The primary key (pg_owner_id, snapshot_date) clusters each PG's history in date order,
+ * so any window is one range scan of the primary key.
+ */
+@Entity
+@Table(name = "occupancy_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OccupancySnapshot {
+    @EmbeddedId
+    private Key id;
+    
+    @Column(name = "total_beds", nullable = false)
+    private int totalBeds;
+    
+    @Column(name = "occupied_beds", nullable = false)
+    private int occupiedBeds;
+    
+    @Column(name = "single_total", nullable = false)
+    private int singleTotal;
+    
+    @Column(name = "single_occupied", nullable = false)
+    private int singleOccupied;
+    
+    @Column(name = "double_total", nullable = false)
+    private int doubleTotal;
+    
+    @Column(name = "double_occupied", nullable = false)
+    private int doubleOccupied;
+    
+    @Column(name = "triple_total", nullable = false)
+    private int tripleTotal;
+    
+    @Column(name = "triple_occupied", nullable = false)
+    private int tripleOccupied;
+    
+    @Column(name = "quad_total", nullable = false)
+    private int quadTotal;
+    
+    @Column(name = "quad_occupied", nullable = false)
+    private int quadOccupied;
+    
+    @Column(name = "active_guests", nullable = false)
+    private int activeGuests;
+    
+    public int totalBeds(Booking.RoomType roomType) {
+        return switch (roomType) {
+            case SINGLE_SHARING -> singleTotal;
+            case DOUBLE_SHARING -> doubleTotal;
+            case TRIPLE_SHARING -> tripleTotal;
+            case QUAD_SHARING -> quadTotal;
+        };
+    }
+    
+    public int occupiedBeds(Booking.RoomType roomType) {
+        return switch (roomType) {
+            case SINGLE_SHARING -> singleOccupied;
+            case DOUBLE_SHARING -> doubleOccupied;
+            case TRIPLE_SHARING -> tripleOccupied;
+            case QUAD_SHARING -> quadOccupied;
+        };
+    }
+    
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "pg_owner_id", nullable = false)
+        private Long pgId;
+        
+        @Column(name = "snapshot_date", nullable = false)
+        private LocalDate snapshotDate;
+    }
+}
@@ -161,29 +161,30 @@ public class PGDetails {
     @Column(name = "waiting_list_count", nullable = false)
     private Integer waitingListCount = 0;
     
-    @Column(name = "overall_rating", precision = 3, scale = 2)
+    // Rating columns are copied from pg_rating_aggregates by PGRatingAggregator, never written through JPA
+    @Column(name = "overall_rating", precision = 3, scale = 2, updatable = false)
     private BigDecimal overallRating;
     
     @Builder.Default
-    @Column(name = "total_reviews", nullable = false)
+    @Column(name = "total_reviews", nullable = false, updatable = false)
     private Integer totalReviews = 0;
     
-    @Column(name = "cleanliness_rating", precision = 3, scale = 2)
+    @Column(name = "cleanliness_rating", precision = 3, scale = 2, updatable = false)
     private BigDecimal cleanlinessRating;
     
-    @Column(name = "location_rating", precision = 3, scale = 2)
+    @Column(name = "location_rating", precision = 3, scale = 2, updatable = false)
     private BigDecimal locationRating;
     
-    @Column(name = "value_for_money_rating", precision = 3, scale = 2)
+    @Column(name = "value_for_money_rating", precision = 3, scale = 2, updatable = false)
     private BigDecimal valueForMoneyRating;
     
-    @Column(name = "staff_behavior_rating", precision = 3, scale = 2)
+    @Column(name = "staff_behavior_rating", precision = 3, scale = 2, updatable = false)
     private BigDecimal staffBehaviorRating;
     
-    @Column(name = "amenities_rating", precision = 3, scale = 2)
+    @Column(name = "amenities_rating", precision = 3, scale = 2, updatable = false)
     private BigDecimal amenitiesRating;
     
-    @Column(name = "food_quality_rating", precision = 3, scale = 2)
+    @Column(name = "food_quality_rating", precision = 3, scale = 2, updatable = false)
     private BigDecimal foodQualityRating;
     
     @Column(name = "virtual_tour_url", length = 500)
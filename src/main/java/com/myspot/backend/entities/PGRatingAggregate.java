@@ -0,0 +1,121 @@
+package com.myspot.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * Running rating sums and counts per PG over its active reviews, one row per PG.
+ * Category ratings are optional, so each category keeps its own count.
+ * Written only with additive SQL by PGRatingAggregator and rebuilt by the reconciler.
+ */
+@Entity
+@Table(name = "pg_rating_aggregates")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = {"pgId"})
+public class PGRatingAggregate {
+    @Id
+    @Column(name = "pg_owner_id")
+    private Long pgId;
+    
+    @Builder.Default
+    @Column(name = "review_count", nullable = false)
+    private Long reviewCount = 0L;
+    
+    @Builder.Default
+    @Column(name = "verified_count", nullable = false)
+    private Long verifiedCount = 0L;
+    
+    @Builder.Default
+    @Column(name = "overall_sum", precision = 12, scale = 2, nullable = false)
+    private BigDecimal overallSum = BigDecimal.ZERO;
+    
+    @Builder.Default
+    @Column(name = "cleanliness_sum", precision = 12, scale = 2, nullable = false)
+    private BigDecimal cleanlinessSum = BigDecimal.ZERO;
+    
+    @Builder.Default
+    @Column(name = "cleanliness_count", nullable = false)
+    private Long cleanlinessCount = 0L;
+    
+    @Builder.Default
+    @Column(name = "location_sum", precision = 12, scale = 2, nullable = false)
+    private BigDecimal locationSum = BigDecimal.ZERO;
+    
+    @Builder.Default
+    @Column(name = "location_count", nullable = false)
+    private Long locationCount = 0L;
+    
+    @Builder.Default
+    @Column(name = "value_for_money_sum", precision = 12, scale = 2, nullable = false)
+    private BigDecimal valueForMoneySum = BigDecimal.ZERO;
+    
+    @Builder.Default
+    @Column(name = "value_for_money_count", nullable = false)
+    private Long valueForMoneyCount = 0L;
+    
+    @Builder.Default
+    @Column(name = "staff_behavior_sum", precision = 12, scale = 2, nullable = false)
+    private BigDecimal staffBehaviorSum = BigDecimal.ZERO;
+    
+    @Builder.Default
+    @Column(name = "staff_behavior_count", nullable = false)
+    private Long staffBehaviorCount = 0L;
+    
+    @Builder.Default
+    @Column(name = "amenities_sum", precision = 12, scale = 2, nullable = false)
+    private BigDecimal amenitiesSum = BigDecimal.ZERO;
+    
+    @Builder.Default
+    @Column(name = "amenities_count", nullable = false)
+    private Long amenitiesCount = 0L;
+    
+    @Builder.Default
+    @Column(name = "food_quality_sum", precision = 12, scale = 2, nullable = false)
+    private BigDecimal foodQualitySum = BigDecimal.ZERO;
+    
+    @Builder.Default
+    @Column(name = "food_quality_count", nullable = false)
+    private Long foodQualityCount = 0L;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    public BigDecimal getOverallRating() {
+        return average(overallSum, reviewCount);
+    }
+    
+    public BigDecimal getCleanlinessRating() {
+        return average(cleanlinessSum, cleanlinessCount);
+    }
+    
+    public BigDecimal getLocationRating() {
+        return average(locationSum, locationCount);
+    }
+    
+    public BigDecimal getValueForMoneyRating() {
+        return average(valueForMoneySum, valueForMoneyCount);
+    }
+    
+    public BigDecimal getStaffBehaviorRating() {
+        return average(staffBehaviorSum, staffBehaviorCount);
+    }
+    
+    public BigDecimal getAmenitiesRating() {
+        return average(amenitiesSum, amenitiesCount);
+    }
+    
+    public BigDecimal getFoodQualityRating() {
+        return average(foodQualitySum, foodQualityCount);
+    }
+    
+    private static BigDecimal average(BigDecimal sum, Long count) {
+        return count != null && count > 0 ? sum.divide(BigDecimal.valueOf(count), 2, RoundingMode.HALF_UP) : null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.myspot.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Last booking event id a projection has applied, and the lower ids it stepped over that
+ * may still commit (see EventGaps).
+ */
+@Entity
+@Table(name = "projection_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectionCheckpoint {
+    @Id
+    @Column(name = "projection_name", length = 64)
+    private String projectionName;
+    
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId;
+    
+    @Column(name = "pending_gaps", columnDefinition = "TEXT")
+    private String pendingGaps;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -12,7 +12,11 @@ import java.time.LocalDateTime;
 @Table(name = "reviews", indexes = {
     @Index(name = "idx_review_owner_id", columnList = "pg_owner_id"),
     @Index(name = "idx_review_guest_id", columnList = "guest_id"),
-    @Index(name = "idx_review_rating", columnList = "overall_rating")
+    @Index(name = "idx_review_rating", columnList = "overall_rating"),
+    @Index(name = "idx_review_owner_active_created", columnList = "pg_owner_id, is_active, created_at"),
+    @Index(name = "idx_review_owner_active_rating", columnList = "pg_owner_id, is_active, overall_rating"),
+    @Index(name = "idx_review_owner_active_responded", columnList = "pg_owner_id, is_active, responded_at, created_at"),
+    @Index(name = "idx_review_updated_at", columnList = "updated_at")
 })
 @Data
 @NoArgsConstructor
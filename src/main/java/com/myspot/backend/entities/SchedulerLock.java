@@ -0,0 +1,29 @@
+package com.myspot.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Lease row shared by all nodes; a scheduled job runs only on the node holding its lease.
+ */
+@Entity
+@Table(name = "scheduler_locks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchedulerLock {
+    @Id
+    @Column(name = "lock_name", length = 64)
+    private String lockName;
+    
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+    
+    @Column(name = "locked_by", nullable = false, length = 128)
+    private String lockedBy;
+    
+    @Column(name = "locked_at")
+    private LocalDateTime lockedAt;
+}
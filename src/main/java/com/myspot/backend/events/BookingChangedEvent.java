@@ -0,0 +1,43 @@
+package com.myspot.backend.events;
+
+import com.myspot.backend.dto.projection.BookingSpan;
+import com.myspot.backend.entities.Booking;
+
+/**
+ * Published whenever a booking is created or its status changes.
+ * previousStatus and previousPaymentStatus are null for newly created bookings.
+ */
+public record BookingChangedEvent(BookingSpan booking,
+                                  Booking.BookingStatus previousStatus,
+                                  Booking.PaymentStatus paymentStatus,
+                                  Booking.PaymentStatus previousPaymentStatus) {
+    
+    public static BookingChangedEvent of(Booking booking, Booking.BookingStatus previousStatus,
+                                         Booking.PaymentStatus previousPaymentStatus) {
+        BookingSpan span = new BookingSpan(
+            booking.getBookingId(),
+            booking.getPgManagementOwner().getPgId(),
+            booking.getRoomNumber(),
+            booking.getRoomType(),
+            booking.getCheckInDate(),
+            booking.getCheckOutDate(),
+            booking.getStatus());
+        return new BookingChangedEvent(span, previousStatus, booking.getPaymentStatus(), previousPaymentStatus);
+    }
+    
+    public Long pgId() {
+        return booking.pgId();
+    }
+    
+    public boolean isCreated() {
+        return previousStatus == null;
+    }
+    
+    public boolean isStatusChanged() {
+        return previousStatus != booking.status();
+    }
+    
+    public boolean isPaymentChanged() {
+        return previousPaymentStatus != null && previousPaymentStatus != paymentStatus;
+    }
+}
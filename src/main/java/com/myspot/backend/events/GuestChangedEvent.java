@@ -0,0 +1,13 @@
+package com.myspot.backend.events;
+
+import com.myspot.backend.dto.projection.GuestDoc;
+
+/**
+ * Published whenever a guest is created or updated.
+ */
+public record GuestChangedEvent(GuestDoc guest) {
+    
+    public Long pgId() {
+        return guest.pgId();
+    }
+}
@@ -0,0 +1,7 @@
+package com.myspot.backend.events;
+
+/**
+ * Published after a bulk import added guests to a PG without going through the entity layer.
+ */
+public record GuestsImportedEvent(Long pgId, int imported) {
+}
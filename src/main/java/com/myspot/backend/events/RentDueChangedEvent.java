@@ -0,0 +1,10 @@
+package com.myspot.backend.events;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a guest's next rent due date changes or the guest stops owing rent.
+ * nextPaymentDue is null when no further reminder should be sent.
+ */
+public record RentDueChangedEvent(Long guestId, Long pgId, LocalDate nextPaymentDue) {
+}
@@ -0,0 +1,14 @@
+package com.myspot.backend.events;
+
+import com.myspot.backend.dto.projection.ReviewRating;
+
+/**
+ * Published whenever a review is created, edited, deactivated or verified.
+ * before is null for a new review.
+ */
+public record ReviewChangedEvent(Long reviewId, ReviewRating before, ReviewRating after) {
+    
+    public Long pgId() {
+        return after.pgId();
+    }
+}
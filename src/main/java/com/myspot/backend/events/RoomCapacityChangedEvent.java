@@ -0,0 +1,7 @@
+package com.myspot.backend.events;
+
+/**
+ * Published when a PG's room counts may have changed, so caches built from them are rebuilt after commit.
+ */
+public record RoomCapacityChangedEvent(Long pgId) {
+}
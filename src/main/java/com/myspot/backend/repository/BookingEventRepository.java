@@ -0,0 +1,36 @@
+package com.myspot.backend.repository;
+
+import com.myspot.backend.entities.BookingEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+    
+    List<BookingEvent> findByEventIdGreaterThanOrderByEventId(Long afterId, Pageable pageable);
+    
+    List<BookingEvent> findByEventIdBetweenOrderByEventId(Long fromId, Long toId);
+    
+    List<BookingEvent> findByBookingIdOrderByEventId(Long bookingId);
+    
+    // Seeds the stream from current rows: one CREATED event per booking plus its current status
+    @Modifying
+    @Query(value = "INSERT INTO booking_events (booking_id, pg_owner_id, event_type, from_status, to_status, " +
+                   "from_payment_status, to_payment_status, check_in_date, occurred_at) " +
+                   "SELECT booking_id, pg_owner_id, 'CREATED', NULL, 'PENDING', NULL, payment_status, check_in_date, created_at " +
+                   "FROM bookings ORDER BY booking_id", nativeQuery = true)
+    int backfillCreatedEvents();
+    
+    @Modifying
+    @Query(value = "INSERT INTO booking_events (booking_id, pg_owner_id, event_type, from_status, to_status, " +
+                   "from_payment_status, to_payment_status, check_in_date, occurred_at) " +
+                   "SELECT booking_id, pg_owner_id, CASE status WHEN 'CONFIRMED' THEN 'CONFIRMED' WHEN 'ACTIVE' THEN 'ACTIVATED' " +
+                   "WHEN 'COMPLETED' THEN 'COMPLETED' WHEN 'CANCELLED' THEN 'CANCELLED' ELSE 'NO_SHOW' END, " +
+                   "'PENDING', status, payment_status, payment_status, check_in_date, COALESCE(updated_at, created_at) " +
+                   "FROM bookings WHERE status <> 'PENDING' ORDER BY booking_id", nativeQuery = true)
+    int backfillStatusEvents();
+}
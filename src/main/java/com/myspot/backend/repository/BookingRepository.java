@@ -1,15 +1,26 @@
 
 package com.myspot.backend.repository;
 
+import com.myspot.backend.dto.projection.BookingMeasure;
+import com.myspot.backend.dto.projection.BookingMonthRow;
+import com.myspot.backend.dto.projection.BookingRef;
+import com.myspot.backend.dto.projection.BookingSpan;
+import com.myspot.backend.dto.projection.BookingStatusRow;
 import com.myspot.backend.entities.Booking;
 import com.myspot.backend.entities.PGManagementOwner;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -19,6 +30,13 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     
     Optional<Booking> findByBookingReference(String bookingReference);
     
+    @Query("SELECT new com.myspot.backend.dto.projection.BookingRef(b.bookingId, b.pgManagementOwner.pgId) " +
+           "FROM Booking b WHERE b.bookingReference = :bookingReference")
+    Optional<BookingRef> findRefByBookingReference(@Param("bookingReference") String bookingReference);
+    
+    @Query("SELECT b FROM Booking b LEFT JOIN FETCH b.guest WHERE b.bookingId = :bookingId")
+    Optional<Booking> findWithGuestById(@Param("bookingId") Long bookingId);
+    
     List<Booking> findByPgManagementOwnerAndStatus(PGManagementOwner pgManagementOwner, Booking.BookingStatus status);
     
     @Query("SELECT b FROM Booking b WHERE b.pgManagementOwner.pgId = :pgId AND b.status = :status ORDER BY b.createdAt DESC")
@@ -44,6 +62,64 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "AND (b.checkOutDate IS NULL OR b.checkOutDate >= CURRENT_DATE)")
     List<Booking> findCurrentActiveBookings(@Param("pgId") Long pgId);
     
+    @Query("SELECT new com.myspot.backend.dto.projection.BookingSpan(b.bookingId, b.pgManagementOwner.pgId, " +
+           "b.roomNumber, b.roomType, b.checkInDate, b.checkOutDate, b.status) " +
+           "FROM Booking b WHERE b.pgManagementOwner.pgId = :pgId " +
+           "AND b.roomNumber IS NOT NULL AND b.status NOT IN :excludedStatuses")
+    List<BookingSpan> findRoomSpansByPgId(@Param("pgId") Long pgId,
+                                          @Param("excludedStatuses") Collection<Booking.BookingStatus> excludedStatuses);
+    
+    @Query("SELECT new com.myspot.backend.dto.projection.BookingSpan(b.bookingId, b.pgManagementOwner.pgId, " +
+           "b.roomNumber, b.roomType, b.checkInDate, b.checkOutDate, b.status) " +
+           "FROM Booking b WHERE b.pgManagementOwner.pgId = :pgId AND b.status NOT IN :excludedStatuses " +
+           "AND b.checkOutDate > :windowStart AND b.checkInDate < :windowEnd")
+    List<BookingSpan> findHoldingSpansInWindow(@Param("pgId") Long pgId,
+                                               @Param("excludedStatuses") Collection<Booking.BookingStatus> excludedStatuses,
+                                               @Param("windowStart") LocalDate windowStart,
+                                               @Param("windowEnd") LocalDate windowEnd);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingFetch.HINT))
+    @Query("SELECT new com.myspot.backend.dto.projection.BookingSpan(b.bookingId, b.pgManagementOwner.pgId, " +
+           "b.roomNumber, b.roomType, b.checkInDate, b.checkOutDate, b.status) " +
+           "FROM Booking b WHERE b.status NOT IN :excludedStatuses " +
+           "AND b.checkOutDate > :windowStart AND b.checkInDate < :windowEnd")
+    Stream<BookingSpan> streamHoldingSpansInWindow(@Param("excludedStatuses") Collection<Booking.BookingStatus> excludedStatuses,
+                                                   @Param("windowStart") LocalDate windowStart,
+                                                   @Param("windowEnd") LocalDate windowEnd);
+    
+    @Query("SELECT new com.myspot.backend.dto.projection.BookingStatusRow(b.bookingId, b.pgManagementOwner.pgId, " +
+           "b.roomNumber, b.roomType, b.checkInDate, b.checkOutDate, b.status, b.paymentStatus, b.version) " +
+           "FROM Booking b WHERE b.pgManagementOwner.pgId = :pgId AND b.bookingId IN :bookingIds")
+    List<BookingStatusRow> findStatusRowsByPgIdAndIds(@Param("pgId") Long pgId, @Param("bookingIds") Collection<Long> bookingIds);
+    
+    @Query("SELECT new com.myspot.backend.dto.projection.BookingStatusRow(b.bookingId, b.pgManagementOwner.pgId, " +
+           "b.roomNumber, b.roomType, b.checkInDate, b.checkOutDate, b.status, b.paymentStatus, b.version) " +
+           "FROM Booking b WHERE b.status = :status AND b.checkInDate <= :date AND b.bookingId > :afterId " +
+           "ORDER BY b.bookingId")
+    List<BookingStatusRow> findCheckInDue(@Param("status") Booking.BookingStatus status,
+                                          @Param("date") LocalDate date,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+    
+    @Query("SELECT new com.myspot.backend.dto.projection.BookingStatusRow(b.bookingId, b.pgManagementOwner.pgId, " +
+           "b.roomNumber, b.roomType, b.checkInDate, b.checkOutDate, b.status, b.paymentStatus, b.version) " +
+           "FROM Booking b WHERE b.status = :status AND b.checkOutDate < :date AND b.bookingId > :afterId " +
+           "ORDER BY b.bookingId")
+    List<BookingStatusRow> findCheckOutDue(@Param("status") Booking.BookingStatus status,
+                                           @Param("date") LocalDate date,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+    
+    @Query("SELECT new com.myspot.backend.dto.projection.BookingSpan(b.bookingId, b.pgManagementOwner.pgId, " +
+           "b.roomNumber, b.roomType, b.checkInDate, b.checkOutDate, b.status) " +
+           "FROM Booking b WHERE b.pgManagementOwner.pgId = :pgId AND b.roomNumber = :roomNumber " +
+           "AND b.status NOT IN :excludedStatuses AND b.checkInDate < :checkOutDate AND b.checkOutDate > :checkInDate")
+    List<BookingSpan> findOverlappingInRoom(@Param("pgId") Long pgId,
+                                            @Param("roomNumber") String roomNumber,
+                                            @Param("excludedStatuses") Collection<Booking.BookingStatus> excludedStatuses,
+                                            @Param("checkInDate") LocalDate checkInDate,
+                                            @Param("checkOutDate") LocalDate checkOutDate);
+    
     @Query("SELECT COUNT(b) FROM Booking b WHERE b.pgManagementOwner.pgId = :pgId")
     Long countByPgId(@Param("pgId") Long pgId);
     
@@ -62,4 +138,17 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     java.math.BigDecimal sumRevenueByDateRange(@Param("pgId") Long pgId, 
                                               @Param("startDate") LocalDate startDate, 
                                               @Param("endDate") LocalDate endDate);
+    
+    // One pass for every month of a range report, split by status so callers derive revenue and breakdowns
+    @Query("SELECT new com.myspot.backend.dto.projection.BookingMonthRow(YEAR(b.bookingDate), MONTH(b.bookingDate), " +
+           "b.status, COUNT(b), SUM(b.totalAmount)) FROM Booking b WHERE b.pgManagementOwner.pgId = :pgId " +
+           "AND b.bookingDate >= :startDate AND b.bookingDate <= :endDate " +
+           "GROUP BY YEAR(b.bookingDate), MONTH(b.bookingDate), b.status")
+    List<BookingMonthRow> sumByMonthAndStatus(@Param("pgId") Long pgId,
+                                              @Param("startDate") LocalDate startDate,
+                                              @Param("endDate") LocalDate endDate);
+    
+    @Query("SELECT new com.myspot.backend.dto.projection.BookingMeasure(b.bookingId, b.pgManagementOwner.pgId, " +
+           "b.bookingDate, b.durationDays, b.totalAmount) FROM Booking b WHERE b.bookingId IN :bookingIds")
+    List<BookingMeasure> findMeasuresByIds(@Param("bookingIds") Collection<Long> bookingIds);
 }
@@ -0,0 +1,27 @@
+package com.myspot.backend.repository;
+
+import com.myspot.backend.entities.BookingRoomLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+
+@Repository
+public interface BookingRoomLockRepository extends JpaRepository<BookingRoomLock, BookingRoomLock.Key> {
+    
+    // Committed on its own, before any locking read on the key, so the new row never sits behind
+    // another writer's uncommitted insert or gap lock
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT IGNORE INTO booking_room_locks (pg_owner_id, room_number, created_at) " +
+                   "VALUES (:pgId, :roomNumber, NOW())", nativeQuery = true)
+    int insertIfMissing(@Param("pgId") Long pgId, @Param("roomNumber") String roomNumber);
+    
+    @Query(value = "SELECT room_number FROM booking_room_locks WHERE pg_owner_id = :pgId AND room_number = :roomNumber " +
+                   "FOR UPDATE NOWAIT", nativeQuery = true)
+    List<String> lockNoWait(@Param("pgId") Long pgId, @Param("roomNumber") String roomNumber);
+}
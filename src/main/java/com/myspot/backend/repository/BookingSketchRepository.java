@@ -0,0 +1,23 @@
+package com.myspot.backend.repository;
+
+import com.myspot.backend.entities.BookingSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingSketchRepository extends JpaRepository<BookingSketch, BookingSketch.Key> {
+    
+    @Query("SELECT s FROM BookingSketch s WHERE s.id.pgId = :pgId AND s.id.month BETWEEN :fromMonth AND :toMonth")
+    List<BookingSketch> findRange(@Param("pgId") Long pgId,
+                                  @Param("fromMonth") String fromMonth,
+                                  @Param("toMonth") String toMonth);
+    
+    @Query("SELECT s FROM BookingSketch s WHERE s.id.pgId IN :pgIds AND s.id.month BETWEEN :fromMonth AND :toMonth")
+    List<BookingSketch> findRangeForPgs(@Param("pgIds") Collection<Long> pgIds,
+                                        @Param("fromMonth") String fromMonth,
+                                        @Param("toMonth") String toMonth);
+}
@@ -0,0 +1,18 @@
+package com.myspot.backend.repository;
+
+import com.myspot.backend.entities.ForecastModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface ForecastModelRepository extends JpaRepository<ForecastModel, ForecastModel.Key> {
+    
+    @Query("SELECT m FROM ForecastModel m WHERE m.id.pgId = :pgId")
+    List<ForecastModel> findByPgId(@Param("pgId") Long pgId);
+    
+    @Query("SELECT m FROM ForecastModel m WHERE m.id.pgId BETWEEN :fromId AND :toId")
+    List<ForecastModel> findByPgIdRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
@@ -1,14 +1,26 @@
 
 package com.myspot.backend.repository;
 
+import com.myspot.backend.dto.projection.GuestDoc;
+import com.myspot.backend.dto.projection.PgCount;
+import com.myspot.backend.dto.projection.RentDueRow;
 import com.myspot.backend.entities.Guest;
 import com.myspot.backend.entities.PGManagementOwner;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface GuestRepository extends JpaRepository<Guest, Long> {
@@ -28,8 +40,8 @@ public interface GuestRepository extends JpaRepository<Guest, Long> {
            "AND g.guestStatus = 'ACTIVE' AND g.isActive = true")
     List<Guest> findActiveGuests(@Param("pgId") Long pgId);
     
-    @Query("SELECT g FROM Guest g WHERE g.pgManagementOwner.pgId = :pgId " +
-           "AND (g.guestStatus = 'FORMER' OR g.checkOutDate < CURRENT_DATE)")
+    // Guests past their check-out date are moved to FORMER by GuestLifecycleScheduler
+    @Query("SELECT g FROM Guest g WHERE g.pgManagementOwner.pgId = :pgId AND g.guestStatus = 'FORMER'")
     List<Guest> findFormerGuests(@Param("pgId") Long pgId);
     
     @Query("SELECT COUNT(g) FROM Guest g WHERE g.pgManagementOwner.pgId = :pgId")
@@ -41,7 +53,66 @@ public interface GuestRepository extends JpaRepository<Guest, Long> {
     @Query("SELECT COUNT(g) FROM Guest g WHERE g.pgManagementOwner.pgId = :pgId AND g.guestStatus = 'ACTIVE'")
     Long countActiveGuests(@Param("pgId") Long pgId);
     
-    @Query("SELECT COUNT(g) FROM Guest g WHERE g.pgManagementOwner.pgId = :pgId " +
-           "AND (g.guestStatus = 'FORMER' OR g.checkOutDate < CURRENT_DATE)")
+    @Query("SELECT new com.myspot.backend.dto.projection.PgCount(g.pgManagementOwner.pgId, COUNT(g)) FROM Guest g " +
+           "WHERE g.guestStatus = 'ACTIVE' GROUP BY g.pgManagementOwner.pgId")
+    List<PgCount> countActiveGuestsPerPg();
+    
+    @Query("SELECT COUNT(g) FROM Guest g WHERE g.pgManagementOwner.pgId = :pgId AND g.guestStatus = 'FORMER'")
     Long countFormerGuests(@Param("pgId") Long pgId);
+    
+    @Query("SELECT new com.myspot.backend.dto.projection.GuestDoc(g.guestId, g.pgManagementOwner.pgId, " +
+           "g.fullName, g.phoneNumber, g.emailAddress, g.roomNumber, g.guestStatus) " +
+           "FROM Guest g WHERE g.pgManagementOwner.pgId = :pgId")
+    List<GuestDoc> findSearchDocsByPgId(@Param("pgId") Long pgId);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingFetch.HINT))
+    @Query("SELECT new com.myspot.backend.dto.projection.GuestDoc(g.guestId, g.pgManagementOwner.pgId, " +
+           "g.fullName, g.phoneNumber, g.emailAddress, g.roomNumber, g.guestStatus) FROM Guest g")
+    Stream<GuestDoc> streamSearchDocs();
+    
+    @Query("SELECT new com.myspot.backend.dto.projection.GuestDoc(g.guestId, g.pgManagementOwner.pgId, " +
+           "g.fullName, g.phoneNumber, g.emailAddress, g.roomNumber, g.guestStatus) " +
+           "FROM Guest g WHERE g.guestId IN :guestIds")
+    List<GuestDoc> findSearchDocsByIds(@Param("guestIds") Collection<Long> guestIds);
+    
+    @Query("SELECT g.guestId FROM Guest g WHERE g.guestStatus = 'ACTIVE' AND g.checkOutDate < :date " +
+           "AND (:pgId IS NULL OR g.pgManagementOwner.pgId = :pgId) AND g.guestId > :afterId ORDER BY g.guestId")
+    List<Long> findCheckOutPassedIds(@Param("date") LocalDate date,
+                                     @Param("pgId") Long pgId,
+                                     @Param("afterId") Long afterId,
+                                     Pageable pageable);
+    
+    // Re-checks the condition so a guest updated since it was read is left alone
+    @Modifying
+    @Query("UPDATE Guest g SET g.guestStatus = 'FORMER', g.isActive = false, g.updatedAt = :now, g.version = g.version + 1 " +
+           "WHERE g.guestId IN :guestIds AND g.guestStatus = 'ACTIVE' AND g.checkOutDate < :date")
+    int markFormer(@Param("guestIds") Collection<Long> guestIds,
+                   @Param("date") LocalDate date,
+                   @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE Guest g SET g.isActive = false, g.updatedAt = :now, g.version = g.version + 1 " +
+           "WHERE g.isActive = true AND g.guestStatus <> 'ACTIVE' " +
+           "AND (:pgId IS NULL OR g.pgManagementOwner.pgId = :pgId)")
+    int deactivateInactiveStatuses(@Param("pgId") Long pgId, @Param("now") LocalDateTime now);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingFetch.HINT))
+    @Query("SELECT new com.myspot.backend.dto.projection.RentDueRow(g.guestId, g.nextPaymentDue) FROM Guest g " +
+           "WHERE g.guestStatus = 'ACTIVE' AND g.nextPaymentDue <= :until " +
+           "AND (g.rentReminderSentFor IS NULL OR g.rentReminderSentFor <> g.nextPaymentDue)")
+    Stream<RentDueRow> streamUnremindedRentDue(@Param("until") LocalDate until);
+    
+    // Succeeds for exactly one caller per due date, across nodes and restarts
+    @Modifying
+    @Query("UPDATE Guest g SET g.rentReminderSentFor = :dueDate, g.version = g.version + 1 " +
+           "WHERE g.guestId = :guestId AND g.guestStatus = 'ACTIVE' AND g.nextPaymentDue = :dueDate " +
+           "AND (g.rentReminderSentFor IS NULL OR g.rentReminderSentFor <> :dueDate)")
+    int claimRentReminder(@Param("guestId") Long guestId, @Param("dueDate") LocalDate dueDate);
+    
+    // Email is unique across all PGs, so this lookup is not scoped
+    @Query("SELECT g.emailAddress FROM Guest g WHERE g.emailAddress IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    @Query("SELECT g.phoneNumber FROM Guest g WHERE g.pgManagementOwner.pgId = :pgId AND g.phoneNumber IN :phones")
+    List<String> findExistingPhones(@Param("pgId") Long pgId, @Param("phones") Collection<String> phones);
 }
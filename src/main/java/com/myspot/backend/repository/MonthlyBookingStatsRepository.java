@@ -0,0 +1,11 @@
+package com.myspot.backend.repository;
+
+import com.myspot.backend.entities.MonthlyBookingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface MonthlyBookingStatsRepository extends JpaRepository<MonthlyBookingStats, Long> {
+    List<MonthlyBookingStats> findByPgIdAndMonthBetweenOrderByMonth(Long pgId, String fromMonth, String toMonth);
+}
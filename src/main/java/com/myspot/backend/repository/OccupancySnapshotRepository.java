@@ -0,0 +1,28 @@
+package com.myspot.backend.repository;
+
+import com.myspot.backend.dto.projection.OccupancyMonthRow;
+import com.myspot.backend.entities.OccupancySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface OccupancySnapshotRepository extends JpaRepository<OccupancySnapshot, OccupancySnapshot.Key> {
+    
+    @Query("SELECT s FROM OccupancySnapshot s WHERE s.id.pgId = :pgId AND s.id.snapshotDate BETWEEN :fromDate AND :toDate " +
+           "ORDER BY s.id.snapshotDate")
+    List<OccupancySnapshot> findRange(@Param("pgId") Long pgId,
+                                      @Param("fromDate") LocalDate fromDate,
+                                      @Param("toDate") LocalDate toDate);
+    
+    @Query("SELECT new com.myspot.backend.dto.projection.OccupancyMonthRow(YEAR(s.id.snapshotDate), MONTH(s.id.snapshotDate), " +
+           "COUNT(s), SUM(s.occupiedBeds), SUM(s.totalBeds)) FROM OccupancySnapshot s " +
+           "WHERE s.id.pgId = :pgId AND s.id.snapshotDate BETWEEN :fromDate AND :toDate " +
+           "GROUP BY YEAR(s.id.snapshotDate), MONTH(s.id.snapshotDate)")
+    List<OccupancyMonthRow> summarizeByMonth(@Param("pgId") Long pgId,
+                                             @Param("fromDate") LocalDate fromDate,
+                                             @Param("toDate") LocalDate toDate);
+}
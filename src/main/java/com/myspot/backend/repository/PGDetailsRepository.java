@@ -1,12 +1,14 @@
 
 package com.myspot.backend.repository;
 
+import com.myspot.backend.dto.projection.RoomCapacity;
 import com.myspot.backend.entities.PGDetails;
 import com.myspot.backend.entities.PGManagementOwner;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,4 +18,14 @@ public interface PGDetailsRepository extends JpaRepository<PGDetails, Long> {
     
     @Query("SELECT pd FROM PGDetails pd WHERE pd.pgManagementOwner.pgId = :pgId AND pd.isActive = true")
     Optional<PGDetails> findActiveByPgId(@Param("pgId") Long pgId);
-}
\ No newline at end of file
+    
+    @Query("SELECT new com.myspot.backend.dto.projection.RoomCapacity(pd.pgManagementOwner.pgId, " +
+           "pd.totalSingleSharingRooms, pd.totalDoubleSharingRooms, pd.totalTripleSharingRooms, pd.totalQuadSharingRooms) " +
+           "FROM PGDetails pd WHERE pd.pgManagementOwner.pgId = :pgId AND pd.isActive = true")
+    Optional<RoomCapacity> findRoomCapacityByPgId(@Param("pgId") Long pgId);
+    
+    @Query("SELECT new com.myspot.backend.dto.projection.RoomCapacity(pd.pgManagementOwner.pgId, " +
+           "pd.totalSingleSharingRooms, pd.totalDoubleSharingRooms, pd.totalTripleSharingRooms, pd.totalQuadSharingRooms) " +
+           "FROM PGDetails pd WHERE pd.isActive = true")
+    List<RoomCapacity> findAllActiveRoomCapacities();
+}
@@ -2,6 +2,7 @@
 package com.myspot.backend.repository;
 
 import com.myspot.backend.entities.PGManagementOwner;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -43,6 +44,9 @@ public interface PGManagementOwnerRepository extends JpaRepository<PGManagementO
     @Query("SELECT COUNT(p) FROM PGManagementOwner p WHERE p.verificationStatus = :status")
     Long countByVerificationStatus(@Param("status") PGManagementOwner.VerificationStatus status);
     
+    @Query("SELECT p.pgId FROM PGManagementOwner p WHERE p.pgId > :afterId ORDER BY p.pgId")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
     @Query("SELECT p FROM PGManagementOwner p WHERE " +
            "(:city IS NULL OR LOWER(p.city) LIKE LOWER(CONCAT('%', :city, '%'))) AND " +
            "(:state IS NULL OR LOWER(p.state) LIKE LOWER(CONCAT('%', :state, '%'))) AND " +
@@ -0,0 +1,9 @@
+package com.myspot.backend.repository;
+
+import com.myspot.backend.entities.PGRatingAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PGRatingAggregateRepository extends JpaRepository<PGRatingAggregate, Long> {
+}
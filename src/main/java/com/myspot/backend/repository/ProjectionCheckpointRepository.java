@@ -0,0 +1,24 @@
+package com.myspot.backend.repository;
+
+import com.myspot.backend.entities.ProjectionCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface ProjectionCheckpointRepository extends JpaRepository<ProjectionCheckpoint, String> {
+    
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO projection_checkpoints (projection_name, last_event_id, updated_at) " +
+                   "VALUES (:projectionName, 0, NOW())", nativeQuery = true)
+    int insertIfMissing(@Param("projectionName") String projectionName);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ProjectionCheckpoint c WHERE c.projectionName = :projectionName")
+    Optional<ProjectionCheckpoint> findForUpdate(@Param("projectionName") String projectionName);
+}
@@ -1,13 +1,25 @@
 
 package com.myspot.backend.repository;
 
+import com.myspot.backend.dto.projection.ReviewMonthRow;
+import com.myspot.backend.dto.projection.ReviewStats;
+import com.myspot.backend.dto.projection.ReviewText;
 import com.myspot.backend.entities.Review;
 import com.myspot.backend.entities.PGManagementOwner;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
@@ -15,30 +27,98 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findByPgManagementOwner_PgId(Long pgId);
     List<Review> findByPgManagementOwnerOrderByCreatedAtDesc(PGManagementOwner pgManagementOwner);
     
-    @Query("SELECT r FROM Review r WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true ORDER BY r.createdAt DESC")
+    @Query("SELECT r FROM Review r JOIN FETCH r.guest WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true ORDER BY r.createdAt DESC")
     List<Review> findActiveReviewsByPgId(@Param("pgId") Long pgId);
     
-    @Query("SELECT COUNT(r) FROM Review r WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true")
-    Long countActiveReviewsByPgId(@Param("pgId") Long pgId);
+    // Review feed pages: each ORDER BY matches one (pg_owner_id, is_active, ...) index, review_id breaks ties
+    @Query("SELECT r FROM Review r JOIN FETCH r.guest WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true " +
+           "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.reviewId < :reviewId)) " +
+           "ORDER BY r.createdAt DESC, r.reviewId DESC")
+    List<Review> findFeedNewest(@Param("pgId") Long pgId,
+                                @Param("createdAt") LocalDateTime createdAt,
+                                @Param("reviewId") Long reviewId,
+                                Pageable pageable);
     
-    @Query("SELECT AVG(r.overallRating) FROM Review r WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true")
-    java.math.BigDecimal getAverageRatingByPgId(@Param("pgId") Long pgId);
+    @Query("SELECT r FROM Review r JOIN FETCH r.guest WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true " +
+           "AND (r.overallRating < :rating OR (r.overallRating = :rating AND r.reviewId < :reviewId)) " +
+           "ORDER BY r.overallRating DESC, r.reviewId DESC")
+    List<Review> findFeedHighest(@Param("pgId") Long pgId,
+                                 @Param("rating") BigDecimal rating,
+                                 @Param("reviewId") Long reviewId,
+                                 Pageable pageable);
+    
+    @Query("SELECT r FROM Review r JOIN FETCH r.guest WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true " +
+           "AND (r.overallRating > :rating OR (r.overallRating = :rating AND r.reviewId > :reviewId)) " +
+           "ORDER BY r.overallRating ASC, r.reviewId ASC")
+    List<Review> findFeedLowest(@Param("pgId") Long pgId,
+                                @Param("rating") BigDecimal rating,
+                                @Param("reviewId") Long reviewId,
+                                Pageable pageable);
+    
+    @Query("SELECT r FROM Review r JOIN FETCH r.guest WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true " +
+           "AND r.respondedAt IS NULL " +
+           "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.reviewId < :reviewId)) " +
+           "ORDER BY r.createdAt DESC, r.reviewId DESC")
+    List<Review> findFeedUnanswered(@Param("pgId") Long pgId,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("reviewId") Long reviewId,
+                                    Pageable pageable);
+    
+    @Query("SELECT r FROM Review r JOIN FETCH r.guest WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true " +
+           "AND r.respondedAt IS NOT NULL AND (r.respondedAt < :respondedAt " +
+           "OR (r.respondedAt = :respondedAt AND r.createdAt < :createdAt) " +
+           "OR (r.respondedAt = :respondedAt AND r.createdAt = :createdAt AND r.reviewId < :reviewId)) " +
+           "ORDER BY r.respondedAt DESC, r.createdAt DESC, r.reviewId DESC")
+    List<Review> findFeedAnswered(@Param("pgId") Long pgId,
+                                  @Param("respondedAt") LocalDateTime respondedAt,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("reviewId") Long reviewId,
+                                  Pageable pageable);
     
-    @Query("SELECT AVG(r.cleanlinessRating) FROM Review r WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true AND r.cleanlinessRating IS NOT NULL")
-    java.math.BigDecimal getAverageCleanlinessRating(@Param("pgId") Long pgId);
+    @Query("SELECT r FROM Review r JOIN FETCH r.guest WHERE r.reviewId IN :reviewIds")
+    List<Review> findAllWithGuestByIds(@Param("reviewIds") Collection<Long> reviewIds);
     
-    @Query("SELECT AVG(r.locationRating) FROM Review r WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true AND r.locationRating IS NOT NULL")
-    java.math.BigDecimal getAverageLocationRating(@Param("pgId") Long pgId);
+    @Query("SELECT new com.myspot.backend.dto.projection.ReviewText(r.reviewId, r.pgManagementOwner.pgId, r.isActive, " +
+           "r.comment, r.response) FROM Review r WHERE r.reviewId = :reviewId")
+    Optional<ReviewText> findTextById(@Param("reviewId") Long reviewId);
     
-    @Query("SELECT AVG(r.valueForMoneyRating) FROM Review r WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true AND r.valueForMoneyRating IS NOT NULL")
-    java.math.BigDecimal getAverageValueForMoneyRating(@Param("pgId") Long pgId);
+    @Query("SELECT new com.myspot.backend.dto.projection.ReviewText(r.reviewId, r.pgManagementOwner.pgId, r.isActive, " +
+           "r.comment, r.response) FROM Review r WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true")
+    List<ReviewText> findActiveTextsByPgId(@Param("pgId") Long pgId);
     
-    @Query("SELECT AVG(r.staffBehaviorRating) FROM Review r WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true AND r.staffBehaviorRating IS NOT NULL")
-    java.math.BigDecimal getAverageStaffBehaviorRating(@Param("pgId") Long pgId);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingFetch.HINT))
+    @Query("SELECT new com.myspot.backend.dto.projection.ReviewText(r.reviewId, r.pgManagementOwner.pgId, r.isActive, " +
+           "r.comment, r.response) FROM Review r WHERE r.isActive = true")
+    Stream<ReviewText> streamActiveTexts();
+    
+    // Inactive rows are included so the caller can drop them from its index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingFetch.HINT))
+    @Query("SELECT new com.myspot.backend.dto.projection.ReviewText(r.reviewId, r.pgManagementOwner.pgId, r.isActive, " +
+           "r.comment, r.response) FROM Review r WHERE r.updatedAt >= :since")
+    Stream<ReviewText> streamTextsUpdatedSince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT COUNT(r) FROM Review r WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true")
+    Long countActiveReviewsByPgId(@Param("pgId") Long pgId);
+    
+    @Query("SELECT AVG(r.overallRating) FROM Review r WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true")
+    BigDecimal getAverageRatingByPgId(@Param("pgId") Long pgId);
     
-    @Query("SELECT AVG(r.amenitiesRating) FROM Review r WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true AND r.amenitiesRating IS NOT NULL")
-    java.math.BigDecimal getAverageAmenitiesRating(@Param("pgId") Long pgId);
+    // One scan for every figure on the review stats screen; stars round the overall rating half up
+    @Query("SELECT new com.myspot.backend.dto.projection.ReviewStats(COUNT(r), AVG(r.overallRating), " +
+           "AVG(r.cleanlinessRating), AVG(r.locationRating), AVG(r.valueForMoneyRating), " +
+           "AVG(r.staffBehaviorRating), AVG(r.amenitiesRating), AVG(r.foodQualityRating), " +
+           "SUM(CASE WHEN r.overallRating >= 4.5 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.overallRating >= 3.5 AND r.overallRating < 4.5 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.overallRating >= 2.5 AND r.overallRating < 3.5 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.overallRating >= 1.5 AND r.overallRating < 2.5 THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN r.overallRating < 1.5 THEN 1 ELSE 0 END)) " +
+           "FROM Review r WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true")
+    ReviewStats getReviewStats(@Param("pgId") Long pgId);
     
-    @Query("SELECT AVG(r.foodQualityRating) FROM Review r WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true AND r.foodQualityRating IS NOT NULL")
-    java.math.BigDecimal getAverageFoodQualityRating(@Param("pgId") Long pgId);
+    @Query("SELECT new com.myspot.backend.dto.projection.ReviewMonthRow(YEAR(r.createdAt), MONTH(r.createdAt), " +
+           "COUNT(r), AVG(r.overallRating)) FROM Review r WHERE r.pgManagementOwner.pgId = :pgId AND r.isActive = true " +
+           "AND r.createdAt >= :from AND r.createdAt < :until GROUP BY YEAR(r.createdAt), MONTH(r.createdAt)")
+    List<ReviewMonthRow> summarizeByMonth(@Param("pgId") Long pgId,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("until") LocalDateTime until);
 }
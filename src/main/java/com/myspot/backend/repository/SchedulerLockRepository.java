@@ -0,0 +1,34 @@
+package com.myspot.backend.repository;
+
+import com.myspot.backend.entities.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+    
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO scheduler_locks (lock_name, locked_until, locked_by, locked_at) " +
+                   "VALUES (:lockName, :now, '', :now)", nativeQuery = true)
+    int insertIfMissing(@Param("lockName") String lockName, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :lockedUntil, l.lockedBy = :owner, l.lockedAt = :now " +
+           "WHERE l.lockName = :lockName AND l.lockedUntil <= :now")
+    int acquire(@Param("lockName") String lockName, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+    
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :lockedUntil " +
+           "WHERE l.lockName = :lockName AND l.lockedBy = :owner AND l.lockedUntil > :now")
+    int renew(@Param("lockName") String lockName, @Param("owner") String owner,
+              @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+    
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :now WHERE l.lockName = :lockName AND l.lockedBy = :owner")
+    int release(@Param("lockName") String lockName, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
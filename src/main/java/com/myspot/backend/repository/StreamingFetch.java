@@ -0,0 +1,35 @@
+package com.myspot.backend.repository;
+
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Row streaming for large reads. A fetch size of Integer.MIN_VALUE makes MySQL Connector/J hand
+ * rows over one at a time instead of buffering the whole result set; the connection can run
+ * nothing else until the rows are consumed or the result is closed.
+ */
+public final class StreamingFetch {
+    
+    /**
+     * Value for a HibernateHints.HINT_FETCH_SIZE query hint on a Stream-returning query.
+     */
+    public static final String HINT = "" + Integer.MIN_VALUE;
+    
+    private StreamingFetch() {
+    }
+    
+    /**
+     * Forward-only, read-only statement for sql that streams its rows, with args bound in order.
+     */
+    public static PreparedStatementCreator statement(String sql, Object... args) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE);
+            new ArgumentPreparedStatementSetter(args).setValues(statement);
+            return statement;
+        };
+    }
+}
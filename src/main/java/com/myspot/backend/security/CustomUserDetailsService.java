@@ -4,22 +4,31 @@ package com.myspot.backend.security;
 import com.myspot.backend.entities.PGManagementOwner;
 import com.myspot.backend.repository.PGManagementOwnerRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
+
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final PGManagementOwnerRepository pgManagementOwnerRepository;
 
+    // Comma-separated owner emails that also get ROLE_ADMIN
+    @Value("${app.admin.emails:}")
+    private Set<String> adminEmails;
+
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         PGManagementOwner pgManagementOwner = pgManagementOwnerRepository.findByEmailAddress(email)
                 .orElseThrow(() -> new UsernameNotFoundException("PG not found with email: " + email));
 
-        return new CustomUserPrincipal(pgManagementOwner);
+        boolean admin = adminEmails.stream()
+                .anyMatch(adminEmail -> adminEmail.trim().equalsIgnoreCase(pgManagementOwner.getEmailAddress()));
+        return new CustomUserPrincipal(pgManagementOwner, admin);
     }
 }
\ No newline at end of file
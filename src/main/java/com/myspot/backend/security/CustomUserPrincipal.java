@@ -7,13 +7,20 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 public class CustomUserPrincipal implements UserDetails {
     
     private final PGManagementOwner pgManagementOwner;
+    private final boolean admin;
     
     public CustomUserPrincipal(PGManagementOwner pgManagementOwner) {
+        this(pgManagementOwner, false);
+    }
+    
+    public CustomUserPrincipal(PGManagementOwner pgManagementOwner, boolean admin) {
         this.pgManagementOwner = pgManagementOwner;
+        this.admin = admin;
     }
     
     public static CustomUserPrincipal create(PGManagementOwner pgManagementOwner) {
@@ -45,6 +52,9 @@ public class CustomUserPrincipal implements UserDetails {
     
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
+        if (admin) {
+            return List.of(new SimpleGrantedAuthority("ROLE_PG_OWNER"), new SimpleGrantedAuthority("ROLE_ADMIN"));
+        }
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_PG_OWNER"));
     }
     
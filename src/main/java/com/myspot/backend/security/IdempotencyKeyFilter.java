@@ -0,0 +1,305 @@
+package com.myspot.backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myspot.backend.dto.response.ApiResponse;
+import com.myspot.backend.services.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Replays the stored response when a mutating request repeats an Idempotency-Key.
+ *
+ * A request fingerprint (method, URI, media type, and a hash of small JSON or text bodies or of
+ * each multipart part) guards against reusing a key for a different request. The key is scoped
+ * to the authenticated user; an anonymous caller, such as a registration under /pg-auth, has no
+ * identity to share a key space with, so its key is scoped by the fingerprint instead and only
+ * a byte-identical retry is replayed. Anonymous bodies that are not hashed pass straight through. Only 2xx responses and the deterministic 400 and
+ * 422 rejections are stored; anything else, such as 401, 403, 409 or 429, may succeed on retry and
+ * is left to run again. Registered after authorisation in SecurityConfig so that only permitted
+ * requests are recorded.
+ */
+@Slf4j
+public class IdempotencyKeyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Set<String> METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final IdempotencyStore idempotencyStore;
+    private final long waitSeconds;
+    private final int maxBodyBytes;
+
+    public IdempotencyKeyFilter(IdempotencyStore idempotencyStore, long waitSeconds, int maxBodyBytes) {
+        this.idempotencyStore = idempotencyStore;
+        this.waitSeconds = waitSeconds;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(KEY_HEADER) == null || !METHODS.contains(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                  HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+
+        String key = request.getHeader(KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        HttpServletRequest effectiveRequest = request;
+        byte[] body = null;
+        if (isHashableBody(request)) {
+            body = request.getInputStream().readAllBytes();
+            effectiveRequest = new CachedBodyRequest(request, body);
+        }
+        String scope = scope();
+        if (scope == null && body == null && !mediaType(request).startsWith("multipart/") && request.getContentLengthLong() > 0) {
+            // Only the length of this body would be fingerprinted, too weak to tell anonymous callers apart
+            filterChain.doFilter(effectiveRequest, response);
+            return;
+        }
+        String fingerprint;
+        try {
+            fingerprint = fingerprint(request, body);
+        } catch (ServletException | IllegalStateException e) {
+            // Unreadable multipart body; let the handler reject it without recording anything
+            log.debug("Skipping Idempotency-Key for unparseable body on {} {}", request.getMethod(), request.getRequestURI());
+            filterChain.doFilter(effectiveRequest, response);
+            return;
+        }
+        String scopedKey = (scope != null ? scope : "anonymous:" + fingerprint) + ":" + key;
+
+        while (true) {
+            IdempotencyStore.Claim claim = idempotencyStore.claim(scopedKey, fingerprint);
+            if (claim.fingerprintMismatch()) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used for a different request");
+                return;
+            }
+            if (claim.owner()) {
+                execute(scopedKey, effectiveRequest, response, filterChain);
+                return;
+            }
+            IdempotencyStore.StoredResponse stored;
+            try {
+                stored = claim.response().get(waitSeconds, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                writeError(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is still in progress");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted while waiting for idempotent request", e);
+            } catch (ExecutionException e) {
+                stored = null;
+            }
+            if (stored != null) {
+                log.debug("Replaying stored response for Idempotency-Key on {} {}", request.getMethod(), request.getRequestURI());
+                replay(response, stored);
+                return;
+            }
+            // The first request was abandoned; claim the key again
+        }
+    }
+
+    private void execute(String scopedKey, HttpServletRequest request, HttpServletResponse response,
+                         FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } catch (ServletException | IOException | RuntimeException e) {
+            idempotencyStore.abandon(scopedKey);
+            throw e;
+        }
+
+        byte[] content = wrapper.getContentAsByteArray();
+        if (request.isAsyncStarted() || !isStorable(wrapper.getStatus()) || content.length > maxBodyBytes) {
+            idempotencyStore.abandon(scopedKey);
+        } else {
+            idempotencyStore.complete(scopedKey,
+                new IdempotencyStore.StoredResponse(wrapper.getStatus(), wrapper.getContentType(), content));
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyStore.StoredResponse stored) throws IOException {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static boolean isStorable(int status) {
+        return (status >= 200 && status < 300)
+            || status == HttpStatus.BAD_REQUEST.value() || status == HttpStatus.UNPROCESSABLE_ENTITY.value();
+    }
+
+    private boolean isHashableBody(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        long length = request.getContentLengthLong();
+        // Form and multipart bodies are left unread so request parameters and parts still parse
+        return contentType != null && (contentType.contains("json") || contentType.startsWith("text/"))
+            && length >= 0 && length <= maxBodyBytes;
+    }
+
+    /**
+     * Name of the authenticated caller, or null for anonymous requests.
+     */
+    private static String scope() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() && !TRUST_RESOLVER.isAnonymous(authentication)
+            ? authentication.getName() : null;
+    }
+
+    private static String mediaType(HttpServletRequest request) {
+        // Parameters are dropped: a multipart boundary differs between otherwise identical retries
+        String contentType = request.getContentType();
+        return contentType != null ? contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) throws ServletException, IOException {
+        String mediaType = mediaType(request);
+        String content;
+        if (body != null) {
+            content = IdempotencyStore.hash(body);
+        } else if (mediaType.startsWith("multipart/")) {
+            content = partsHash(request);
+        } else {
+            content = String.valueOf(request.getContentLengthLong());
+        }
+        return IdempotencyStore.hash(request.getMethod() + " " + request.getRequestURI()
+            + "?" + (request.getQueryString() != null ? request.getQueryString() : "")
+            + "\n" + mediaType
+            + "\n" + content);
+    }
+
+    private static String partsHash(HttpServletRequest request) throws ServletException, IOException {
+        StringBuilder parts = new StringBuilder();
+        for (Part part : request.getParts()) {
+            String digest;
+            try (InputStream in = part.getInputStream()) {
+                MessageDigest sha = MessageDigest.getInstance("SHA-256");
+                byte[] buffer = new byte[8192];
+                for (int read; (read = in.read(buffer)) != -1; ) {
+                    sha.update(buffer, 0, read);
+                }
+                digest = HexFormat.of().formatHex(sha.digest());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+            parts.append(part.getName()).append('|').append(part.getSubmittedFileName())
+                .append('|').append(part.getContentType()).append('|').append(digest).append('\n');
+        }
+        return IdempotencyStore.hash(parts.toString());
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setStatus(status.value());
+
+        ApiResponse<String> body = ApiResponse.<String>builder()
+                .success(false)
+                .message(message)
+                .errorCode(status.name())
+                .build();
+
+        MAPPER.writeValue(response.getOutputStream(), body);
+    }
+
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The whole body is already in memory, so it is available and complete at once
+                    try {
+                        if (in.available() > 0) {
+                            listener.onDataAvailable();
+                        }
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.PgRollup;
+import com.myspot.backend.entities.BookingSketch;
+import com.myspot.backend.repository.BookingSketchRepository;
+import com.myspot.backend.repository.StreamingFetch;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Platform-wide revenue, occupancy and rating rollups for admins.
+ *
+ * The pg_id range is split in half recursively on a dedicated fork-join pool until each piece
+ * spans at most partitionSize ids. Each leaf reads one row per PG for its range, with bookings,
+ * beds and ratings pre-aggregated in the same query, and folds the rows into a PortfolioRollup;
+ * the halves are merged on the way back up. Parallelism is kept below the connection pool size
+ * because every leaf holds a connection while it streams. The in-memory fold is benchmarked;
+ * the partition queries have not yet been timed against a full-size schema.
+ */
+@Slf4j
+@Service
+public class AdminAnalyticsService {
+    
+    private static final int MAX_WINDOW_DAYS = 366;
+    private static final int MAX_DISTRIBUTION_PGS = 1000;
+    
+    private static final String ID_RANGE_SQL = "SELECT MIN(pg_id), MAX(pg_id) FROM pg_management_owner";
+    
+    private static final String ROLLUP_SQL =
+        "SELECT o.pg_id, o.city, o.state, o.verification_status, o.is_active, " +
+        "COALESCE(d.total_capacity, 0), COALESCE(d.current_occupancy, 0), " +
+        "COALESCE(a.review_count, 0), COALESCE(a.overall_sum, 0), COALESCE(b.bookings, 0), COALESCE(b.revenue, 0) " +
+        "FROM pg_management_owner o " +
+        "LEFT JOIN (SELECT pg_owner_id, SUM(total_capacity) AS total_capacity, SUM(current_occupancy) AS current_occupancy " +
+        "  FROM pg_details WHERE is_active = TRUE AND pg_owner_id BETWEEN ? AND ? GROUP BY pg_owner_id) d " +
+        "  ON d.pg_owner_id = o.pg_id " +
+        "LEFT JOIN pg_rating_aggregates a ON a.pg_owner_id = o.pg_id " +
+        "LEFT JOIN (SELECT pg_owner_id, COUNT(*) AS bookings, " +
+        "  SUM(CASE WHEN status IN ('CONFIRMED', 'ACTIVE', 'COMPLETED') THEN total_amount ELSE 0 END) AS revenue " +
+        "  FROM bookings WHERE pg_owner_id BETWEEN ? AND ? AND booking_date BETWEEN ? AND ? GROUP BY pg_owner_id) b " +
+        "  ON b.pg_owner_id = o.pg_id " +
+        "WHERE o.pg_id BETWEEN ? AND ?";
+    
+    private static final String SKETCH_RANGE_SQL =
+        "SELECT metric, sketch FROM booking_sketches WHERE sketch_month BETWEEN ? AND ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingSketchRepository bookingSketchRepository;
+    private final ForkJoinPool pool;
+    private final long partitionSize;
+    
+    public AdminAnalyticsService(JdbcTemplate jdbcTemplate,
+                                 BookingSketchRepository bookingSketchRepository,
+                                 @Value("${app.admin.analytics.parallelism:4}") int parallelism,
+                                 @Value("${app.admin.analytics.partition-size:5000}") long partitionSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bookingSketchRepository = bookingSketchRepository;
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        this.partitionSize = Math.max(1, partitionSize);
+    }
+    
+    /**
+     * Portfolio totals with city, state and verification-status breakdowns; revenue and booking
+     * counts cover bookings made between from and to, beds and ratings are current.
+     */
+    public Map<String, Object> getPortfolio(LocalDate from, LocalDate to, int cityLimit) {
+        log.info("Getting portfolio analytics from {} to {}", from, to);
+        
+        LocalDate toDate = to != null ? to : LocalDate.now();
+        LocalDate fromDate = from != null ? from : toDate.withDayOfMonth(1);
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("From date must not be after to date");
+        }
+        if (fromDate.plusDays(MAX_WINDOW_DAYS).isBefore(toDate)) {
+            throw new IllegalArgumentException("Portfolio analytics cover at most " + MAX_WINDOW_DAYS + " days per request");
+        }
+        if (cityLimit < 1 || cityLimit > 1000) {
+            throw new IllegalArgumentException("City limit must be between 1 and 1000");
+        }
+        
+        long started = System.nanoTime();
+        long[] idRange = jdbcTemplate.query(ID_RANGE_SQL, resultSet -> {
+            resultSet.next();
+            long minId = resultSet.getLong(1);
+            return resultSet.wasNull() ? null : new long[] {minId, resultSet.getLong(2)};
+        });
+        PortfolioRollup rollup = idRange != null
+            ? pool.invoke(new PartitionTask(idRange[0], idRange[1], Date.valueOf(fromDate), Date.valueOf(toDate)))
+            : new PortfolioRollup();
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        log.info("Aggregated portfolio analytics over {} PGs in {} ms", rollup.pgCount(), elapsedMillis);
+        
+        Map<String, Object> result = rollup.toMap(cityLimit);
+        result.put("from", fromDate.toString());
+        result.put("to", toDate.toString());
+        result.put("tookMs", elapsedMillis);
+        return result;
+    }
+    
+    /**
+     * Stay-length and booking-amount percentiles across the given PGs, or every PG, merged from
+     * the per-PG monthly sketches for bookings made in [from, to].
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getBookingDistribution(String from, String to, List<Long> pgIds) {
+        log.info("Getting booking distribution from {} to {} for {} PGs", from, to, pgIds != null ? pgIds.size() : "all");
+        
+        YearMonth toMonth = to != null ? AnalyticsService.parseMonth(to) : YearMonth.now();
+        YearMonth fromMonth = from != null ? AnalyticsService.parseMonth(from) : toMonth.minusMonths(11);
+        if (fromMonth.isAfter(toMonth)) {
+            throw new IllegalArgumentException("From month must not be after to month");
+        }
+        if (pgIds != null && (pgIds.isEmpty() || pgIds.size() > MAX_DISTRIBUTION_PGS)) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_DISTRIBUTION_PGS + " PG IDs may be given");
+        }
+        
+        long started = System.nanoTime();
+        Map<String, Object> distribution;
+        if (pgIds != null) {
+            distribution = AnalyticsService.summarizeSketches(
+                bookingSketchRepository.findRangeForPgs(pgIds, fromMonth.toString(), toMonth.toString()));
+        } else {
+            distribution = AnalyticsService.summarizeSketches(readAllSketches(fromMonth.toString(), toMonth.toString()));
+        }
+        distribution.put("fromMonth", fromMonth.toString());
+        distribution.put("toMonth", toMonth.toString());
+        distribution.put("tookMs", (System.nanoTime() - started) / 1_000_000);
+        return distribution;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    private PortfolioRollup readPartition(long fromId, long toId, Date fromDate, Date toDate) {
+        long started = System.nanoTime();
+        PortfolioRollup rollup = new PortfolioRollup();
+        jdbcTemplate.query(ROLLUP_SQL, resultSet -> {
+            rollup.add(new PgRollup(
+                resultSet.getLong(1),
+                resultSet.getString(2),
+                resultSet.getString(3),
+                resultSet.getString(4),
+                resultSet.getBoolean(5),
+                resultSet.getLong(6),
+                resultSet.getLong(7),
+                resultSet.getLong(8),
+                orZero(resultSet.getBigDecimal(9)),
+                resultSet.getLong(10),
+                orZero(resultSet.getBigDecimal(11))));
+        }, fromId, toId, fromId, toId, fromDate, toDate, fromId, toId);
+        log.debug("Read {} PGs with IDs {} to {} in {} ms", rollup.pgCount(), fromId, toId, (System.nanoTime() - started) / 1_000_000);
+        return rollup;
+    }
+    
+    /**
+     * Merges every PG's sketches for the range as the rows stream past, reading only the metric and
+     * the bytes, so the persistence context does not fill up with an entity per row.
+     */
+    private Map<BookingSketch.Metric, QuantileSketch> readAllSketches(String fromMonth, String toMonth) {
+        Map<BookingSketch.Metric, QuantileSketch> merged = AnalyticsService.emptySketches();
+        jdbcTemplate.query(StreamingFetch.statement(SKETCH_RANGE_SQL, fromMonth, toMonth), (RowCallbackHandler) resultSet ->
+            merged.get(BookingSketch.Metric.valueOf(resultSet.getString(1))).merge(QuantileSketch.fromBytes(resultSet.getBytes(2))));
+        return merged;
+    }
+    
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+    
+    private final class PartitionTask extends RecursiveTask<PortfolioRollup> {
+        
+        private final long fromId;
+        private final long toId;
+        private final Date fromDate;
+        private final Date toDate;
+        
+        PartitionTask(long fromId, long toId, Date fromDate, Date toDate) {
+            this.fromId = fromId;
+            this.toId = toId;
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+        }
+        
+        @Override
+        protected PortfolioRollup compute() {
+            if (toId - fromId < partitionSize) {
+                return readPartition(fromId, toId, fromDate, toDate);
+            }
+            long middle = fromId + (toId - fromId) / 2;
+            PartitionTask left = new PartitionTask(fromId, middle, fromDate, toDate);
+            PartitionTask right = new PartitionTask(middle + 1, toId, fromDate, toDate);
+            left.fork();
+            return right.compute().merge(left.join());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.myspot.backend.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the independent queries of one analytics request side by side.
+ *
+ * The pool is sized to a fraction of the Hikari pool, so analytics fan-out can never take every
+ * connection from request threads, and each request may have at most perRequest queries in
+ * flight, so one wide report cannot monopolise the pool. When the queue is full the calling
+ * thread runs the query itself rather than failing the request.
+ */
+@Slf4j
+@Component
+public class AnalyticsQueryExecutor {
+    
+    private final ThreadPoolExecutor executor;
+    private final int perRequest;
+    private final long timeoutSeconds;
+    
+    public AnalyticsQueryExecutor(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+                                  @Value("${app.analytics.executor.pool-share:0.5}") double poolShare,
+                                  @Value("${app.analytics.executor.per-request:4}") int perRequest,
+                                  @Value("${app.analytics.executor.queue-capacity:200}") int queueCapacity,
+                                  @Value("${app.analytics.executor.timeout-seconds:30}") long timeoutSeconds) {
+        int threads = Math.max(1, (int) (connectionPoolSize * poolShare));
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "analytics-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.perRequest = Math.max(1, Math.min(perRequest, threads));
+        this.timeoutSeconds = timeoutSeconds;
+        log.info("Analytics query executor using {} threads, {} per request", threads, this.perRequest);
+    }
+    
+    /**
+     * Runs every task and returns their results in order; the first failure is rethrown.
+     */
+    public List<Object> invokeAll(List<Callable<?>> tasks) {
+        Semaphore permits = new Semaphore(perRequest);
+        List<CompletableFuture<?>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<?> task : tasks) {
+                permits.acquire();
+                futures.add(CompletableFuture.supplyAsync(() -> call(task), executor)
+                    .whenComplete((result, error) -> permits.release()));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Analytics request was interrupted");
+        } catch (TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Analytics request timed out after " + timeoutSeconds + " seconds");
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+        List<Object> results = new ArrayList<>(futures.size());
+        futures.forEach(future -> results.add(future.join()));
+        return results;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private static Object call(Callable<?> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+    
+    private static RuntimeException unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error instanceof RuntimeException runtime ? runtime : new RuntimeException(error.getMessage(), error);
+    }
+}
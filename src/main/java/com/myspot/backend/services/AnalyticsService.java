@@ -1,18 +1,35 @@
 
 package com.myspot.backend.services;
 
+import com.myspot.backend.dto.projection.BookingMonthRow;
+import com.myspot.backend.dto.projection.ForecastPoint;
+import com.myspot.backend.dto.projection.OccupancyMonthRow;
+import com.myspot.backend.dto.projection.ReviewMonthRow;
+import com.myspot.backend.dto.projection.ReviewStats;
+import com.myspot.backend.entities.Booking;
+import com.myspot.backend.entities.BookingSketch;
+import com.myspot.backend.entities.ForecastModel;
+import com.myspot.backend.entities.MonthlyBookingStats;
+import com.myspot.backend.entities.OccupancySnapshot;
 import com.myspot.backend.entities.PGDetails;
 import com.myspot.backend.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -20,10 +37,20 @@ import java.util.Map;
 @Transactional(readOnly = true)
 public class AnalyticsService {
     
+    private static final int MAX_HISTORY_YEARS = 5;
+    private static final int MAX_REPORT_MONTHS = 36;
+    private static final int[] FORECAST_WINDOWS = {30, 60, 90};
+    
     private final BookingRepository bookingRepository;
     private final GuestRepository guestRepository;
     private final ReviewRepository reviewRepository;
     private final PGDetailsRepository pgDetailsRepository;
+    private final MonthlyBookingStatsRepository monthlyBookingStatsRepository;
+    private final OccupancySnapshotRepository occupancySnapshotRepository;
+    private final BookingSketchRepository bookingSketchRepository;
+    private final AnalyticsQueryExecutor analyticsQueryExecutor;
+    private final ForecastService forecastService;
+    private final ReviewStatsCache reviewStatsCache;
     
     public Map<String, Object> getRevenueAnalytics(Long pgId, String month) {
         log.info("Getting revenue analytics for PG ID: {}, month: {}", pgId, month);
@@ -118,6 +145,77 @@ public class AnalyticsService {
         return analytics;
     }
     
+    /**
+     * Daily occupancy snapshots in [from, to], downsampled to day, week or month points.
+     */
+    public Map<String, Object> getOccupancyHistory(Long pgId, LocalDate from, LocalDate to, String granularity) {
+        log.info("Getting occupancy history for PG ID: {} from {} to {} by {}", pgId, from, to, granularity);
+        
+        OccupancySeries.Granularity step = OccupancySeries.Granularity.parse(granularity);
+        LocalDate toDate = to != null ? to : LocalDate.now();
+        LocalDate fromDate = from != null ? from : toDate.minusDays(89);
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("From date must not be after to date");
+        }
+        if (fromDate.plusYears(MAX_HISTORY_YEARS).isBefore(toDate)) {
+            throw new IllegalArgumentException("Occupancy history is limited to " + MAX_HISTORY_YEARS + " years per request");
+        }
+        
+        List<OccupancySnapshot> snapshots = occupancySnapshotRepository.findRange(pgId, fromDate, toDate);
+        
+        Map<String, Object> history = new HashMap<>();
+        history.put("from", fromDate.toString());
+        history.put("to", toDate.toString());
+        history.put("granularity", step.name().toLowerCase());
+        history.put("recordedDays", snapshots.size());
+        history.put("points", OccupancySeries.downsample(snapshots, step));
+        return history;
+    }
+    
+    /**
+     * Daily occupancy and revenue forecast for the next days days, with 30, 60 and 90 day
+     * summaries for the windows that fit; see ForecastService for how the points are made.
+     */
+    public Map<String, Object> getForecast(Long pgId, int days) {
+        log.info("Getting forecast for PG ID: {}, days: {}", pgId, days);
+        
+        if (days < 1 || days > ForecastService.HORIZON_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + ForecastService.HORIZON_DAYS);
+        }
+        
+        List<ForecastPoint> points = forecastService.getForecast(pgId).subList(0, days);
+        
+        List<Map<String, Object>> windows = new ArrayList<>();
+        for (int window : FORECAST_WINDOWS) {
+            if (window > days) {
+                break;
+            }
+            List<ForecastPoint> slice = points.subList(0, window);
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("days", window);
+            summary.put("averageOccupancyRate", round(slice.stream().mapToDouble(ForecastPoint::occupancyRate).average().orElse(0)));
+            summary.put("averageCommittedOccupancyRate",
+                round(slice.stream().mapToDouble(ForecastPoint::committedOccupancyRate).average().orElse(0)));
+            summary.put("expectedRevenue", round(slice.stream().mapToDouble(ForecastPoint::revenue).sum()));
+            windows.add(summary);
+        }
+        
+        Map<String, Object> models = new HashMap<>();
+        for (ForecastModel model : forecastService.getModels(pgId)) {
+            Map<String, Object> state = new HashMap<>();
+            state.put("observations", model.getObservations());
+            state.put("lastObservedDate", model.getLastDate() != null ? model.getLastDate().toString() : null);
+            models.put(model.getId().getSeries().name(), state);
+        }
+        
+        Map<String, Object> forecast = new HashMap<>();
+        forecast.put("days", days);
+        forecast.put("points", points);
+        forecast.put("summaries", windows);
+        forecast.put("models", models);
+        return forecast;
+    }
+    
     public Map<String, Object> getMonthlyReport(Long pgId, String month) {
         log.info("Getting monthly report for PG ID: {}, month: {}", pgId, month);
         
@@ -160,11 +258,10 @@ public class AnalyticsService {
             }
             
             // Review data
-            Long totalReviews = reviewRepository.countActiveReviewsByPgId(pgId);
-            BigDecimal averageRating = reviewRepository.getAverageRatingByPgId(pgId);
+            ReviewStats reviewStats = reviewStatsCache.get(pgId);
             
-            report.put("totalReviews", totalReviews != null ? totalReviews.intValue() : 0);
-            report.put("averageRating", averageRating != null ? averageRating : BigDecimal.ZERO);
+            report.put("totalReviews", (int) reviewStats.totalReviews());
+            report.put("averageRating", reviewStats.averageRating());
             
         } catch (DateTimeParseException e) {
             log.error("Invalid month format: {}", month);
@@ -173,4 +270,224 @@ public class AnalyticsService {
         
         return report;
     }
+    
+    /**
+     * Monthly report for every month in [from, to]. Each data source is read once for the whole
+     * range with a GROUP BY month, and those reads run side by side on the analytics executor.
+     * No transaction is held here, so the request thread does not pin a connection while the
+     * workers use theirs.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> getMonthlyReportRange(Long pgId, String from, String to) {
+        log.info("Getting monthly report range for PG ID: {} from {} to {}", pgId, from, to);
+        
+        long started = System.nanoTime();
+        YearMonth toMonth = to != null ? parseMonth(to) : YearMonth.now();
+        YearMonth fromMonth = from != null ? parseMonth(from) : toMonth.minusMonths(11);
+        if (fromMonth.isAfter(toMonth)) {
+            throw new IllegalArgumentException("From month must not be after to month");
+        }
+        if (fromMonth.plusMonths(MAX_REPORT_MONTHS).isBefore(toMonth.plusMonths(1))) {
+            throw new IllegalArgumentException("Monthly reports are limited to " + MAX_REPORT_MONTHS + " months per request");
+        }
+        LocalDate startDate = fromMonth.atDay(1);
+        LocalDate endDate = toMonth.atEndOfMonth();
+        
+        List<Object> results = analyticsQueryExecutor.invokeAll(List.of(
+            () -> bookingRepository.sumByMonthAndStatus(pgId, startDate, endDate),
+            () -> monthlyBookingStatsRepository.findByPgIdAndMonthBetweenOrderByMonth(pgId, fromMonth.toString(), toMonth.toString()),
+            () -> occupancySnapshotRepository.summarizeByMonth(pgId, startDate, endDate),
+            () -> reviewRepository.summarizeByMonth(pgId, startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay()),
+            () -> pgDetailsRepository.findActiveByPgId(pgId),
+            () -> reviewStatsCache.get(pgId)));
+        @SuppressWarnings("unchecked")
+        List<BookingMonthRow> bookingRows = (List<BookingMonthRow>) results.get(0);
+        @SuppressWarnings("unchecked")
+        List<MonthlyBookingStats> transitionRows = (List<MonthlyBookingStats>) results.get(1);
+        @SuppressWarnings("unchecked")
+        List<OccupancyMonthRow> occupancyRows = (List<OccupancyMonthRow>) results.get(2);
+        @SuppressWarnings("unchecked")
+        List<ReviewMonthRow> reviewRows = (List<ReviewMonthRow>) results.get(3);
+        @SuppressWarnings("unchecked")
+        Optional<PGDetails> pgDetails = (Optional<PGDetails>) results.get(4);
+        ReviewStats reviewStats = (ReviewStats) results.get(5);
+        
+        Map<YearMonth, List<BookingMonthRow>> bookingsByMonth = bookingRows.stream()
+            .collect(Collectors.groupingBy(BookingMonthRow::yearMonth));
+        Map<String, MonthlyBookingStats> transitionsByMonth = transitionRows.stream()
+            .collect(Collectors.toMap(MonthlyBookingStats::getMonth, Function.identity()));
+        Map<YearMonth, OccupancyMonthRow> occupancyByMonth = occupancyRows.stream()
+            .collect(Collectors.toMap(OccupancyMonthRow::yearMonth, Function.identity()));
+        Map<YearMonth, ReviewMonthRow> reviewsByMonth = reviewRows.stream()
+            .collect(Collectors.toMap(ReviewMonthRow::yearMonth, Function.identity()));
+        
+        List<Map<String, Object>> months = new ArrayList<>();
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        long totalBookings = 0;
+        long totalReviews = 0;
+        for (YearMonth month = fromMonth; !month.isAfter(toMonth); month = month.plusMonths(1)) {
+            BigDecimal revenue = BigDecimal.ZERO;
+            long bookings = 0;
+            Map<String, Long> bookingBreakdown = new HashMap<>();
+            for (Booking.BookingStatus status : Booking.BookingStatus.values()) {
+                bookingBreakdown.put(status.name().toLowerCase(), 0L);
+            }
+            for (BookingMonthRow row : bookingsByMonth.getOrDefault(month, List.of())) {
+                bookingBreakdown.put(row.status().name().toLowerCase(), row.bookings());
+                bookings += row.bookings();
+                if (row.status().countsAsRevenue() && row.amount() != null) {
+                    revenue = revenue.add(row.amount());
+                }
+            }
+            MonthlyBookingStats transitions = transitionsByMonth.getOrDefault(month.toString(),
+                MonthlyBookingStats.builder().pgId(pgId).month(month.toString()).build());
+            OccupancyMonthRow occupancy = occupancyByMonth.get(month);
+            ReviewMonthRow reviews = reviewsByMonth.get(month);
+            
+            Map<String, Object> monthData = new HashMap<>();
+            monthData.put("month", month.toString());
+            monthData.put("totalRevenue", revenue);
+            monthData.put("totalBookings", bookings);
+            monthData.put("bookingBreakdown", bookingBreakdown);
+            monthData.put("created", transitions.getCreatedCount());
+            monthData.put("cancelled", transitions.getCancelledCount());
+            monthData.put("cancellationRate", transitions.getCancellationRate());
+            monthData.put("recordedDays", occupancy != null ? occupancy.days() : 0L);
+            monthData.put("occupancyRate", occupancy != null ? occupancy.occupancyRate() : null);
+            monthData.put("newReviews", reviews != null ? reviews.reviews() : 0L);
+            monthData.put("averageRating", reviews != null ? reviews.averageRating() : null);
+            months.add(monthData);
+            
+            totalRevenue = totalRevenue.add(revenue);
+            totalBookings += bookings;
+            totalReviews += reviews != null ? reviews.reviews() : 0;
+        }
+        
+        Map<String, Object> totals = new HashMap<>();
+        totals.put("totalRevenue", totalRevenue);
+        totals.put("totalBookings", totalBookings);
+        totals.put("newReviews", totalReviews);
+        
+        Map<String, Object> current = new HashMap<>();
+        current.put("occupancyRate", pgDetails.map(PGDetails::getOccupancyRate).orElse(BigDecimal.ZERO));
+        current.put("totalCapacity", pgDetails.map(PGDetails::getTotalCapacity).orElse(0));
+        current.put("currentOccupancy", pgDetails.map(PGDetails::getCurrentOccupancy).orElse(0));
+        current.put("totalReviews", (int) reviewStats.totalReviews());
+        current.put("averageRating", reviewStats.averageRating());
+        
+        Map<String, Object> report = new HashMap<>();
+        report.put("fromMonth", fromMonth.toString());
+        report.put("toMonth", toMonth.toString());
+        report.put("months", months);
+        report.put("totals", totals);
+        report.put("current", current);
+        report.put("tookMs", (System.nanoTime() - started) / 1_000_000);
+        return report;
+    }
+    
+    /**
+     * Stay-length and booking-amount percentiles over bookings made in [from, to] that still hold
+     * their room, merged from the per-month sketches; defaults to the last 12 months.
+     */
+    public Map<String, Object> getBookingDistribution(Long pgId, String from, String to) {
+        log.info("Getting booking distribution for PG ID: {} from {} to {}", pgId, from, to);
+        
+        YearMonth toMonth = to != null ? parseMonth(to) : YearMonth.now();
+        YearMonth fromMonth = from != null ? parseMonth(from) : toMonth.minusMonths(11);
+        if (fromMonth.isAfter(toMonth)) {
+            throw new IllegalArgumentException("From month must not be after to month");
+        }
+        
+        Map<String, Object> distribution = summarizeSketches(
+            bookingSketchRepository.findRange(pgId, fromMonth.toString(), toMonth.toString()));
+        distribution.put("fromMonth", fromMonth.toString());
+        distribution.put("toMonth", toMonth.toString());
+        return distribution;
+    }
+    
+    /**
+     * Merges stored sketches per metric into stayDays and bookingAmount summaries.
+     */
+    static Map<String, Object> summarizeSketches(Iterable<BookingSketch> rows) {
+        Map<BookingSketch.Metric, QuantileSketch> merged = emptySketches();
+        for (BookingSketch row : rows) {
+            merged.get(row.getId().getMetric()).merge(QuantileSketch.fromBytes(row.getSketch()));
+        }
+        return summarizeSketches(merged);
+    }
+    
+    static Map<BookingSketch.Metric, QuantileSketch> emptySketches() {
+        Map<BookingSketch.Metric, QuantileSketch> merged = new EnumMap<>(BookingSketch.Metric.class);
+        for (BookingSketch.Metric metric : BookingSketch.Metric.values()) {
+            merged.put(metric, new QuantileSketch());
+        }
+        return merged;
+    }
+    
+    static Map<String, Object> summarizeSketches(Map<BookingSketch.Metric, QuantileSketch> merged) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("stayDays", merged.get(BookingSketch.Metric.STAY_DAYS).summary());
+        summary.put("bookingAmount", merged.get(BookingSketch.Metric.BOOKING_AMOUNT).summary());
+        summary.put("relativeAccuracy", QuantileSketch.DEFAULT_RELATIVE_ACCURACY);
+        return summary;
+    }
+    
+    public Map<String, Object> getBookingTrends(Long pgId, int months) {
+        log.info("Getting booking trends for PG ID: {}, months: {}", pgId, months);
+        
+        if (months < 1 || months > 60) {
+            throw new IllegalArgumentException("Months must be between 1 and 60");
+        }
+        
+        YearMonth toMonth = YearMonth.now();
+        YearMonth fromMonth = toMonth.minusMonths(months - 1);
+        Map<String, MonthlyBookingStats> statsByMonth = monthlyBookingStatsRepository
+            .findByPgIdAndMonthBetweenOrderByMonth(pgId, fromMonth.toString(), toMonth.toString()).stream()
+            .collect(Collectors.toMap(MonthlyBookingStats::getMonth, Function.identity()));
+        
+        List<Map<String, Object>> trends = new ArrayList<>();
+        long totalCreated = 0;
+        long totalCancelled = 0;
+        for (YearMonth month = fromMonth; !month.isAfter(toMonth); month = month.plusMonths(1)) {
+            MonthlyBookingStats stats = statsByMonth.getOrDefault(month.toString(),
+                MonthlyBookingStats.builder().pgId(pgId).month(month.toString()).build());
+            
+            Map<String, Object> monthData = new HashMap<>();
+            monthData.put("month", stats.getMonth());
+            monthData.put("created", stats.getCreatedCount());
+            monthData.put("confirmed", stats.getConfirmedCount());
+            monthData.put("activated", stats.getActivatedCount());
+            monthData.put("completed", stats.getCompletedCount());
+            monthData.put("cancelled", stats.getCancelledCount());
+            monthData.put("noShow", stats.getNoShowCount());
+            monthData.put("paymentChanges", stats.getPaymentChangedCount());
+            monthData.put("cancellationRate", stats.getCancellationRate());
+            trends.add(monthData);
+            
+            totalCreated += stats.getCreatedCount();
+            totalCancelled += stats.getCancelledCount();
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("fromMonth", fromMonth.toString());
+        result.put("toMonth", toMonth.toString());
+        result.put("months", trends);
+        result.put("totalCreated", totalCreated);
+        result.put("totalCancelled", totalCancelled);
+        result.put("cancellationRate", totalCreated > 0 ? (double) totalCancelled / totalCreated : 0.0);
+        
+        return result;
+    }
+    
+    static YearMonth parseMonth(String month) {
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid month format: " + month + ", expected yyyy-MM");
+        }
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
 }
@@ -0,0 +1,247 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.BookingSpan;
+import com.myspot.backend.dto.projection.RoomCapacity;
+import com.myspot.backend.entities.Booking;
+import com.myspot.backend.events.BookingChangedEvent;
+import com.myspot.backend.events.RoomCapacityChangedEvent;
+import com.myspot.backend.repository.BookingRepository;
+import com.myspot.backend.repository.PGDetailsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Rolling per-PG calendar of occupied beds per room type for the next horizonDays nights.
+ * A booking occupies one bed for each night in [checkIn, checkOut).
+ * Rebuilt for all PGs at startup with a streaming scan, loaded lazily for PGs added later,
+ * and kept in sync from BookingChangedEvent after commit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BedAvailabilityCalendar {
+    
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+    private static final Booking.RoomType[] ROOM_TYPES = Booking.RoomType.values();
+    
+    private final BookingRepository bookingRepository;
+    private final PGDetailsRepository pgDetailsRepository;
+    private final PlatformTransactionManager transactionManager;
+    
+    private final Map<Long, PgCalendar> calendars = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> modCounts = new ConcurrentHashMap<>();
+    
+    @Value("${app.availability.horizon-days:90}")
+    private int horizonDays;
+    
+    @Value("${app.availability.ttl-minutes:10}")
+    private long ttlMinutes;
+    
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+    
+    /**
+     * Free beds per room type for each of the next days nights starting today.
+     */
+    public Map<Booking.RoomType, int[]> getAvailability(Long pgId, int days) {
+        return getCalendar(pgId).freeBeds(Math.min(days, horizonDays));
+    }
+    
+    public Map<Booking.RoomType, Integer> getCapacity(Long pgId) {
+        return getCalendar(pgId).capacity();
+    }
+    
+    public void invalidate(Long pgId) {
+        modCount(pgId).incrementAndGet();
+        calendars.remove(pgId);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Long pgId = event.pgId();
+        modCount(pgId).incrementAndGet();
+        PgCalendar calendar = calendars.get(pgId);
+        if (calendar != null) {
+            calendar.apply(event.booking());
+        }
+    }
+    
+    // After commit, so a concurrent load cannot cache the room counts from before the change
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRoomCapacityChanged(RoomCapacityChangedEvent event) {
+        invalidate(event.pgId());
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        try {
+            readOnly.executeWithoutResult(status -> rebuildAll());
+        } catch (Exception e) {
+            log.warn("Bed availability calendar rebuild failed, PGs will load on first use: {}", e.getMessage());
+        }
+    }
+    
+    private void rebuildAll() {
+        log.info("Rebuilding bed availability calendar for all PGs");
+        long started = System.nanoTime();
+        long today = LocalDate.now().toEpochDay();
+        
+        Map<Long, Long> seen = new HashMap<>();
+        Map<Long, PgCalendar> rebuilt = new HashMap<>();
+        for (RoomCapacity capacity : pgDetailsRepository.findAllActiveRoomCapacities()) {
+            seen.put(capacity.pgId(), modCount(capacity.pgId()).get());
+            rebuilt.put(capacity.pgId(), new PgCalendar(capacity, today, horizonDays));
+        }
+        
+        long rows = 0;
+        try (Stream<BookingSpan> spans = bookingRepository.streamHoldingSpansInWindow(
+                Booking.BookingStatus.nonHoldingStatuses(), LocalDate.ofEpochDay(today), LocalDate.ofEpochDay(today + horizonDays))) {
+            for (BookingSpan span : (Iterable<BookingSpan>) spans::iterator) {
+                PgCalendar calendar = rebuilt.get(span.pgId());
+                if (calendar != null) {
+                    calendar.apply(span);
+                }
+                rows++;
+            }
+        }
+        
+        // PGs written to while the scan was running are left to load lazily
+        rebuilt.forEach((pgId, calendar) -> {
+            if (modCount(pgId).get() == seen.get(pgId)) {
+                calendars.put(pgId, calendar);
+            }
+        });
+        log.info("Rebuilt bed availability calendar for {} PGs from {} bookings in {} ms",
+            rebuilt.size(), rows, (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    private PgCalendar getCalendar(Long pgId) {
+        PgCalendar calendar = calendars.get(pgId);
+        long today = LocalDate.now().toEpochDay();
+        if (calendar != null && calendar.baseDay == today && !calendar.isExpired(ttlMinutes)) {
+            return calendar;
+        }
+        PgCalendar loaded;
+        long seen;
+        int attempts = 0;
+        do {
+            seen = modCount(pgId).get();
+            loaded = load(pgId, today);
+        } while (modCount(pgId).get() != seen && ++attempts < MAX_LOAD_ATTEMPTS);
+        calendars.put(pgId, loaded);
+        return loaded;
+    }
+    
+    private PgCalendar load(Long pgId, long today) {
+        RoomCapacity capacity = pgDetailsRepository.findRoomCapacityByPgId(pgId)
+            .orElse(new RoomCapacity(pgId, 0, 0, 0, 0));
+        List<BookingSpan> spans = bookingRepository.findHoldingSpansInWindow(pgId, Booking.BookingStatus.nonHoldingStatuses(),
+            LocalDate.ofEpochDay(today), LocalDate.ofEpochDay(today + horizonDays));
+        PgCalendar calendar = new PgCalendar(capacity, today, horizonDays);
+        spans.forEach(calendar::apply);
+        log.debug("Loaded bed availability calendar for PG ID: {} with {} bookings", pgId, spans.size());
+        return calendar;
+    }
+    
+    private AtomicLong modCount(Long pgId) {
+        return modCounts.computeIfAbsent(pgId, id -> new AtomicLong());
+    }
+    
+    private static final class PgCalendar {
+        
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final int[] capacity = new int[ROOM_TYPES.length];
+        private final int[][] occupied;
+        private final Map<Long, BookingSpan> counted = new HashMap<>();
+        private final long baseDay;
+        private final long loadedAt = System.currentTimeMillis();
+        
+        PgCalendar(RoomCapacity roomCapacity, long baseDay, int horizonDays) {
+            for (Booking.RoomType roomType : ROOM_TYPES) {
+                capacity[roomType.ordinal()] = roomCapacity.totalBeds(roomType);
+            }
+            this.occupied = new int[ROOM_TYPES.length][horizonDays];
+            this.baseDay = baseDay;
+        }
+        
+        boolean isExpired(long ttlMinutes) {
+            return System.currentTimeMillis() - loadedAt > ttlMinutes * 60_000;
+        }
+        
+        Map<Booking.RoomType, Integer> capacity() {
+            Map<Booking.RoomType, Integer> result = new EnumMap<>(Booking.RoomType.class);
+            for (Booking.RoomType roomType : ROOM_TYPES) {
+                result.put(roomType, capacity[roomType.ordinal()]);
+            }
+            return result;
+        }
+        
+        Map<Booking.RoomType, int[]> freeBeds(int days) {
+            Map<Booking.RoomType, int[]> result = new EnumMap<>(Booking.RoomType.class);
+            lock.readLock().lock();
+            try {
+                for (Booking.RoomType roomType : ROOM_TYPES) {
+                    int type = roomType.ordinal();
+                    int[] free = new int[days];
+                    for (int day = 0; day < days; day++) {
+                        free[day] = Math.max(0, capacity[type] - occupied[type][day]);
+                    }
+                    result.put(roomType, free);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return result;
+        }
+        
+        void apply(BookingSpan span) {
+            lock.writeLock().lock();
+            try {
+                BookingSpan previous = counted.remove(span.bookingId());
+                if (previous != null) {
+                    add(previous, -1);
+                }
+                if (span.status().holdsRoom() && add(span, 1)) {
+                    counted.put(span.bookingId(), span);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        private boolean add(BookingSpan span, int delta) {
+            if (span.roomType() == null) {
+                return false;
+            }
+            int[] nights = occupied[span.roomType().ordinal()];
+            int from = (int) Math.max(0, span.startDay() - baseDay);
+            int to = (int) Math.min(nights.length, span.endDay() - baseDay);
+            for (int day = from; day < to; day++) {
+                nights[day] += delta;
+            }
+            return from < to;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.BookingSpan;
+import com.myspot.backend.dto.request.CreateBookingRequest;
+import com.myspot.backend.entities.*;
+import com.myspot.backend.events.BookingChangedEvent;
+import com.myspot.backend.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Creates bookings so that a room never holds more overlapping stays than it has beds.
+ *
+ * Writers to the same (pgId, roomNumber) are serialised twice: by a lock stripe within the node,
+ * so local contention never reaches the database, and by a NOWAIT row lock on booking_room_locks
+ * across nodes. Both give up immediately rather than wait, and the capacity check runs only
+ * while both are held. The transaction commits before the stripe is released.
+ *
+ * The room's lock row is created, in its own committed statement, before the booking transaction
+ * starts. Inserting it after the NOWAIT read had found nothing would queue behind the gap lock
+ * that read took on the same key, and deadlock the first booking for a new room.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingCreationService {
+    
+    private static final String ROOM_BUSY_MESSAGE = "Room %s is being booked by another request, please retry";
+    
+    private final BookingRepository bookingRepository;
+    private final GuestRepository guestRepository;
+    private final PGManagementOwnerRepository pgManagementOwnerRepository;
+    private final BookingRoomLockRepository bookingRoomLockRepository;
+    private final RoomLockStripes roomLockStripes;
+    private final BookingReferenceGenerator bookingReferenceGenerator;
+    private final BookingService bookingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    
+    public Map<String, Object> createBooking(Long pgId, CreateBookingRequest request) {
+        log.info("Creating booking in room: {} from {} to {} for PG ID: {}",
+            request.getRoomNumber(), request.getCheckInDate(), request.getCheckOutDate(), pgId);
+        
+        if (!request.getCheckOutDate().isAfter(request.getCheckInDate())) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+        Booking.RoomType roomType;
+        try {
+            roomType = Booking.RoomType.valueOf(request.getRoomType().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid room type: " + request.getRoomType());
+        }
+        String roomNumber = request.getRoomNumber().trim();
+        
+        ReentrantLock stripe = roomLockStripes.tryLock(pgId, roomNumber);
+        if (stripe == null) {
+            throw new IllegalStateException(String.format(ROOM_BUSY_MESSAGE, roomNumber));
+        }
+        Long bookingId;
+        try {
+            ensureRoomLockRow(pgId, roomNumber);
+            bookingId = new TransactionTemplate(transactionManager).execute(status -> insertBooking(pgId, roomNumber, roomType, request));
+        } catch (ConcurrencyFailureException e) {
+            log.info("Room: {} in PG ID: {} is locked by another node", roomNumber, pgId);
+            throw new IllegalStateException(String.format(ROOM_BUSY_MESSAGE, roomNumber));
+        } finally {
+            stripe.unlock();
+        }
+        
+        return bookingService.getBookingDetails(pgId, bookingId);
+    }
+    
+    private Long insertBooking(Long pgId, String roomNumber, Booking.RoomType roomType, CreateBookingRequest request) {
+        Guest guest = guestRepository.findById(request.getGuestId())
+            .orElseThrow(() -> new RuntimeException("Guest not found"));
+        if (!guest.getPgManagementOwner().getPgId().equals(pgId)) {
+            throw new RuntimeException("Guest does not belong to this PG");
+        }
+        
+        lockRoom(pgId, roomNumber);
+        
+        List<BookingSpan> overlapping = bookingRepository.findOverlappingInRoom(pgId, roomNumber,
+            Booking.BookingStatus.nonHoldingStatuses(), request.getCheckInDate(), request.getCheckOutDate());
+        for (BookingSpan span : overlapping) {
+            if (span.roomType() != roomType) {
+                throw new IllegalStateException("Room " + roomNumber + " is booked as "
+                    + span.roomType().getDisplayName() + " for these dates");
+            }
+        }
+        if (peakBedsTaken(overlapping, request.getCheckInDate(), request.getCheckOutDate()) >= roomType.getBedsPerRoom()) {
+            throw new IllegalStateException("Room " + roomNumber + " has no free bed between "
+                + request.getCheckInDate() + " and " + request.getCheckOutDate());
+        }
+        
+        Booking booking = Booking.builder()
+            .bookingReference(bookingReferenceGenerator.nextReference(pgId))
+            .pgManagementOwner(pgManagementOwnerRepository.getReferenceById(pgId))
+            .guest(guest)
+            .guestName(guest.getFullName())
+            .contactNumber(guest.getPhoneNumber())
+            .emailAddress(guest.getEmailAddress())
+            .roomType(roomType)
+            .roomNumber(roomNumber)
+            .isAcRoom(Boolean.TRUE.equals(request.getIsAcRoom()))
+            .bookingDate(LocalDate.now())
+            .checkInDate(request.getCheckInDate())
+            .checkOutDate(request.getCheckOutDate())
+            .baseAmount(request.getBaseAmount())
+            .extraCharges(orZero(request.getExtraCharges()))
+            .discountAmount(orZero(request.getDiscountAmount()))
+            .advancePaid(orZero(request.getAdvancePaid()))
+            .status(Booking.BookingStatus.PENDING)
+            .paymentStatus(Booking.PaymentStatus.PENDING)
+            .specialRequests(request.getSpecialRequests())
+            .notes(request.getNotes())
+            .build();
+        booking.calculateTotalAmount();
+        booking.calculateDuration();
+        
+        booking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.of(booking, null, null));
+        log.info("Created booking: {} in room: {} for PG ID: {}", booking.getBookingReference(), roomNumber, pgId);
+        return booking.getBookingId();
+    }
+    
+    /**
+     * Highest number of stays holding a bed on any one night between checkIn and checkOut, by a
+     * sweep over the stays' arrivals and departures. A departure frees its bed the same night
+     * another guest arrives.
+     */
+    static int peakBedsTaken(List<BookingSpan> spans, LocalDate checkIn, LocalDate checkOut) {
+        TreeMap<Long, Integer> changes = new TreeMap<>();
+        for (BookingSpan span : spans) {
+            long from = Math.max(span.startDay(), checkIn.toEpochDay());
+            long to = Math.min(span.endDay(), checkOut.toEpochDay());
+            if (from < to) {
+                changes.merge(from, 1, Integer::sum);
+                changes.merge(to, -1, Integer::sum);
+            }
+        }
+        int taken = 0;
+        int peak = 0;
+        for (int change : changes.values()) {
+            taken += change;
+            peak = Math.max(peak, taken);
+        }
+        return peak;
+    }
+    
+    private void ensureRoomLockRow(Long pgId, String roomNumber) {
+        // Plain read first: INSERT IGNORE on an existing row would wait on whoever holds its lock
+        if (!bookingRoomLockRepository.existsById(new BookingRoomLock.Key(pgId, roomNumber))) {
+            bookingRoomLockRepository.insertIfMissing(pgId, roomNumber);
+        }
+    }
+    
+    private void lockRoom(Long pgId, String roomNumber) {
+        if (bookingRoomLockRepository.lockNoWait(pgId, roomNumber).isEmpty()) {
+            throw new IllegalStateException("Lock row missing for room " + roomNumber + " in PG ID: " + pgId);
+        }
+    }
+    
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,91 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.BookingEvent;
+import com.myspot.backend.events.BookingChangedEvent;
+import com.myspot.backend.repository.BookingEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends booking_events rows for every BookingChangedEvent. The listener is synchronous,
+ * so the rows commit or roll back together with the status change that produced them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingEventRecorder {
+    
+    private static final String BACKFILL_LOCK_NAME = "booking-events-backfill";
+    
+    private final BookingEventRepository bookingEventRepository;
+    private final SchedulerLockService schedulerLockService;
+    private final PlatformTransactionManager transactionManager;
+    
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingEvent> events = new ArrayList<>();
+        if (event.isCreated()) {
+            events.add(toEntity(event, BookingEvent.EventType.CREATED, now));
+        } else if (event.isStatusChanged()) {
+            events.add(toEntity(event, BookingEvent.EventType.forStatus(event.booking().status()), now));
+        }
+        if (event.isPaymentChanged()) {
+            events.add(toEntity(event, BookingEvent.EventType.PAYMENT_CHANGED, now));
+        }
+        if (!events.isEmpty()) {
+            bookingEventRepository.saveAll(events);
+        }
+    }
+    
+    /**
+     * Seeds the stream from existing bookings the first time the table is empty,
+     * so projections start from the same history the bookings table already shows.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (bookingEventRepository.count() > 0
+                    || !schedulerLockService.tryAcquire(BACKFILL_LOCK_NAME, Duration.ofMinutes(30))) {
+                return;
+            }
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    if (bookingEventRepository.count() == 0) {
+                        int created = bookingEventRepository.backfillCreatedEvents();
+                        int changed = bookingEventRepository.backfillStatusEvents();
+                        log.info("Backfilled booking event log with {} created and {} status events", created, changed);
+                    }
+                });
+            } finally {
+                schedulerLockService.release(BACKFILL_LOCK_NAME);
+            }
+        } catch (Exception e) {
+            log.warn("Booking event backfill failed: {}", e.getMessage());
+        }
+    }
+    
+    private BookingEvent toEntity(BookingChangedEvent event, BookingEvent.EventType eventType, LocalDateTime occurredAt) {
+        return BookingEvent.builder()
+            .bookingId(event.booking().bookingId())
+            .pgId(event.pgId())
+            .eventType(eventType)
+            .fromStatus(event.previousStatus())
+            .toStatus(event.booking().status())
+            .fromPaymentStatus(event.previousPaymentStatus())
+            .toPaymentStatus(event.paymentStatus())
+            .checkInDate(event.booking().checkInDate())
+            .occurredAt(occurredAt)
+            .build();
+    }
+}
@@ -0,0 +1,144 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.BookingSpan;
+import com.myspot.backend.entities.Booking;
+import com.myspot.backend.events.BookingChangedEvent;
+import com.myspot.backend.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-PG interval index over room-holding bookings, keyed by room number.
+ * Loaded lazily on first use, kept in sync from BookingChangedEvent after commit,
+ * and reloaded after a TTL so writes made on other nodes converge.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+    
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+    
+    private final BookingRepository bookingRepository;
+    
+    private final Map<Long, PgIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> modCounts = new ConcurrentHashMap<>();
+    
+    @Value("${app.booking.interval-index.ttl-minutes:10}")
+    private long ttlMinutes;
+    
+    /**
+     * Bookings occupying the room on the given date (checkIn <= date <= checkOut).
+     */
+    public List<BookingSpan> findOccupants(Long pgId, String roomNumber, LocalDate date) {
+        return getIndex(pgId).query(roomNumber, date.toEpochDay(), date.toEpochDay());
+    }
+    
+    /**
+     * Bookings whose stay overlaps the requested nights [checkIn, checkOut).
+     * A check-out and a check-in on the same day do not conflict.
+     */
+    public List<BookingSpan> findConflicts(Long pgId, String roomNumber, LocalDate checkIn, LocalDate checkOut) {
+        return getIndex(pgId).query(roomNumber, checkIn.toEpochDay() + 1, checkOut.toEpochDay() - 1);
+    }
+    
+    public void invalidate(Long pgId) {
+        modCount(pgId).incrementAndGet();
+        indexes.remove(pgId);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Long pgId = event.pgId();
+        modCount(pgId).incrementAndGet();
+        PgIndex index = indexes.get(pgId);
+        if (index != null) {
+            index.apply(event.booking());
+        }
+    }
+    
+    private PgIndex getIndex(Long pgId) {
+        PgIndex index = indexes.get(pgId);
+        if (index != null && !index.isExpired(ttlMinutes)) {
+            return index;
+        }
+        PgIndex loaded;
+        long seen;
+        int attempts = 0;
+        do {
+            seen = modCount(pgId).get();
+            loaded = load(pgId);
+        } while (modCount(pgId).get() != seen && ++attempts < MAX_LOAD_ATTEMPTS);
+        indexes.put(pgId, loaded);
+        return loaded;
+    }
+    
+    private PgIndex load(Long pgId) {
+        long started = System.nanoTime();
+        List<BookingSpan> spans = bookingRepository.findRoomSpansByPgId(pgId, Booking.BookingStatus.nonHoldingStatuses());
+        PgIndex index = new PgIndex();
+        spans.forEach(index::apply);
+        log.info("Loaded booking interval index for PG ID: {} with {} bookings in {} ms",
+            pgId, spans.size(), (System.nanoTime() - started) / 1_000_000);
+        return index;
+    }
+    
+    private AtomicLong modCount(Long pgId) {
+        return modCounts.computeIfAbsent(pgId, id -> new AtomicLong());
+    }
+    
+    private static final class PgIndex {
+        
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<String, BookingIntervalTree> rooms = new HashMap<>();
+        private final Map<Long, BookingSpan> byBookingId = new HashMap<>();
+        private final long loadedAt = System.currentTimeMillis();
+        
+        boolean isExpired(long ttlMinutes) {
+            return System.currentTimeMillis() - loadedAt > ttlMinutes * 60_000;
+        }
+        
+        List<BookingSpan> query(String roomNumber, long from, long to) {
+            lock.readLock().lock();
+            try {
+                BookingIntervalTree tree = rooms.get(roomNumber);
+                return tree == null ? List.of() : tree.overlapping(from, to);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        void apply(BookingSpan span) {
+            lock.writeLock().lock();
+            try {
+                BookingSpan previous = byBookingId.remove(span.bookingId());
+                if (previous != null) {
+                    BookingIntervalTree tree = rooms.get(previous.roomNumber());
+                    tree.remove(previous.startDay(), previous.bookingId());
+                    if (tree.isEmpty()) {
+                        rooms.remove(previous.roomNumber());
+                    }
+                }
+                if (span.roomNumber() != null && span.status().holdsRoom()) {
+                    rooms.computeIfAbsent(span.roomNumber(), room -> new BookingIntervalTree()).insert(span);
+                    byBookingId.put(span.bookingId(), span);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.BookingSpan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Augmented AVL tree over booking stays [checkIn, checkOut] (both ends inclusive, in epoch days).
+ * Nodes are ordered by (checkIn, bookingId) and carry the max checkOut of their subtree,
+ * so stabbing and overlap queries run in O(log n + k).
+ *
+ * Not thread-safe; callers guard access.
+ */
+public class BookingIntervalTree {
+    
+    private static final class Node {
+        final BookingSpan span;
+        final long start;
+        final long end;
+        long maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+        
+        Node(BookingSpan span) {
+            this.span = span;
+            this.start = span.startDay();
+            this.end = span.endDay();
+            this.maxEnd = end;
+        }
+    }
+    
+    private Node root;
+    private int size;
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public void insert(BookingSpan span) {
+        root = insert(root, new Node(span));
+        size++;
+    }
+    
+    /**
+     * Removes the span with the given booking id, which must have been inserted with checkIn startDay.
+     */
+    public boolean remove(long startDay, Long bookingId) {
+        int before = size;
+        root = remove(root, startDay, bookingId);
+        return size < before;
+    }
+    
+    /**
+     * All spans with checkIn <= day <= checkOut.
+     */
+    public List<BookingSpan> stab(long day) {
+        return overlapping(day, day);
+    }
+    
+    /**
+     * All spans with checkIn <= to and checkOut >= from.
+     */
+    public List<BookingSpan> overlapping(long from, long to) {
+        List<BookingSpan> result = new ArrayList<>();
+        collect(root, from, to, result);
+        return result;
+    }
+    
+    private void collect(Node node, long from, long to, List<BookingSpan> out) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        collect(node.left, from, to, out);
+        if (node.start <= to) {
+            if (node.end >= from) {
+                out.add(node.span);
+            }
+            collect(node.right, from, to, out);
+        }
+    }
+    
+    private static int compare(long start, Long bookingId, Node node) {
+        int cmp = Long.compare(start, node.start);
+        return cmp != 0 ? cmp : Long.compare(bookingId, node.span.bookingId());
+    }
+    
+    private Node insert(Node node, Node fresh) {
+        if (node == null) {
+            return fresh;
+        }
+        if (compare(fresh.start, fresh.span.bookingId(), node) < 0) {
+            node.left = insert(node.left, fresh);
+        } else {
+            node.right = insert(node.right, fresh);
+        }
+        return rebalance(node);
+    }
+    
+    private Node remove(Node node, long start, Long bookingId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, bookingId, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, bookingId);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, bookingId);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            return rebalance(successor);
+        }
+        return rebalance(node);
+    }
+    
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+    
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+    
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long max = node.end;
+        if (node.left != null && node.left.maxEnd > max) {
+            max = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd > max) {
+            max = node.right.maxEnd;
+        }
+        node.maxEnd = max;
+    }
+    
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+    
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+    
+    private static Node rebalance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+}
@@ -0,0 +1,101 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.BookingStatusRow;
+import com.myspot.backend.entities.Booking;
+import com.myspot.backend.events.BookingChangedEvent;
+import com.myspot.backend.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves bookings along their lifecycle by date: CONFIRMED becomes ACTIVE on the check-in date
+ * and ACTIVE becomes COMPLETED the day after check-out.
+ * Due rows are read in booking-id order, one chunk per transaction, and written with the
+ * version-guarded batch writer, so reruns and concurrent manual updates are harmless.
+ * Only the node holding the scheduler lease does the work.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingLifecycleScheduler {
+    
+    private static final String LOCK_NAME = "booking-lifecycle";
+    
+    private final BookingRepository bookingRepository;
+    private final BookingStatusBatchWriter bookingStatusBatchWriter;
+    private final LeasedJobRunner leasedJobRunner;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    
+    @Value("${app.booking.lifecycle.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${app.booking.lifecycle.lease-minutes:10}")
+    private long leaseMinutes;
+    
+    @Value("${app.booking.lifecycle.enabled:true}")
+    private boolean enabled;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        leasedJobRunner.catchUp("Booking lifecycle", this::run);
+    }
+    
+    @Scheduled(cron = "${app.booking.lifecycle.cron:0 5 * * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        leasedJobRunner.runLeased(LOCK_NAME, Duration.ofMinutes(leaseMinutes), () -> {
+            LocalDate today = LocalDate.now();
+            int activated = transition(Booking.BookingStatus.ACTIVE,
+                afterId -> bookingRepository.findCheckInDue(Booking.BookingStatus.CONFIRMED, today, afterId, PageRequest.of(0, chunkSize)));
+            int completed = transition(Booking.BookingStatus.COMPLETED,
+                afterId -> bookingRepository.findCheckOutDue(Booking.BookingStatus.ACTIVE, today, afterId, PageRequest.of(0, chunkSize)));
+            if (activated > 0 || completed > 0) {
+                log.info("Booking lifecycle run activated {} and completed {} bookings", activated, completed);
+            }
+        });
+    }
+    
+    private int transition(Booking.BookingStatus to, ChunkReader reader) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return leasedJobRunner.runChunks(LOCK_NAME, Duration.ofMinutes(leaseMinutes), chunkSize,
+            afterId -> transaction.execute(status -> applyChunk(reader.read(afterId), to))).changed();
+    }
+    
+    private LeasedJobRunner.ChunkResult applyChunk(List<BookingStatusRow> rows, Booking.BookingStatus to) {
+        if (rows.isEmpty()) {
+            return LeasedJobRunner.ChunkResult.EMPTY;
+        }
+        // Automatic transitions leave payment status alone; only staff actions imply payment
+        Set<Long> written = bookingStatusBatchWriter.write(rows.stream()
+            .map(row -> new BookingStatusBatchWriter.StatusUpdate(row.bookingId(), to, null, row.version()))
+            .toList());
+        for (BookingStatusRow row : rows) {
+            if (written.contains(row.bookingId())) {
+                eventPublisher.publishEvent(new BookingChangedEvent(row.toSpan(to), row.status(), row.paymentStatus(), row.paymentStatus()));
+            }
+        }
+        return new LeasedJobRunner.ChunkResult(rows.size(), rows.get(rows.size() - 1).bookingId(), written.size());
+    }
+    
+    @FunctionalInterface
+    private interface ChunkReader {
+        List<BookingStatusRow> read(long afterId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.BookingEvent;
+
+import java.util.List;
+
+/**
+ * Read model built from the booking event log. BookingProjectionRunner hands each projection
+ * the events after its checkpoint, in event id order, and advances the checkpoint in the same
+ * transaction, so apply must only write through the current transaction.
+ */
+public interface BookingProjection {
+    
+    /**
+     * Stable name used as the checkpoint key.
+     */
+    String getName();
+    
+    void apply(List<BookingEvent> events);
+}
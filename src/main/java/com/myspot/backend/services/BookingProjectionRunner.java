@@ -0,0 +1,120 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.BookingEvent;
+import com.myspot.backend.entities.ProjectionCheckpoint;
+import com.myspot.backend.repository.BookingEventRepository;
+import com.myspot.backend.repository.ProjectionCheckpointRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Feeds new booking events to every BookingProjection and checkpoints their offsets.
+ * The checkpoint row is locked for the batch, so nodes polling at the same time take turns
+ * instead of applying the same events twice.
+ *
+ * Event ids are assigned at insert but become visible at commit, so a lower id can appear after
+ * a higher one, however long ago the event was written. The runner applies every visible event
+ * straight away and records the ids it stepped over as open gaps on the checkpoint. Each poll
+ * looks the gaps up again and applies whatever has committed since; a gap still empty after
+ * gapTimeoutMinutes is taken to be a rolled-back insert and dropped. Projections only add up
+ * per-event deltas, so a late event applied out of order gives the same result.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingProjectionRunner {
+    
+    private final List<BookingProjection> projections;
+    private final BookingEventRepository bookingEventRepository;
+    private final ProjectionCheckpointRepository projectionCheckpointRepository;
+    private final PlatformTransactionManager transactionManager;
+    
+    @Value("${app.projections.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.projections.gap-timeout-minutes:60}")
+    private long gapTimeoutMinutes;
+    
+    @Value("${app.projections.max-gaps:200}")
+    private int maxGaps;
+    
+    @Scheduled(fixedDelayString = "${app.projections.poll-interval-ms:5000}")
+    public void runAll() {
+        for (BookingProjection projection : projections) {
+            try {
+                run(projection);
+            } catch (Exception e) {
+                log.warn("Projection {} failed, will retry on the next poll: {}", projection.getName(), e.getMessage());
+            }
+        }
+    }
+    
+    public void run(BookingProjection projection) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer applied;
+        do {
+            applied = transaction.execute(status -> step(projection));
+        } while (applied != null && applied == batchSize);
+    }
+    
+    private int step(BookingProjection projection) {
+        projectionCheckpointRepository.insertIfMissing(projection.getName());
+        ProjectionCheckpoint checkpoint = projectionCheckpointRepository.findForUpdate(projection.getName())
+            .orElseThrow(() -> new IllegalStateException("Projection checkpoint missing: " + projection.getName()));
+        
+        String storedGaps = checkpoint.getPendingGaps();
+        EventGaps gaps = EventGaps.parse(storedGaps);
+        long now = System.currentTimeMillis() / 1000;
+        
+        List<BookingEvent> batch = new ArrayList<>();
+        for (EventGaps.Range range : gaps.ranges()) {
+            for (BookingEvent late : bookingEventRepository.findByEventIdBetweenOrderByEventId(range.from(), range.to())) {
+                gaps.fill(late.getEventId());
+                batch.add(late);
+            }
+        }
+        for (EventGaps.Range range : gaps.expire(now, gapTimeoutMinutes * 60)) {
+            log.warn("Projection {} stopped waiting for event IDs {} to {}", projection.getName(), range.from(), range.to());
+        }
+        int late = batch.size();
+        
+        List<BookingEvent> events = bookingEventRepository.findByEventIdGreaterThanOrderByEventId(
+            checkpoint.getLastEventId(), PageRequest.of(0, batchSize));
+        long expectedId = checkpoint.getLastEventId() + 1;
+        for (BookingEvent event : events) {
+            gaps.open(expectedId, event.getEventId() - 1, now);
+            expectedId = event.getEventId() + 1;
+        }
+        for (EventGaps.Range range : gaps.trim(maxGaps)) {
+            log.warn("Projection {} has too many open gaps, dropped event IDs {} to {}", projection.getName(), range.from(), range.to());
+        }
+        batch.addAll(events);
+        
+        String pendingGaps = gaps.format();
+        if (batch.isEmpty() && Objects.equals(pendingGaps, storedGaps)) {
+            return 0;
+        }
+        if (!batch.isEmpty()) {
+            projection.apply(batch);
+        }
+        if (!events.isEmpty()) {
+            checkpoint.setLastEventId(events.get(events.size() - 1).getEventId());
+        }
+        checkpoint.setPendingGaps(pendingGaps);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        log.debug("Projection {} applied {} new and {} late events up to event ID: {}, {} gaps open",
+            projection.getName(), events.size(), late, checkpoint.getLastEventId(), gaps.size());
+        return events.size();
+    }
+}
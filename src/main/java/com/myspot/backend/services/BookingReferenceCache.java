@@ -0,0 +1,51 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.BookingRef;
+import com.myspot.backend.repository.BookingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded LRU near-cache of booking reference to booking id and owning PG.
+ * A reference never moves to another booking or PG, so entries need no invalidation;
+ * misses are not cached, so a booking created after a failed lookup is found next time.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingReferenceCache {
+    
+    private final BookingRepository bookingRepository;
+    
+    @Value("${app.booking.reference-cache.max-entries:10000}")
+    private int maxEntries;
+    
+    private final Map<String, BookingRef> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BookingRef> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    
+    public Optional<BookingRef> resolve(String bookingReference) {
+        synchronized (entries) {
+            BookingRef cached = entries.get(bookingReference);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
+        Optional<BookingRef> loaded = bookingRepository.findRefByBookingReference(bookingReference);
+        loaded.ifPresent(ref -> put(bookingReference, ref));
+        return loaded;
+    }
+    
+    public void put(String bookingReference, BookingRef ref) {
+        synchronized (entries) {
+            entries.put(bookingReference, ref);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.myspot.backend.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates booking references without a database round-trip.
+ *
+ * The core is a 63-bit id: 41 bits of milliseconds since 2024-01-01, 10 bits of node id and a
+ * 12-bit per-millisecond sequence. Timestamp and sequence live in one AtomicLong advanced by CAS,
+ * so concurrent callers never block and never reuse a value; when a millisecond's sequence runs
+ * out the generator borrows the next millisecond instead of waiting for the clock, and a clock
+ * that steps backwards is ignored the same way.
+ *
+ * The reference is "BK" + the id as 13 fixed-width base36 digits + a 3-digit base36 PG tag,
+ * 18 characters in all, so references sort by creation time.
+ *
+ * Unless app.booking.reference.node-id pins it, the node id is claimed at startup as a
+ * SchedulerLockService lease named booking-ref-node-<id>, so no two live nodes share one; startup
+ * fails when all ids are taken. The lease is renewed in the background, and the generator stops
+ * issuing references once half the lease has passed without a renewal, which leaves room for
+ * clock skew before another node could claim the id. A lost lease is replaced by a fresh claim.
+ */
+@Slf4j
+@Component
+public class BookingReferenceGenerator {
+    
+    static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    
+    private static final String PREFIX = "BK";
+    private static final int ID_DIGITS = 13;
+    private static final int PG_TAG_DIGITS = 3;
+    private static final long PG_TAG_MODULUS = 36L * 36 * 36;
+    private static final String NODE_LOCK_PREFIX = "booking-ref-node-";
+    
+    // (millis since EPOCH_MILLIS << SEQUENCE_BITS) | sequence of the last id handed out
+    private final AtomicLong state = new AtomicLong();
+    private final LongSupplier clock;
+    private final SchedulerLockService schedulerLockService;
+    private final Duration lease;
+    private volatile long nodeId;
+    // Clock millis after which the node id may no longer be ours
+    private volatile long validUntil;
+    
+    @Autowired
+    public BookingReferenceGenerator(@Value("${app.booking.reference.node-id:-1}") long configuredNodeId,
+                                     @Value("${app.booking.reference.node-lease-minutes:10}") long leaseMinutes,
+                                     SchedulerLockService schedulerLockService) {
+        this(configuredNodeId, Duration.ofMinutes(leaseMinutes), schedulerLockService, System::currentTimeMillis);
+    }
+    
+    BookingReferenceGenerator(long nodeId, LongSupplier clock) {
+        this(nodeId, Duration.ZERO, null, clock);
+    }
+    
+    BookingReferenceGenerator(long configuredNodeId, Duration lease, SchedulerLockService schedulerLockService, LongSupplier clock) {
+        if (configuredNodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.clock = clock;
+        this.lease = lease;
+        if (configuredNodeId >= 0) {
+            this.schedulerLockService = null;
+            this.nodeId = configuredNodeId;
+            this.validUntil = Long.MAX_VALUE;
+        } else if (schedulerLockService == null) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        } else {
+            this.schedulerLockService = schedulerLockService;
+            claimNodeId();
+        }
+    }
+    
+    public String nextReference(Long pgId) {
+        return format(nextId(), pgId);
+    }
+    
+    long nextId() {
+        if (clock.getAsLong() >= validUntil) {
+            throw new IllegalStateException("Booking references are paused until this node renews its node ID, please retry");
+        }
+        long nodeId = this.nodeId;
+        while (true) {
+            long current = state.get();
+            long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            long next = now > current ? now : current + 1;
+            if (state.compareAndSet(current, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+    
+    static String format(long id, Long pgId) {
+        StringBuilder reference = new StringBuilder(PREFIX.length() + ID_DIGITS + PG_TAG_DIGITS).append(PREFIX);
+        appendBase36(reference, id, ID_DIGITS);
+        appendBase36(reference, Math.floorMod(pgId != null ? pgId : 0L, PG_TAG_MODULUS), PG_TAG_DIGITS);
+        return reference.toString();
+    }
+    
+    private static void appendBase36(StringBuilder out, long value, int width) {
+        String digits = Long.toString(value, 36).toUpperCase();
+        for (int i = digits.length(); i < width; i++) {
+            out.append('0');
+        }
+        out.append(digits);
+    }
+    
+    long getNodeId() {
+        return nodeId;
+    }
+    
+    @Scheduled(fixedDelayString = "${app.booking.reference.node-renew-ms:60000}")
+    public void renewNodeId() {
+        if (schedulerLockService == null) {
+            return;
+        }
+        long until = clock.getAsLong() + lease.toMillis() / 2;
+        try {
+            if (schedulerLockService.renew(NODE_LOCK_PREFIX + nodeId, lease)) {
+                validUntil = until;
+                return;
+            }
+            log.warn("Lost the lease on booking reference node ID: {}, claiming another", nodeId);
+            claimNodeId();
+        } catch (RuntimeException e) {
+            log.warn("Could not renew booking reference node ID: {}: {}", nodeId, e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void releaseNodeId() {
+        if (schedulerLockService != null) {
+            validUntil = 0;
+            schedulerLockService.release(NODE_LOCK_PREFIX + nodeId);
+        }
+    }
+    
+    private void claimNodeId() {
+        // A random starting point keeps nodes that start together from racing for the same ids
+        long start = ThreadLocalRandom.current().nextLong(MAX_NODE_ID + 1);
+        for (long i = 0; i <= MAX_NODE_ID; i++) {
+            long candidate = (start + i) & MAX_NODE_ID;
+            long until = clock.getAsLong() + lease.toMillis() / 2;
+            if (schedulerLockService.tryAcquire(NODE_LOCK_PREFIX + candidate, lease)) {
+                nodeId = candidate;
+                validUntil = until;
+                log.info("Claimed booking reference node ID: {}", candidate);
+                return;
+            }
+        }
+        throw new IllegalStateException("All " + (MAX_NODE_ID + 1) + " booking reference node IDs are leased by other nodes");
+    }
+}
@@ -1,18 +1,31 @@
 
 package com.myspot.backend.services;
 
+import com.myspot.backend.dto.projection.BookingRef;
+import com.myspot.backend.dto.projection.BookingSpan;
+import com.myspot.backend.dto.projection.BookingStatusRow;
+import com.myspot.backend.dto.request.BulkBookingStatusRequest;
 import com.myspot.backend.entities.*;
+import com.myspot.backend.events.BookingChangedEvent;
 import com.myspot.backend.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -21,13 +34,58 @@ import java.util.stream.Collectors;
 @Transactional
 public class BookingService {
     
+    /**
+     * Fields a booking list may be narrowed to with fields=; names match convertBookingToMap.
+     */
+    static final FieldProjection<Booking> LIST_FIELDS = FieldProjection.of(Booking.class)
+        .column("bookingId").column("bookingReference").column("guestName").column("contactNumber")
+        .column("emailAddress")
+        .column("roomType", "roomType", FieldProjection::enumName)
+        .column("roomNumber").column("isAcRoom")
+        .column("bookingDate", "bookingDate", Object::toString)
+        .column("checkInDate", "checkInDate", Object::toString)
+        .column("checkOutDate", "checkOutDate", Object::toString)
+        .column("baseAmount").column("totalAmount").column("advancePaid").column("remainingAmount")
+        .column("status", "status", FieldProjection::enumName)
+        .column("paymentStatus", "paymentStatus", FieldProjection::enumName)
+        .column("specialRequests").column("notes").column("durationDays").column("createdAt").column("updatedAt")
+        .derived("guest", values -> {
+            if (values.get("guest.guestId") == null) {
+                return null;
+            }
+            Map<String, Object> guestInfo = new HashMap<>();
+            guestInfo.put("guestId", values.get("guest.guestId"));
+            guestInfo.put("fullName", values.get("guest.fullName"));
+            guestInfo.put("phoneNumber", values.get("guest.phoneNumber"));
+            guestInfo.put("emailAddress", values.get("guest.emailAddress"));
+            return guestInfo;
+        }, "guest.guestId", "guest.fullName", "guest.phoneNumber", "guest.emailAddress");
+    
     private final PGManagementOwnerRepository pgManagementOwnerRepository;
     private final BookingRepository bookingRepository;
     private final GuestRepository guestRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BedAvailabilityCalendar bedAvailabilityCalendar;
+    private final BookingStatusBatchWriter bookingStatusBatchWriter;
+    private final BookingReferenceCache bookingReferenceCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
     
+    @Value("${app.booking.bulk-max:500}")
+    private int bulkMax;
+    
+    /**
+     * Booking list, optionally narrowed to a comma-separated list of fields. A narrowed list selects
+     * only the columns those fields need instead of loading full booking entities.
+     */
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getAllBookings(Long pgId, String month, String status) {
-        log.info("Getting all bookings for PG ID: {}, month: {}, status: {}", pgId, month, status);
+    public List<Map<String, Object>> getAllBookings(Long pgId, String month, String status, String fields) {
+        log.info("Getting all bookings for PG ID: {}, month: {}, status: {}, fields: {}", pgId, month, status, fields);
+        
+        FieldProjection.Fields selected = LIST_FIELDS.parse(fields);
+        if (selected != null) {
+            return getBookingFields(pgId, month, status, selected);
+        }
         
         PGManagementOwner pgManagementOwner = pgManagementOwnerRepository.findById(pgId)
             .orElseThrow(() -> new RuntimeException("PG not found"));
@@ -62,10 +120,49 @@ public class BookingService {
         }
         
         return bookings.stream()
-            .map(this::convertBookingToMap)
+            .map(BookingService::convertBookingToMap)
             .collect(Collectors.toList());
     }
     
+    private List<Map<String, Object>> getBookingFields(Long pgId, String month, String status, FieldProjection.Fields selected) {
+        if (!pgManagementOwnerRepository.existsById(pgId)) {
+            throw new RuntimeException("PG not found");
+        }
+        YearMonth yearMonth = null;
+        if (!"all".equals(month)) {
+            try {
+                yearMonth = YearMonth.parse(month);
+            } catch (DateTimeParseException e) {
+                log.warn("Invalid month format: {}, using all bookings", month);
+            }
+        }
+        Booking.BookingStatus bookingStatus = null;
+        if (!"all".equals(status)) {
+            try {
+                bookingStatus = Booking.BookingStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid status: {}, ignoring status filter", status);
+            }
+        }
+        
+        YearMonth monthFilter = yearMonth;
+        Booking.BookingStatus statusFilter = bookingStatus;
+        return LIST_FIELDS.list(entityManager, selected, (cb, query, root) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("pgManagementOwner").get("pgId"), pgId));
+            if (monthFilter != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("checkInDate"), monthFilter.atEndOfMonth()));
+                predicates.add(cb.greaterThanOrEqualTo(root.get("checkOutDate"), monthFilter.atDay(1)));
+            }
+            if (statusFilter != null) {
+                predicates.add(cb.equal(root.get("status"), statusFilter));
+            }
+            query.where(predicates.toArray(new Predicate[0]));
+            // Same ordering as the entity queries used by the full list
+            query.orderBy(monthFilter != null ? cb.asc(root.get("checkInDate")) : cb.desc(root.get("createdAt")));
+        });
+    }
+    
     @Transactional(readOnly = true)
     public Map<String, Object> getBookingDetails(Long pgId, Long bookingId) {
         log.info("Getting booking details for booking ID: {} in PG ID: {}", bookingId, pgId);
@@ -84,13 +181,17 @@ public class BookingService {
     public Map<String, Object> getBookingsByReference(Long pgId, String bookingReference) {
         log.info("Getting booking by reference: {} for PG ID: {}", bookingReference, pgId);
         
-        Booking booking = bookingRepository.findByBookingReference(bookingReference)
+        // Ownership is checked against the cached reference before any entity is loaded
+        BookingRef ref = bookingReferenceCache.resolve(bookingReference)
             .orElseThrow(() -> new RuntimeException("Booking not found with reference: " + bookingReference));
         
-        if (!booking.getPgManagementOwner().getPgId().equals(pgId)) {
+        if (!ref.pgId().equals(pgId)) {
             throw new RuntimeException("Booking does not belong to this PG");
         }
         
+        Booking booking = bookingRepository.findWithGuestById(ref.bookingId())
+            .orElseThrow(() -> new RuntimeException("Booking not found with reference: " + bookingReference));
+        
         return convertBookingToMap(booking);
     }
     
@@ -106,16 +207,17 @@ public class BookingService {
         
         try {
             Booking.BookingStatus status = Booking.BookingStatus.valueOf(newStatus.toUpperCase());
+            Booking.BookingStatus previousStatus = booking.getStatus();
+            Booking.PaymentStatus previousPaymentStatus = booking.getPaymentStatus();
             booking.setStatus(status);
             
             // Update payment status if needed
-            if (status == Booking.BookingStatus.CONFIRMED) {
-                booking.setPaymentStatus(Booking.PaymentStatus.ADVANCE_PAID);
-            } else if (status == Booking.BookingStatus.COMPLETED) {
-                booking.setPaymentStatus(Booking.PaymentStatus.PAID);
+            if (status.impliedPaymentStatus() != null) {
+                booking.setPaymentStatus(status.impliedPaymentStatus());
             }
             
             booking = bookingRepository.save(booking);
+            eventPublisher.publishEvent(BookingChangedEvent.of(booking, previousStatus, previousPaymentStatus));
             return convertBookingToMap(booking);
             
         } catch (IllegalArgumentException e) {
@@ -123,6 +225,137 @@ public class BookingService {
         }
     }
     
+    public Map<String, Object> bulkUpdateBookingStatus(Long pgId, BulkBookingStatusRequest request) {
+        log.info("Bulk updating {} bookings to status: {} for PG ID: {}", request.getBookingIds().size(), request.getStatus(), pgId);
+        
+        Booking.BookingStatus status;
+        try {
+            status = Booking.BookingStatus.valueOf(request.getStatus().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid booking status: " + request.getStatus());
+        }
+        
+        Set<Long> bookingIds = new LinkedHashSet<>(request.getBookingIds());
+        if (bookingIds.size() > bulkMax) {
+            throw new IllegalArgumentException("At most " + bulkMax + " bookings can be updated at once");
+        }
+        Map<Long, Long> expectedVersions = request.getExpectedVersions() != null ? request.getExpectedVersions() : Map.of();
+        
+        // One query covers both existence and ownership; other PGs' bookings read as not found
+        Map<Long, BookingStatusRow> rows = bookingRepository.findStatusRowsByPgIdAndIds(pgId, bookingIds).stream()
+            .collect(Collectors.toMap(BookingStatusRow::bookingId, Function.identity()));
+        
+        Map<Long, String> outcomes = new HashMap<>();
+        List<BookingStatusBatchWriter.StatusUpdate> updates = new ArrayList<>();
+        for (Long bookingId : bookingIds) {
+            BookingStatusRow row = rows.get(bookingId);
+            Long expectedVersion = expectedVersions.get(bookingId);
+            if (row == null) {
+                outcomes.put(bookingId, "NOT_FOUND");
+            } else if (expectedVersion != null && !expectedVersion.equals(row.version())) {
+                outcomes.put(bookingId, "VERSION_CONFLICT");
+            } else if (row.status() == status) {
+                outcomes.put(bookingId, "UNCHANGED");
+            } else {
+                updates.add(new BookingStatusBatchWriter.StatusUpdate(bookingId, status, status.impliedPaymentStatus(), row.version()));
+            }
+        }
+        
+        Set<Long> written = bookingStatusBatchWriter.write(updates);
+        for (BookingStatusBatchWriter.StatusUpdate update : updates) {
+            if (written.contains(update.bookingId())) {
+                outcomes.put(update.bookingId(), "UPDATED");
+                BookingStatusRow row = rows.get(update.bookingId());
+                Booking.PaymentStatus paymentStatus = update.paymentStatus() != null ? update.paymentStatus() : row.paymentStatus();
+                eventPublisher.publishEvent(new BookingChangedEvent(row.toSpan(status), row.status(), paymentStatus, row.paymentStatus()));
+            } else {
+                outcomes.put(update.bookingId(), "VERSION_CONFLICT");
+            }
+        }
+        
+        List<Map<String, Object>> results = new ArrayList<>();
+        Map<String, Integer> summary = new HashMap<>();
+        for (Long bookingId : bookingIds) {
+            String outcome = outcomes.get(bookingId);
+            Map<String, Object> item = new HashMap<>();
+            item.put("bookingId", bookingId);
+            item.put("result", outcome);
+            if (rows.containsKey(bookingId)) {
+                item.put("previousStatus", rows.get(bookingId).status().name());
+                item.put("version", "UPDATED".equals(outcome) ? rows.get(bookingId).version() + 1 : rows.get(bookingId).version());
+            }
+            results.add(item);
+            summary.merge(outcome, 1, Integer::sum);
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("status", status.name());
+        result.put("requested", bookingIds.size());
+        result.put("updated", summary.getOrDefault("UPDATED", 0));
+        result.put("versionConflicts", summary.getOrDefault("VERSION_CONFLICT", 0));
+        result.put("notFound", summary.getOrDefault("NOT_FOUND", 0));
+        result.put("unchanged", summary.getOrDefault("UNCHANGED", 0));
+        result.put("results", results);
+        
+        return result;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getRoomOccupants(Long pgId, String roomNumber, LocalDate date) {
+        log.info("Getting occupants of room: {} on {} for PG ID: {}", roomNumber, date, pgId);
+        
+        return bookingIntervalIndex.findOccupants(pgId, roomNumber, date).stream()
+            .map(this::convertSpanToMap)
+            .collect(Collectors.toList());
+    }
+    
+    @Transactional(readOnly = true)
+    public Map<String, Object> getBedAvailability(Long pgId, int days) {
+        log.info("Getting bed availability for {} days for PG ID: {}", days, pgId);
+        
+        if (days < 1 || days > bedAvailabilityCalendar.getHorizonDays()) {
+            throw new IllegalArgumentException("Days must be between 1 and " + bedAvailabilityCalendar.getHorizonDays());
+        }
+        
+        Map<String, Object> availability = new HashMap<>();
+        bedAvailabilityCalendar.getAvailability(pgId, days)
+            .forEach((roomType, freeBeds) -> availability.put(roomType.name(), freeBeds));
+        
+        Map<String, Object> totalBeds = new HashMap<>();
+        bedAvailabilityCalendar.getCapacity(pgId)
+            .forEach((roomType, beds) -> totalBeds.put(roomType.name(), beds));
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("startDate", LocalDate.now().toString());
+        result.put("days", days);
+        result.put("totalBeds", totalBeds);
+        result.put("availableBeds", availability);
+        
+        return result;
+    }
+    
+    @Transactional(readOnly = true)
+    public Map<String, Object> checkRoomConflicts(Long pgId, String roomNumber, LocalDate checkInDate, LocalDate checkOutDate) {
+        log.info("Checking conflicts for room: {} from {} to {} in PG ID: {}", roomNumber, checkInDate, checkOutDate, pgId);
+        
+        if (!checkOutDate.isAfter(checkInDate)) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+        
+        List<Map<String, Object>> conflicts = bookingIntervalIndex
+            .findConflicts(pgId, roomNumber, checkInDate, checkOutDate).stream()
+            .map(this::convertSpanToMap)
+            .collect(Collectors.toList());
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("roomNumber", roomNumber);
+        result.put("checkInDate", checkInDate.toString());
+        result.put("checkOutDate", checkOutDate.toString());
+        result.put("hasConflict", !conflicts.isEmpty());
+        result.put("conflicts", conflicts);
+        return result;
+    }
+    
     @Transactional(readOnly = true)
     public Map<String, Object> getBookingStats(Long pgId, String month) {
         log.info("Getting booking statistics for PG ID: {}, month: {}", pgId, month);
@@ -188,7 +421,20 @@ public class BookingService {
         return stats;
     }
     
-    private Map<String, Object> convertBookingToMap(Booking booking) {
+    private Map<String, Object> convertSpanToMap(BookingSpan span) {
+        Map<String, Object> spanMap = new HashMap<>();
+        
+        spanMap.put("bookingId", span.bookingId());
+        spanMap.put("roomNumber", span.roomNumber());
+        spanMap.put("roomType", span.roomType().name());
+        spanMap.put("checkInDate", span.checkInDate().toString());
+        spanMap.put("checkOutDate", span.checkOutDate().toString());
+        spanMap.put("status", span.status().name());
+        
+        return spanMap;
+    }
+    
+    static Map<String, Object> convertBookingToMap(Booking booking) {
         Map<String, Object> bookingMap = new HashMap<>();
         
         bookingMap.put("bookingId", booking.getBookingId());
@@ -0,0 +1,102 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.BookingMeasure;
+import com.myspot.backend.entities.BookingEvent;
+import com.myspot.backend.entities.BookingSketch;
+import com.myspot.backend.repository.BookingRepository;
+import com.myspot.backend.repository.BookingSketchRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps stay-length and booking-amount sketches per PG and booking month in booking_sketches.
+ *
+ * A booking is in its month's sketches while its status holds a room: it is added when created,
+ * removed when cancelled or marked no-show, and added back if it is reopened. Amount and stay
+ * length never change after creation, so a removal takes out exactly what was added. A batch
+ * is netted per booking first, then every affected PG-month is read, updated and written once.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingSketchProjection implements BookingProjection {
+    
+    private final BookingRepository bookingRepository;
+    private final BookingSketchRepository bookingSketchRepository;
+    
+    @Override
+    public String getName() {
+        return "booking-sketches";
+    }
+    
+    @Override
+    public void apply(List<BookingEvent> events) {
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        for (BookingEvent event : events) {
+            int delta = delta(event);
+            if (delta != 0) {
+                deltas.merge(event.getBookingId(), delta, Integer::sum);
+            }
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        
+        Map<BookingSketch.Key, QuantileSketch> sketches = new HashMap<>();
+        for (BookingMeasure measure : bookingRepository.findMeasuresByIds(deltas.keySet())) {
+            int delta = deltas.get(measure.bookingId());
+            String month = YearMonth.from(measure.bookingDate()).toString();
+            if (measure.durationDays() != null && measure.durationDays() >= 0) {
+                sketch(sketches, measure.pgId(), month, BookingSketch.Metric.STAY_DAYS).add(measure.durationDays(), delta);
+            }
+            if (measure.totalAmount() != null && measure.totalAmount().signum() >= 0) {
+                sketch(sketches, measure.pgId(), month, BookingSketch.Metric.BOOKING_AMOUNT)
+                    .add(measure.totalAmount().doubleValue(), delta);
+            }
+        }
+        
+        Map<BookingSketch.Key, BookingSketch> stored = new HashMap<>();
+        bookingSketchRepository.findAllById(sketches.keySet()).forEach(row -> stored.put(row.getId(), row));
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingSketch> rows = new ArrayList<>(sketches.size());
+        sketches.forEach((key, delta) -> {
+            BookingSketch row = stored.get(key);
+            QuantileSketch merged = row != null ? QuantileSketch.fromBytes(row.getSketch()).merge(delta) : delta;
+            if (row == null) {
+                row = BookingSketch.builder().id(key).build();
+            }
+            row.setSketch(merged.toBytes());
+            row.setValueCount(merged.count());
+            row.setUpdatedAt(now);
+            rows.add(row);
+        });
+        bookingSketchRepository.saveAll(rows);
+    }
+    
+    /**
+     * +1 when the event puts a booking into the sketches, -1 when it takes one out, else 0.
+     */
+    static int delta(BookingEvent event) {
+        if (event.getEventType() == BookingEvent.EventType.CREATED) {
+            return event.getToStatus() == null || event.getToStatus().holdsRoom() ? 1 : 0;
+        }
+        if (event.getEventType() == BookingEvent.EventType.PAYMENT_CHANGED
+                || event.getFromStatus() == null || event.getToStatus() == null) {
+            return 0;
+        }
+        return Boolean.compare(event.getToStatus().holdsRoom(), event.getFromStatus().holdsRoom());
+    }
+    
+    private static QuantileSketch sketch(Map<BookingSketch.Key, QuantileSketch> sketches, Long pgId, String month,
+                                         BookingSketch.Metric metric) {
+        return sketches.computeIfAbsent(new BookingSketch.Key(pgId, month, metric), key -> new QuantileSketch());
+    }
+}
@@ -0,0 +1,100 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.Booking;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Writes booking status transitions in JDBC batches, guarded by the JPA version column.
+ * Runs in the caller's transaction; rows whose version moved on are skipped, not failed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingStatusBatchWriter {
+    
+    private static final String UPDATE_SQL =
+        "UPDATE bookings SET status = ?, payment_status = COALESCE(?, payment_status), " +
+        "version = version + 1, updated_at = ? WHERE booking_id = ? AND version = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${app.booking.batch-size:100}")
+    private int batchSize;
+    
+    public record StatusUpdate(Long bookingId, Booking.BookingStatus status,
+                               Booking.PaymentStatus paymentStatus, Long expectedVersion) {
+    }
+    
+    /**
+     * Applies the updates and returns the ids of the bookings that were written.
+     */
+    public Set<Long> write(List<StatusUpdate> updates) {
+        if (updates.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SQL, updates, batchSize, (ps, update) -> {
+            ps.setString(1, update.status().name());
+            if (update.paymentStatus() != null) {
+                ps.setString(2, update.paymentStatus().name());
+            } else {
+                ps.setNull(2, Types.VARCHAR);
+            }
+            ps.setTimestamp(3, now);
+            ps.setLong(4, update.bookingId());
+            ps.setLong(5, update.expectedVersion());
+        });
+        
+        Set<Long> written = new HashSet<>();
+        List<StatusUpdate> unknown = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                StatusUpdate update = updates.get(index++);
+                if (count == Statement.SUCCESS_NO_INFO) {
+                    unknown.add(update);
+                } else if (count > 0) {
+                    written.add(update.bookingId());
+                }
+            }
+        }
+        if (!unknown.isEmpty()) {
+            written.addAll(verify(unknown));
+        }
+        log.debug("Batch status update wrote {} of {} bookings", written.size(), updates.size());
+        return written;
+    }
+    
+    // Drivers may report SUCCESS_NO_INFO for rewritten batches, so check which versions were bumped
+    private Set<Long> verify(List<StatusUpdate> updates) {
+        String placeholders = updates.stream().map(update -> "?").collect(Collectors.joining(","));
+        Map<Long, Long> versions = new HashMap<>();
+        jdbcTemplate.query("SELECT booking_id, version FROM bookings WHERE booking_id IN (" + placeholders + ")",
+            rs -> {
+                versions.put(rs.getLong(1), rs.getLong(2));
+            },
+            updates.stream().map(StatusUpdate::bookingId).toArray());
+        
+        return updates.stream()
+            .filter(update -> Long.valueOf(update.expectedVersion() + 1).equals(versions.get(update.bookingId())))
+            .map(StatusUpdate::bookingId)
+            .collect(Collectors.toSet());
+    }
+}
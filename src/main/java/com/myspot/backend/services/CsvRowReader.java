@@ -0,0 +1,105 @@
+package com.myspot.backend.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader, the counterpart of CsvRowWriter: quoted fields may contain commas,
+ * doubled quotes and line breaks; rows end with LF or CRLF. Reads one row at a time so
+ * arbitrarily large inputs stream through in constant memory.
+ */
+public class CsvRowReader {
+    
+    private final Reader in;
+    private final StringBuilder field = new StringBuilder();
+    private int pushedBack = -2;
+    private long rowNumber;
+    
+    public CsvRowReader(Reader in) {
+        this.in = in;
+    }
+    
+    /**
+     * One-based number of the row last returned by next().
+     */
+    public long getRowNumber() {
+        return rowNumber;
+    }
+    
+    /**
+     * The next row's fields, or null at end of input. Blank lines are skipped.
+     */
+    public List<String> next() throws IOException {
+        List<String> row = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        boolean sawAnything = false;
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                if (!sawAnything) {
+                    return null;
+                }
+                if (quoted) {
+                    throw new IOException("Unterminated quoted field in row " + (rowNumber + 1));
+                }
+                row.add(field.toString());
+                rowNumber++;
+                return row;
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(following);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+                continue;
+            }
+            if (c == '\r') {
+                int following = read();
+                if (following != '\n') {
+                    unread(following);
+                }
+                c = '\n';
+            }
+            if (c == '\n') {
+                if (!sawAnything) {
+                    continue;
+                }
+                row.add(field.toString());
+                rowNumber++;
+                return row;
+            }
+            sawAnything = true;
+            if (c == ',') {
+                row.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+    
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return in.read();
+    }
+    
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
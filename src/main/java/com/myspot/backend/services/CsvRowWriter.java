@@ -0,0 +1,65 @@
+package com.myspot.backend.services;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Minimal RFC 4180 writer: fields containing a comma, quote or line break are quoted,
+ * with embedded quotes doubled. Rows end with CRLF.
+ */
+public class CsvRowWriter {
+    
+    private final Writer out;
+    private boolean firstInRow = true;
+    
+    public CsvRowWriter(Writer out) {
+        this.out = out;
+    }
+    
+    public CsvRowWriter field(Object value) throws IOException {
+        if (!firstInRow) {
+            out.write(',');
+        }
+        firstInRow = false;
+        if (value == null) {
+            return this;
+        }
+        String text = value.toString();
+        if (needsQuoting(text)) {
+            out.write('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    out.write('"');
+                }
+                out.write(c);
+            }
+            out.write('"');
+        } else {
+            out.write(text);
+        }
+        return this;
+    }
+    
+    public void endRow() throws IOException {
+        out.write("\r\n");
+        firstInRow = true;
+    }
+    
+    public void row(String... values) throws IOException {
+        for (String value : values) {
+            field(value);
+        }
+        endRow();
+    }
+    
+    private static boolean needsQuoting(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -9,6 +9,8 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import jakarta.mail.internet.MimeMessage;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 
 @Slf4j
 @Service
@@ -78,6 +80,30 @@ public class EmailService {
         }
     }
     
+    @Async
+    public void sendRentReminderEmail(String toEmail, String guestName, BigDecimal monthlyRent, LocalDate dueDate, boolean overdue) {
+        try {
+            log.info("Sending rent reminder email to: {} for due date: {}", toEmail, dueDate);
+            
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            
+            helper.setFrom(fromEmail, fromName);
+            helper.setTo(toEmail);
+            helper.setSubject(overdue ? "MySpot PG - Rent Payment Overdue" : "MySpot PG - Rent Payment Reminder");
+            
+            String htmlContent = createRentReminderEmailTemplate(guestName, monthlyRent, dueDate, overdue);
+            helper.setText(htmlContent, true);
+            
+            mailSender.send(message);
+            log.info("Rent reminder email sent successfully to: {}", toEmail);
+            
+        } catch (Exception e) {
+            log.error("Failed to send rent reminder email to: {}", toEmail, e);
+            throw new RuntimeException("Failed to send email", e);
+        }
+    }
+    
     private String createOtpEmailTemplate(String otp, String userName) {
         return "<html>" +
                 "<body style='font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto;'>" +
@@ -123,4 +149,29 @@ public class EmailService {
                 "</body>" +
                 "</html>";
     }
-}
\ No newline at end of file
+    
+    private String createRentReminderEmailTemplate(String guestName, BigDecimal monthlyRent, LocalDate dueDate, boolean overdue) {
+        return "<html>" +
+                "<body style='font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto;'>" +
+                "<div style='background-color: #f8f9fa; padding: 20px; border-radius: 10px;'>" +
+                "<h2 style='color: #2c3e50;'>MySpot PG - " + (overdue ? "Rent Overdue" : "Rent Reminder") + "</h2>" +
+                "<p>Hello " + guestName + ",</p>" +
+                "<p>" + (overdue
+                    ? "Your rent payment was due on " + dueDate + " and has not been recorded yet."
+                    : "This is a reminder that your rent payment is due on " + dueDate + ".") + "</p>" +
+                (monthlyRent != null
+                    ? "<div style='background-color: " + (overdue ? "#e74c3c" : "#3498db") + "; color: white; padding: 15px; border-radius: 5px; text-align: center; font-size: 24px; font-weight: bold; margin: 20px 0;'>" +
+                      "Rs. " + monthlyRent.toPlainString() +
+                      "</div>"
+                    : "") +
+                "<p>If you have already paid, please ignore this email.</p>" +
+                "<p>Best regards,<br>MySpot PG Team</p>" +
+                "<hr style='border: 1px solid #eee; margin: 20px 0;'>" +
+                "<p style='font-size: 12px; color: #666;'>" +
+                "If you have any questions, please contact us at " + supportEmail +
+                "</p>" +
+                "</div>" +
+                "</body>" +
+                "</html>";
+    }
+}
@@ -0,0 +1,103 @@
+package com.myspot.backend.services;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Event id ranges a projection has stepped over but may still see committed, each with the
+ * time it was first noticed. Stored on the checkpoint as "from-to@epochSecond" entries.
+ *
+ * Not thread-safe; the checkpoint row lock serialises its users.
+ */
+class EventGaps {
+    
+    record Range(long from, long to, long openedAt) {
+    }
+    
+    private final List<Range> ranges = new ArrayList<>();
+    
+    static EventGaps parse(String stored) {
+        EventGaps gaps = new EventGaps();
+        if (stored == null || stored.isBlank()) {
+            return gaps;
+        }
+        for (String entry : stored.split(",")) {
+            int dash = entry.indexOf('-');
+            int at = entry.indexOf('@');
+            gaps.ranges.add(new Range(Long.parseLong(entry.substring(0, dash)),
+                Long.parseLong(entry.substring(dash + 1, at)), Long.parseLong(entry.substring(at + 1))));
+        }
+        return gaps;
+    }
+    
+    String format() {
+        StringJoiner joiner = new StringJoiner(",");
+        for (Range range : ranges) {
+            joiner.add(range.from() + "-" + range.to() + "@" + range.openedAt());
+        }
+        return joiner.length() > 0 ? joiner.toString() : null;
+    }
+    
+    int size() {
+        return ranges.size();
+    }
+    
+    List<Range> ranges() {
+        return List.copyOf(ranges);
+    }
+    
+    void open(long from, long to, long now) {
+        if (from <= to) {
+            ranges.add(new Range(from, to, now));
+        }
+    }
+    
+    /**
+     * Marks an id as arrived, splitting its range if the id was in the middle of it.
+     */
+    boolean fill(long id) {
+        for (int i = 0; i < ranges.size(); i++) {
+            Range range = ranges.get(i);
+            if (id < range.from() || id > range.to()) {
+                continue;
+            }
+            ranges.remove(i);
+            if (id < range.to()) {
+                ranges.add(i, new Range(id + 1, range.to(), range.openedAt()));
+            }
+            if (id > range.from()) {
+                ranges.add(i, new Range(range.from(), id - 1, range.openedAt()));
+            }
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Removes and returns the ranges opened more than timeoutSeconds before now.
+     */
+    List<Range> expire(long now, long timeoutSeconds) {
+        List<Range> expired = new ArrayList<>();
+        for (Iterator<Range> iterator = ranges.iterator(); iterator.hasNext(); ) {
+            Range range = iterator.next();
+            if (now - range.openedAt() > timeoutSeconds) {
+                expired.add(range);
+                iterator.remove();
+            }
+        }
+        return expired;
+    }
+    
+    /**
+     * Drops the oldest ranges beyond max and returns them.
+     */
+    List<Range> trim(int max) {
+        List<Range> dropped = new ArrayList<>();
+        while (ranges.size() > max) {
+            dropped.add(ranges.remove(0));
+        }
+        return dropped;
+    }
+}
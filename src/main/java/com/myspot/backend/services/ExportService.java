@@ -0,0 +1,150 @@
+package com.myspot.backend.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams bookings and guests as gzip-compressed CSV straight from a JDBC cursor.
+ * The query runs on a read-only connection with a forward-only, read-only statement; with the
+ * default fetch size of Integer.MIN_VALUE MySQL Connector/J hands rows over one at a time, and
+ * no entities or persistence context are involved, so memory stays flat whatever the row count.
+ * Only a complete export gets the gzip trailer.
+ */
+@Slf4j
+@Service
+public class ExportService {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private static final String BOOKINGS_SQL =
+        "SELECT booking_reference, guest_name, contact_number, email_address, room_number, room_type, is_ac_room, " +
+        "booking_date, check_in_date, check_out_date, actual_check_in, actual_check_out, base_amount, extra_charges, " +
+        "discount_amount, total_amount, advance_paid, remaining_amount, status, payment_status, duration_days, " +
+        "duration_months, cancellation_reason, cancelled_at, created_at " +
+        "FROM bookings WHERE pg_owner_id = ? ORDER BY booking_id";
+    
+    private static final String[] BOOKINGS_HEADER = {
+        "Booking Reference", "Guest Name", "Contact Number", "Email Address", "Room Number", "Room Type", "AC Room",
+        "Booking Date", "Check In Date", "Check Out Date", "Actual Check In", "Actual Check Out", "Base Amount",
+        "Extra Charges", "Discount Amount", "Total Amount", "Advance Paid", "Remaining Amount", "Status",
+        "Payment Status", "Duration Days", "Duration Months", "Cancellation Reason", "Cancelled At", "Created At"
+    };
+    
+    private static final String GUESTS_SQL =
+        "SELECT guest_id, full_name, email_address, phone_number, room_number, room_type, bed_number, is_ac_room, " +
+        "guest_status, check_in_date, check_out_date, occupation, company_name, monthly_rent, security_deposit_paid, " +
+        "last_payment_date, next_payment_due, has_food_service, created_at " +
+        "FROM guests WHERE pg_owner_id = ? ORDER BY guest_id";
+    
+    private static final String[] GUESTS_HEADER = {
+        "Guest ID", "Full Name", "Email Address", "Phone Number", "Room Number", "Room Type", "Bed Number", "AC Room",
+        "Guest Status", "Check In Date", "Check Out Date", "Occupation", "Company Name", "Monthly Rent",
+        "Security Deposit Paid", "Last Payment Date", "Next Payment Due", "Food Service", "Created At"
+    };
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+    
+    public ExportService(DataSource dataSource, @Value("${app.export.fetch-size:-2147483648}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.fetchSize = fetchSize;
+    }
+    
+    public long exportBookings(Long pgId, OutputStream out) throws IOException {
+        log.info("Exporting bookings for PG ID: {}", pgId);
+        return export("bookings", BOOKINGS_SQL, BOOKINGS_HEADER, pgId, out);
+    }
+    
+    public long exportGuests(Long pgId, OutputStream out) throws IOException {
+        log.info("Exporting guests for PG ID: {}", pgId);
+        return export("guests", GUESTS_SQL, GUESTS_HEADER, pgId, out);
+    }
+    
+    private long export(String name, String sql, String[] header, Long pgId, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        ExportGzipStream gzip = new ExportGzipStream(out);
+        long rows;
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE);
+            CsvRowWriter csv = new CsvRowWriter(writer);
+            csv.row(header);
+            try {
+                rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                    connection.setReadOnly(true);
+                    try (PreparedStatement statement = connection.prepareStatement(sql,
+                            ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                        statement.setFetchSize(fetchSize);
+                        statement.setLong(1, pgId);
+                        return writeRows(statement, csv, header.length);
+                    } finally {
+                        connection.setReadOnly(false);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+            gzip.finish();
+        } finally {
+            // The response stream belongs to the caller, so only the deflater is released here
+            gzip.endDeflater();
+        }
+        
+        long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Exported {} {} for PG ID: {} in {} ms ({} rows/sec)",
+            rows, name, pgId, elapsedMillis, rows * 1000 / elapsedMillis);
+        return rows;
+    }
+    
+    private long writeRows(PreparedStatement statement, CsvRowWriter csv, int columns) throws SQLException {
+        long rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            try {
+                while (resultSet.next()) {
+                    for (int column = 1; column <= columns; column++) {
+                        csv.field(resultSet.getString(column));
+                    }
+                    csv.endRow();
+                    rows++;
+                }
+            } catch (IOException e) {
+                // Client went away: kill the query before closing, or the driver drains the remaining rows
+                statement.cancel();
+                throw new UncheckedIOException(e);
+            }
+        }
+        return rows;
+    }
+    
+    /**
+     * Gzip stream whose deflater can be released without closing the underlying stream. A failed
+     * export ends it without writing the gzip trailer, so the client sees a truncated download
+     * rather than a well-formed file that is silently missing rows.
+     */
+    private static final class ExportGzipStream extends GZIPOutputStream {
+        
+        ExportGzipStream(OutputStream out) throws IOException {
+            super(out, BUFFER_SIZE);
+        }
+        
+        void endDeflater() {
+            def.end();
+        }
+    }
+}
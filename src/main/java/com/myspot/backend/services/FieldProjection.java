@@ -0,0 +1,161 @@
+package com.myspot.backend.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Whitelist of the fields a list endpoint may return, each mapped to the entity attributes it
+ * reads. A fields= parameter is parsed against the whitelist and compiled into a criteria tuple
+ * query that selects only the columns those fields need, so sparse list screens never hydrate
+ * entities or read TEXT columns they do not show.
+ *
+ * Dotted attribute paths are resolved through left joins, so a missing association yields null
+ * fields rather than dropping the row.
+ */
+public final class FieldProjection<E> {
+    
+    private final Class<E> entityType;
+    private final Map<String, Field> fields = new LinkedHashMap<>();
+    
+    private FieldProjection(Class<E> entityType) {
+        this.entityType = entityType;
+    }
+    
+    public static <E> FieldProjection<E> of(Class<E> entityType) {
+        return new FieldProjection<>(entityType);
+    }
+    
+    /**
+     * Applies filters and ordering to the tuple query before it runs.
+     */
+    @FunctionalInterface
+    public interface Criteria<E> {
+        void apply(CriteriaBuilder cb, CriteriaQuery<Tuple> query, Root<E> root);
+    }
+    
+    /**
+     * A parsed fields= parameter: the requested fields in order and the attributes they read.
+     */
+    public record Fields(List<String> names, List<String> paths) {
+    }
+    
+    public FieldProjection<E> column(String name) {
+        return column(name, name, Function.identity());
+    }
+    
+    public FieldProjection<E> column(String name, String path) {
+        return column(name, path, Function.identity());
+    }
+    
+    public FieldProjection<E> column(String name, String path, Function<Object, Object> format) {
+        return derived(name, values -> values.get(path) != null ? format.apply(values.get(path)) : null, path);
+    }
+    
+    /**
+     * A field computed from one or more attributes, all of which are selected when it is requested.
+     */
+    public FieldProjection<E> derived(String name, Function<Map<String, Object>, Object> compute, String... paths) {
+        fields.put(name, new Field(List.of(paths), compute));
+        return this;
+    }
+    
+    public static Object enumName(Object value) {
+        return ((Enum<?>) value).name();
+    }
+    
+    public Set<String> getFieldNames() {
+        return fields.keySet();
+    }
+    
+    /**
+     * Parses a comma-separated field list, or returns null when none was given.
+     */
+    public Fields parse(String fieldList) {
+        if (fieldList == null || fieldList.isBlank()) {
+            return null;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        Set<String> paths = new LinkedHashSet<>();
+        for (String name : fieldList.split(",")) {
+            name = name.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            Field field = fields.get(name);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown field: " + name + ". Allowed fields: " + String.join(", ", fields.keySet()));
+            }
+            names.add(name);
+            paths.addAll(field.paths());
+        }
+        if (names.isEmpty()) {
+            return null;
+        }
+        return new Fields(List.copyOf(names), List.copyOf(paths));
+    }
+    
+    public List<Map<String, Object>> list(EntityManager entityManager, Fields selected, Criteria<E> criteria) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityType);
+        
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String path : selected.paths()) {
+            selections.add(resolve(root, joins, path));
+        }
+        query.multiselect(selections);
+        criteria.apply(cb, query, root);
+        
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            rows.add(toRow(selected, tuple.toArray()));
+        }
+        return rows;
+    }
+    
+    Map<String, Object> toRow(Fields selected, Object[] values) {
+        Map<String, Object> byPath = new HashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            byPath.put(selected.paths().get(i), values[i]);
+        }
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String name : selected.names()) {
+            row.put(name, fields.get(name).compute().apply(byPath));
+        }
+        return row;
+    }
+    
+    private static Path<?> resolve(Root<?> root, Map<String, From<?, ?>> joins, String path) {
+        String[] segments = path.split("\\.");
+        From<?, ?> from = root;
+        for (int i = 0; i < segments.length - 1; i++) {
+            String association = String.join(".", Arrays.copyOf(segments, i + 1));
+            From<?, ?> parent = from;
+            String segment = segments[i];
+            from = joins.computeIfAbsent(association, key -> parent.join(segment, JoinType.LEFT));
+        }
+        return from.get(segments[segments.length - 1]);
+    }
+    
+    private record Field(List<String> paths, Function<Map<String, Object>, Object> compute) {
+    }
+}
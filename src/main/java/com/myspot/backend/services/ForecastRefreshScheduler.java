@@ -0,0 +1,198 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.ForecastModel;
+import com.myspot.backend.repository.ForecastModelRepository;
+import com.myspot.backend.repository.PGManagementOwnerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Advances every PG's stored forecast models with the days observed since their last update.
+ *
+ * Occupancy rates come from the nightly occupancy snapshots and daily revenue from bookings
+ * grouped by booking date. Each PG is read back to the oldest last_date among its own models,
+ * and PGs sharing that date are read together with one query per series, so a nightly run
+ * touches one day per PG; PGs without a model are seeded from up to historyDays of history.
+ * Revenue days without bookings count as zero once a PG has had revenue, while days without a
+ * snapshot are skipped. A series with nothing observed yet is still stored, with no observations,
+ * so the PG is not seeded again the next night. Only the node holding the scheduler lease does
+ * the work.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ForecastRefreshScheduler {
+    
+    private static final String LOCK_NAME = "forecast-refresh";
+    
+    private static final String OCCUPANCY_SQL =
+        "SELECT pg_owner_id, snapshot_date, occupied_beds, total_beds FROM occupancy_snapshots " +
+        "WHERE %s AND snapshot_date > ? AND snapshot_date < ? AND total_beds > 0 " +
+        "ORDER BY pg_owner_id, snapshot_date";
+    
+    private static final String REVENUE_SQL =
+        "SELECT pg_owner_id, booking_date, SUM(total_amount) FROM bookings " +
+        "WHERE %s AND booking_date > ? AND booking_date < ? " +
+        "AND status IN ('CONFIRMED', 'ACTIVE', 'COMPLETED') " +
+        "GROUP BY pg_owner_id, booking_date";
+    
+    private final ForecastModelRepository forecastModelRepository;
+    private final PGManagementOwnerRepository pgManagementOwnerRepository;
+    private final LeasedJobRunner leasedJobRunner;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final ForecastService forecastService;
+    
+    @Value("${app.analytics.forecast.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${app.analytics.forecast.history-days:365}")
+    private int historyDays;
+    
+    @Value("${app.analytics.forecast.lease-minutes:10}")
+    private long leaseMinutes;
+    
+    @Value("${app.analytics.forecast.enabled:true}")
+    private boolean enabled;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        leasedJobRunner.catchUp("Forecast refresh", this::run);
+    }
+    
+    @Scheduled(cron = "${app.analytics.forecast.cron:0 20 0 * * *}")
+    public void run() {
+        if (enabled) {
+            leasedJobRunner.runLeased(LOCK_NAME, Duration.ofMinutes(leaseMinutes), () -> refreshAll(LocalDate.now()));
+        }
+    }
+    
+    private void refreshAll(LocalDate today) {
+        log.info("Refreshing forecast models up to {}", today.minusDays(1));
+        long started = System.nanoTime();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LeasedJobRunner.ChunkTotals totals = leasedJobRunner.runChunks(LOCK_NAME, Duration.ofMinutes(leaseMinutes), chunkSize, afterId -> {
+            List<Long> pgIds = pgManagementOwnerRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+            if (pgIds.isEmpty()) {
+                return LeasedJobRunner.ChunkResult.EMPTY;
+            }
+            return LeasedJobRunner.ChunkResult.ofIds(pgIds, transaction.execute(status -> refreshChunk(pgIds, today)));
+        });
+        forecastService.evictAll();
+        log.info("Refreshed {} forecast models across {} PGs in {} ms", totals.changed(), totals.scanned(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    private int refreshChunk(List<Long> pgIds, LocalDate today) {
+        long fromId = pgIds.get(0);
+        long toId = pgIds.get(pgIds.size() - 1);
+        LocalDate earliest = today.minusDays(historyDays + 1L);
+        LocalDate yesterday = today.minusDays(1);
+        
+        Map<ForecastModel.Key, ForecastModel> rows = new HashMap<>();
+        for (ForecastModel row : forecastModelRepository.findByPgIdRange(fromId, toId)) {
+            rows.put(row.getId(), row);
+        }
+        // Each PG is read from the oldest last update among its series, or from full history if one is missing
+        Map<LocalDate, List<Long>> bySince = new TreeMap<>();
+        for (Long pgId : pgIds) {
+            LocalDate since = yesterday;
+            for (ForecastModel.Series series : ForecastModel.Series.values()) {
+                ForecastModel row = rows.get(new ForecastModel.Key(pgId, series));
+                LocalDate seen = row == null || row.getLastDate() == null || row.getLastDate().isBefore(earliest)
+                    ? earliest : row.getLastDate();
+                if (seen.isBefore(since)) {
+                    since = seen;
+                }
+            }
+            if (since.isBefore(yesterday)) {
+                bySince.computeIfAbsent(since, date -> new ArrayList<>()).add(pgId);
+            }
+        }
+        
+        Map<ForecastModel.Key, HoltWintersModel> models = new HashMap<>();
+        Map<Long, TreeMap<LocalDate, Double>> revenue = new HashMap<>();
+        bySince.forEach((since, ids) -> {
+            String inClause = "pg_owner_id IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+            List<Object> args = new ArrayList<>(ids);
+            args.add(Date.valueOf(since));
+            args.add(Date.valueOf(today));
+            readHistory(inClause, args.toArray(), rows, models, revenue);
+        });
+        
+        for (Long pgId : pgIds) {
+            ForecastModel.Key key = new ForecastModel.Key(pgId, ForecastModel.Series.DAILY_REVENUE);
+            TreeMap<LocalDate, Double> days = revenue.getOrDefault(pgId, new TreeMap<>());
+            HoltWintersModel model = model(models, rows, key);
+            // A PG's revenue series starts on its first day with revenue
+            LocalDate date = model.getObservations() > 0 ? model.getLastDate().plusDays(1)
+                : model.getLastDate() != null ? days.higherKey(model.getLastDate())
+                : days.isEmpty() ? null : days.firstKey();
+            for (; date != null && date.isBefore(today); date = date.plusDays(1)) {
+                model.update(date, days.getOrDefault(date, 0.0));
+            }
+            model.skipUntil(yesterday);
+            model(models, rows, new ForecastModel.Key(pgId, ForecastModel.Series.OCCUPANCY_RATE)).skipUntil(yesterday);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<ForecastModel> changed = new ArrayList<>(models.size());
+        models.forEach((key, model) -> {
+            ForecastModel row = rows.get(key);
+            if (row != null && model.getLastDate() != null && model.getLastDate().equals(row.getLastDate())) {
+                return;
+            }
+            if (row == null) {
+                row = ForecastModel.builder().id(key).build();
+            }
+            row.setLevel(model.getLevel());
+            row.setTrend(model.getTrend());
+            row.setSeasonal(model.getSeasonal());
+            row.setObservations(model.getObservations());
+            row.setLastDate(model.getLastDate());
+            row.setUpdatedAt(now);
+            changed.add(row);
+        });
+        forecastModelRepository.saveAll(changed);
+        return changed.size();
+    }
+    
+    private void readHistory(String pgClause, Object[] args, Map<ForecastModel.Key, ForecastModel> rows,
+                             Map<ForecastModel.Key, HoltWintersModel> models, Map<Long, TreeMap<LocalDate, Double>> revenue) {
+        jdbcTemplate.query(String.format(OCCUPANCY_SQL, pgClause), resultSet -> {
+            ForecastModel.Key key = new ForecastModel.Key(resultSet.getLong(1), ForecastModel.Series.OCCUPANCY_RATE);
+            model(models, rows, key).update(resultSet.getDate(2).toLocalDate(), resultSet.getInt(3) * 100.0 / resultSet.getInt(4));
+        }, args);
+        jdbcTemplate.query(String.format(REVENUE_SQL, pgClause), resultSet -> {
+            revenue.computeIfAbsent(resultSet.getLong(1), pgId -> new TreeMap<>())
+                .put(resultSet.getDate(2).toLocalDate(), resultSet.getBigDecimal(3).doubleValue());
+        }, args);
+    }
+    
+    private static HoltWintersModel model(Map<ForecastModel.Key, HoltWintersModel> models,
+                                          Map<ForecastModel.Key, ForecastModel> rows, ForecastModel.Key key) {
+        return models.computeIfAbsent(key, k -> {
+            ForecastModel row = rows.get(k);
+            return row != null ? ForecastService.toModel(row) : new HoltWintersModel();
+        });
+    }
+}
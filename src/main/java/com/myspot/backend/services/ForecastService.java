@@ -0,0 +1,127 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.ForecastPoint;
+import com.myspot.backend.entities.Booking;
+import com.myspot.backend.entities.ForecastModel;
+import com.myspot.backend.events.BookingChangedEvent;
+import com.myspot.backend.repository.ForecastModelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Daily occupancy and revenue forecasts for the next HORIZON_DAYS days, starting today.
+ *
+ * Occupancy is the stored Holt-Winters forecast, but never below the share of beds already
+ * taken by bookings on the availability calendar for that night. Revenue follows the booking
+ * amounts recorded per booking date, so it comes from the model alone. Forecasts are cached
+ * per PG for the day they start on and at most ttlMinutes; a booking change evicts its PG and the
+ * nightly model refresh clears this node's cache, while other nodes pick changes up once their
+ * entries expire.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ForecastService {
+    
+    public static final int HORIZON_DAYS = 90;
+    
+    private final ForecastModelRepository forecastModelRepository;
+    private final BedAvailabilityCalendar bedAvailabilityCalendar;
+    private final Map<Long, CachedForecast> cache = new ConcurrentHashMap<>();
+    
+    @Value("${app.analytics.forecast.cache-ttl-minutes:15}")
+    private long ttlMinutes;
+    
+    public List<ForecastPoint> getForecast(Long pgId) {
+        LocalDate today = LocalDate.now();
+        CachedForecast cached = cache.get(pgId);
+        if (cached != null && cached.day().equals(today) && !cached.isExpired(ttlMinutes)) {
+            return cached.points();
+        }
+        List<ForecastPoint> points = computeForecast(pgId, today);
+        cache.put(pgId, new CachedForecast(today, System.currentTimeMillis(), points));
+        return points;
+    }
+    
+    /**
+     * Drops every cached forecast on this node, after the stored models have changed.
+     */
+    public void evictAll() {
+        cache.clear();
+    }
+    
+    private List<ForecastPoint> computeForecast(Long pgId, LocalDate today) {
+        log.info("Computing forecast for PG ID: {}", pgId);
+        
+        Map<ForecastModel.Series, HoltWintersModel> models = new EnumMap<>(ForecastModel.Series.class);
+        for (ForecastModel row : forecastModelRepository.findByPgId(pgId)) {
+            models.put(row.getId().getSeries(), toModel(row));
+        }
+        HoltWintersModel occupancy = models.get(ForecastModel.Series.OCCUPANCY_RATE);
+        HoltWintersModel revenue = models.get(ForecastModel.Series.DAILY_REVENUE);
+        
+        int days = Math.min(HORIZON_DAYS, bedAvailabilityCalendar.getHorizonDays());
+        Map<Booking.RoomType, Integer> capacity = bedAvailabilityCalendar.getCapacity(pgId);
+        Map<Booking.RoomType, int[]> free = bedAvailabilityCalendar.getAvailability(pgId, days);
+        int totalBeds = capacity.values().stream().mapToInt(Integer::intValue).sum();
+        
+        List<ForecastPoint> points = new ArrayList<>(HORIZON_DAYS);
+        for (int day = 0; day < HORIZON_DAYS; day++) {
+            LocalDate date = today.plusDays(day);
+            double committed = 0.0;
+            if (totalBeds > 0 && day < days) {
+                int occupiedBeds = 0;
+                for (Map.Entry<Booking.RoomType, Integer> entry : capacity.entrySet()) {
+                    int[] freeBeds = free.get(entry.getKey());
+                    occupiedBeds += Math.max(0, entry.getValue() - (freeBeds != null ? freeBeds[day] : entry.getValue()));
+                }
+                committed = occupiedBeds * 100.0 / totalBeds;
+            }
+            double occupancyRate = occupancy != null ? Math.min(100.0, Math.max(0.0, occupancy.forecast(date))) : 0.0;
+            double revenueForecast = revenue != null ? Math.max(0.0, revenue.forecast(date)) : 0.0;
+            points.add(new ForecastPoint(date, round(Math.max(occupancyRate, committed)), round(committed), round(revenueForecast)));
+        }
+        return List.copyOf(points);
+    }
+    
+    /**
+     * Stored model state per series for one PG, for reporting how much history backs the forecast.
+     */
+    @Transactional(readOnly = true)
+    public List<ForecastModel> getModels(Long pgId) {
+        return forecastModelRepository.findByPgId(pgId);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        log.debug("Evicting forecast for PG ID: {}", event.pgId());
+        cache.remove(event.pgId());
+    }
+    
+    static HoltWintersModel toModel(ForecastModel row) {
+        return HoltWintersModel.restore(row.getLevel(), row.getTrend(), row.getSeasonal(), row.getObservations(), row.getLastDate());
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+    
+    private record CachedForecast(LocalDate day, long loadedAt, List<ForecastPoint> points) {
+        
+        boolean isExpired(long ttlMinutes) {
+            return System.currentTimeMillis() - loadedAt > ttlMinutes * 60_000;
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.Booking;
+import com.myspot.backend.entities.Guest;
+import com.myspot.backend.events.GuestsImportedEvent;
+import com.myspot.backend.repository.GuestRepository;
+import com.myspot.backend.repository.PGManagementOwnerRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Imports existing residents from CSV. Rows are parsed and validated on the calling thread while
+ * the previous chunk is written on a second one, so parsing and inserting overlap. Each chunk is
+ * checked against existing guests (email across all PGs, phone within the PG) and inserted with JDBC batches
+ * in its own transaction; Guest uses IDENTITY keys, which rules out Hibernate insert batching.
+ * Every rejected row is reported with its row number instead of failing the import. A read error
+ * part-way through (a malformed quote, a dropped upload) stops reading but not the import: rows
+ * already parsed are still written, since earlier chunks have committed anyway, and the report
+ * marks the import incomplete with the row it stopped at.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GuestImportService {
+    
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final String EMAIL_UNAVAILABLE = "Email address cannot be used for a new guest: ";
+    private static final Pattern PHONE = Pattern.compile("^\\+?[0-9 ()-]{7,20}$");
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO guests (pg_owner_id, first_name, last_name, full_name, email_address, phone_number, gender, " +
+        "room_number, room_type, is_ac_room, bed_number, guest_status, is_active, check_in_date, check_out_date, " +
+        "monthly_rent, security_deposit_paid, next_payment_due, occupation, permanent_city, emergency_contact_name, " +
+        "emergency_contact_phone, food_preference, has_food_service, has_vehicle, created_at, updated_at, version) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    
+    /**
+     * Accepted CSV headers, compared case-insensitively ignoring spaces, dashes and underscores.
+     */
+    private static final Map<String, BiConsumer<Guest, String>> COLUMNS = new LinkedHashMap<>();
+    
+    static {
+        COLUMNS.put("firstname", (guest, value) -> guest.setFirstName(value));
+        COLUMNS.put("lastname", (guest, value) -> guest.setLastName(value));
+        COLUMNS.put("fullname", (guest, value) -> guest.setFullName(value));
+        COLUMNS.put("name", (guest, value) -> guest.setFullName(value));
+        COLUMNS.put("emailaddress", (guest, value) -> guest.setEmailAddress(value.toLowerCase(Locale.ROOT)));
+        COLUMNS.put("email", (guest, value) -> guest.setEmailAddress(value.toLowerCase(Locale.ROOT)));
+        COLUMNS.put("phonenumber", (guest, value) -> guest.setPhoneNumber(value));
+        COLUMNS.put("phone", (guest, value) -> guest.setPhoneNumber(value));
+        COLUMNS.put("gender", (guest, value) -> guest.setGender(enumValue(Guest.Gender.class, "gender", value)));
+        COLUMNS.put("roomnumber", (guest, value) -> guest.setRoomNumber(value));
+        COLUMNS.put("room", (guest, value) -> guest.setRoomNumber(value));
+        COLUMNS.put("roomtype", (guest, value) -> guest.setRoomType(enumValue(Booking.RoomType.class, "roomType", value)));
+        COLUMNS.put("isacroom", (guest, value) -> guest.setIsAcRoom(booleanValue("isAcRoom", value)));
+        COLUMNS.put("bednumber", (guest, value) -> guest.setBedNumber(value));
+        COLUMNS.put("gueststatus", (guest, value) -> guest.setGuestStatus(enumValue(Guest.GuestStatus.class, "guestStatus", value)));
+        COLUMNS.put("checkindate", (guest, value) -> guest.setCheckInDate(dateValue("checkInDate", value)));
+        COLUMNS.put("checkoutdate", (guest, value) -> guest.setCheckOutDate(dateValue("checkOutDate", value)));
+        COLUMNS.put("monthlyrent", (guest, value) -> guest.setMonthlyRent(decimalValue("monthlyRent", value)));
+        COLUMNS.put("securitydepositpaid", (guest, value) -> guest.setSecurityDepositPaid(decimalValue("securityDepositPaid", value)));
+        COLUMNS.put("nextpaymentdue", (guest, value) -> guest.setNextPaymentDue(dateValue("nextPaymentDue", value)));
+        COLUMNS.put("occupation", (guest, value) -> guest.setOccupation(value));
+        COLUMNS.put("permanentcity", (guest, value) -> guest.setPermanentCity(value));
+        COLUMNS.put("emergencycontactname", (guest, value) -> guest.setEmergencyContactName(value));
+        COLUMNS.put("emergencycontactphone", (guest, value) -> guest.setEmergencyContactPhone(value));
+        COLUMNS.put("foodpreference", (guest, value) -> guest.setFoodPreference(enumValue(Guest.FoodPreference.class, "foodPreference", value)));
+        COLUMNS.put("hasfoodservice", (guest, value) -> guest.setHasFoodService(booleanValue("hasFoodService", value)));
+    }
+    
+    /**
+     * Column widths from the guests table, checked up front so they are reported per row.
+     */
+    private static final Map<String, Function<Guest, String>> LIMITED_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Integer> COLUMN_LIMITS = new HashMap<>();
+    
+    static {
+        limit("firstName", 50, Guest::getFirstName);
+        limit("lastName", 50, Guest::getLastName);
+        limit("fullName", 100, Guest::getFullName);
+        limit("emailAddress", 150, Guest::getEmailAddress);
+        limit("phoneNumber", 20, Guest::getPhoneNumber);
+        limit("roomNumber", 10, Guest::getRoomNumber);
+        limit("bedNumber", 10, Guest::getBedNumber);
+        limit("occupation", 100, Guest::getOccupation);
+        limit("permanentCity", 100, Guest::getPermanentCity);
+        limit("emergencyContactName", 100, Guest::getEmergencyContactName);
+        limit("emergencyContactPhone", 20, Guest::getEmergencyContactPhone);
+    }
+    
+    private final GuestRepository guestRepository;
+    private final PGManagementOwnerRepository pgManagementOwnerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.guest.import.chunk-size:1000}")
+    private int chunkSize;
+    
+    @Value("${app.guest.import.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.guest.import.max-errors:1000}")
+    private int maxErrors;
+    
+    private record ParsedRow(long rowNumber, Guest guest) {
+    }
+    
+    private record RowError(long row, String message) {
+    }
+    
+    private record ChunkOutcome(int imported, List<RowError> errors) {
+    }
+    
+    public Map<String, Object> importGuests(Long pgId, Reader reader) throws IOException {
+        log.info("Importing guests from CSV for PG ID: {}", pgId);
+        
+        if (!pgManagementOwnerRepository.existsById(pgId)) {
+            throw new RuntimeException("PG not found");
+        }
+        long started = System.nanoTime();
+        CsvRowReader csv = new CsvRowReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV file is empty");
+        }
+        List<BiConsumer<Guest, String>> setters = new ArrayList<>();
+        List<String> ignoredColumns = new ArrayList<>();
+        Set<String> mapped = new HashSet<>();
+        for (String column : header) {
+            // Also drops a UTF-8 byte order mark left on the first header
+            String key = column.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+            BiConsumer<Guest, String> setter = COLUMNS.get(key);
+            if (setter == null) {
+                ignoredColumns.add(column);
+            } else {
+                mapped.add(key);
+            }
+            setters.add(setter);
+        }
+        if (!(mapped.contains("email") || mapped.contains("emailaddress"))
+                || !(mapped.contains("phone") || mapped.contains("phonenumber"))
+                || !(mapped.contains("firstname") || mapped.contains("fullname") || mapped.contains("name"))) {
+            throw new IllegalArgumentException("CSV header must include emailAddress, phoneNumber and firstName or fullName columns");
+        }
+        
+        List<RowError> errors = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenPhones = new HashSet<>();
+        int rows = 0;
+        int imported = 0;
+        IOException readFailure = null;
+        List<ParsedRow> chunk = new ArrayList<>(chunkSize);
+        Future<ChunkOutcome> pending = null;
+        ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "guest-import-" + pgId));
+        try {
+            while (true) {
+                List<String> values;
+                try {
+                    values = csv.next();
+                } catch (IOException e) {
+                    readFailure = e;
+                    break;
+                }
+                if (values == null) {
+                    break;
+                }
+                rows++;
+                long rowNumber = csv.getRowNumber();
+                Guest guest;
+                try {
+                    guest = parse(setters, values);
+                } catch (IllegalArgumentException e) {
+                    errors.add(new RowError(rowNumber, e.getMessage()));
+                    continue;
+                }
+                if (seenEmails.contains(guest.getEmailAddress())) {
+                    errors.add(new RowError(rowNumber, "Duplicate email address in file: " + guest.getEmailAddress()));
+                    continue;
+                }
+                if (seenPhones.contains(guest.getPhoneNumber())) {
+                    errors.add(new RowError(rowNumber, "Duplicate phone number in file: " + guest.getPhoneNumber()));
+                    continue;
+                }
+                seenEmails.add(guest.getEmailAddress());
+                seenPhones.add(guest.getPhoneNumber());
+                chunk.add(new ParsedRow(rowNumber, guest));
+                
+                if (chunk.size() == chunkSize) {
+                    imported += collect(pending, errors);
+                    List<ParsedRow> toWrite = chunk;
+                    pending = writer.submit(() -> writeChunk(pgId, toWrite));
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            imported += collect(pending, errors);
+            if (!chunk.isEmpty()) {
+                ChunkOutcome last = writeChunk(pgId, chunk);
+                errors.addAll(last.errors());
+                imported += last.imported();
+            }
+        } finally {
+            writer.shutdownNow();
+        }
+        
+        if (imported > 0) {
+            eventPublisher.publishEvent(new GuestsImportedEvent(pgId, imported));
+        }
+        long tookMs = (System.nanoTime() - started) / 1_000_000;
+        if (readFailure != null) {
+            log.warn("Guest import for PG ID: {} stopped at row {}: {}", pgId, csv.getRowNumber() + 1, readFailure.getMessage());
+        }
+        log.info("Imported {} of {} guest rows for PG ID: {} in {} ms ({} rejected)", imported, rows, pgId, tookMs, rows - imported);
+        
+        errors.sort((a, b) -> Long.compare(a.row(), b.row()));
+        List<Map<String, Object>> errorReport = new ArrayList<>();
+        for (RowError error : errors.subList(0, Math.min(errors.size(), maxErrors))) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("row", error.row());
+            entry.put("message", error.message());
+            errorReport.add(entry);
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("rows", rows);
+        result.put("imported", imported);
+        result.put("rejected", rows - imported);
+        result.put("errors", errorReport);
+        result.put("errorsTruncated", errors.size() > maxErrors);
+        result.put("ignoredColumns", ignoredColumns);
+        result.put("complete", readFailure == null);
+        if (readFailure != null) {
+            result.put("stoppedAtRow", csv.getRowNumber() + 1);
+            result.put("stopReason", readFailure.getMessage());
+        }
+        result.put("tookMs", tookMs);
+        result.put("rowsPerSecond", tookMs > 0 ? rows * 1000L / tookMs : rows);
+        return result;
+    }
+    
+    private static int collect(Future<ChunkOutcome> pending, List<RowError> errors) throws IOException {
+        if (pending == null) {
+            return 0;
+        }
+        try {
+            ChunkOutcome outcome = pending.get();
+            errors.addAll(outcome.errors());
+            return outcome.imported();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Guest import interrupted", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(e.getCause());
+        }
+    }
+    
+    static Guest parse(List<BiConsumer<Guest, String>> setters, List<String> values) {
+        Guest guest = new Guest();
+        for (int i = 0; i < values.size() && i < setters.size(); i++) {
+            String value = values.get(i).trim();
+            if (setters.get(i) != null && !value.isEmpty()) {
+                setters.get(i).accept(guest, value);
+            }
+        }
+        if (guest.getFullName() == null && guest.getFirstName() != null) {
+            guest.setFullName(guest.getLastName() != null ? guest.getFirstName() + " " + guest.getLastName() : guest.getFirstName());
+        }
+        if (guest.getFirstName() == null && guest.getFullName() != null) {
+            String[] parts = guest.getFullName().split("\\s+", 2);
+            guest.setFirstName(parts[0]);
+            if (guest.getLastName() == null && parts.length > 1) {
+                guest.setLastName(parts[1]);
+            }
+        }
+        if (guest.getFullName() == null) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        if (guest.getEmailAddress() == null || !EMAIL.matcher(guest.getEmailAddress()).matches()) {
+            throw new IllegalArgumentException("Invalid email address: " + (guest.getEmailAddress() != null ? guest.getEmailAddress() : "(empty)"));
+        }
+        if (guest.getPhoneNumber() == null || !PHONE.matcher(guest.getPhoneNumber()).matches()) {
+            throw new IllegalArgumentException("Invalid phone number: " + (guest.getPhoneNumber() != null ? guest.getPhoneNumber() : "(empty)"));
+        }
+        if (guest.getCheckInDate() != null && guest.getCheckOutDate() != null && guest.getCheckOutDate().isBefore(guest.getCheckInDate())) {
+            throw new IllegalArgumentException("checkOutDate is before checkInDate");
+        }
+        LIMITED_COLUMNS.forEach((name, getter) -> {
+            String value = getter.apply(guest);
+            if (value != null && value.length() > COLUMN_LIMITS.get(name)) {
+                throw new IllegalArgumentException(name + " is longer than " + COLUMN_LIMITS.get(name) + " characters");
+            }
+        });
+        if (guest.getGuestStatus() == null) {
+            guest.setGuestStatus(Guest.GuestStatus.ACTIVE);
+        }
+        guest.setIsActive(guest.getGuestStatus() == Guest.GuestStatus.ACTIVE);
+        return guest;
+    }
+    
+    private ChunkOutcome writeChunk(Long pgId, List<ParsedRow> rows) {
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        for (ParsedRow row : rows) {
+            emails.add(row.guest().getEmailAddress());
+            phones.add(row.guest().getPhoneNumber());
+        }
+        Set<String> existingEmails = new HashSet<>();
+        for (String email : guestRepository.findExistingEmails(emails)) {
+            existingEmails.add(email.toLowerCase(Locale.ROOT));
+        }
+        Set<String> existingPhones = new HashSet<>(guestRepository.findExistingPhones(pgId, phones));
+        
+        List<RowError> errors = new ArrayList<>();
+        List<ParsedRow> fresh = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            if (existingEmails.contains(row.guest().getEmailAddress())) {
+                // The guest may belong to another PG, so the reason must not say where it is registered
+                errors.add(new RowError(row.rowNumber(), EMAIL_UNAVAILABLE + row.guest().getEmailAddress()));
+            } else if (existingPhones.contains(row.guest().getPhoneNumber())) {
+                errors.add(new RowError(row.rowNumber(), "Phone number already registered in this PG: " + row.guest().getPhoneNumber()));
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return new ChunkOutcome(0, errors);
+        }
+        
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            transaction.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, fresh, batchSize, (ps, row) -> bind(ps, pgId, row.guest(), now)));
+            return new ChunkOutcome(fresh.size(), errors);
+        } catch (DataAccessException e) {
+            // Someone registered one of these guests since the lookup; the chunk was rolled back,
+            // so retry row by row and reject only the clashing rows
+            log.warn("Batch insert failed for PG ID: {}, retrying {} rows individually: {}", pgId, fresh.size(), e.getMessage());
+        }
+        Integer inserted = transaction.execute(status -> {
+            int count = 0;
+            for (ParsedRow row : fresh) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, pgId, row.guest(), now));
+                    count++;
+                } catch (DuplicateKeyException e) {
+                    errors.add(new RowError(row.rowNumber(), EMAIL_UNAVAILABLE + row.guest().getEmailAddress()));
+                } catch (DataAccessException e) {
+                    errors.add(new RowError(row.rowNumber(), "Could not insert guest: " + e.getMostSpecificCause().getMessage()));
+                }
+            }
+            return count;
+        });
+        return new ChunkOutcome(inserted != null ? inserted : 0, errors);
+    }
+    
+    private static void bind(PreparedStatement ps, Long pgId, Guest guest, Timestamp now) throws SQLException {
+        ps.setLong(1, pgId);
+        ps.setString(2, guest.getFirstName());
+        ps.setString(3, guest.getLastName());
+        ps.setString(4, guest.getFullName());
+        ps.setString(5, guest.getEmailAddress());
+        ps.setString(6, guest.getPhoneNumber());
+        ps.setString(7, guest.getGender() != null ? guest.getGender().name() : null);
+        ps.setString(8, guest.getRoomNumber());
+        ps.setString(9, guest.getRoomType() != null ? guest.getRoomType().name() : null);
+        ps.setBoolean(10, Boolean.TRUE.equals(guest.getIsAcRoom()));
+        ps.setString(11, guest.getBedNumber());
+        ps.setString(12, guest.getGuestStatus().name());
+        ps.setBoolean(13, Boolean.TRUE.equals(guest.getIsActive()));
+        ps.setDate(14, guest.getCheckInDate() != null ? Date.valueOf(guest.getCheckInDate()) : null);
+        ps.setDate(15, guest.getCheckOutDate() != null ? Date.valueOf(guest.getCheckOutDate()) : null);
+        ps.setBigDecimal(16, guest.getMonthlyRent());
+        ps.setBigDecimal(17, guest.getSecurityDepositPaid());
+        ps.setDate(18, guest.getNextPaymentDue() != null ? Date.valueOf(guest.getNextPaymentDue()) : null);
+        ps.setString(19, guest.getOccupation());
+        ps.setString(20, guest.getPermanentCity());
+        ps.setString(21, guest.getEmergencyContactName());
+        ps.setString(22, guest.getEmergencyContactPhone());
+        ps.setString(23, guest.getFoodPreference() != null ? guest.getFoodPreference().name() : null);
+        ps.setBoolean(24, Boolean.TRUE.equals(guest.getHasFoodService()));
+        ps.setBoolean(25, false);
+        ps.setTimestamp(26, now);
+        ps.setTimestamp(27, now);
+    }
+    
+    private static void limit(String name, int length, Function<Guest, String> getter) {
+        LIMITED_COLUMNS.put(name, getter);
+        COLUMN_LIMITS.put(name, length);
+    }
+    
+    private static <T extends Enum<T>> T enumValue(Class<T> type, String field, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+    
+    private static boolean booleanValue(String field, String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "y", "1" -> true;
+            case "false", "no", "n", "0" -> false;
+            default -> throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        };
+    }
+    
+    private static LocalDate dateValue(String field, String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + field + " (expected yyyy-MM-dd): " + value);
+        }
+    }
+    
+    private static BigDecimal decimalValue(String field, String value) {
+        try {
+            return new BigDecimal(value.replace(",", ""));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+}
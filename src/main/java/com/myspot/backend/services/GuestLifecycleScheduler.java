@@ -0,0 +1,121 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.GuestDoc;
+import com.myspot.backend.entities.Guest;
+import com.myspot.backend.events.GuestChangedEvent;
+import com.myspot.backend.repository.GuestRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materialises guest lifecycle status: ACTIVE guests whose check-out date has passed become
+ * FORMER, and guests in any status other than ACTIVE lose the isActive flag. Former-guest
+ * queries can then be plain indexed equality lookups instead of date comparisons.
+ * Due guests are read in guest-id order, one chunk per transaction, and every update re-checks
+ * its condition, so the sweep can run at any time, including next to manual status changes.
+ * Only the node holding the scheduler lease runs the nightly sweep.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GuestLifecycleScheduler {
+    
+    private static final String LOCK_NAME = "guest-lifecycle";
+    
+    private final GuestRepository guestRepository;
+    private final LeasedJobRunner leasedJobRunner;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    
+    @Value("${app.guest.lifecycle.chunk-size:500}")
+    private int chunkSize;
+    
+    @Value("${app.guest.lifecycle.lease-minutes:10}")
+    private long leaseMinutes;
+    
+    @Value("${app.guest.lifecycle.enabled:true}")
+    private boolean enabled;
+    
+    public record SweepResult(int scanned, int markedFormer, int deactivated, long tookMs) {
+        
+        public Map<String, Object> toMap() {
+            Map<String, Object> result = new HashMap<>();
+            result.put("scanned", scanned);
+            result.put("markedFormer", markedFormer);
+            result.put("deactivated", deactivated);
+            result.put("tookMs", tookMs);
+            return result;
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        leasedJobRunner.catchUp("Guest lifecycle", this::run);
+    }
+    
+    @Scheduled(cron = "${app.guest.lifecycle.cron:0 15 0 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        leasedJobRunner.runLeased(LOCK_NAME, Duration.ofMinutes(leaseMinutes), () -> {
+            SweepResult result = sweep(null);
+            if (result.markedFormer() > 0 || result.deactivated() > 0) {
+                log.info("Guest lifecycle sweep marked {} guests former and deactivated {} in {} ms",
+                    result.markedFormer(), result.deactivated(), result.tookMs());
+            }
+        });
+    }
+    
+    /**
+     * Sweeps one PG, or every PG when pgId is null.
+     */
+    public SweepResult sweep(Long pgId) {
+        log.info("Sweeping guest lifecycle for PG ID: {}", pgId != null ? pgId : "all");
+        
+        long started = System.nanoTime();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LocalDate today = LocalDate.now();
+        // Only the nightly sweep of every PG holds the lease
+        LeasedJobRunner.ChunkTotals totals = leasedJobRunner.runChunks(pgId == null ? LOCK_NAME : null,
+            Duration.ofMinutes(leaseMinutes), chunkSize, afterId -> {
+                List<Long> guestIds = guestRepository.findCheckOutPassedIds(today, pgId, afterId, PageRequest.of(0, chunkSize));
+                if (guestIds.isEmpty()) {
+                    return LeasedJobRunner.ChunkResult.EMPTY;
+                }
+                return LeasedJobRunner.ChunkResult.ofIds(guestIds, transaction.execute(status -> markFormer(guestIds, today)));
+            });
+        Integer deactivated = transaction.execute(status -> guestRepository.deactivateInactiveStatuses(pgId, LocalDateTime.now()));
+        
+        return new SweepResult(totals.scanned(), totals.changed(), deactivated != null ? deactivated : 0,
+            (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    private int markFormer(List<Long> guestIds, LocalDate today) {
+        int written = guestRepository.markFormer(guestIds, today, LocalDateTime.now());
+        if (written > 0) {
+            for (GuestDoc guest : guestRepository.findSearchDocsByIds(guestIds)) {
+                if (guest.guestStatus() == Guest.GuestStatus.FORMER) {
+                    eventPublisher.publishEvent(new GuestChangedEvent(guest));
+                }
+            }
+        }
+        return written;
+    }
+}
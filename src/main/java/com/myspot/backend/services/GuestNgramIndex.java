@@ -0,0 +1,273 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.GuestDoc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Substring and prefix index over guest name, phone, email and room number.
+ *
+ * Each guest gets an ordinal; every trigram of every normalised field maps to a sorted list of
+ * ordinals, and every word maps to the same in a sorted token map. Queries of three or more
+ * characters intersect the trigram lists of the query and verify the survivors; shorter queries
+ * walk the token prefixes. Updates append a new ordinal and tombstone the old one, and the index
+ * compacts itself once a quarter of the ordinals are dead.
+ *
+ * Not thread-safe; callers guard access.
+ */
+public class GuestNgramIndex {
+    
+    private static final int GRAM = 3;
+    private static final int MIN_COMPACTION = 1024;
+    
+    private static final int NAME = 0;
+    private static final int PHONE = 1;
+    private static final int EMAIL = 2;
+    private static final int ROOM = 3;
+    
+    public record Hit(GuestDoc guest, int score) {
+    }
+    
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<String, IntList> grams = new HashMap<>();
+    private final TreeMap<String, IntList> tokens = new TreeMap<>();
+    private int tombstones;
+    
+    public int size() {
+        return ordinals.size();
+    }
+    
+    public int gramCount() {
+        return grams.size();
+    }
+    
+    public long postingCount() {
+        long total = 0;
+        for (IntList list : grams.values()) {
+            total += list.size;
+        }
+        for (IntList list : tokens.values()) {
+            total += list.size;
+        }
+        return total;
+    }
+    
+    public void put(GuestDoc guest) {
+        remove(guest.guestId());
+        Entry entry = new Entry(guest);
+        int ordinal = entries.size();
+        entries.add(entry);
+        ordinals.put(guest.guestId(), ordinal);
+        
+        Set<String> docGrams = new HashSet<>();
+        Set<String> docTokens = new HashSet<>();
+        for (String field : entry.fields) {
+            if (field.isEmpty()) {
+                continue;
+            }
+            for (int i = 0; i + GRAM <= field.length(); i++) {
+                docGrams.add(field.substring(i, i + GRAM));
+            }
+            docTokens.add(field);
+            for (String token : field.split("[\\s@._+-]+")) {
+                if (!token.isEmpty()) {
+                    docTokens.add(token);
+                }
+            }
+        }
+        for (String gram : docGrams) {
+            grams.computeIfAbsent(gram, g -> new IntList()).add(ordinal);
+        }
+        for (String token : docTokens) {
+            tokens.computeIfAbsent(token, t -> new IntList()).add(ordinal);
+        }
+    }
+    
+    public boolean remove(Long guestId) {
+        Integer ordinal = ordinals.remove(guestId);
+        if (ordinal == null) {
+            return false;
+        }
+        entries.set(ordinal, null);
+        tombstones++;
+        if (tombstones >= MIN_COMPACTION && tombstones * 4 >= entries.size()) {
+            compact();
+        }
+        return true;
+    }
+    
+    /**
+     * All guests matching the query, best first: whole-field matches, then field or word
+     * prefixes, then substrings; ties are broken by name.
+     */
+    public List<Hit> search(String query) {
+        String text = normaliseText(query);
+        String digits = queryDigits(query);
+        if (text.isEmpty()) {
+            return List.of();
+        }
+        Set<Integer> candidates = new LinkedHashSet<>();
+        collectCandidates(text, candidates);
+        if (digits != null && !digits.equals(text)) {
+            collectCandidates(digits, candidates);
+        }
+        
+        List<Hit> hits = new ArrayList<>();
+        for (int ordinal : candidates) {
+            Entry entry = entries.get(ordinal);
+            if (entry == null) {
+                continue;
+            }
+            int score = Math.max(score(entry, text), digits != null ? score(entry, digits) : 0);
+            if (score > 0) {
+                hits.add(new Hit(entry.guest, score));
+            }
+        }
+        hits.sort(Comparator.comparingInt(Hit::score).reversed()
+            .thenComparing(hit -> hit.guest().fullName() != null ? hit.guest().fullName() : "")
+            .thenComparing(hit -> hit.guest().guestId()));
+        return hits;
+    }
+    
+    private void collectCandidates(String query, Set<Integer> out) {
+        if (query.length() < GRAM) {
+            for (IntList list : tokens.subMap(query, true, query + Character.MAX_VALUE, false).values()) {
+                for (int i = 0; i < list.size; i++) {
+                    out.add(list.values[i]);
+                }
+            }
+            return;
+        }
+        List<IntList> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            IntList list = grams.get(query.substring(i, i + GRAM));
+            if (list == null) {
+                return;
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        IntList smallest = lists.get(0);
+        outer:
+        for (int i = 0; i < smallest.size; i++) {
+            int ordinal = smallest.values[i];
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(ordinal)) {
+                    continue outer;
+                }
+            }
+            out.add(ordinal);
+        }
+    }
+    
+    private static int score(Entry entry, String query) {
+        int best = 0;
+        for (int field = 0; field < entry.fields.length; field++) {
+            String value = entry.fields[field];
+            int score;
+            if (value.equals(query)) {
+                score = 100;
+            } else if (value.startsWith(query) || containsWordPrefix(value, query)) {
+                score = 60;
+            } else if (value.contains(query)) {
+                score = 20;
+            } else {
+                continue;
+            }
+            // Identifiers (phone, room) outrank names and emails at the same match quality
+            best = Math.max(best, score + (field == PHONE || field == ROOM ? 5 : 0));
+        }
+        return best;
+    }
+    
+    private static boolean containsWordPrefix(String value, String query) {
+        int from = 0;
+        while ((from = value.indexOf(query, from + 1)) > 0) {
+            char before = value.charAt(from - 1);
+            if (!Character.isLetterOrDigit(before)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private void compact() {
+        List<Entry> live = new ArrayList<>(ordinals.size());
+        for (Entry entry : entries) {
+            if (entry != null) {
+                live.add(entry);
+            }
+        }
+        entries.clear();
+        ordinals.clear();
+        grams.clear();
+        tokens.clear();
+        tombstones = 0;
+        live.forEach(entry -> put(entry.guest));
+    }
+    
+    static String normaliseText(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+    
+    static String digitsOnly(String value) {
+        return value == null ? "" : value.replaceAll("\\D", "");
+    }
+    
+    /**
+     * The query as a phone number when it is made only of digits and phone punctuation.
+     */
+    static String queryDigits(String query) {
+        if (query == null || !query.trim().matches("[+\\d][\\d\\s()+-]*")) {
+            return null;
+        }
+        String digits = digitsOnly(query);
+        return digits.isEmpty() ? null : digits;
+    }
+    
+    private static final class Entry {
+        final GuestDoc guest;
+        final String[] fields = new String[4];
+        
+        Entry(GuestDoc guest) {
+            this.guest = guest;
+            fields[NAME] = normaliseText(guest.fullName());
+            fields[PHONE] = digitsOnly(guest.phoneNumber());
+            fields[EMAIL] = normaliseText(guest.emailAddress());
+            fields[ROOM] = normaliseText(guest.roomNumber());
+        }
+    }
+    
+    /**
+     * Growable sorted int array; ordinals are only ever appended in increasing order.
+     */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+        
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+    }
+}
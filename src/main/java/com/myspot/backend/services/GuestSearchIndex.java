@@ -0,0 +1,177 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.GuestDoc;
+import com.myspot.backend.events.GuestChangedEvent;
+import com.myspot.backend.events.GuestsImportedEvent;
+import com.myspot.backend.repository.GuestRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Per-PG n-gram index for type-ahead guest search by name, phone, email or room.
+ * Rebuilt for all PGs at startup with a streaming scan, loaded lazily for PGs added later,
+ * kept in sync from GuestChangedEvent after commit, and reloaded after a TTL so writes made
+ * on other nodes converge.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GuestSearchIndex {
+    
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+    
+    private final GuestRepository guestRepository;
+    private final PlatformTransactionManager transactionManager;
+    
+    private final Map<Long, PgIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> modCounts = new ConcurrentHashMap<>();
+    
+    @Value("${app.guest.search-index.ttl-minutes:30}")
+    private long ttlMinutes;
+    
+    public List<GuestNgramIndex.Hit> search(Long pgId, String query) {
+        return getIndex(pgId).search(query);
+    }
+    
+    public void invalidate(Long pgId) {
+        modCount(pgId).incrementAndGet();
+        indexes.remove(pgId);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGuestChanged(GuestChangedEvent event) {
+        Long pgId = event.pgId();
+        modCount(pgId).incrementAndGet();
+        PgIndex index = indexes.get(pgId);
+        if (index != null) {
+            index.put(event.guest());
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGuestsImported(GuestsImportedEvent event) {
+        invalidate(event.pgId());
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        try {
+            readOnly.executeWithoutResult(status -> rebuildAll());
+        } catch (Exception e) {
+            log.warn("Guest search index rebuild failed, PGs will load on first use: {}", e.getMessage());
+        }
+    }
+    
+    private void rebuildAll() {
+        log.info("Rebuilding guest search index for all PGs");
+        long started = System.nanoTime();
+        
+        Map<Long, Long> seen = new HashMap<>();
+        Map<Long, PgIndex> rebuilt = new HashMap<>();
+        long rows = 0;
+        try (Stream<GuestDoc> docs = guestRepository.streamSearchDocs()) {
+            for (GuestDoc doc : (Iterable<GuestDoc>) docs::iterator) {
+                PgIndex index = rebuilt.get(doc.pgId());
+                if (index == null) {
+                    seen.put(doc.pgId(), modCount(doc.pgId()).get());
+                    index = new PgIndex();
+                    rebuilt.put(doc.pgId(), index);
+                }
+                index.put(doc);
+                rows++;
+            }
+        }
+        
+        // PGs written to while the scan was running are left to load lazily
+        Set<Long> stale = new HashSet<>();
+        rebuilt.forEach((pgId, index) -> {
+            if (modCount(pgId).get() == seen.get(pgId)) {
+                indexes.put(pgId, index);
+            } else {
+                stale.add(pgId);
+            }
+        });
+        log.info("Rebuilt guest search index for {} PGs from {} guests in {} ms ({} left to load lazily)",
+            rebuilt.size() - stale.size(), rows, (System.nanoTime() - started) / 1_000_000, stale.size());
+    }
+    
+    private PgIndex getIndex(Long pgId) {
+        PgIndex index = indexes.get(pgId);
+        if (index != null && !index.isExpired(ttlMinutes)) {
+            return index;
+        }
+        PgIndex loaded;
+        long seen;
+        int attempts = 0;
+        do {
+            seen = modCount(pgId).get();
+            loaded = load(pgId);
+        } while (modCount(pgId).get() != seen && ++attempts < MAX_LOAD_ATTEMPTS);
+        indexes.put(pgId, loaded);
+        return loaded;
+    }
+    
+    private PgIndex load(Long pgId) {
+        long started = System.nanoTime();
+        List<GuestDoc> docs = guestRepository.findSearchDocsByPgId(pgId);
+        PgIndex index = new PgIndex();
+        docs.forEach(index::put);
+        log.info("Loaded guest search index for PG ID: {} with {} guests in {} ms",
+            pgId, docs.size(), (System.nanoTime() - started) / 1_000_000);
+        return index;
+    }
+    
+    private AtomicLong modCount(Long pgId) {
+        return modCounts.computeIfAbsent(pgId, id -> new AtomicLong());
+    }
+    
+    private static final class PgIndex {
+        
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final GuestNgramIndex index = new GuestNgramIndex();
+        private final long loadedAt = System.currentTimeMillis();
+        
+        boolean isExpired(long ttlMinutes) {
+            return System.currentTimeMillis() - loadedAt > ttlMinutes * 60_000;
+        }
+        
+        List<GuestNgramIndex.Hit> search(String query) {
+            lock.readLock().lock();
+            try {
+                return index.search(query);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        void put(GuestDoc doc) {
+            lock.writeLock().lock();
+            try {
+                index.put(doc);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+}
@@ -1,12 +1,20 @@
 
 package com.myspot.backend.services;
 
+import com.myspot.backend.dto.projection.GuestDoc;
+import com.myspot.backend.dto.request.RecordRentPaymentRequest;
 import com.myspot.backend.entities.*;
+import com.myspot.backend.events.GuestChangedEvent;
+import com.myspot.backend.events.RentDueChangedEvent;
 import com.myspot.backend.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,12 +26,67 @@ import java.util.stream.Collectors;
 @Transactional
 public class GuestService {
     
+    /**
+     * Fields a guest list may be narrowed to with fields=; names match convertGuestToMap.
+     */
+    static final FieldProjection<Guest> LIST_FIELDS = FieldProjection.of(Guest.class)
+        .column("guestId").column("firstName").column("lastName").column("fullName")
+        .column("emailAddress").column("phoneNumber").column("alternatePhone").column("dateOfBirth")
+        .column("gender", "gender", FieldProjection::enumName)
+        .column("maritalStatus", "maritalStatus", FieldProjection::enumName)
+        .column("permanentAddress").column("permanentCity").column("permanentState").column("permanentPincode")
+        .column("occupation").column("companyName").column("workAddress").column("monthlyIncome")
+        .column("emergencyContactName").column("emergencyContactRelation").column("emergencyContactPhone")
+        .column("aadharNumber").column("panNumber").column("photoPath")
+        .column("roomNumber")
+        .column("roomType", "roomType", FieldProjection::enumName)
+        .column("isAcRoom").column("bedNumber")
+        .column("guestStatus", "guestStatus", FieldProjection::enumName)
+        .column("isActive").column("checkInDate").column("checkOutDate").column("expectedStayDuration")
+        .column("foodPreference", "foodPreference", FieldProjection::enumName)
+        .column("hasFoodService").column("specialRequirements").column("medicalConditions")
+        .column("hasVehicle").column("vehicleDetails")
+        .column("securityDepositPaid").column("monthlyRent").column("lastPaymentDate").column("nextPaymentDue")
+        .column("createdAt").column("updatedAt")
+        .derived("age", values -> Guest.builder()
+            .dateOfBirth((LocalDate) values.get("dateOfBirth"))
+            .build().getAge(), "dateOfBirth")
+        .derived("isCurrentGuest", values -> Guest.builder()
+            .guestStatus((Guest.GuestStatus) values.get("guestStatus"))
+            .checkInDate((LocalDate) values.get("checkInDate"))
+            .checkOutDate((LocalDate) values.get("checkOutDate"))
+            .build().isCurrentGuest(), "guestStatus", "checkInDate", "checkOutDate")
+        .derived("isFormerGuest", values -> Guest.builder()
+            .guestStatus((Guest.GuestStatus) values.get("guestStatus"))
+            .checkOutDate((LocalDate) values.get("checkOutDate"))
+            .build().isFormerGuest(), "guestStatus", "checkOutDate");
+    
     private final PGManagementOwnerRepository pgManagementOwnerRepository;
     private final GuestRepository guestRepository;
+    private final GuestSearchIndex guestSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
     
+    /**
+     * Guest list, optionally narrowed to a comma-separated list of fields. A narrowed list selects
+     * only the columns those fields need instead of loading full guest entities.
+     */
     @Transactional(readOnly = true)
-    public List<Map<String, Object>> getAllGuests(Long pgId, String status) {
-        log.info("Getting all guests for PG ID: {}, status: {}", pgId, status);
+    public List<Map<String, Object>> getAllGuests(Long pgId, String status, String fields) {
+        log.info("Getting all guests for PG ID: {}, status: {}, fields: {}", pgId, status, fields);
+        
+        FieldProjection.Fields selected = LIST_FIELDS.parse(fields);
+        if (selected != null) {
+            if (!pgManagementOwnerRepository.existsById(pgId)) {
+                throw new RuntimeException("PG not found");
+            }
+            Guest.GuestStatus guestStatus = parseGuestStatus(status);
+            return LIST_FIELDS.list(entityManager, selected, (cb, query, root) -> {
+                Predicate pgMatches = cb.equal(root.get("pgManagementOwner").get("pgId"), pgId);
+                query.where(guestStatus != null ? cb.and(pgMatches, cb.equal(root.get("guestStatus"), guestStatus)) : pgMatches);
+                query.orderBy(cb.desc(root.get("createdAt")));
+            });
+        }
         
         PGManagementOwner pgManagementOwner = pgManagementOwnerRepository.findById(pgId)
             .orElseThrow(() -> new RuntimeException("PG not found"));
@@ -43,7 +106,7 @@ public class GuestService {
         }
         
         return guests.stream()
-            .map(this::convertGuestToMap)
+            .map(GuestService::convertGuestToMap)
             .collect(Collectors.toList());
     }
     
@@ -79,6 +142,9 @@ public class GuestService {
             guest.setIsActive(status == Guest.GuestStatus.ACTIVE);
             
             guest = guestRepository.save(guest);
+            eventPublisher.publishEvent(new GuestChangedEvent(GuestDoc.of(guest)));
+            eventPublisher.publishEvent(new RentDueChangedEvent(guestId, pgId,
+                status == Guest.GuestStatus.ACTIVE ? guest.getNextPaymentDue() : null));
             return convertGuestToMap(guest);
             
         } catch (IllegalArgumentException e) {
@@ -86,6 +152,87 @@ public class GuestService {
         }
     }
     
+    /**
+     * Records a rent payment and moves the next due date, which reschedules the rent reminder.
+     */
+    public Map<String, Object> recordRentPayment(Long pgId, Long guestId, RecordRentPaymentRequest request) {
+        log.info("Recording rent payment for guest ID: {} in PG ID: {}", guestId, pgId);
+        
+        Guest guest = guestRepository.findById(guestId)
+            .orElseThrow(() -> new RuntimeException("Guest not found"));
+        
+        if (!guest.getPgManagementOwner().getPgId().equals(pgId)) {
+            throw new RuntimeException("Guest does not belong to this PG");
+        }
+        
+        LocalDate paidOn = request.getPaidOn() != null ? request.getPaidOn() : LocalDate.now();
+        LocalDate nextPaymentDue = request.getNextPaymentDue() != null
+            ? request.getNextPaymentDue()
+            : (guest.getNextPaymentDue() != null ? guest.getNextPaymentDue() : paidOn).plusMonths(1);
+        if (!nextPaymentDue.isAfter(paidOn)) {
+            throw new IllegalArgumentException("Next payment due date must be after the payment date");
+        }
+        
+        guest.setLastPaymentDate(paidOn);
+        guest.setNextPaymentDue(nextPaymentDue);
+        guest = guestRepository.save(guest);
+        
+        eventPublisher.publishEvent(new RentDueChangedEvent(guestId, pgId,
+            guest.getGuestStatus() == Guest.GuestStatus.ACTIVE ? nextPaymentDue : null));
+        return convertGuestToMap(guest);
+    }
+    
+    /**
+     * Type-ahead search over name, phone, email and room number, served from the in-memory index.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> searchGuests(Long pgId, String query, String status, int page, int size) {
+        log.info("Searching guests for PG ID: {}, query: {}, status: {}", pgId, query, status);
+        
+        long started = System.nanoTime();
+        Guest.GuestStatus guestStatus = null;
+        if (status != null && !"all".equals(status)) {
+            try {
+                guestStatus = Guest.GuestStatus.valueOf(status.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Invalid guest status: " + status);
+            }
+        }
+        
+        List<GuestNgramIndex.Hit> hits = guestSearchIndex.search(pgId, query);
+        if (guestStatus != null) {
+            Guest.GuestStatus wanted = guestStatus;
+            hits = hits.stream().filter(hit -> hit.guest().guestStatus() == wanted).toList();
+        }
+        
+        // Long product: a large page number would overflow int and wrap to a negative offset
+        int from = (int) Math.min((long) page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        List<Map<String, Object>> results = hits.subList(from, to).stream()
+            .map(hit -> {
+                GuestDoc guest = hit.guest();
+                Map<String, Object> result = new HashMap<>();
+                result.put("guestId", guest.guestId());
+                result.put("fullName", guest.fullName());
+                result.put("phoneNumber", guest.phoneNumber());
+                result.put("emailAddress", guest.emailAddress());
+                result.put("roomNumber", guest.roomNumber());
+                result.put("guestStatus", guest.guestStatus() != null ? guest.guestStatus().name() : null);
+                result.put("score", hit.score());
+                return result;
+            })
+            .collect(Collectors.toList());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", query);
+        response.put("total", hits.size());
+        response.put("page", page);
+        response.put("size", size);
+        response.put("results", results);
+        response.put("tookMicros", (System.nanoTime() - started) / 1_000);
+        return response;
+    }
+    
     @Transactional(readOnly = true)
     public Map<String, Object> getGuestStats(Long pgId) {
         log.info("Getting guest statistics for PG ID: {}", pgId);
@@ -108,7 +255,19 @@ public class GuestService {
         return stats;
     }
     
-    private Map<String, Object> convertGuestToMap(Guest guest) {
+    private Guest.GuestStatus parseGuestStatus(String status) {
+        if ("all".equals(status)) {
+            return null;
+        }
+        try {
+            return Guest.GuestStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid guest status: {}, using all guests", status);
+            return null;
+        }
+    }
+    
+    static Map<String, Object> convertGuestToMap(Guest guest) {
         Map<String, Object> guestMap = new HashMap<>();
         
         guestMap.put("guestId", guest.getGuestId());
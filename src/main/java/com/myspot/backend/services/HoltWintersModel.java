@@ -0,0 +1,152 @@
+package com.myspot.backend.services;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Additive Holt-Winters model of one daily series with a damped trend and a weekly season.
+ *
+ * The state is a level, a trend and one seasonal offset per day of week, so it is updated one
+ * observation at a time and never needs the history again. Observations on or before the last
+ * one seen are ignored, which makes replaying a day harmless. Missing days carry the level
+ * forward along the damped trend without touching the seasonal offsets. The first two weeks of
+ * observations warm the model up; forecasts made earlier lean on the level alone.
+ */
+public class HoltWintersModel {
+    
+    public static final int WARM_UP_DAYS = 14;
+    
+    private static final int SEASON = 7;
+    
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final double phi;
+    
+    private double level;
+    private double trend;
+    private final double[] seasonal;
+    private long observations;
+    private LocalDate lastDate;
+    
+    public HoltWintersModel() {
+        this(0.3, 0.05, 0.2, 0.98);
+    }
+    
+    public HoltWintersModel(double alpha, double beta, double gamma, double phi) {
+        this(alpha, beta, gamma, phi, 0, 0, new double[SEASON], 0, null);
+    }
+    
+    private HoltWintersModel(double alpha, double beta, double gamma, double phi,
+                             double level, double trend, double[] seasonal, long observations, LocalDate lastDate) {
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.phi = phi;
+        this.level = level;
+        this.trend = trend;
+        this.seasonal = seasonal;
+        this.observations = observations;
+        this.lastDate = lastDate;
+    }
+    
+    /**
+     * Rebuilds a model from stored state with the default smoothing parameters.
+     */
+    public static HoltWintersModel restore(double level, double trend, String seasonal, long observations, LocalDate lastDate) {
+        double[] offsets = Arrays.stream(seasonal.split(",")).mapToDouble(Double::parseDouble).toArray();
+        if (offsets.length != SEASON) {
+            throw new IllegalArgumentException("Expected " + SEASON + " seasonal offsets but got " + offsets.length);
+        }
+        HoltWintersModel defaults = new HoltWintersModel();
+        return new HoltWintersModel(defaults.alpha, defaults.beta, defaults.gamma, defaults.phi,
+            level, trend, offsets, observations, lastDate);
+    }
+    
+    public double getLevel() {
+        return level;
+    }
+    
+    public double getTrend() {
+        return trend;
+    }
+    
+    public long getObservations() {
+        return observations;
+    }
+    
+    public LocalDate getLastDate() {
+        return lastDate;
+    }
+    
+    public String getSeasonal() {
+        return Arrays.stream(seasonal)
+            .mapToObj(offset -> String.format(Locale.ROOT, "%.6f", offset))
+            .collect(Collectors.joining(","));
+    }
+    
+    /**
+     * Folds in the value observed on date; returns false if date is not after the last observation.
+     */
+    public boolean update(LocalDate date, double value) {
+        if (lastDate != null && !date.isAfter(lastDate)) {
+            return false;
+        }
+        int day = dayIndex(date.getDayOfWeek());
+        if (observations == 0) {
+            level = value;
+            trend = 0;
+        } else {
+            long gap = ChronoUnit.DAYS.between(lastDate, date);
+            // Skipped days advance the level along the trend as a forecast would
+            for (long i = 1; i < gap; i++) {
+                level += phi * trend;
+                trend *= phi;
+            }
+            double previousLevel = level;
+            double season = observations < SEASON ? 0 : seasonal[day];
+            level = alpha * (value - season) + (1 - alpha) * (previousLevel + phi * trend);
+            trend = beta * (level - previousLevel) + (1 - beta) * phi * trend;
+            seasonal[day] = gamma * (value - level) + (1 - gamma) * seasonal[day];
+        }
+        observations++;
+        lastDate = date;
+        return true;
+    }
+    
+    /**
+     * Records that nothing was observed up to date, so a model with no observations yet starts
+     * after it; has no effect once the model has observed a value.
+     */
+    public void skipUntil(LocalDate date) {
+        if (observations == 0 && (lastDate == null || date.isAfter(lastDate))) {
+            lastDate = date;
+        }
+    }
+    
+    /**
+     * Point forecast for a date after the last observation, or the level if nothing was observed.
+     */
+    public double forecast(LocalDate date) {
+        if (lastDate == null) {
+            return level;
+        }
+        long horizon = Math.max(1, ChronoUnit.DAYS.between(lastDate, date));
+        double damping = 0;
+        double factor = 1;
+        for (long h = 1; h <= horizon; h++) {
+            factor *= phi;
+            damping += factor;
+        }
+        double season = observations >= WARM_UP_DAYS ? seasonal[dayIndex(date.getDayOfWeek())] : 0;
+        return level + damping * trend + season;
+    }
+    
+    private static int dayIndex(DayOfWeek dayOfWeek) {
+        return dayOfWeek.getValue() - 1;
+    }
+}
@@ -0,0 +1,200 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.IdempotencyRecord;
+import com.myspot.backend.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bounded, expiring map of Idempotency-Key to the response of the first request that used it.
+ *
+ * The first caller for a key claims it and runs the request; callers arriving while it runs get
+ * the same future and wait for its response instead of executing again. Keys are evicted in LRU
+ * order past maxEntries and ignored after the TTL. With app.idempotency.persistent=true completed
+ * responses are also written to idempotency_records, so retries that land on another node or
+ * after a restart are replayed too; in-flight waiting stays node-local.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+    
+    // Sentinel for a persisted record whose fingerprint differs from the request's
+    private static final StoredResponse PERSISTED_MISMATCH = new StoredResponse(0, null, null);
+    
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final boolean persistent;
+    
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            @Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${app.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                            @Value("${app.idempotency.persistent:false}") boolean persistent) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMinutes * 60_000;
+        this.persistent = persistent;
+    }
+    
+    public record StoredResponse(int status, String contentType, byte[] body) {
+    }
+    
+    /**
+     * Result of claiming a key. When owner is true the caller must finish with complete or abandon;
+     * otherwise response resolves to the first request's response, or to null if it was abandoned.
+     */
+    public record Claim(boolean owner, boolean fingerprintMismatch, CompletableFuture<StoredResponse> response) {
+    }
+    
+    public Claim claim(String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt < now) {
+                entries.remove(key);
+                entry = null;
+            }
+            if (entry != null) {
+                return new Claim(false, !entry.fingerprint.equals(fingerprint), entry.response);
+            }
+        }
+        
+        StoredResponse stored = persistent ? loadPersisted(key, fingerprint) : null;
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                return new Claim(false, !entry.fingerprint.equals(fingerprint), entry.response);
+            }
+            if (stored == PERSISTED_MISMATCH) {
+                return new Claim(false, true, CompletableFuture.completedFuture(null));
+            }
+            entry = new Entry(fingerprint, now + ttlMillis);
+            if (stored != null) {
+                entry.response.complete(stored);
+            }
+            entries.put(key, entry);
+            evictOverflow();
+            return new Claim(stored == null, false, entry.response);
+        }
+    }
+    
+    public void complete(String key, StoredResponse response) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            return;
+        }
+        entry.response.complete(response);
+        if (persistent) {
+            persist(key, entry, response);
+        }
+    }
+    
+    /**
+     * Forgets a claimed key so the next retry runs the request again; waiters receive null.
+     */
+    public void abandon(String key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.remove(key);
+        }
+        if (entry != null) {
+            entry.response.complete(null);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            entries.values().removeIf(entry -> entry.expiresAt < now && entry.response.isDone());
+        }
+        if (persistent) {
+            int deleted = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+            if (deleted > 0) {
+                log.info("Deleted {} expired idempotency records", deleted);
+            }
+        }
+    }
+    
+    private void evictOverflow() {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            // In-flight keys stay put so their waiters are not orphaned
+            if (eldest.next().getValue().response.isDone()) {
+                eldest.remove();
+            }
+        }
+    }
+    
+    private StoredResponse loadPersisted(String key, String fingerprint) {
+        try {
+            return idempotencyRecordRepository.findById(hash(key))
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(record -> record.getFingerprint().equals(fingerprint)
+                    ? new StoredResponse(record.getStatusCode(), record.getContentType(), record.getResponseBody())
+                    : PERSISTED_MISMATCH)
+                .orElse(null);
+        } catch (Exception e) {
+            log.warn("Could not read idempotency record: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private void persist(String key, Entry entry, StoredResponse response) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                .keyHash(hash(key))
+                .fingerprint(entry.fingerprint)
+                .statusCode(response.status())
+                .contentType(response.contentType())
+                .responseBody(response.body())
+                .createdAt(now)
+                .expiresAt(now.plus(Duration.ofMillis(ttlMillis)))
+                .build());
+        } catch (Exception e) {
+            log.warn("Could not persist idempotency record: {}", e.getMessage());
+        }
+    }
+    
+    public static String hash(String value) {
+        return hash(value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static String hash(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private static final class Entry {
+        final String fingerprint;
+        final long expiresAt;
+        final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+        
+        Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
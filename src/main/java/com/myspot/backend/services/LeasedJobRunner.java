@@ -0,0 +1,95 @@
+package com.myspot.backend.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * The skeleton shared by the nightly jobs, so each one supplies only its work: a startup
+ * catch-up whose failure is left to the next scheduled run, a run that only the node holding the
+ * job's scheduler lease performs, and a keyset-chunked loop that renews the lease between chunks
+ * and stops once it is lost. Kept apart from SchedulerLockService, whose methods each run in a
+ * transaction of their own.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LeasedJobRunner {
+    
+    private final SchedulerLockService schedulerLockService;
+    
+    public void catchUp(String jobName, Runnable run) {
+        try {
+            run.run();
+        } catch (Exception e) {
+            log.warn("{} catch-up failed, the next scheduled run will retry: {}", jobName, e.getMessage());
+        }
+    }
+    
+    /**
+     * Runs job while holding the lease on lockName; returns false without running it when another
+     * node holds the lease.
+     */
+    public boolean runLeased(String lockName, Duration leaseFor, Runnable job) {
+        if (!schedulerLockService.tryAcquire(lockName, leaseFor)) {
+            return false;
+        }
+        try {
+            job.run();
+            return true;
+        } finally {
+            schedulerLockService.release(lockName);
+        }
+    }
+    
+    /**
+     * Calls chunk with the last id of the previous chunk, starting from 0, until a chunk comes
+     * back smaller than chunkSize. Long catch-ups keep the lease on lockName alive chunk by chunk;
+     * a null lockName runs without a lease, for one-off calls outside the schedule.
+     */
+    public ChunkTotals runChunks(String lockName, Duration leaseFor, int chunkSize, Chunk chunk) {
+        int scanned = 0;
+        int changed = 0;
+        long afterId = 0;
+        while (true) {
+            ChunkResult result = chunk.process(afterId);
+            if (result == null || result.size() == 0) {
+                break;
+            }
+            scanned += result.size();
+            changed += result.changed();
+            afterId = result.lastId();
+            if (result.size() < chunkSize) {
+                break;
+            }
+            if (lockName != null && !schedulerLockService.renew(lockName, leaseFor)) {
+                log.warn("Lost scheduler lock {} after ID: {}", lockName, afterId);
+                break;
+            }
+        }
+        return new ChunkTotals(scanned, changed);
+    }
+    
+    @FunctionalInterface
+    public interface Chunk {
+        ChunkResult process(long afterId);
+    }
+    
+    /**
+     * One chunk's row count, the last id in it, and how many of its rows the job changed.
+     */
+    public record ChunkResult(int size, long lastId, int changed) {
+        
+        public static final ChunkResult EMPTY = new ChunkResult(0, 0, 0);
+        
+        public static ChunkResult ofIds(List<Long> ids, Integer changed) {
+            return ids.isEmpty() ? EMPTY : new ChunkResult(ids.size(), ids.get(ids.size() - 1), changed != null ? changed : 0);
+        }
+    }
+    
+    public record ChunkTotals(int scanned, int changed) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.BookingEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts booking transitions per PG and month of occurrence into monthly_booking_stats.
+ * A batch is folded in memory first, so each PG-month gets one upsert per batch.
+ */
+@Component
+@RequiredArgsConstructor
+public class MonthlyBookingStatsProjection implements BookingProjection {
+    
+    private static final String UPSERT_SQL =
+        "INSERT INTO monthly_booking_stats (pg_owner_id, stats_month, created_count, confirmed_count, activated_count, " +
+        "completed_count, cancelled_count, no_show_count, payment_changed_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE created_count = created_count + VALUES(created_count), " +
+        "confirmed_count = confirmed_count + VALUES(confirmed_count), " +
+        "activated_count = activated_count + VALUES(activated_count), " +
+        "completed_count = completed_count + VALUES(completed_count), " +
+        "cancelled_count = cancelled_count + VALUES(cancelled_count), " +
+        "no_show_count = no_show_count + VALUES(no_show_count), " +
+        "payment_changed_count = payment_changed_count + VALUES(payment_changed_count)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public String getName() {
+        return "monthly-booking-stats";
+    }
+    
+    @Override
+    public void apply(List<BookingEvent> events) {
+        Map<Key, long[]> deltas = new LinkedHashMap<>();
+        for (BookingEvent event : events) {
+            int column = column(event.getEventType());
+            if (column < 0) {
+                continue;
+            }
+            Key key = new Key(event.getPgId(), YearMonth.from(event.getOccurredAt()).toString());
+            deltas.computeIfAbsent(key, k -> new long[7])[column]++;
+        }
+        
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((key, counts) -> rows.add(new Object[] {
+            key.pgId(), key.month(), counts[0], counts[1], counts[2], counts[3], counts[4], counts[5], counts[6]
+        }));
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        }
+    }
+    
+    private static int column(BookingEvent.EventType eventType) {
+        return switch (eventType) {
+            case CREATED -> 0;
+            case CONFIRMED -> 1;
+            case ACTIVATED -> 2;
+            case COMPLETED -> 3;
+            case CANCELLED -> 4;
+            case NO_SHOW -> 5;
+            case PAYMENT_CHANGED -> 6;
+            case REOPENED -> -1;
+        };
+    }
+    
+    private record Key(Long pgId, String month) {
+    }
+}
@@ -82,6 +82,12 @@ public class NotificationService {
     
     public void createNotification(Long pgId, String title, String message, 
                                  Notification.NotificationType type, Notification.Priority priority) {
+        createNotification(pgId, title, message, type, priority, null, null);
+    }
+    
+    public void createNotification(Long pgId, String title, String message,
+                                 Notification.NotificationType type, Notification.Priority priority,
+                                 Long relatedEntityId, String relatedEntityType) {
         log.info("Creating notification for PG ID: {}, type: {}", pgId, type);
         
         PGManagementOwner pgManagementOwner = pgManagementOwnerRepository.findById(pgId)
@@ -94,6 +100,8 @@ public class NotificationService {
             .notificationType(type)
             .priority(priority != null ? priority : Notification.Priority.MEDIUM)
             .isRead(false)
+            .relatedEntityId(relatedEntityId)
+            .relatedEntityType(relatedEntityType)
             .build();
         
         notificationRepository.save(notification);
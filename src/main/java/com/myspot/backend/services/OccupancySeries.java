@@ -0,0 +1,132 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.Booking;
+import com.myspot.backend.entities.OccupancySnapshot;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds date-ordered daily occupancy snapshots into day, week (Monday-based) or month points.
+ * Each point carries the average, minimum and maximum occupied beds over the days recorded in
+ * it, the bed count on its last recorded day, and the occupancy rate over all its bed-nights.
+ */
+public final class OccupancySeries {
+    
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+        
+        public static Granularity parse(String value) {
+            if (value == null || value.isBlank()) {
+                return DAY;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid granularity: " + value + ". Allowed: day, week, month");
+            }
+        }
+        
+        LocalDate periodStart(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+    }
+    
+    private OccupancySeries() {
+    }
+    
+    public static List<Map<String, Object>> downsample(List<OccupancySnapshot> snapshots, Granularity granularity) {
+        List<Map<String, Object>> points = new ArrayList<>();
+        Bucket bucket = null;
+        for (OccupancySnapshot snapshot : snapshots) {
+            LocalDate period = granularity.periodStart(snapshot.getId().getSnapshotDate());
+            if (bucket == null || !bucket.period.equals(period)) {
+                if (bucket != null) {
+                    points.add(bucket.toPoint());
+                }
+                bucket = new Bucket(period);
+            }
+            bucket.add(snapshot);
+        }
+        if (bucket != null) {
+            points.add(bucket.toPoint());
+        }
+        return points;
+    }
+    
+    private static BigDecimal ratio(long part, long whole, int scale) {
+        return whole > 0
+            ? BigDecimal.valueOf(part).multiply(BigDecimal.valueOf(100)).divide(BigDecimal.valueOf(whole), scale, RoundingMode.HALF_UP)
+            : BigDecimal.ZERO;
+    }
+    
+    private static BigDecimal average(long sum, int days) {
+        return BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(days), 1, RoundingMode.HALF_UP);
+    }
+    
+    private static final class Bucket {
+        final LocalDate period;
+        final long[] occupiedByType = new long[Booking.RoomType.values().length];
+        final long[] bedNightsByType = new long[Booking.RoomType.values().length];
+        int days;
+        long occupied;
+        long bedNights;
+        long activeGuests;
+        int minOccupied = Integer.MAX_VALUE;
+        int maxOccupied;
+        OccupancySnapshot last;
+        
+        Bucket(LocalDate period) {
+            this.period = period;
+        }
+        
+        void add(OccupancySnapshot snapshot) {
+            days++;
+            occupied += snapshot.getOccupiedBeds();
+            bedNights += snapshot.getTotalBeds();
+            activeGuests += snapshot.getActiveGuests();
+            minOccupied = Math.min(minOccupied, snapshot.getOccupiedBeds());
+            maxOccupied = Math.max(maxOccupied, snapshot.getOccupiedBeds());
+            for (Booking.RoomType roomType : Booking.RoomType.values()) {
+                occupiedByType[roomType.ordinal()] += snapshot.occupiedBeds(roomType);
+                bedNightsByType[roomType.ordinal()] += snapshot.totalBeds(roomType);
+            }
+            last = snapshot;
+        }
+        
+        Map<String, Object> toPoint() {
+            Map<String, Object> point = new HashMap<>();
+            point.put("period", period.toString());
+            point.put("days", days);
+            point.put("totalBeds", last.getTotalBeds());
+            point.put("averageOccupiedBeds", average(occupied, days));
+            point.put("minOccupiedBeds", minOccupied);
+            point.put("maxOccupiedBeds", maxOccupied);
+            point.put("averageActiveGuests", average(activeGuests, days));
+            point.put("occupancyRate", ratio(occupied, bedNights, 2));
+            
+            Map<String, Object> roomTypes = new LinkedHashMap<>();
+            for (Booking.RoomType roomType : Booking.RoomType.values()) {
+                Map<String, Object> typePoint = new HashMap<>();
+                typePoint.put("totalBeds", last.totalBeds(roomType));
+                typePoint.put("averageOccupiedBeds", average(occupiedByType[roomType.ordinal()], days));
+                typePoint.put("occupancyRate", ratio(occupiedByType[roomType.ordinal()], bedNightsByType[roomType.ordinal()], 2));
+                roomTypes.put(roomType.name(), typePoint);
+            }
+            point.put("roomTypes", roomTypes);
+            return point;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.PgCount;
+import com.myspot.backend.dto.projection.RoomCapacity;
+import com.myspot.backend.entities.Booking;
+import com.myspot.backend.repository.GuestRepository;
+import com.myspot.backend.repository.PGDetailsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Records each active PG's bed occupancy for the day into occupancy_snapshots.
+ * Occupied beds per room type come from the bed availability calendar for tonight, so the
+ * snapshot reflects bookings rather than the manually kept occupancy on pg_details.
+ * Rows are upserted, so the startup catch-up and a later scheduled run on the same day simply
+ * overwrite the day with the newer figures. Only the node holding the scheduler lease does the work.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OccupancySnapshotScheduler {
+    
+    private static final String LOCK_NAME = "occupancy-snapshot";
+    
+    private static final String UPSERT_SQL =
+        "INSERT INTO occupancy_snapshots (pg_owner_id, snapshot_date, total_beds, occupied_beds, single_total, single_occupied, " +
+        "double_total, double_occupied, triple_total, triple_occupied, quad_total, quad_occupied, active_guests) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+        "ON DUPLICATE KEY UPDATE total_beds = VALUES(total_beds), occupied_beds = VALUES(occupied_beds), " +
+        "single_total = VALUES(single_total), single_occupied = VALUES(single_occupied), " +
+        "double_total = VALUES(double_total), double_occupied = VALUES(double_occupied), " +
+        "triple_total = VALUES(triple_total), triple_occupied = VALUES(triple_occupied), " +
+        "quad_total = VALUES(quad_total), quad_occupied = VALUES(quad_occupied), active_guests = VALUES(active_guests)";
+    
+    private final PGDetailsRepository pgDetailsRepository;
+    private final GuestRepository guestRepository;
+    private final BedAvailabilityCalendar bedAvailabilityCalendar;
+    private final LeasedJobRunner leasedJobRunner;
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Value("${app.analytics.occupancy-snapshot.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.analytics.occupancy-snapshot.lease-minutes:10}")
+    private long leaseMinutes;
+    
+    @Value("${app.analytics.occupancy-snapshot.enabled:true}")
+    private boolean enabled;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUpOnStartup() {
+        leasedJobRunner.catchUp("Occupancy snapshot", this::run);
+    }
+    
+    @Scheduled(cron = "${app.analytics.occupancy-snapshot.cron:0 50 23 * * *}")
+    public void run() {
+        if (enabled) {
+            leasedJobRunner.runLeased(LOCK_NAME, Duration.ofMinutes(leaseMinutes), () -> snapshot(LocalDate.now()));
+        }
+    }
+    
+    private void snapshot(LocalDate date) {
+        log.info("Recording occupancy snapshot for {}", date);
+        long started = System.nanoTime();
+        
+        List<RoomCapacity> pgs = pgDetailsRepository.findAllActiveRoomCapacities();
+        Map<Long, Long> activeGuests = guestRepository.countActiveGuestsPerPg().stream()
+            .collect(Collectors.toMap(PgCount::pgId, PgCount::count));
+        
+        List<Object[]> rows = new ArrayList<>(Math.min(pgs.size(), batchSize));
+        for (RoomCapacity pg : pgs) {
+            rows.add(row(pg.pgId(), date, activeGuests.getOrDefault(pg.pgId(), 0L)));
+            if (rows.size() == batchSize) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        }
+        log.info("Recorded occupancy snapshot for {} PGs in {} ms", pgs.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    private Object[] row(Long pgId, LocalDate date, long activeGuests) {
+        Map<Booking.RoomType, Integer> capacity = bedAvailabilityCalendar.getCapacity(pgId);
+        Map<Booking.RoomType, int[]> free = bedAvailabilityCalendar.getAvailability(pgId, 1);
+        
+        Object[] row = new Object[13];
+        row[0] = pgId;
+        row[1] = Date.valueOf(date);
+        int totalBeds = 0;
+        int occupiedBeds = 0;
+        for (Booking.RoomType roomType : Booking.RoomType.values()) {
+            int total = capacity.getOrDefault(roomType, 0);
+            int[] freeTonight = free.get(roomType);
+            int occupied = Math.max(0, total - (freeTonight != null && freeTonight.length > 0 ? freeTonight[0] : total));
+            row[4 + roomType.ordinal() * 2] = total;
+            row[5 + roomType.ordinal() * 2] = occupied;
+            totalBeds += total;
+            occupiedBeds += occupied;
+        }
+        row[2] = totalBeds;
+        row[3] = occupiedBeds;
+        row[12] = (int) activeGuests;
+        return row;
+    }
+}
@@ -0,0 +1,161 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.ReviewRating;
+import com.myspot.backend.events.ReviewChangedEvent;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keeps pg_rating_aggregates in step with reviews. Every review change is turned into a delta
+ * of (after - before), where an inactive review contributes nothing, and added to the PG's row
+ * inside the review's own transaction; the averages are then copied onto pg_details so
+ * listing and detail pages read ratings without touching the reviews table. A PG without a row
+ * yet has it built from its reviews instead, since a delta is only meaningful against a base.
+ * reconcile rebuilds one PG's row from the reviews table and reports whether it had drifted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PGRatingAggregator {
+    
+    private static final List<Function<ReviewRating, BigDecimal>> CATEGORIES = List.of(
+        ReviewRating::cleanlinessRating,
+        ReviewRating::locationRating,
+        ReviewRating::valueForMoneyRating,
+        ReviewRating::staffBehaviorRating,
+        ReviewRating::amenitiesRating,
+        ReviewRating::foodQualityRating);
+    
+    private static final String APPLY_DELTA_SQL =
+        "UPDATE pg_rating_aggregates SET review_count = review_count + ?, verified_count = verified_count + ?, " +
+        "overall_sum = overall_sum + ?, " +
+        "cleanliness_sum = cleanliness_sum + ?, cleanliness_count = cleanliness_count + ?, " +
+        "location_sum = location_sum + ?, location_count = location_count + ?, " +
+        "value_for_money_sum = value_for_money_sum + ?, value_for_money_count = value_for_money_count + ?, " +
+        "staff_behavior_sum = staff_behavior_sum + ?, staff_behavior_count = staff_behavior_count + ?, " +
+        "amenities_sum = amenities_sum + ?, amenities_count = amenities_count + ?, " +
+        "food_quality_sum = food_quality_sum + ?, food_quality_count = food_quality_count + ?, " +
+        "updated_at = NOW() WHERE pg_owner_id = ?";
+    
+    private static final String RECOMPUTE_SQL =
+        "INSERT INTO pg_rating_aggregates (pg_owner_id, review_count, verified_count, overall_sum, " +
+        "cleanliness_sum, cleanliness_count, location_sum, location_count, value_for_money_sum, value_for_money_count, " +
+        "staff_behavior_sum, staff_behavior_count, amenities_sum, amenities_count, food_quality_sum, food_quality_count, " +
+        "updated_at) SELECT ?, COUNT(*), COALESCE(SUM(r.is_verified), 0), COALESCE(SUM(r.overall_rating), 0), " +
+        "COALESCE(SUM(r.cleanliness_rating), 0), COUNT(r.cleanliness_rating), " +
+        "COALESCE(SUM(r.location_rating), 0), COUNT(r.location_rating), " +
+        "COALESCE(SUM(r.value_for_money_rating), 0), COUNT(r.value_for_money_rating), " +
+        "COALESCE(SUM(r.staff_behavior_rating), 0), COUNT(r.staff_behavior_rating), " +
+        "COALESCE(SUM(r.amenities_rating), 0), COUNT(r.amenities_rating), " +
+        "COALESCE(SUM(r.food_quality_rating), 0), COUNT(r.food_quality_rating), NOW() " +
+        "FROM reviews r WHERE r.pg_owner_id = ? AND r.is_active = true " +
+        "ON DUPLICATE KEY UPDATE review_count = VALUES(review_count), verified_count = VALUES(verified_count), " +
+        "overall_sum = VALUES(overall_sum), " +
+        "cleanliness_sum = VALUES(cleanliness_sum), cleanliness_count = VALUES(cleanliness_count), " +
+        "location_sum = VALUES(location_sum), location_count = VALUES(location_count), " +
+        "value_for_money_sum = VALUES(value_for_money_sum), value_for_money_count = VALUES(value_for_money_count), " +
+        "staff_behavior_sum = VALUES(staff_behavior_sum), staff_behavior_count = VALUES(staff_behavior_count), " +
+        "amenities_sum = VALUES(amenities_sum), amenities_count = VALUES(amenities_count), " +
+        "food_quality_sum = VALUES(food_quality_sum), food_quality_count = VALUES(food_quality_count), " +
+        "updated_at = NOW()";
+    
+    private static final String SNAPSHOT_SQL =
+        "SELECT review_count, verified_count, overall_sum, cleanliness_sum, cleanliness_count, location_sum, location_count, " +
+        "value_for_money_sum, value_for_money_count, staff_behavior_sum, staff_behavior_count, amenities_sum, amenities_count, " +
+        "food_quality_sum, food_quality_count FROM pg_rating_aggregates WHERE pg_owner_id = ?";
+    
+    private static final String COPY_TO_DETAILS_SQL =
+        "UPDATE pg_details d JOIN pg_rating_aggregates a ON a.pg_owner_id = d.pg_owner_id SET " +
+        "d.total_reviews = a.review_count, " +
+        "d.overall_rating = ROUND(a.overall_sum / NULLIF(a.review_count, 0), 2), " +
+        "d.cleanliness_rating = ROUND(a.cleanliness_sum / NULLIF(a.cleanliness_count, 0), 2), " +
+        "d.location_rating = ROUND(a.location_sum / NULLIF(a.location_count, 0), 2), " +
+        "d.value_for_money_rating = ROUND(a.value_for_money_sum / NULLIF(a.value_for_money_count, 0), 2), " +
+        "d.staff_behavior_rating = ROUND(a.staff_behavior_sum / NULLIF(a.staff_behavior_count, 0), 2), " +
+        "d.amenities_rating = ROUND(a.amenities_sum / NULLIF(a.amenities_count, 0), 2), " +
+        "d.food_quality_rating = ROUND(a.food_quality_sum / NULLIF(a.food_quality_count, 0), 2) " +
+        "WHERE d.pg_owner_id = ?";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    
+    /**
+     * Runs in the publisher's transaction, so the aggregate commits or rolls back with the review.
+     */
+    @EventListener
+    public void onReviewChanged(ReviewChangedEvent event) {
+        Object[] delta = delta(event.before(), event.after());
+        if (delta == null) {
+            return;
+        }
+        Object[] args = Arrays.copyOf(Arrays.copyOfRange(delta, 1, delta.length), delta.length);
+        args[delta.length - 1] = event.pgId();
+        if (jdbcTemplate.update(APPLY_DELTA_SQL, args) == 0) {
+            // The recompute reads reviews over JDBC, so the review change must reach the database first
+            entityManager.flush();
+            reconcile(event.pgId());
+            log.debug("Built rating aggregate for PG ID: {} on review ID: {}", event.pgId(), event.reviewId());
+            return;
+        }
+        jdbcTemplate.update(COPY_TO_DETAILS_SQL, event.pgId());
+        log.debug("Applied rating delta of review ID: {} to PG ID: {}", event.reviewId(), event.pgId());
+    }
+    
+    /**
+     * Rebuilds the PG's aggregate from its active reviews. Returns true when the stored row differed.
+     */
+    public boolean reconcile(Long pgId) {
+        List<Map<String, Object>> before = jdbcTemplate.queryForList(SNAPSHOT_SQL, pgId);
+        jdbcTemplate.update(RECOMPUTE_SQL, pgId, pgId);
+        jdbcTemplate.update(COPY_TO_DETAILS_SQL, pgId);
+        return !before.equals(jdbcTemplate.queryForList(SNAPSHOT_SQL, pgId));
+    }
+    
+    /**
+     * The PG id followed by the column deltas for (after - before), or null when the change does not move any rating.
+     */
+    static Object[] delta(ReviewRating before, ReviewRating after) {
+        Object[] delta = new Object[4 + CATEGORIES.size() * 2];
+        delta[0] = after.pgId();
+        delta[1] = weight(after) - weight(before);
+        delta[2] = verifiedWeight(after) - verifiedWeight(before);
+        delta[3] = contribution(after, ReviewRating::overallRating).subtract(contribution(before, ReviewRating::overallRating));
+        boolean changed = (long) delta[1] != 0 || (long) delta[2] != 0 || ((BigDecimal) delta[3]).signum() != 0;
+        for (int i = 0; i < CATEGORIES.size(); i++) {
+            Function<ReviewRating, BigDecimal> category = CATEGORIES.get(i);
+            BigDecimal sum = contribution(after, category).subtract(contribution(before, category));
+            long count = presence(after, category) - presence(before, category);
+            delta[4 + i * 2] = sum;
+            delta[5 + i * 2] = count;
+            changed |= sum.signum() != 0 || count != 0;
+        }
+        return changed ? delta : null;
+    }
+    
+    private static long weight(ReviewRating rating) {
+        return rating != null && rating.active() ? 1 : 0;
+    }
+    
+    private static long verifiedWeight(ReviewRating rating) {
+        return rating != null && rating.active() && rating.verified() ? 1 : 0;
+    }
+    
+    private static BigDecimal contribution(ReviewRating rating, Function<ReviewRating, BigDecimal> field) {
+        BigDecimal value = weight(rating) == 1 ? field.apply(rating) : null;
+        return value != null ? value : BigDecimal.ZERO;
+    }
+    
+    private static long presence(ReviewRating rating, Function<ReviewRating, BigDecimal> field) {
+        return weight(rating) == 1 && field.apply(rating) != null ? 1 : 0;
+    }
+}
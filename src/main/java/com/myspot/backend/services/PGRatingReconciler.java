@@ -0,0 +1,80 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.repository.PGManagementOwnerRepository;
+import com.myspot.backend.repository.PGRatingAggregateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Nightly rebuild of every PG's rating aggregate from its reviews, so a delta lost to a write
+ * path that bypassed the event, or to manual SQL, does not persist. PGs are visited in id
+ * order, one chunk per transaction. On startup an empty aggregate table is backfilled.
+ * Only the node holding the scheduler lease does the work.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PGRatingReconciler {
+    
+    private static final String LOCK_NAME = "rating-reconcile";
+    
+    private final PGRatingAggregator pgRatingAggregator;
+    private final PGRatingAggregateRepository pgRatingAggregateRepository;
+    private final PGManagementOwnerRepository pgManagementOwnerRepository;
+    private final LeasedJobRunner leasedJobRunner;
+    private final PlatformTransactionManager transactionManager;
+    
+    @Value("${app.review.rating-reconcile.chunk-size:200}")
+    private int chunkSize;
+    
+    @Value("${app.review.rating-reconcile.lease-minutes:10}")
+    private long leaseMinutes;
+    
+    @Value("${app.review.rating-reconcile.enabled:true}")
+    private boolean enabled;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        leasedJobRunner.catchUp("Rating aggregate backfill", () -> {
+            if (pgRatingAggregateRepository.count() == 0) {
+                run();
+            }
+        });
+    }
+    
+    @Scheduled(cron = "${app.review.rating-reconcile.cron:0 45 2 * * *}")
+    public void run() {
+        if (enabled) {
+            leasedJobRunner.runLeased(LOCK_NAME, Duration.ofMinutes(leaseMinutes), this::reconcileAll);
+        }
+    }
+    
+    private void reconcileAll() {
+        log.info("Reconciling rating aggregates for all PGs");
+        long started = System.nanoTime();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        LeasedJobRunner.ChunkTotals totals = leasedJobRunner.runChunks(LOCK_NAME, Duration.ofMinutes(leaseMinutes), chunkSize, afterId -> {
+            List<Long> pgIds = pgManagementOwnerRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+            if (pgIds.isEmpty()) {
+                return LeasedJobRunner.ChunkResult.EMPTY;
+            }
+            return LeasedJobRunner.ChunkResult.ofIds(pgIds,
+                transaction.execute(status -> (int) pgIds.stream().filter(pgRatingAggregator::reconcile).count()));
+        });
+        if (totals.changed() > 0) {
+            log.warn("Rating reconciliation corrected {} of {} PGs", totals.changed(), totals.scanned());
+        }
+        log.info("Reconciled rating aggregates for {} PGs in {} ms", totals.scanned(), (System.nanoTime() - started) / 1_000_000);
+    }
+}
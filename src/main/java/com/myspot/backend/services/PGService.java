@@ -2,9 +2,11 @@
 package com.myspot.backend.services;
 
 import com.myspot.backend.entities.*;
+import com.myspot.backend.events.RoomCapacityChangedEvent;
 import com.myspot.backend.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -28,6 +30,8 @@ public class PGService {
     private final RuleRestrictionRepository ruleRestrictionRepository;
     private final ExtraChargeRepository extraChargeRepository;
     private final FileUploadService fileUploadService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PGRatingAggregateRepository pgRatingAggregateRepository;
     
     @Transactional(readOnly = true)
     public Map<String, Object> getPGDetails(Long pgId) {
@@ -56,10 +60,10 @@ public class PGService {
         updateContactInfo(pgDetails, updateData);
         updateRoomTypes(pgDetails, updateData);
         updateTimings(pgDetails, updateData);
-        updateRatings(pgDetails, updateData);
         
         pgDetails = pgDetailsRepository.save(pgDetails);
         updateRelatedEntities(pgDetails, updateData);
+        eventPublisher.publishEvent(new RoomCapacityChangedEvent(pgId));
         
         return buildPGDetailsResponse(pgManagementOwner, pgDetails);
     }
@@ -231,12 +235,7 @@ public class PGService {
             response.put("timings", timings);
             
             // Ratings
-            Map<String, Object> ratings = new HashMap<>();
-            ratings.put("overallRating", pgDetails.getOverallRating());
-            ratings.put("totalReviews", pgDetails.getTotalReviews());
-            ratings.put("cleanlinessRating", pgDetails.getCleanlinessRating());
-            ratings.put("locationRating", pgDetails.getLocationRating());
-            response.put("ratings", ratings);
+            response.put("ratings", getRatings(pgManagementOwner.getPgId()));
             
             response.put("pgPictures", getPGPictures(pgDetails));
             response.put("amenities", getAmenities(pgDetails));
@@ -248,6 +247,24 @@ public class PGService {
         return response;
     }
     
+    // Maintained from review changes by PGRatingAggregator; read by primary key
+    private Map<String, Object> getRatings(Long pgId) {
+        PGRatingAggregate aggregate = pgRatingAggregateRepository.findById(pgId)
+            .orElseGet(() -> PGRatingAggregate.builder().pgId(pgId).build());
+        
+        Map<String, Object> ratings = new HashMap<>();
+        ratings.put("overallRating", aggregate.getOverallRating());
+        ratings.put("totalReviews", aggregate.getReviewCount());
+        ratings.put("verifiedReviews", aggregate.getVerifiedCount());
+        ratings.put("cleanlinessRating", aggregate.getCleanlinessRating());
+        ratings.put("locationRating", aggregate.getLocationRating());
+        ratings.put("valueForMoneyRating", aggregate.getValueForMoneyRating());
+        ratings.put("staffBehaviorRating", aggregate.getStaffBehaviorRating());
+        ratings.put("amenitiesRating", aggregate.getAmenitiesRating());
+        ratings.put("foodQualityRating", aggregate.getFoodQualityRating());
+        return ratings;
+    }
+    
     private List<Map<String, Object>> getPGPictures(PGDetails pgDetails) {
         return pgImageRepository.findActiveImagesByPgDetailsId(pgDetails.getPgDetailsId())
             .stream()
@@ -380,19 +397,6 @@ public class PGService {
         }
     }
     
-    @SuppressWarnings("unchecked")
-    private void updateRatings(PGDetails pgDetails, Map<String, Object> data) {
-        if (data.containsKey("ratings")) {
-            Map<String, Object> ratings = (Map<String, Object>) data.get("ratings");
-            
-            if (ratings.containsKey("overallRating")) {
-                Object rating = ratings.get("overallRating");
-                pgDetails.setOverallRating(rating instanceof Double ? 
-                    BigDecimal.valueOf((Double) rating) : (BigDecimal) rating);
-            }
-        }
-    }
-    
     @SuppressWarnings("unchecked")
     private void updateRelatedEntities(PGDetails pgDetails, Map<String, Object> data) {
         if (data.containsKey("amenities")) {
@@ -0,0 +1,153 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.PgRollup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Mergeable totals of PG rollups, overall and by city, state and verification status.
+ *
+ * Each partition of PGs folds its rows into its own instance and partitions are combined with
+ * merge, so the result does not depend on how the PGs were split. Cities and states are grouped
+ * case-insensitively and shown with the first spelling seen; a city is keyed with its state so
+ * same-named cities in different states stay apart.
+ *
+ * Not thread-safe; each instance belongs to one task until it is merged.
+ */
+public class PortfolioRollup {
+    
+    private final Bucket total = new Bucket(null, null);
+    private final Map<String, Bucket> byCity = new HashMap<>();
+    private final Map<String, Bucket> byState = new HashMap<>();
+    private final Map<String, Bucket> byVerificationStatus = new HashMap<>();
+    
+    public void add(PgRollup row) {
+        String city = clean(row.city());
+        String state = clean(row.state());
+        total.add(row);
+        byCity.computeIfAbsent(key(city) + "|" + key(state), key -> new Bucket(city, state)).add(row);
+        byState.computeIfAbsent(key(state), key -> new Bucket(null, state)).add(row);
+        byVerificationStatus.computeIfAbsent(row.verificationStatus(), key -> new Bucket(null, null)).add(row);
+    }
+    
+    /**
+     * Folds other into this instance and returns this.
+     */
+    public PortfolioRollup merge(PortfolioRollup other) {
+        total.merge(other.total);
+        other.byCity.forEach((key, bucket) -> byCity.merge(key, bucket, Bucket::merge));
+        other.byState.forEach((key, bucket) -> byState.merge(key, bucket, Bucket::merge));
+        other.byVerificationStatus.forEach((key, bucket) -> byVerificationStatus.merge(key, bucket, Bucket::merge));
+        return this;
+    }
+    
+    public long pgCount() {
+        return total.pgs;
+    }
+    
+    /**
+     * Totals, every state and verification status, and the cityLimit cities with the most revenue.
+     */
+    public Map<String, Object> toMap(int cityLimit) {
+        Comparator<Bucket> byRevenue = Comparator.comparing((Bucket bucket) -> bucket.revenue).reversed()
+            .thenComparing(Comparator.comparingLong((Bucket bucket) -> bucket.pgs).reversed());
+        
+        List<Map<String, Object>> cities = byCity.values().stream()
+            .sorted(byRevenue.thenComparing(bucket -> bucket.city))
+            .limit(cityLimit)
+            .map(Bucket::toMap)
+            .toList();
+        List<Map<String, Object>> states = byState.values().stream()
+            .sorted(byRevenue.thenComparing(bucket -> bucket.state))
+            .map(Bucket::toMap)
+            .toList();
+        Map<String, Object> statuses = new HashMap<>();
+        byVerificationStatus.forEach((status, bucket) -> statuses.put(status.toLowerCase(Locale.ROOT), bucket.toMap()));
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("totals", total.toMap());
+        result.put("cityCount", byCity.size());
+        result.put("cities", new ArrayList<>(cities));
+        result.put("states", new ArrayList<>(states));
+        result.put("verificationStatus", statuses);
+        return result;
+    }
+    
+    private static String clean(String value) {
+        return value == null || value.isBlank() ? "Unknown" : value.trim();
+    }
+    
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+    
+    private static final class Bucket {
+        final String city;
+        final String state;
+        long pgs;
+        long activePgs;
+        long totalCapacity;
+        long currentOccupancy;
+        long reviewCount;
+        BigDecimal ratingSum = BigDecimal.ZERO;
+        long bookings;
+        BigDecimal revenue = BigDecimal.ZERO;
+        
+        Bucket(String city, String state) {
+            this.city = city;
+            this.state = state;
+        }
+        
+        void add(PgRollup row) {
+            pgs++;
+            activePgs += row.active() ? 1 : 0;
+            totalCapacity += row.totalCapacity();
+            currentOccupancy += row.currentOccupancy();
+            reviewCount += row.reviewCount();
+            ratingSum = ratingSum.add(row.ratingSum());
+            bookings += row.bookings();
+            revenue = revenue.add(row.revenue());
+        }
+        
+        Bucket merge(Bucket other) {
+            pgs += other.pgs;
+            activePgs += other.activePgs;
+            totalCapacity += other.totalCapacity;
+            currentOccupancy += other.currentOccupancy;
+            reviewCount += other.reviewCount;
+            ratingSum = ratingSum.add(other.ratingSum);
+            bookings += other.bookings;
+            revenue = revenue.add(other.revenue);
+            return this;
+        }
+        
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            if (city != null) {
+                map.put("city", city);
+            }
+            if (state != null) {
+                map.put("state", state);
+            }
+            map.put("pgs", pgs);
+            map.put("activePgs", activePgs);
+            map.put("totalCapacity", totalCapacity);
+            map.put("currentOccupancy", currentOccupancy);
+            map.put("occupancyRate", totalCapacity > 0 ? currentOccupancy * 100.0 / totalCapacity : 0.0);
+            map.put("reviews", reviewCount);
+            map.put("averageRating", reviewCount > 0
+                ? ratingSum.divide(BigDecimal.valueOf(reviewCount), 2, RoundingMode.HALF_UP) : null);
+            map.put("bookings", bookings);
+            map.put("revenue", revenue);
+            map.put("revenuePerPg", pgs > 0 ? revenue.divide(BigDecimal.valueOf(pgs), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.myspot.backend.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Log-bucketed quantile sketch for non-negative values, in the style of DDSketch.
+ *
+ * A positive value v lands in bucket ceil(log(v) / log(gamma)), with gamma chosen so every value
+ * in a bucket is within relativeAccuracy of the bucket's representative value; zero has its own
+ * counter. Because the sketch is just bucket counts, values can be removed as exactly as they
+ * were added and two sketches with the same accuracy merge by adding counts, so per-PG monthly
+ * sketches combine into any range of months or PGs without losing accuracy.
+ *
+ * Not thread-safe.
+ */
+public class QuantileSketch {
+    
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    
+    private static final int FORMAT_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 32;
+    private static final int[] SUMMARY_PERCENTILES = {10, 25, 50, 75, 90, 95, 99};
+    
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    
+    // counts[i] holds bucket offset + i; empty until the first positive value
+    private long[] counts = new long[0];
+    private int offset;
+    private long zeroCount;
+    private long count;
+    private double sum;
+    
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+    
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be between 0 and 1");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+    
+    public long count() {
+        return count;
+    }
+    
+    public double sum() {
+        return sum;
+    }
+    
+    public double mean() {
+        return count > 0 ? sum / count : 0.0;
+    }
+    
+    public boolean isEmpty() {
+        return count == 0;
+    }
+    
+    public void add(double value) {
+        add(value, 1);
+    }
+    
+    /**
+     * Adds value occurrences times; a negative occurrences removes values added before.
+     */
+    public void add(double value, long occurrences) {
+        if (value < 0 || Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new IllegalArgumentException("Sketch values must be finite and non-negative: " + value);
+        }
+        if (value == 0) {
+            zeroCount += occurrences;
+        } else {
+            int index = index(value);
+            ensureCovers(index);
+            counts[index - offset] += occurrences;
+        }
+        count += occurrences;
+        sum += value * occurrences;
+    }
+    
+    public void remove(double value) {
+        add(value, -1);
+    }
+    
+    /**
+     * Adds every count of other into this sketch and returns this.
+     */
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.relativeAccuracy != relativeAccuracy) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+        }
+        if (other.counts.length > 0) {
+            ensureCovers(other.offset);
+            ensureCovers(other.offset + other.counts.length - 1);
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[other.offset + i - offset] += other.counts[i];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        return this;
+    }
+    
+    /**
+     * Value at quantile q in [0, 1], accurate to relativeAccuracy, or 0 for an empty sketch.
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1");
+        }
+        if (count <= 0) {
+            return 0.0;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = zeroCount;
+        if (rank < seen) {
+            return 0.0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (rank < seen) {
+                return value(offset + i);
+            }
+        }
+        return counts.length > 0 ? value(offset + counts.length - 1) : 0.0;
+    }
+    
+    /**
+     * Count, mean and the usual percentiles, rounded to two decimals.
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        summary.put("mean", round(mean()));
+        for (int percentile : SUMMARY_PERCENTILES) {
+            summary.put("p" + percentile, round(quantile(percentile / 100.0)));
+        }
+        return summary;
+    }
+    
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 + counts.length);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            int first = 0;
+            int last = counts.length - 1;
+            while (first <= last && counts[first] == 0) {
+                first++;
+            }
+            while (last >= first && counts[last] == 0) {
+                last--;
+            }
+            out.writeByte(FORMAT_VERSION);
+            out.writeDouble(relativeAccuracy);
+            ReviewTermIndex.writeVarLong(out, zigZag(zeroCount));
+            out.writeDouble(sum);
+            int buckets = last - first + 1;
+            ReviewTermIndex.writeVarLong(out, buckets);
+            if (buckets > 0) {
+                ReviewTermIndex.writeVarLong(out, zigZag(offset + first));
+                for (int i = first; i <= last; i++) {
+                    ReviewTermIndex.writeVarLong(out, zigZag(counts[i]));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    public static QuantileSketch fromBytes(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unknown sketch format version: " + version);
+            }
+            QuantileSketch sketch = new QuantileSketch(in.readDouble());
+            sketch.zeroCount = unZigZag(ReviewTermIndex.readVarLong(in));
+            sketch.sum = in.readDouble();
+            sketch.count = sketch.zeroCount;
+            int buckets = (int) ReviewTermIndex.readVarLong(in);
+            if (buckets > 0) {
+                sketch.offset = (int) unZigZag(ReviewTermIndex.readVarLong(in));
+                sketch.counts = new long[buckets];
+                for (int i = 0; i < buckets; i++) {
+                    sketch.counts[i] = unZigZag(ReviewTermIndex.readVarLong(in));
+                    sketch.count += sketch.counts[i];
+                }
+            }
+            return sketch;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed sketch", e);
+        }
+    }
+    
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+    
+    private int index(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+    
+    // Midpoint of the bucket in relative terms, so both of its edges are within relativeAccuracy
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+    
+    private void ensureCovers(int index) {
+        if (counts.length == 0) {
+            counts = new long[INITIAL_CAPACITY];
+            offset = index - INITIAL_CAPACITY / 2;
+            return;
+        }
+        if (index < offset) {
+            int grow = Math.max(offset - index, counts.length / 2);
+            long[] grown = new long[counts.length + grow];
+            System.arraycopy(counts, 0, grown, grow, counts.length);
+            counts = grown;
+            offset -= grow;
+        } else if (index >= offset + counts.length) {
+            int grow = Math.max(index - offset - counts.length + 1, counts.length / 2);
+            counts = Arrays.copyOf(counts, counts.length + grow);
+        }
+    }
+    
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,298 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.RentDueRow;
+import com.myspot.backend.entities.Guest;
+import com.myspot.backend.entities.Notification;
+import com.myspot.backend.events.GuestsImportedEvent;
+import com.myspot.backend.events.RentDueChangedEvent;
+import com.myspot.backend.repository.GuestRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Sends one rent reminder per guest due date, leadDays before it at reminderHour, or straight
+ * away when that moment has already passed.
+ *
+ * Upcoming due dates sit in a DelayQueue that a single worker thread drains, so nothing polls the
+ * guests table. Rescheduling a guest (a payment moved the due date, the guest left) adds a new
+ * entry and leaves the old one in the queue; the worker skips entries that are no longer the
+ * guest's current one, and the queue is rebuilt once skipped entries outnumber live ones.
+ * Before sending, the worker claims the due date with a conditional update, so a reminder is
+ * sent once even if several nodes hold the same entry or the guest changed since it was queued.
+ * If the claim transaction fails, nothing was committed and the entry goes back in the queue with
+ * an exponential backoff, up to maxAttempts.
+ *
+ * The queue is filled at startup and topped up daily with due dates entering the horizon; both
+ * are range reads on (guest_status, next_payment_due).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RentDueScheduler {
+    
+    private static final int MIN_COMPACTION = 1024;
+    
+    private final GuestRepository guestRepository;
+    private final NotificationService notificationService;
+    private final EmailService emailService;
+    private final PlatformTransactionManager transactionManager;
+    
+    private final DelayQueue<RentDue> queue = new DelayQueue<>();
+    private final Map<Long, RentDue> scheduled = new HashMap<>();
+    private int stale;
+    private volatile Thread worker;
+    
+    @Value("${app.guest.rent-reminder.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.guest.rent-reminder.lead-days:3}")
+    private int leadDays;
+    
+    @Value("${app.guest.rent-reminder.hour:9}")
+    private int reminderHour;
+    
+    @Value("${app.guest.rent-reminder.horizon-days:45}")
+    private int horizonDays;
+    
+    @Value("${app.guest.rent-reminder.retry-backoff-seconds:60}")
+    private long retryBackoffSeconds;
+    
+    @Value("${app.guest.rent-reminder.max-attempts:5}")
+    private int maxAttempts;
+    
+    private record Reminder(Long pgId, String email, String name, BigDecimal monthlyRent, LocalDate dueDate, boolean overdue) {
+    }
+    
+    public synchronized int getPendingCount() {
+        return scheduled.size();
+    }
+    
+    public synchronized void schedule(Long guestId, LocalDate dueDate) {
+        if (!enabled) {
+            return;
+        }
+        if (dueDate == null) {
+            cancel(guestId);
+            return;
+        }
+        if (dueDate.isAfter(LocalDate.now().plusDays(horizonDays))) {
+            // Picked up by the daily top-up once it enters the horizon
+            cancel(guestId);
+            return;
+        }
+        RentDue current = scheduled.get(guestId);
+        if (current != null && current.dueDate.equals(dueDate)) {
+            return;
+        }
+        RentDue entry = new RentDue(guestId, dueDate, fireAt(dueDate), 0);
+        if (scheduled.put(guestId, entry) != null) {
+            stale++;
+        }
+        queue.add(entry);
+        compactIfNeeded();
+    }
+    
+    public synchronized void cancel(Long guestId) {
+        if (scheduled.remove(guestId) != null) {
+            stale++;
+            compactIfNeeded();
+        }
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRentDueChanged(RentDueChangedEvent event) {
+        schedule(event.guestId(), event.nextPaymentDue());
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onGuestsImported(GuestsImportedEvent event) {
+        topUp();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            topUp();
+        } catch (Exception e) {
+            log.warn("Rent due queue load failed, the daily top-up will retry: {}", e.getMessage());
+        }
+        Thread thread = new Thread(this::drain, "rent-due");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+    
+    @PreDestroy
+    public void stop() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+    
+    @Scheduled(cron = "${app.guest.rent-reminder.top-up-cron:0 30 0 * * *}")
+    public void topUp() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Integer loaded = readOnly.execute(status -> {
+            int rows = 0;
+            try (Stream<RentDueRow> dues = guestRepository.streamUnremindedRentDue(LocalDate.now().plusDays(horizonDays))) {
+                for (RentDueRow due : (Iterable<RentDueRow>) dues::iterator) {
+                    schedule(due.guestId(), due.nextPaymentDue());
+                    rows++;
+                }
+            }
+            return rows;
+        });
+        log.info("Loaded {} rent due dates into the reminder queue in {} ms ({} pending)",
+            loaded, (System.nanoTime() - started) / 1_000_000, getPendingCount());
+    }
+    
+    private void drain() {
+        while (worker == Thread.currentThread()) {
+            try {
+                process(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Processes every entry that is already due without waiting for later ones.
+     */
+    int drainReady() {
+        int processed = 0;
+        for (RentDue entry; (entry = queue.poll()) != null; processed++) {
+            process(entry);
+        }
+        return processed;
+    }
+    
+    private void process(RentDue entry) {
+        synchronized (this) {
+            if (!scheduled.remove(entry.guestId, entry)) {
+                stale = Math.max(0, stale - 1);
+                return;
+            }
+        }
+        try {
+            send(entry);
+        } catch (Exception e) {
+            retry(entry, e);
+        }
+    }
+    
+    private synchronized void retry(RentDue entry, Exception failure) {
+        int attempt = entry.attempt + 1;
+        if (attempt >= maxAttempts) {
+            log.error("Rent reminder for guest ID: {} due {} failed {} times, giving up: {}",
+                entry.guestId, entry.dueDate, attempt, failure.getMessage());
+            return;
+        }
+        if (scheduled.containsKey(entry.guestId)) {
+            // Rescheduled while this attempt ran; the newer entry claims on its own
+            return;
+        }
+        long backoffMillis = TimeUnit.SECONDS.toMillis(retryBackoffSeconds) << Math.min(entry.attempt, 10);
+        RentDue next = new RentDue(entry.guestId, entry.dueDate, System.currentTimeMillis() + backoffMillis, attempt);
+        log.warn("Rent reminder for guest ID: {} due {} failed, retrying in {} s: {}",
+            entry.guestId, entry.dueDate, backoffMillis / 1000, failure.getMessage());
+        scheduled.put(entry.guestId, next);
+        queue.add(next);
+    }
+    
+    private void send(RentDue entry) {
+        Reminder reminder = new TransactionTemplate(transactionManager).execute(status -> {
+            if (guestRepository.claimRentReminder(entry.guestId, entry.dueDate) == 0) {
+                return null;
+            }
+            Guest guest = guestRepository.findById(entry.guestId).orElseThrow();
+            boolean overdue = entry.dueDate.isBefore(LocalDate.now());
+            Long pgId = guest.getPgManagementOwner().getPgId();
+            String rent = guest.getMonthlyRent() != null ? "Rs. " + guest.getMonthlyRent().toPlainString() + " " : "";
+            notificationService.createNotification(pgId,
+                overdue ? "Rent overdue: " + guest.getFullName() : "Rent due: " + guest.getFullName(),
+                "Rent " + rent + "for room " + guest.getRoomNumber() + (overdue ? " was due on " : " is due on ") + entry.dueDate,
+                overdue ? Notification.NotificationType.PAYMENT_OVERDUE : Notification.NotificationType.PAYMENT_DUE,
+                overdue ? Notification.Priority.HIGH : Notification.Priority.MEDIUM,
+                guest.getGuestId(), "GUEST");
+            return new Reminder(pgId, guest.getEmailAddress(), guest.getFullName(), guest.getMonthlyRent(), entry.dueDate, overdue);
+        });
+        if (reminder == null) {
+            log.debug("Rent reminder for guest ID: {} due {} already sent or no longer due", entry.guestId, entry.dueDate);
+            return;
+        }
+        // The claim is committed first, so a failed email is not retried rather than sent twice
+        emailService.sendRentReminderEmail(reminder.email(), reminder.name(), reminder.monthlyRent(), reminder.dueDate(), reminder.overdue());
+        log.info("Sent rent reminder for guest ID: {} in PG ID: {} due {}", entry.guestId, reminder.pgId(), entry.dueDate);
+    }
+    
+    private long fireAt(LocalDate dueDate) {
+        return dueDate.minusDays(leadDays).atTime(reminderHour, 0)
+            .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private void compactIfNeeded() {
+        if (stale < MIN_COMPACTION || stale < scheduled.size()) {
+            return;
+        }
+        queue.clear();
+        queue.addAll(scheduled.values());
+        stale = 0;
+    }
+    
+    private static final class RentDue implements Delayed {
+        final Long guestId;
+        final LocalDate dueDate;
+        final long fireAtMillis;
+        final int attempt;
+        
+        RentDue(Long guestId, LocalDate dueDate, long fireAtMillis, int attempt) {
+            this.guestId = guestId;
+            this.dueDate = dueDate;
+            this.fireAtMillis = fireAtMillis;
+            this.attempt = attempt;
+        }
+        
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(fireAtMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+        
+        @Override
+        public int compareTo(Delayed other) {
+            RentDue that = (RentDue) other;
+            int byTime = Long.compare(fireAtMillis, that.fireAtMillis);
+            return byTime != 0 ? byTime : guestId.compareTo(that.guestId);
+        }
+    }
+}
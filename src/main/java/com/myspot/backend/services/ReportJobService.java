@@ -0,0 +1,388 @@
+package com.myspot.backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myspot.backend.dto.request.ReportJobRequest;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs monthly reports, dashboards and exports in the background and keeps their results on disk.
+ *
+ * Jobs run on a small bounded pool, so heavy reports no longer hold Tomcat threads, and each
+ * owner may have only maxPerOwner jobs queued or running. Submitting a job identical to one that
+ * is queued, running or finished within reuseSeconds returns that job instead of a new one.
+ * Results are written to resultDir and deleted with their job after ttlMinutes. Jobs are kept
+ * in memory, so they are node-local and do not survive a restart; leftover files are purged.
+ */
+@Slf4j
+@Service
+public class ReportJobService {
+    
+    public enum Type {
+        MONTHLY_REPORT("json"),
+        MONTHLY_REPORT_RANGE("json"),
+        REVENUE("json"),
+        DASHBOARD_OVERVIEW("json"),
+        MONTHLY_STATS("json"),
+        BOOKINGS_EXPORT("csv.gz"),
+        GUESTS_EXPORT("csv.gz");
+        
+        private final String extension;
+        
+        Type(String extension) {
+            this.extension = extension;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+        
+        public String getContentType() {
+            return "json".equals(extension) ? "application/json" : "application/gzip";
+        }
+        
+        public static Type parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Invalid report type: " + value);
+            }
+        }
+    }
+    
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+    
+    private final AnalyticsService analyticsService;
+    private final DashboardService dashboardService;
+    private final ExportService exportService;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+    private final Path resultDir;
+    private final int maxPerOwner;
+    private final long reuseMillis;
+    private final long ttlMillis;
+    
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<String, Job> jobsByKey = new HashMap<>();
+    
+    public ReportJobService(AnalyticsService analyticsService,
+                            DashboardService dashboardService,
+                            ExportService exportService,
+                            ObjectMapper objectMapper,
+                            @Value("${app.report.jobs.workers:2}") int workers,
+                            @Value("${app.report.jobs.queue-capacity:50}") int queueCapacity,
+                            @Value("${app.report.jobs.max-per-owner:2}") int maxPerOwner,
+                            @Value("${app.report.jobs.reuse-seconds:300}") long reuseSeconds,
+                            @Value("${app.report.jobs.ttl-minutes:60}") long ttlMinutes,
+                            @Value("${app.report.jobs.result-dir:./data/reports}") String resultDir) {
+        this.analyticsService = analyticsService;
+        this.dashboardService = dashboardService;
+        this.exportService = exportService;
+        this.objectMapper = objectMapper;
+        this.resultDir = Paths.get(resultDir).toAbsolutePath();
+        this.maxPerOwner = maxPerOwner;
+        this.reuseMillis = reuseSeconds * 1000;
+        this.ttlMillis = ttlMinutes * 60_000;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> new Thread(runnable, "report-job-" + counter.incrementAndGet()));
+    }
+    
+    /**
+     * Queues a job, or returns the identical job already queued, running or recently finished.
+     * Throws IllegalStateException when the owner or the queue is at capacity.
+     */
+    public Map<String, Object> submit(Long pgId, ReportJobRequest request) {
+        log.info("Submitting {} report job for PG ID: {}", request.getType(), pgId);
+        
+        Type type = Type.parse(request.getType());
+        Map<String, String> params = validate(type, request);
+        String key = pgId + "|" + type + "|" + params;
+        
+        Job job;
+        synchronized (jobsByKey) {
+            Job existing = jobsByKey.get(key);
+            if (existing != null && existing.isReusable(reuseMillis)) {
+                log.info("Reusing report job: {} for PG ID: {}", existing.id, pgId);
+                return existing.toMap(true);
+            }
+            long active = jobs.values().stream().filter(other -> other.pgId.equals(pgId) && !other.isDone()).count();
+            if (active >= maxPerOwner) {
+                throw new IllegalStateException("At most " + maxPerOwner + " report jobs may run at once, please retry when one finishes");
+            }
+            job = new Job(UUID.randomUUID().toString(), pgId, type, params, key);
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                throw new IllegalStateException("Report queue is full, please retry later");
+            }
+            jobs.put(job.id, job);
+            jobsByKey.put(key, job);
+        }
+        return job.toMap(false);
+    }
+    
+    public Map<String, Object> getJob(Long pgId, String jobId) {
+        return getOwnedJob(pgId, jobId).toMap(false);
+    }
+    
+    /**
+     * Completes with the job's status once it finishes, or after waitSeconds, whichever comes first.
+     */
+    public CompletableFuture<Map<String, Object>> awaitJob(Long pgId, String jobId, long waitSeconds) {
+        Job job = getOwnedJob(pgId, jobId);
+        return job.done.copy()
+            .completeOnTimeout(null, waitSeconds, TimeUnit.SECONDS)
+            .thenApply(ignored -> job.toMap(false));
+    }
+    
+    public List<Map<String, Object>> getJobs(Long pgId) {
+        log.info("Getting report jobs for PG ID: {}", pgId);
+        
+        return jobs.values().stream()
+            .filter(job -> job.pgId.equals(pgId))
+            .sorted(Comparator.comparing((Job job) -> job.submittedAt).reversed())
+            .map(job -> job.toMap(false))
+            .toList();
+    }
+    
+    public record Result(Path path, String fileName, String contentType) {
+    }
+    
+    public Result getResult(Long pgId, String jobId) {
+        Job job = getOwnedJob(pgId, jobId);
+        if (job.status != Status.COMPLETED) {
+            throw new IllegalStateException("Report job " + jobId + " is " + job.status.name().toLowerCase());
+        }
+        return new Result(job.resultPath, job.type.name().toLowerCase().replace('_', '-') + "-" + job.id + "." + job.type.extension,
+            job.type.getContentType());
+    }
+    
+    @Scheduled(fixedDelayString = "${app.report.jobs.cleanup-interval-ms:300000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        synchronized (jobsByKey) {
+            for (Job job : new ArrayList<>(jobs.values())) {
+                if (job.isDone() && now - job.finishedAtMillis > ttlMillis) {
+                    jobs.remove(job.id);
+                    jobsByKey.remove(job.key, job);
+                    deleteQuietly(job.resultPath);
+                    removed++;
+                }
+            }
+        }
+        // Results left behind by a previous run have no job pointing at them
+        if (Files.isDirectory(resultDir)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(resultDir)) {
+                for (Path file : files) {
+                    if (now - Files.getLastModifiedTime(file).toMillis() > ttlMillis) {
+                        deleteQuietly(file);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Could not scan report result directory {}: {}", resultDir, e.getMessage());
+            }
+        }
+        if (removed > 0) {
+            log.info("Purged {} expired report jobs", removed);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private void run(Job job) {
+        job.status = Status.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        long started = System.nanoTime();
+        Path temp = null;
+        try {
+            Files.createDirectories(resultDir);
+            Path path = resultDir.resolve(job.id + "." + job.type.extension);
+            temp = resultDir.resolve(job.id + ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16)) {
+                write(job, out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.resultPath = path;
+            job.resultBytes = Files.size(path);
+            job.status = Status.COMPLETED;
+            log.info("Report job: {} ({}) for PG ID: {} finished in {} ms with {} bytes",
+                job.id, job.type, job.pgId, (System.nanoTime() - started) / 1_000_000, job.resultBytes);
+        } catch (Exception e) {
+            deleteQuietly(temp);
+            job.error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            job.status = Status.FAILED;
+            log.error("Report job: {} ({}) for PG ID: {} failed: {}", job.id, job.type, job.pgId, job.error);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            job.finishedAtMillis = System.currentTimeMillis();
+            job.done.complete(null);
+        }
+    }
+    
+    private void write(Job job, OutputStream out) throws IOException {
+        Long pgId = job.pgId;
+        Map<String, String> params = job.params;
+        Object data = switch (job.type) {
+            case MONTHLY_REPORT -> analyticsService.getMonthlyReport(pgId, params.get("month"));
+            case MONTHLY_REPORT_RANGE -> analyticsService.getMonthlyReportRange(pgId, params.get("from"), params.get("to"));
+            case REVENUE -> analyticsService.getRevenueAnalytics(pgId, params.get("month"));
+            case DASHBOARD_OVERVIEW -> dashboardService.getDashboardOverview(pgId);
+            case MONTHLY_STATS -> dashboardService.getMonthlyStats(pgId, params.get("month"));
+            case BOOKINGS_EXPORT -> {
+                exportService.exportBookings(pgId, out);
+                yield null;
+            }
+            case GUESTS_EXPORT -> {
+                exportService.exportGuests(pgId, out);
+                yield null;
+            }
+        };
+        if (data != null) {
+            objectMapper.writeValue(out, data);
+        }
+    }
+    
+    // Validated up front so bad input is a 400 on submit rather than a failed job
+    private static Map<String, String> validate(Type type, ReportJobRequest request) {
+        Map<String, String> params = new TreeMap<>();
+        switch (type) {
+            case MONTHLY_REPORT, MONTHLY_STATS -> params.put("month", requireMonth("month", request.getMonth()));
+            case REVENUE -> params.put("month", "all".equals(request.getMonth()) || request.getMonth() == null
+                ? "all" : requireMonth("month", request.getMonth()));
+            case MONTHLY_REPORT_RANGE -> {
+                if (request.getFrom() != null) {
+                    params.put("from", requireMonth("from", request.getFrom()));
+                }
+                if (request.getTo() != null) {
+                    params.put("to", requireMonth("to", request.getTo()));
+                }
+            }
+            default -> {
+            }
+        }
+        return params;
+    }
+    
+    private static String requireMonth(String name, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(name + " is required for this report type");
+        }
+        try {
+            return YearMonth.parse(value.trim()).toString();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + " format: " + value + ", expected yyyy-MM");
+        }
+    }
+    
+    private Job getOwnedJob(Long pgId, String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.pgId.equals(pgId)) {
+            throw new RuntimeException("Report job not found");
+        }
+        return job;
+    }
+    
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete report result {}: {}", path, e.getMessage());
+        }
+    }
+    
+    private static final class Job {
+        final String id;
+        final Long pgId;
+        final Type type;
+        final Map<String, String> params;
+        final String key;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        volatile Status status = Status.QUEUED;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+        volatile long finishedAtMillis;
+        volatile Path resultPath;
+        volatile long resultBytes;
+        volatile String error;
+        
+        Job(String id, Long pgId, Type type, Map<String, String> params, String key) {
+            this.id = id;
+            this.pgId = pgId;
+            this.type = type;
+            this.params = params;
+            this.key = key;
+        }
+        
+        boolean isDone() {
+            return done.isDone();
+        }
+        
+        // Failed jobs are never reused, so a retry runs the report again
+        boolean isReusable(long reuseMillis) {
+            return !isDone() || (status == Status.COMPLETED && System.currentTimeMillis() - finishedAtMillis <= reuseMillis);
+        }
+        
+        Map<String, Object> toMap(boolean reused) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("jobId", id);
+            map.put("type", type.name().toLowerCase().replace('_', '-'));
+            map.put("params", params);
+            map.put("status", status.name().toLowerCase());
+            map.put("submittedAt", submittedAt.toString());
+            map.put("startedAt", Objects.toString(startedAt, null));
+            map.put("finishedAt", Objects.toString(finishedAt, null));
+            map.put("reused", reused);
+            if (status == Status.COMPLETED) {
+                map.put("resultBytes", resultBytes);
+                map.put("downloadUrl", "/api/reports/jobs/" + id + "/result");
+            }
+            if (status == Status.FAILED) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.Review;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Keyset position in the review feed: the sort keys of the last review returned, encoded as an
+ * opaque URL-safe token. The next page continues strictly after that position, so pages stay
+ * stable while reviews are added, and every page is an index range scan whatever its depth.
+ *
+ * UNANSWERED runs in two phases: reviews without a response, newest first, then answered
+ * reviews by most recent response.
+ */
+public record ReviewFeedCursor(Sort sort, int phase, BigDecimal rating, LocalDateTime respondedAt,
+                               LocalDateTime createdAt, long reviewId) {
+    
+    // Sentinels that sort before every real row, so the first page uses the same queries
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final BigDecimal MAX_RATING = new BigDecimal("100");
+    private static final BigDecimal MIN_RATING = new BigDecimal("-1");
+    
+    public enum Sort {
+        NEWEST, HIGHEST, LOWEST, UNANSWERED;
+        
+        public static Sort parse(String value) {
+            if (value == null || value.isBlank()) {
+                return NEWEST;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid sort: " + value + ". Allowed: newest, highest, lowest, unanswered");
+            }
+        }
+    }
+    
+    public static ReviewFeedCursor first(Sort sort) {
+        return switch (sort) {
+            case NEWEST, UNANSWERED -> new ReviewFeedCursor(sort, 0, null, null, MAX_TIME, Long.MAX_VALUE);
+            case HIGHEST -> new ReviewFeedCursor(sort, 0, MAX_RATING, null, null, Long.MAX_VALUE);
+            case LOWEST -> new ReviewFeedCursor(sort, 0, MIN_RATING, null, null, 0);
+        };
+    }
+    
+    /**
+     * Start of the answered phase of the UNANSWERED sort.
+     */
+    public static ReviewFeedCursor firstAnswered() {
+        return new ReviewFeedCursor(Sort.UNANSWERED, 1, null, MAX_TIME, MAX_TIME, Long.MAX_VALUE);
+    }
+    
+    public static ReviewFeedCursor after(Sort sort, Review review) {
+        return switch (sort) {
+            case NEWEST -> new ReviewFeedCursor(sort, 0, null, null, review.getCreatedAt(), review.getReviewId());
+            case HIGHEST, LOWEST -> new ReviewFeedCursor(sort, 0, review.getOverallRating(), null, null, review.getReviewId());
+            case UNANSWERED -> new ReviewFeedCursor(sort, review.getRespondedAt() == null ? 0 : 1, null,
+                review.getRespondedAt(), review.getCreatedAt(), review.getReviewId());
+        };
+    }
+    
+    public String encode() {
+        String raw = String.join("|", sort.name(), String.valueOf(phase), text(rating), text(respondedAt),
+            text(createdAt), String.valueOf(reviewId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodes a token issued for the same sort; anything else is rejected as a bad request.
+     */
+    public static ReviewFeedCursor decode(String token, Sort sort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 6 || Sort.valueOf(parts[0]) != sort) {
+                throw new IllegalArgumentException();
+            }
+            int phase = Integer.parseInt(parts[1]);
+            BigDecimal rating = parts[2].isEmpty() ? null : new BigDecimal(parts[2]);
+            LocalDateTime respondedAt = parts[3].isEmpty() ? null : LocalDateTime.parse(parts[3]);
+            LocalDateTime createdAt = parts[4].isEmpty() ? null : LocalDateTime.parse(parts[4]);
+            ReviewFeedCursor cursor = new ReviewFeedCursor(sort, phase, rating, respondedAt, createdAt, Long.parseLong(parts[5]));
+            if (!cursor.isComplete()) {
+                throw new IllegalArgumentException();
+            }
+            return cursor;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor for sort " + sort.name().toLowerCase());
+        }
+    }
+    
+    private boolean isComplete() {
+        return switch (sort) {
+            case NEWEST -> phase == 0 && createdAt != null;
+            case HIGHEST, LOWEST -> phase == 0 && rating != null;
+            case UNANSWERED -> phase == 0 ? createdAt != null : phase == 1 && respondedAt != null && createdAt != null;
+        };
+    }
+    
+    private static String text(Object value) {
+        return value != null ? value.toString() : "";
+    }
+}
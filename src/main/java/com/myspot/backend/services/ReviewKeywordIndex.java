@@ -0,0 +1,320 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.ReviewText;
+import com.myspot.backend.events.ReviewChangedEvent;
+import com.myspot.backend.repository.ReviewRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Per-PG keyword index over the comment and response of active reviews.
+ *
+ * At startup the indexes are read back from a segment file, and only reviews updated since it
+ * was written are re-read; without a usable segment every PG is rebuilt with a streaming scan.
+ * The segment is rewritten periodically when something changed and on shutdown. Indexes are
+ * kept in sync from ReviewChangedEvent after commit, loaded lazily for PGs missing from the
+ * segment, and reloaded after a TTL so writes made on other nodes converge.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReviewKeywordIndex {
+    
+    private static final int MAX_LOAD_ATTEMPTS = 3;
+    private static final int SEGMENT_MAGIC = 0x52544958;
+    private static final int SEGMENT_VERSION = 1;
+    // Reviews updated shortly before the segment was written are re-read to cover clock skew and late commits
+    private static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(5);
+    
+    private final ReviewRepository reviewRepository;
+    private final PlatformTransactionManager transactionManager;
+    
+    private final Map<Long, PgIndex> indexes = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> modCounts = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    
+    @Value("${app.review.keyword-index.ttl-minutes:60}")
+    private long ttlMinutes;
+    
+    @Value("${app.review.keyword-index.segment-file:./data/review-keywords.seg}")
+    private String segmentFile;
+    
+    public List<ReviewTermIndex.Hit> search(Long pgId, String query) {
+        return getIndex(pgId).search(query);
+    }
+    
+    public List<ReviewTermIndex.TermCount> topTerms(Long pgId, int limit) {
+        return getIndex(pgId).topTerms(limit);
+    }
+    
+    public void invalidate(Long pgId) {
+        modCount(pgId).incrementAndGet();
+        indexes.remove(pgId);
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        Long pgId = event.pgId();
+        modCount(pgId).incrementAndGet();
+        PgIndex index = indexes.get(pgId);
+        if (index != null) {
+            reviewRepository.findTextById(event.reviewId()).ifPresent(index::apply);
+            dirty.set(true);
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        try {
+            readOnly.executeWithoutResult(status -> {
+                if (!restoreFromSegment()) {
+                    rebuildAll();
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Review keyword index startup failed, PGs will load on first use: {}", e.getMessage());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.review.keyword-index.flush-interval-ms:900000}")
+    public void flush() {
+        if (dirty.getAndSet(false)) {
+            try {
+                writeSegment();
+            } catch (IOException e) {
+                dirty.set(true);
+                log.warn("Could not write review keyword segment {}: {}", segmentFile, e.getMessage());
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+    
+    private void rebuildAll() {
+        log.info("Rebuilding review keyword index for all PGs");
+        long started = System.nanoTime();
+        
+        Map<Long, Long> seen = new HashMap<>();
+        Map<Long, PgIndex> rebuilt = new HashMap<>();
+        long rows = 0;
+        try (Stream<ReviewText> texts = reviewRepository.streamActiveTexts()) {
+            for (ReviewText text : (Iterable<ReviewText>) texts::iterator) {
+                rebuilt.computeIfAbsent(text.pgId(), pgId -> {
+                    seen.put(pgId, modCount(pgId).get());
+                    return new PgIndex(new ReviewTermIndex());
+                }).apply(text);
+                rows++;
+            }
+        }
+        
+        int installed = install(rebuilt, seen);
+        log.info("Rebuilt review keyword index for {} PGs from {} reviews in {} ms ({} left to load lazily)",
+            installed, rows, (System.nanoTime() - started) / 1_000_000, rebuilt.size() - installed);
+    }
+    
+    /**
+     * Loads the segment and replays reviews updated since; false when there is no usable segment.
+     */
+    private boolean restoreFromSegment() {
+        Path path = Paths.get(segmentFile);
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        long started = System.nanoTime();
+        Map<Long, Long> seen = new HashMap<>();
+        Map<Long, PgIndex> restored = new HashMap<>();
+        LocalDateTime writtenAt;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != SEGMENT_MAGIC || in.readInt() != SEGMENT_VERSION) {
+                log.warn("Ignoring review keyword segment {} with unknown format", path);
+                return false;
+            }
+            writtenAt = LocalDateTime.parse(in.readUTF());
+            long pgCount = ReviewTermIndex.readVarLong(in);
+            for (long i = 0; i < pgCount; i++) {
+                Long pgId = ReviewTermIndex.readVarLong(in);
+                seen.put(pgId, modCount(pgId).get());
+                restored.put(pgId, new PgIndex(ReviewTermIndex.readFrom(in)));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable review keyword segment {}: {}", path, e.getMessage());
+            return false;
+        }
+        
+        // PGs absent from the segment load lazily, so their reviews are not replayed here
+        long replayed = 0;
+        try (Stream<ReviewText> texts = reviewRepository.streamTextsUpdatedSince(writtenAt.minus(CATCH_UP_MARGIN))) {
+            for (ReviewText text : (Iterable<ReviewText>) texts::iterator) {
+                PgIndex index = restored.get(text.pgId());
+                if (index != null) {
+                    index.apply(text);
+                    replayed++;
+                }
+            }
+        }
+        
+        int installed = install(restored, seen);
+        log.info("Restored review keyword index for {} PGs from {} and replayed {} reviews in {} ms",
+            installed, path, replayed, (System.nanoTime() - started) / 1_000_000);
+        return true;
+    }
+    
+    // PGs written to while the scan was running are left to load lazily
+    private int install(Map<Long, PgIndex> loaded, Map<Long, Long> seen) {
+        int installed = 0;
+        for (Map.Entry<Long, PgIndex> entry : loaded.entrySet()) {
+            if (modCount(entry.getKey()).get() == seen.get(entry.getKey())) {
+                indexes.put(entry.getKey(), entry.getValue());
+                installed++;
+            }
+        }
+        dirty.set(true);
+        return installed;
+    }
+    
+    private void writeSegment() throws IOException {
+        long started = System.nanoTime();
+        LocalDateTime writtenAt = LocalDateTime.now();
+        List<Map.Entry<Long, PgIndex>> snapshot = new ArrayList<>(indexes.entrySet());
+        
+        Path path = Paths.get(segmentFile).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(SEGMENT_MAGIC);
+            out.writeInt(SEGMENT_VERSION);
+            out.writeUTF(writtenAt.toString());
+            ReviewTermIndex.writeVarLong(out, snapshot.size());
+            for (Map.Entry<Long, PgIndex> entry : snapshot) {
+                ReviewTermIndex.writeVarLong(out, entry.getKey());
+                entry.getValue().writeTo(out);
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Wrote review keyword segment for {} PGs ({} bytes) in {} ms",
+            snapshot.size(), Files.size(path), (System.nanoTime() - started) / 1_000_000);
+    }
+    
+    private PgIndex getIndex(Long pgId) {
+        PgIndex index = indexes.get(pgId);
+        if (index != null && !index.isExpired(ttlMinutes)) {
+            return index;
+        }
+        PgIndex loaded;
+        long seen;
+        int attempts = 0;
+        do {
+            seen = modCount(pgId).get();
+            loaded = load(pgId);
+        } while (modCount(pgId).get() != seen && ++attempts < MAX_LOAD_ATTEMPTS);
+        indexes.put(pgId, loaded);
+        dirty.set(true);
+        return loaded;
+    }
+    
+    private PgIndex load(Long pgId) {
+        long started = System.nanoTime();
+        List<ReviewText> texts = reviewRepository.findActiveTextsByPgId(pgId);
+        PgIndex index = new PgIndex(new ReviewTermIndex());
+        texts.forEach(index::apply);
+        log.info("Loaded review keyword index for PG ID: {} with {} reviews in {} ms",
+            pgId, texts.size(), (System.nanoTime() - started) / 1_000_000);
+        return index;
+    }
+    
+    private AtomicLong modCount(Long pgId) {
+        return modCounts.computeIfAbsent(pgId, id -> new AtomicLong());
+    }
+    
+    private static final class PgIndex {
+        
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final ReviewTermIndex index;
+        private final long loadedAt = System.currentTimeMillis();
+        
+        PgIndex(ReviewTermIndex index) {
+            this.index = index;
+        }
+        
+        boolean isExpired(long ttlMinutes) {
+            return System.currentTimeMillis() - loadedAt > ttlMinutes * 60_000;
+        }
+        
+        List<ReviewTermIndex.Hit> search(String query) {
+            lock.readLock().lock();
+            try {
+                return index.search(query);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        List<ReviewTermIndex.TermCount> topTerms(int limit) {
+            lock.readLock().lock();
+            try {
+                return index.topTerms(limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        
+        void apply(ReviewText text) {
+            lock.writeLock().lock();
+            try {
+                if (text.active()) {
+                    index.put(text.reviewId(), text.comment(), text.response());
+                } else {
+                    index.remove(text.reviewId());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        
+        void writeTo(DataOutputStream out) throws IOException {
+            lock.readLock().lock();
+            try {
+                index.writeTo(out);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
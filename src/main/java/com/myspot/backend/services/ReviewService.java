@@ -1,14 +1,20 @@
 
 package com.myspot.backend.services;
 
+import com.myspot.backend.dto.projection.ReviewRating;
+import com.myspot.backend.dto.projection.ReviewStats;
 import com.myspot.backend.entities.*;
+import com.myspot.backend.events.ReviewChangedEvent;
 import com.myspot.backend.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,6 +28,9 @@ public class ReviewService {
     
     private final PGManagementOwnerRepository pgManagementOwnerRepository;
     private final ReviewRepository reviewRepository;
+    private final ReviewKeywordIndex reviewKeywordIndex;
+    private final ReviewStatsCache reviewStatsCache;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Transactional(readOnly = true)
     public List<Map<String, Object>> getAllReviews(Long pgId) {
@@ -34,63 +43,161 @@ public class ReviewService {
             .collect(Collectors.toList());
     }
     
+    /**
+     * One page of active reviews after the given cursor; nextCursor is null on the last page.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> getReviewFeed(Long pgId, String sort, String cursor, int size) {
+        log.info("Getting review feed for PG ID: {}, sort: {}", pgId, sort);
+        
+        ReviewFeedCursor.Sort feedSort = ReviewFeedCursor.Sort.parse(sort);
+        ReviewFeedCursor after = cursor != null && !cursor.isBlank()
+            ? ReviewFeedCursor.decode(cursor.trim(), feedSort)
+            : ReviewFeedCursor.first(feedSort);
+        
+        // One extra row tells whether another page exists
+        List<Review> reviews = new ArrayList<>(findFeedPage(pgId, after, size + 1));
+        if (feedSort == ReviewFeedCursor.Sort.UNANSWERED && after.phase() == 0 && reviews.size() <= size) {
+            reviews.addAll(findFeedPage(pgId, ReviewFeedCursor.firstAnswered(), size + 1 - reviews.size()));
+        }
+        boolean hasMore = reviews.size() > size;
+        if (hasMore) {
+            reviews = reviews.subList(0, size);
+        }
+        
+        Map<String, Object> feed = new HashMap<>();
+        feed.put("reviews", reviews.stream().map(this::convertReviewToMap).collect(Collectors.toList()));
+        feed.put("sort", feedSort.name().toLowerCase());
+        feed.put("size", size);
+        feed.put("nextCursor", hasMore ? ReviewFeedCursor.after(feedSort, reviews.get(reviews.size() - 1)).encode() : null);
+        return feed;
+    }
+    
+    /**
+     * Active reviews whose comment or response mentions every word of the query, most mentions first.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> searchReviews(Long pgId, String query, int page, int size) {
+        log.info("Searching reviews for PG ID: {}, query: {}", pgId, query);
+        
+        List<ReviewTermIndex.Hit> hits = reviewKeywordIndex.search(pgId, query);
+        int from = (int) Math.min((long) page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        List<ReviewTermIndex.Hit> pageHits = hits.subList(from, to);
+        
+        Map<Long, Review> loaded = reviewRepository.findAllWithGuestByIds(
+                pageHits.stream().map(ReviewTermIndex.Hit::reviewId).toList())
+            .stream()
+            .collect(Collectors.toMap(Review::getReviewId, review -> review));
+        List<Map<String, Object>> reviews = new ArrayList<>(pageHits.size());
+        for (ReviewTermIndex.Hit hit : pageHits) {
+            Review review = loaded.get(hit.reviewId());
+            // The index may briefly lag a deactivation made on another node
+            if (review != null && Boolean.TRUE.equals(review.getIsActive())) {
+                Map<String, Object> reviewMap = convertReviewToMap(review);
+                reviewMap.put("matches", hit.score());
+                reviews.add(reviewMap);
+            }
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", query);
+        response.put("reviews", reviews);
+        response.put("total", hits.size());
+        response.put("page", page);
+        response.put("size", size);
+        return response;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getTopTerms(Long pgId, int limit) {
+        log.info("Getting top review terms for PG ID: {}", pgId);
+        
+        return reviewKeywordIndex.topTerms(pgId, limit).stream()
+            .map(termCount -> {
+                Map<String, Object> term = new HashMap<>();
+                term.put("term", termCount.term());
+                term.put("reviews", termCount.reviews());
+                return term;
+            })
+            .collect(Collectors.toList());
+    }
+    
     public void respondToReview(Long pgId, Long reviewId, String response) {
         log.info("Responding to review ID: {} for PG ID: {}", reviewId, pgId);
         
-        Review review = reviewRepository.findById(reviewId)
-            .orElseThrow(() -> new RuntimeException("Review not found"));
-        
-        if (!review.getPgManagementOwner().getPgId().equals(pgId)) {
-            throw new RuntimeException("Review does not belong to this PG");
-        }
+        Review review = getOwnedReview(pgId, reviewId);
+        ReviewRating before = ReviewRating.of(review);
         
         review.setResponse(response);
         review.setRespondedAt(LocalDateTime.now());
-        reviewRepository.save(review);
+        review = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(reviewId, before, ReviewRating.of(review)));
+    }
+    
+    public Map<String, Object> setReviewActive(Long pgId, Long reviewId, boolean active) {
+        log.info("Setting review ID: {} active: {} for PG ID: {}", reviewId, active, pgId);
+        
+        Review review = getOwnedReview(pgId, reviewId);
+        ReviewRating before = ReviewRating.of(review);
+        
+        review.setIsActive(active);
+        review = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(reviewId, before, ReviewRating.of(review)));
+        
+        return convertReviewToMap(review);
+    }
+    
+    public Map<String, Object> setReviewVerified(Long pgId, Long reviewId, boolean verified) {
+        log.info("Setting review ID: {} verified: {} for PG ID: {}", reviewId, verified, pgId);
+        
+        Review review = getOwnedReview(pgId, reviewId);
+        ReviewRating before = ReviewRating.of(review);
+        
+        review.setIsVerified(verified);
+        review = reviewRepository.save(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(reviewId, before, ReviewRating.of(review)));
+        
+        return convertReviewToMap(review);
     }
     
     @Transactional(readOnly = true)
     public Map<String, Object> getReviewStats(Long pgId) {
         log.info("Getting review statistics for PG ID: {}", pgId);
         
-        Map<String, Object> stats = new HashMap<>();
+        ReviewStats reviewStats = reviewStatsCache.get(pgId);
         
-        Long totalReviews = reviewRepository.countActiveReviewsByPgId(pgId);
-        BigDecimal averageRating = reviewRepository.getAverageRatingByPgId(pgId);
-        
-        stats.put("totalReviews", totalReviews != null ? totalReviews.intValue() : 0);
-        stats.put("averageRating", averageRating != null ? averageRating : BigDecimal.ZERO);
-        
-        // Individual rating averages
-        BigDecimal cleanlinessRating = reviewRepository.getAverageCleanlinessRating(pgId);
-        BigDecimal locationRating = reviewRepository.getAverageLocationRating(pgId);
-        BigDecimal valueForMoneyRating = reviewRepository.getAverageValueForMoneyRating(pgId);
-        BigDecimal staffBehaviorRating = reviewRepository.getAverageStaffBehaviorRating(pgId);
-        BigDecimal amenitiesRating = reviewRepository.getAverageAmenitiesRating(pgId);
-        BigDecimal foodQualityRating = reviewRepository.getAverageFoodQualityRating(pgId);
-        
-        Map<String, BigDecimal> categoryRatings = new HashMap<>();
-        categoryRatings.put("cleanliness", cleanlinessRating != null ? cleanlinessRating : BigDecimal.ZERO);
-        categoryRatings.put("location", locationRating != null ? locationRating : BigDecimal.ZERO);
-        categoryRatings.put("valueForMoney", valueForMoneyRating != null ? valueForMoneyRating : BigDecimal.ZERO);
-        categoryRatings.put("staffBehavior", staffBehaviorRating != null ? staffBehaviorRating : BigDecimal.ZERO);
-        categoryRatings.put("amenities", amenitiesRating != null ? amenitiesRating : BigDecimal.ZERO);
-        categoryRatings.put("foodQuality", foodQualityRating != null ? foodQualityRating : BigDecimal.ZERO);
-        
-        stats.put("categoryRatings", categoryRatings);
-        
-        // Rating distribution (you can implement this based on your needs)
-        Map<String, Integer> ratingDistribution = new HashMap<>();
-        ratingDistribution.put("5star", 0);
-        ratingDistribution.put("4star", 0);
-        ratingDistribution.put("3star", 0);
-        ratingDistribution.put("2star", 0);
-        ratingDistribution.put("1star", 0);
-        stats.put("ratingDistribution", ratingDistribution);
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalReviews", (int) reviewStats.totalReviews());
+        stats.put("averageRating", reviewStats.averageRating());
+        stats.put("categoryRatings", reviewStats.categoryRatings());
+        stats.put("ratingDistribution", reviewStats.ratingDistribution());
         
         return stats;
     }
     
+    private List<Review> findFeedPage(Long pgId, ReviewFeedCursor after, int limit) {
+        Pageable page = PageRequest.of(0, limit);
+        return switch (after.sort()) {
+            case NEWEST -> reviewRepository.findFeedNewest(pgId, after.createdAt(), after.reviewId(), page);
+            case HIGHEST -> reviewRepository.findFeedHighest(pgId, after.rating(), after.reviewId(), page);
+            case LOWEST -> reviewRepository.findFeedLowest(pgId, after.rating(), after.reviewId(), page);
+            case UNANSWERED -> after.phase() == 0
+                ? reviewRepository.findFeedUnanswered(pgId, after.createdAt(), after.reviewId(), page)
+                : reviewRepository.findFeedAnswered(pgId, after.respondedAt(), after.createdAt(), after.reviewId(), page);
+        };
+    }
+    
+    private Review getOwnedReview(Long pgId, Long reviewId) {
+        Review review = reviewRepository.findById(reviewId)
+            .orElseThrow(() -> new RuntimeException("Review not found"));
+        
+        if (!review.getPgManagementOwner().getPgId().equals(pgId)) {
+            throw new RuntimeException("Review does not belong to this PG");
+        }
+        return review;
+    }
+    
     private Map<String, Object> convertReviewToMap(Review review) {
         Map<String, Object> reviewMap = new HashMap<>();
         
@@ -0,0 +1,77 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.ReviewStats;
+import com.myspot.backend.events.ReviewChangedEvent;
+import com.myspot.backend.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of each PG's review stats, kept for at most ttlMinutes.
+ *
+ * A review change evicts its PG after commit, and a load that raced with an eviction is not
+ * stored, so this node never keeps stats from before a committed change. Other nodes, and
+ * reviews changed without a ReviewChangedEvent, are picked up once the entry expires.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReviewStatsCache {
+    
+    private final ReviewRepository reviewRepository;
+    private final AtomicLong evictions = new AtomicLong();
+    
+    @Value("${app.review.stats-cache.max-entries:10000}")
+    private int maxEntries;
+    
+    @Value("${app.review.stats-cache.ttl-minutes:5}")
+    private long ttlMinutes;
+    
+    private final Map<Long, CachedStats> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, CachedStats> eldest) {
+            return size() > maxEntries;
+        }
+    };
+    
+    public ReviewStats get(Long pgId) {
+        synchronized (entries) {
+            CachedStats cached = entries.get(pgId);
+            if (cached != null && !cached.isExpired(ttlMinutes)) {
+                return cached.stats();
+            }
+        }
+        long seen = evictions.get();
+        ReviewStats stats = reviewRepository.getReviewStats(pgId);
+        synchronized (entries) {
+            if (evictions.get() == seen) {
+                entries.put(pgId, new CachedStats(stats, System.currentTimeMillis()));
+            }
+        }
+        return stats;
+    }
+    
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onReviewChanged(ReviewChangedEvent event) {
+        log.debug("Evicting review stats for PG ID: {}", event.pgId());
+        synchronized (entries) {
+            evictions.incrementAndGet();
+            entries.remove(event.pgId());
+        }
+    }
+    
+    private record CachedStats(ReviewStats stats, long loadedAt) {
+        
+        boolean isExpired(long ttlMinutes) {
+            return System.currentTimeMillis() - loadedAt > ttlMinutes * 60_000;
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.myspot.backend.services;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index from review words to the reviews that use them, for one PG.
+ *
+ * Text is lower-cased, split on anything that is not a letter or digit, stripped of stopwords
+ * and reduced by a few suffix rules, so "rooms", "cleaning" and "cleaned" match "room" and
+ * "clean". Each term keeps a posting list of review ids in ascending order with the number of
+ * times the term occurs in that review; each review keeps its terms so it can be removed or
+ * replaced. Multi-word queries return reviews containing every term, ranked by total
+ * occurrences and then newest first.
+ *
+ * Not thread-safe; callers guard access.
+ */
+public class ReviewTermIndex {
+    
+    private static final int MIN_TOKEN = 2;
+    private static final int MAX_TOKEN = 40;
+    private static final int MIN_STEM = 4;
+    private static final Pattern COMPOUND = Pattern.compile("\\p{L}+(?:-\\p{L}+)+");
+    
+    private static final Set<String> STOPWORDS = Set.of(
+        "a", "about", "above", "after", "again", "all", "also", "am", "an", "and", "any", "are", "as", "at",
+        "be", "because", "been", "before", "being", "below", "between", "both", "but", "by",
+        "can", "could", "did", "do", "does", "doing", "down", "during", "each", "even", "ever", "every",
+        "few", "for", "from", "further", "get", "got", "had", "has", "have", "having", "he", "her", "here",
+        "hers", "him", "his", "how", "i", "if", "in", "into", "is", "it", "its", "itself", "just",
+        "me", "more", "most", "much", "my", "myself", "no", "nor", "not", "now", "of", "off", "on", "once",
+        "only", "or", "other", "our", "ours", "out", "over", "own", "pg", "quite", "really", "same", "she",
+        "should", "so", "some", "such", "than", "that", "the", "their", "them", "then", "there", "these",
+        "they", "this", "those", "through", "to", "too", "under", "until", "up", "us", "very", "was", "we",
+        "were", "what", "when", "where", "which", "while", "who", "whom", "why", "will", "with", "would",
+        "you", "your", "yours");
+    
+    public record Hit(long reviewId, int score) {
+    }
+    
+    public record TermCount(String term, int reviews) {
+    }
+    
+    private final Map<String, Postings> terms = new HashMap<>();
+    private final Map<Long, String[]> reviewTerms = new HashMap<>();
+    
+    public int size() {
+        return reviewTerms.size();
+    }
+    
+    public int termCount() {
+        return terms.size();
+    }
+    
+    public long postingCount() {
+        long total = 0;
+        for (Postings postings : terms.values()) {
+            total += postings.size;
+        }
+        return total;
+    }
+    
+    /**
+     * Indexes a review's texts, replacing whatever was indexed for it before.
+     */
+    public void put(long reviewId, String... texts) {
+        remove(reviewId);
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String text : texts) {
+            for (String term : tokenize(text)) {
+                counts.merge(term, 1, Integer::sum);
+            }
+        }
+        if (counts.isEmpty()) {
+            return;
+        }
+        String[] indexed = new String[counts.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            Postings postings = terms.computeIfAbsent(entry.getKey(), term -> new Postings(term, 2));
+            postings.put(reviewId, entry.getValue());
+            // Every review shares the posting list's String for a term
+            indexed[i++] = postings.term;
+        }
+        reviewTerms.put(reviewId, indexed);
+    }
+    
+    public boolean remove(long reviewId) {
+        String[] indexed = reviewTerms.remove(reviewId);
+        if (indexed == null) {
+            return false;
+        }
+        for (String term : indexed) {
+            Postings postings = terms.get(term);
+            if (postings != null && postings.remove(reviewId) && postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Reviews containing every term of the query, most mentions first, then newest first.
+     */
+    public List<Hit> search(String query) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        List<Postings> lists = new ArrayList<>(queryTerms.size());
+        for (String term : queryTerms) {
+            Postings postings = terms.get(term);
+            if (postings == null) {
+                return List.of();
+            }
+            lists.add(postings);
+        }
+        lists.sort(Comparator.comparingInt(postings -> postings.size));
+        
+        Postings smallest = lists.get(0);
+        List<Hit> hits = new ArrayList<>();
+        outer:
+        for (int i = 0; i < smallest.size; i++) {
+            long reviewId = smallest.ids[i];
+            int score = smallest.counts[i];
+            for (int j = 1; j < lists.size(); j++) {
+                int count = lists.get(j).count(reviewId);
+                if (count == 0) {
+                    continue outer;
+                }
+                score += count;
+            }
+            hits.add(new Hit(reviewId, score));
+        }
+        hits.sort(Comparator.comparingInt(Hit::score).reversed()
+            .thenComparing(Comparator.comparingLong(Hit::reviewId).reversed()));
+        return hits;
+    }
+    
+    /**
+     * The terms used by the most reviews, ties broken alphabetically.
+     */
+    public List<TermCount> topTerms(int limit) {
+        Comparator<TermCount> order = Comparator.comparingInt(TermCount::reviews).reversed()
+            .thenComparing(TermCount::term);
+        PriorityQueue<TermCount> best = new PriorityQueue<>(order.reversed());
+        for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+            TermCount candidate = new TermCount(entry.getKey(), entry.getValue().size);
+            if (best.size() < limit) {
+                best.add(candidate);
+            } else if (limit > 0 && order.compare(candidate, best.peek()) < 0) {
+                best.poll();
+                best.add(candidate);
+            }
+        }
+        List<TermCount> result = new ArrayList<>(best);
+        result.sort(order);
+        return result;
+    }
+    
+    /**
+     * Writes the posting lists with delta-encoded review ids; reviews are rebuilt from them on read.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        writeVarLong(out, terms.size());
+        for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+            Postings postings = entry.getValue();
+            out.writeUTF(entry.getKey());
+            writeVarLong(out, postings.size);
+            long previous = 0;
+            for (int i = 0; i < postings.size; i++) {
+                writeVarLong(out, postings.ids[i] - previous);
+                writeVarLong(out, postings.counts[i]);
+                previous = postings.ids[i];
+            }
+        }
+    }
+    
+    public static ReviewTermIndex readFrom(DataInput in) throws IOException {
+        ReviewTermIndex index = new ReviewTermIndex();
+        Map<Long, List<String>> reviews = new HashMap<>();
+        long termCount = readVarLong(in);
+        for (long t = 0; t < termCount; t++) {
+            String term = in.readUTF();
+            int size = (int) readVarLong(in);
+            Postings postings = new Postings(term, size);
+            long reviewId = 0;
+            for (int i = 0; i < size; i++) {
+                reviewId += readVarLong(in);
+                postings.ids[i] = reviewId;
+                postings.counts[i] = (int) readVarLong(in);
+                reviews.computeIfAbsent(reviewId, id -> new ArrayList<>(8)).add(term);
+            }
+            postings.size = size;
+            index.terms.put(term, postings);
+        }
+        reviews.forEach((reviewId, reviewTerms) -> index.reviewTerms.put(reviewId, reviewTerms.toArray(new String[0])));
+        return index;
+    }
+    
+    /**
+     * Index terms of the text in order of appearance, repeats included.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        List<String> result = new ArrayList<>();
+        for (String token : lower.split("[^\\p{L}\\p{Nd}]+")) {
+            addTerm(token, result);
+        }
+        // "wi-fi" is also indexed as "wifi" so either spelling finds it
+        Matcher compounds = COMPOUND.matcher(lower);
+        while (compounds.find()) {
+            addTerm(compounds.group().replace("-", ""), result);
+        }
+        return result;
+    }
+    
+    private static void addTerm(String token, List<String> result) {
+        if (token.length() >= MIN_TOKEN && token.length() <= MAX_TOKEN && !STOPWORDS.contains(token)) {
+            result.add(stem(token));
+        }
+    }
+    
+    /**
+     * A handful of English suffix rules; deliberately conservative so short words stay intact.
+     */
+    static String stem(String token) {
+        if (token.length() <= MIN_STEM || !Character.isLetter(token.charAt(token.length() - 1))) {
+            return token;
+        }
+        if (token.endsWith("ies") && token.length() > MIN_STEM + 1) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+        if (token.endsWith("sses")) {
+            return token.substring(0, token.length() - 2);
+        }
+        if (token.endsWith("ing") && token.length() - 3 >= MIN_STEM) {
+            return undouble(token.substring(0, token.length() - 3));
+        }
+        if (token.endsWith("ed") && token.length() - 2 >= MIN_STEM) {
+            return undouble(token.substring(0, token.length() - 2));
+        }
+        if (token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us") && !token.endsWith("is")) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+    
+    // "stopped" -> "stopp" -> "stop", but "staff" and "spill" keep their doubled ending
+    private static String undouble(String stem) {
+        int n = stem.length();
+        char last = stem.charAt(n - 1);
+        if (n > MIN_STEM && last == stem.charAt(n - 2) && "bdgmnprt".indexOf(last) >= 0) {
+            return stem.substring(0, n - 1);
+        }
+        return stem;
+    }
+    
+    static void writeVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+    
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+    
+    /**
+     * Review ids in ascending order with their occurrence counts. New reviews have the highest
+     * ids, so inserts are almost always appends.
+     */
+    private static final class Postings {
+        final String term;
+        long[] ids;
+        int[] counts;
+        int size;
+        
+        Postings(String term, int capacity) {
+            this.term = term;
+            ids = new long[Math.max(capacity, 1)];
+            counts = new int[Math.max(capacity, 1)];
+        }
+        
+        void put(long reviewId, int count) {
+            int at = size == 0 || ids[size - 1] < reviewId ? -(size + 1) : Arrays.binarySearch(ids, 0, size, reviewId);
+            if (at >= 0) {
+                counts[at] = count;
+                return;
+            }
+            at = -(at + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            System.arraycopy(counts, at, counts, at + 1, size - at);
+            ids[at] = reviewId;
+            counts[at] = count;
+            size++;
+        }
+        
+        boolean remove(long reviewId) {
+            int at = Arrays.binarySearch(ids, 0, size, reviewId);
+            if (at < 0) {
+                return false;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            System.arraycopy(counts, at + 1, counts, at, size - at - 1);
+            size--;
+            return true;
+        }
+        
+        int count(long reviewId) {
+            int at = Arrays.binarySearch(ids, 0, size, reviewId);
+            return at >= 0 ? counts[at] : 0;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.myspot.backend.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks that serialises writers to the same (pgId, roomNumber) within this node.
+ * Unrelated rooms hashing to one stripe only share a short critical section, and callers give up
+ * after a bounded wait instead of queueing, so a hot room cannot tie up request threads.
+ */
+@Component
+public class RoomLockStripes {
+    
+    private final ReentrantLock[] stripes;
+    private final long waitMillis;
+    
+    public RoomLockStripes(@Value("${app.booking.room-lock.stripes:256}") int stripeCount,
+                           @Value("${app.booking.room-lock.wait-ms:200}") long waitMillis) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.waitMillis = waitMillis;
+    }
+    
+    /**
+     * Acquires the room's stripe, or returns null when another request holds it past the wait.
+     */
+    public ReentrantLock tryLock(Long pgId, String roomNumber) {
+        ReentrantLock lock = stripes[index(pgId, roomNumber)];
+        try {
+            return lock.tryLock(waitMillis, TimeUnit.MILLISECONDS) ? lock : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+    
+    int index(Long pgId, String roomNumber) {
+        int hash = Objects.hash(pgId, roomNumber);
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
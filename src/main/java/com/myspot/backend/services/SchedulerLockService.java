@@ -0,0 +1,53 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.repository.SchedulerLockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Database leases that keep a scheduled job to one node at a time.
+ * Acquiring is a conditional UPDATE, so it needs no row locks held across the job.
+ * Only an expired or released lease can be acquired, by any node including the holder, so a
+ * startup catch-up and a cron run on the same node never overlap; a running job extends its
+ * own lease with renew.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.REQUIRES_NEW)
+public class SchedulerLockService {
+    
+    private final SchedulerLockRepository schedulerLockRepository;
+    
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+    
+    public boolean tryAcquire(String lockName, Duration leaseFor) {
+        LocalDateTime now = LocalDateTime.now();
+        schedulerLockRepository.insertIfMissing(lockName, now);
+        boolean acquired = schedulerLockRepository.acquire(lockName, nodeId, now, now.plus(leaseFor)) == 1;
+        if (!acquired) {
+            log.debug("Scheduler lock {} is held by another node", lockName);
+        }
+        return acquired;
+    }
+    
+    /**
+     * Extends a lease this node still holds; false if it expired or another node took it.
+     */
+    public boolean renew(String lockName, Duration leaseFor) {
+        LocalDateTime now = LocalDateTime.now();
+        return schedulerLockRepository.renew(lockName, nodeId, now, now.plus(leaseFor)) == 1;
+    }
+    
+    public void release(String lockName) {
+        schedulerLockRepository.release(lockName, nodeId, LocalDateTime.now());
+    }
+}
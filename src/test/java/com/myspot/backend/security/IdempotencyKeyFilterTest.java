@@ -0,0 +1,177 @@
+package com.myspot.backend.security;
+
+import com.myspot.backend.services.IdempotencyStore;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockPart;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyKeyFilterTest {
+    
+    private final AtomicInteger executions = new AtomicInteger();
+    private IdempotencyKeyFilter filter;
+    private int status;
+    
+    @BeforeEach
+    void setUp() {
+        filter = new IdempotencyKeyFilter(new IdempotencyStore(null, 100, 60, false), 1, 64 * 1024);
+        status = 201;
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("owner@example.com", null, AuthorityUtils.createAuthorityList("ROLE_OWNER")));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void successfulResponseIsReplayed() throws Exception {
+        send(jsonRequest("{\"a\":1}"));
+        MockHttpServletResponse replay = send(jsonRequest("{\"a\":1}"));
+        
+        assertThat(executions).hasValue(1);
+        assertThat(replay.getStatus()).isEqualTo(201);
+        assertThat(replay.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+    
+    @Test
+    void transientRejectionsAreNotStored() throws Exception {
+        for (int code : new int[] {401, 403, 409, 429}) {
+            status = code;
+            MockHttpServletRequest request = jsonRequest("{}");
+            request.removeHeader(IdempotencyKeyFilter.KEY_HEADER);
+            request.addHeader(IdempotencyKeyFilter.KEY_HEADER, "key-" + code);
+            send(request);
+            send(request);
+        }
+        
+        assertThat(executions).hasValue(8);
+    }
+    
+    @Test
+    void multipartRetryWithNewBoundaryIsReplayed() throws Exception {
+        send(multipartRequest("----boundaryA", "rows".getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse replay = send(multipartRequest("----boundaryB", "rows".getBytes(StandardCharsets.UTF_8)));
+        
+        assertThat(executions).hasValue(1);
+        assertThat(replay.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+    
+    @Test
+    void multipartWithDifferentFileIsRejected() throws Exception {
+        send(multipartRequest("----boundaryA", "rows".getBytes(StandardCharsets.UTF_8)));
+        MockHttpServletResponse mismatch = send(multipartRequest("----boundaryA", "other".getBytes(StandardCharsets.UTF_8)));
+        
+        assertThat(executions).hasValue(1);
+        assertThat(mismatch.getStatus()).isEqualTo(422);
+    }
+    
+    @Test
+    void anonymousRetryIsReplayedOnlyForTheSameBody() throws Exception {
+        anonymous();
+        
+        send(jsonRequest("{\"email\":\"a@example.com\"}"));
+        MockHttpServletResponse replay = send(jsonRequest("{\"email\":\"a@example.com\"}"));
+        MockHttpServletResponse otherCaller = send(jsonRequest("{\"email\":\"b@example.com\"}"));
+        
+        assertThat(executions).hasValue(2);
+        assertThat(replay.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(otherCaller.getStatus()).isEqualTo(201);
+        assertThat(otherCaller.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isNull();
+    }
+    
+    @Test
+    void anonymousFormBodyBypassesTheStore() throws Exception {
+        anonymous();
+        
+        send(formRequest());
+        MockHttpServletResponse second = send(formRequest());
+        
+        assertThat(executions).hasValue(2);
+        assertThat(second.getHeader(IdempotencyKeyFilter.REPLAYED_HEADER)).isNull();
+    }
+    
+    @Test
+    void cachedBodySupportsReadListener() throws Exception {
+        List<String> callbacks = new ArrayList<>();
+        FilterChain chain = (request, response) -> request.getInputStream().setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() {
+                callbacks.add("data");
+            }
+            
+            @Override
+            public void onAllDataRead() {
+                callbacks.add("done");
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+                callbacks.add("error");
+            }
+        });
+        
+        filter.doFilter(jsonRequest("{}"), new MockHttpServletResponse(), chain);
+        
+        assertThat(callbacks).containsExactly("data", "done");
+    }
+    
+    private static void anonymous() {
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken("key", "anonymousUser",
+            AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+    }
+    
+    private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> {
+            executions.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(status);
+            res.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+        });
+        return response;
+    }
+    
+    private static MockHttpServletRequest jsonRequest(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/bookings");
+        request.addHeader(IdempotencyKeyFilter.KEY_HEADER, "key-1");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+    
+    private static MockHttpServletRequest formRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/pg-auth/register");
+        request.addHeader(IdempotencyKeyFilter.KEY_HEADER, "key-1");
+        request.setContentType("application/x-www-form-urlencoded");
+        request.setContent("email=a%40example.com".getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+    
+    private static MockHttpServletRequest multipartRequest(String boundary, byte[] file) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/guests/import");
+        request.addHeader(IdempotencyKeyFilter.KEY_HEADER, "key-1");
+        request.setContentType("multipart/form-data; boundary=" + boundary);
+        // Body length follows the boundary, as it would on the wire
+        request.setContent(new byte[boundary.length() + file.length]);
+        MockPart part = new MockPart("file", "guests.csv", file);
+        request.addPart(part);
+        return request;
+    }
+}
@@ -0,0 +1,84 @@
+package com.myspot.backend.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnalyticsQueryExecutorTest {
+    
+    private final AnalyticsQueryExecutor executor = new AnalyticsQueryExecutor(20, 0.5, 3, 50, 10);
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+    
+    @Test
+    void returnsResultsInTaskOrder() {
+        List<Object> results = executor.invokeAll(List.of(
+            () -> { Thread.sleep(30); return "slow"; },
+            () -> "fast",
+            () -> 42));
+        
+        assertThat(results).containsExactly("slow", "fast", 42);
+    }
+    
+    @Test
+    void neverRunsMoreThanThePerRequestCap() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        List<Callable<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            tasks.add(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                running.decrementAndGet();
+                return null;
+            });
+        }
+        
+        executor.invokeAll(tasks);
+        
+        assertThat(peak.get()).isBetween(1, 3);
+    }
+    
+    @Test
+    void rethrowsTheTaskException() {
+        assertThatThrownBy(() -> executor.invokeAll(List.of(
+            () -> "ok",
+            () -> { throw new IllegalArgumentException("bad month"); })))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("bad month");
+    }
+    
+    @Test
+    void capIsLimitedByThePoolShare() {
+        AnalyticsQueryExecutor small = new AnalyticsQueryExecutor(2, 0.5, 8, 10, 10);
+        try {
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger peak = new AtomicInteger();
+            List<Callable<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                tasks.add(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.sleep(20);
+                    running.decrementAndGet();
+                    return null;
+                });
+            }
+            
+            small.invokeAll(tasks);
+            
+            assertThat(peak.get()).isEqualTo(1);
+        } finally {
+            small.shutdown();
+        }
+    }
+}
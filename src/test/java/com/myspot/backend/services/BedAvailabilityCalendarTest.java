@@ -0,0 +1,108 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.BookingSpan;
+import com.myspot.backend.dto.projection.RoomCapacity;
+import com.myspot.backend.entities.Booking;
+import com.myspot.backend.events.BookingChangedEvent;
+import com.myspot.backend.events.RoomCapacityChangedEvent;
+import com.myspot.backend.repository.BookingRepository;
+import com.myspot.backend.repository.PGDetailsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BedAvailabilityCalendarTest {
+    
+    private static final Long PG_ID = 1L;
+    private static final int HORIZON = 10;
+    
+    private BookingRepository bookingRepository;
+    private PGDetailsRepository pgDetailsRepository;
+    private BedAvailabilityCalendar calendar;
+    private LocalDate today;
+    
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        pgDetailsRepository = mock(PGDetailsRepository.class);
+        calendar = new BedAvailabilityCalendar(bookingRepository, pgDetailsRepository, null);
+        ReflectionTestUtils.setField(calendar, "horizonDays", HORIZON);
+        ReflectionTestUtils.setField(calendar, "ttlMinutes", 60L);
+        today = LocalDate.now();
+        // Two double-sharing rooms: four beds
+        when(pgDetailsRepository.findRoomCapacityByPgId(PG_ID)).thenReturn(Optional.of(new RoomCapacity(PG_ID, 0, 2, 0, 0)));
+        when(bookingRepository.findHoldingSpansInWindow(anyLong(), any(), any(), any())).thenReturn(List.of());
+    }
+    
+    private BookingSpan span(long id, int fromDay, int toDay, Booking.BookingStatus status) {
+        return new BookingSpan(id, PG_ID, "101", Booking.RoomType.DOUBLE_SHARING,
+            today.plusDays(fromDay), today.plusDays(toDay), status);
+    }
+    
+    private void publish(BookingSpan span, Booking.BookingStatus previousStatus) {
+        calendar.onBookingChanged(new BookingChangedEvent(span, previousStatus, Booking.PaymentStatus.PENDING, null));
+    }
+    
+    private int[] freeDoubleBeds() {
+        return calendar.getAvailability(PG_ID, HORIZON).get(Booking.RoomType.DOUBLE_SHARING);
+    }
+    
+    @Test
+    void bookingReservesItsNightsAndCancellationReleasesThem() {
+        assertThat(freeDoubleBeds()).containsOnly(4);
+        
+        publish(span(7, 2, 5, Booking.BookingStatus.CONFIRMED), null);
+        assertThat(freeDoubleBeds()).containsExactly(4, 4, 3, 3, 3, 4, 4, 4, 4, 4);
+        
+        publish(span(7, 2, 5, Booking.BookingStatus.CANCELLED), Booking.BookingStatus.CONFIRMED);
+        assertThat(freeDoubleBeds()).containsOnly(4);
+    }
+    
+    @Test
+    void changedStayMovesTheReservation() {
+        freeDoubleBeds();
+        publish(span(7, 0, 2, Booking.BookingStatus.CONFIRMED), null);
+        publish(span(7, 3, 4, Booking.BookingStatus.CONFIRMED), Booking.BookingStatus.CONFIRMED);
+        
+        assertThat(freeDoubleBeds()).containsExactly(4, 4, 4, 3, 4, 4, 4, 4, 4, 4);
+    }
+    
+    @Test
+    void staysAreClippedToTheHorizon() {
+        freeDoubleBeds();
+        publish(span(1, -3, 1, Booking.BookingStatus.ACTIVE), null);
+        publish(span(2, HORIZON - 1, HORIZON + 30, Booking.BookingStatus.CONFIRMED), null);
+        publish(span(3, HORIZON, HORIZON + 5, Booking.BookingStatus.CONFIRMED), null);
+        
+        int[] free = freeDoubleBeds();
+        assertThat(free).hasSize(HORIZON);
+        assertThat(free[0]).isEqualTo(3);
+        assertThat(free[1]).isEqualTo(4);
+        assertThat(free[HORIZON - 1]).isEqualTo(3);
+        assertThat(calendar.getAvailability(PG_ID, HORIZON + 20).get(Booking.RoomType.DOUBLE_SHARING)).hasSize(HORIZON);
+    }
+    
+    @Test
+    void capacityChangeReloadsTheCalendar() {
+        assertThat(calendar.getCapacity(PG_ID)).containsEntry(Booking.RoomType.DOUBLE_SHARING, 4);
+        when(pgDetailsRepository.findRoomCapacityByPgId(PG_ID)).thenReturn(Optional.of(new RoomCapacity(PG_ID, 0, 3, 0, 0)));
+        
+        assertThat(calendar.getCapacity(PG_ID)).containsEntry(Booking.RoomType.DOUBLE_SHARING, 4);
+        calendar.onRoomCapacityChanged(new RoomCapacityChangedEvent(PG_ID));
+        
+        assertThat(calendar.getCapacity(PG_ID)).containsEntry(Booking.RoomType.DOUBLE_SHARING, 6);
+        verify(pgDetailsRepository, times(2)).findRoomCapacityByPgId(PG_ID);
+    }
+}
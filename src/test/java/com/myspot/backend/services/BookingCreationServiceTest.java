@@ -0,0 +1,220 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.BookingSpan;
+import com.myspot.backend.dto.request.CreateBookingRequest;
+import com.myspot.backend.entities.Booking;
+import com.myspot.backend.entities.BookingRoomLock;
+import com.myspot.backend.entities.Guest;
+import com.myspot.backend.entities.PGManagementOwner;
+import com.myspot.backend.repository.BookingRepository;
+import com.myspot.backend.repository.BookingRoomLockRepository;
+import com.myspot.backend.repository.GuestRepository;
+import com.myspot.backend.repository.PGManagementOwnerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the real BookingCreationService against mocked repositories backed by a deliberately
+ * unsynchronised in-memory store, so only the service's own locking keeps rooms from overbooking.
+ */
+class BookingCreationServiceTest {
+    
+    private static final Long PG_ID = 1L;
+    private static final int ROOMS = 20;
+    private static final int DAYS = 30;
+    private static final LocalDate BASE = LocalDate.of(2025, 1, 1);
+    
+    private final Map<String, List<BookingSpan>> store = new HashMap<>();
+    private final Set<String> lockRows = ConcurrentHashMap.newKeySet();
+    private final AtomicLong bookingIds = new AtomicLong();
+    private BookingRoomLockRepository bookingRoomLockRepository;
+    private PlatformTransactionManager transactionManager;
+    private BookingCreationService service;
+    
+    @BeforeEach
+    void setUp() {
+        PGManagementOwner owner = PGManagementOwner.builder().pgId(PG_ID).build();
+        Guest guest = Guest.builder().guestId(7L).pgManagementOwner(owner).fullName("Test Guest").build();
+        
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        GuestRepository guestRepository = mock(GuestRepository.class);
+        PGManagementOwnerRepository pgManagementOwnerRepository = mock(PGManagementOwnerRepository.class);
+        bookingRoomLockRepository = mock(BookingRoomLockRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        
+        when(guestRepository.findById(7L)).thenReturn(Optional.of(guest));
+        when(pgManagementOwnerRepository.getReferenceById(PG_ID)).thenReturn(owner);
+        when(bookingRepository.findOverlappingInRoom(eq(PG_ID), anyString(), any(), any(), any()))
+            .thenAnswer(invocation -> {
+                LocalDate checkIn = invocation.getArgument(3);
+                LocalDate checkOut = invocation.getArgument(4);
+                return store.getOrDefault(invocation.<String>getArgument(1), List.of()).stream()
+                    .filter(span -> span.checkInDate().isBefore(checkOut) && span.checkOutDate().isAfter(checkIn))
+                    .toList();
+            });
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            Booking booking = invocation.getArgument(0);
+            booking.setBookingId(bookingIds.incrementAndGet());
+            store.computeIfAbsent(booking.getRoomNumber(), room -> new ArrayList<>())
+                .add(new BookingSpan(booking.getBookingId(), PG_ID, booking.getRoomNumber(), booking.getRoomType(),
+                    booking.getCheckInDate(), booking.getCheckOutDate(), booking.getStatus()));
+            return booking;
+        });
+        when(bookingRoomLockRepository.existsById(any(BookingRoomLock.Key.class)))
+            .thenAnswer(invocation -> lockRows.contains(invocation.<BookingRoomLock.Key>getArgument(0).getRoomNumber()));
+        when(bookingRoomLockRepository.insertIfMissing(eq(PG_ID), anyString()))
+            .thenAnswer(invocation -> lockRows.add(invocation.getArgument(1)) ? 1 : 0);
+        when(bookingRoomLockRepository.lockNoWait(eq(PG_ID), anyString()))
+            .thenAnswer(invocation -> lockRows.contains(invocation.<String>getArgument(1))
+                ? List.of(invocation.<String>getArgument(1)) : List.of());
+        
+        service = new BookingCreationService(bookingRepository, guestRepository, pgManagementOwnerRepository,
+            bookingRoomLockRepository, new RoomLockStripes(64, 50), new BookingReferenceGenerator(1L, System::currentTimeMillis),
+            mock(BookingService.class), mock(ApplicationEventPublisher.class), transactionManager);
+    }
+    
+    @Test
+    void parallelOverlappingBookingsNeverOverbookARoom() throws InterruptedException {
+        int threads = 16;
+        int attemptsPerThread = 200;
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    int checkIn = random.nextInt(DAYS);
+                    try {
+                        service.createBooking(PG_ID, request("R" + random.nextInt(ROOMS), checkIn, checkIn + 1 + random.nextInt(5)));
+                        booked.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        
+        assertThat(booked.get() + rejected.get()).isEqualTo(threads * attemptsPerThread);
+        assertThat(booked.get()).isEqualTo(store.values().stream().mapToInt(List::size).sum());
+        for (List<BookingSpan> stays : store.values()) {
+            int[] occupied = new int[DAYS + 6];
+            for (BookingSpan stay : stays) {
+                for (long night = stay.startDay(); night < stay.endDay(); night++) {
+                    occupied[(int) (night - BASE.toEpochDay())]++;
+                }
+            }
+            for (int beds : occupied) {
+                assertThat(beds).isLessThanOrEqualTo(Booking.RoomType.DOUBLE_SHARING.getBedsPerRoom());
+            }
+        }
+    }
+    
+    @Test
+    void firstBookingForRoomCreatesLockRowBeforeTheBookingTransaction() {
+        service.createBooking(PG_ID, request("101", 0, 3));
+        
+        InOrder order = inOrder(bookingRoomLockRepository, transactionManager);
+        order.verify(bookingRoomLockRepository).insertIfMissing(PG_ID, "101");
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(bookingRoomLockRepository).lockNoWait(PG_ID, "101");
+        order.verify(bookingRoomLockRepository, never()).insertIfMissing(anyLong(), anyString());
+    }
+    
+    @Test
+    void existingLockRowIsNotInsertedAgain() {
+        lockRows.add("101");
+        
+        service.createBooking(PG_ID, request("101", 0, 3));
+        
+        verify(bookingRoomLockRepository, never()).insertIfMissing(anyLong(), anyString());
+    }
+    
+    @Test
+    void roomLockedByAnotherNodeIsReportedAsBusy() {
+        when(bookingRoomLockRepository.lockNoWait(PG_ID, "101")).thenThrow(new CannotAcquireLockException("NOWAIT"));
+        
+        assertThatThrownBy(() -> service.createBooking(PG_ID, request("101", 0, 3)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("being booked by another request");
+        assertThat(store).isEmpty();
+    }
+    
+    @Test
+    void stayAcrossDisjointBookingsFitsWhenABedIsFreeEveryNight() {
+        service.createBooking(PG_ID, request("101", 1, 3));
+        service.createBooking(PG_ID, request("101", 5, 7));
+        
+        service.createBooking(PG_ID, request("101", 1, 7));
+        
+        assertThat(store.get("101")).hasSize(3);
+        assertThatThrownBy(() -> service.createBooking(PG_ID, request("101", 2, 6)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("no free bed");
+    }
+    
+    @Test
+    void peakCountsOnlyNightsInsideTheRequestedStay() {
+        List<BookingSpan> spans = List.of(span(0, 4), span(2, 6), span(6, 9), span(3, 5));
+        
+        assertThat(BookingCreationService.peakBedsTaken(spans, BASE, BASE.plusDays(10))).isEqualTo(3);
+        assertThat(BookingCreationService.peakBedsTaken(spans, BASE.plusDays(5), BASE.plusDays(10))).isEqualTo(1);
+        assertThat(BookingCreationService.peakBedsTaken(List.of(), BASE, BASE.plusDays(1))).isZero();
+    }
+    
+    private static BookingSpan span(int checkIn, int checkOut) {
+        return new BookingSpan(null, PG_ID, "101", Booking.RoomType.TRIPLE_SHARING, BASE.plusDays(checkIn),
+            BASE.plusDays(checkOut), Booking.BookingStatus.CONFIRMED);
+    }
+    
+    private static CreateBookingRequest request(String roomNumber, int checkIn, int checkOut) {
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setGuestId(7L);
+        request.setRoomNumber(roomNumber);
+        request.setRoomType("double_sharing");
+        request.setCheckInDate(BASE.plusDays(checkIn));
+        request.setCheckOutDate(BASE.plusDays(checkOut));
+        request.setBaseAmount(BigDecimal.valueOf(5000));
+        return request;
+    }
+}
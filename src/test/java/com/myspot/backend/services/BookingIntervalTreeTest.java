@@ -0,0 +1,117 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.BookingSpan;
+import com.myspot.backend.entities.Booking;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the interval tree against a linear scan using the same predicates as
+ * BookingRepository.findBookingsActiveInMonth and findCurrentActiveBookings.
+ */
+class BookingIntervalTreeTest {
+    
+    private static final LocalDate BASE = LocalDate.of(2025, 1, 1);
+    
+    @Test
+    void stabbingMatchesCurrentActivePredicate() {
+        Random random = new Random(42);
+        List<BookingSpan> spans = randomSpans(random, 2_000);
+        BookingIntervalTree tree = build(spans);
+        
+        for (int i = 0; i < 500; i++) {
+            LocalDate day = BASE.plusDays(random.nextInt(400));
+            List<BookingSpan> expected = scan(spans,
+                b -> !b.checkInDate().isAfter(day) && !b.checkOutDate().isBefore(day));
+            assertThat(sorted(tree.stab(day.toEpochDay()))).isEqualTo(expected);
+        }
+    }
+    
+    @Test
+    void overlapMatchesActiveInMonthPredicate() {
+        Random random = new Random(7);
+        List<BookingSpan> spans = randomSpans(random, 2_000);
+        BookingIntervalTree tree = build(spans);
+        
+        for (int i = 0; i < 500; i++) {
+            LocalDate monthStart = BASE.plusDays(random.nextInt(400));
+            LocalDate monthEnd = monthStart.plusDays(random.nextInt(40));
+            List<BookingSpan> expected = scan(spans,
+                b -> !b.checkInDate().isAfter(monthEnd) && !b.checkOutDate().isBefore(monthStart));
+            assertThat(sorted(tree.overlapping(monthStart.toEpochDay(), monthEnd.toEpochDay()))).isEqualTo(expected);
+        }
+    }
+    
+    @Test
+    void removalKeepsQueriesConsistent() {
+        Random random = new Random(99);
+        List<BookingSpan> spans = new ArrayList<>(randomSpans(random, 1_000));
+        BookingIntervalTree tree = build(spans);
+        
+        for (int i = 0; i < 600; i++) {
+            BookingSpan removed = spans.remove(random.nextInt(spans.size()));
+            assertThat(tree.remove(removed.startDay(), removed.bookingId())).isTrue();
+        }
+        assertThat(tree.size()).isEqualTo(spans.size());
+        
+        for (int i = 0; i < 200; i++) {
+            LocalDate from = BASE.plusDays(random.nextInt(400));
+            LocalDate to = from.plusDays(random.nextInt(30));
+            List<BookingSpan> expected = scan(spans,
+                b -> !b.checkInDate().isAfter(to) && !b.checkOutDate().isBefore(from));
+            assertThat(sorted(tree.overlapping(from.toEpochDay(), to.toEpochDay()))).isEqualTo(expected);
+        }
+    }
+    
+    @Test
+    void sameDayTurnoverIsNotAConflict() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.insert(span(1L, BASE, BASE.plusDays(10)));
+        
+        LocalDate checkIn = BASE.plusDays(10);
+        LocalDate checkOut = BASE.plusDays(12);
+        assertThat(tree.overlapping(checkIn.toEpochDay() + 1, checkOut.toEpochDay() - 1)).isEmpty();
+        
+        LocalDate earlyCheckIn = BASE.plusDays(9);
+        assertThat(tree.overlapping(earlyCheckIn.toEpochDay() + 1, checkOut.toEpochDay() - 1)).hasSize(1);
+    }
+    
+    private static List<BookingSpan> randomSpans(Random random, int count) {
+        List<BookingSpan> spans = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            LocalDate checkIn = BASE.plusDays(random.nextInt(365));
+            spans.add(span(id, checkIn, checkIn.plusDays(random.nextInt(90))));
+        }
+        return spans;
+    }
+    
+    private static BookingSpan span(Long id, LocalDate checkIn, LocalDate checkOut) {
+        return new BookingSpan(id, 1L, "101", Booking.RoomType.DOUBLE_SHARING,
+            checkIn, checkOut, Booking.BookingStatus.CONFIRMED);
+    }
+    
+    private static BookingIntervalTree build(List<BookingSpan> spans) {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        spans.forEach(tree::insert);
+        return tree;
+    }
+    
+    private static List<BookingSpan> scan(List<BookingSpan> spans, Predicate<BookingSpan> predicate) {
+        return sorted(spans.stream().filter(predicate).collect(Collectors.toList()));
+    }
+    
+    private static List<BookingSpan> sorted(List<BookingSpan> spans) {
+        return spans.stream()
+            .sorted(Comparator.comparing(BookingSpan::bookingId))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,124 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.BookingEvent;
+import com.myspot.backend.entities.ProjectionCheckpoint;
+import com.myspot.backend.repository.BookingEventRepository;
+import com.myspot.backend.repository.ProjectionCheckpointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingProjectionRunnerTest {
+    
+    private static final String NAME = "test";
+    
+    private final List<BookingEvent> committed = new ArrayList<>();
+    private final List<Long> applied = new ArrayList<>();
+    private ProjectionCheckpoint checkpoint;
+    private BookingProjectionRunner runner;
+    private BookingProjection projection;
+    
+    @BeforeEach
+    void setUp() {
+        BookingEventRepository bookingEventRepository = mock(BookingEventRepository.class);
+        ProjectionCheckpointRepository checkpointRepository = mock(ProjectionCheckpointRepository.class);
+        checkpoint = ProjectionCheckpoint.builder().projectionName(NAME).lastEventId(0L).build();
+        when(checkpointRepository.findForUpdate(NAME)).thenAnswer(invocation -> Optional.of(checkpoint));
+        when(bookingEventRepository.findByEventIdGreaterThanOrderByEventId(anyLong(), any(Pageable.class)))
+            .thenAnswer(invocation -> committed.stream()
+                .filter(event -> event.getEventId() > (Long) invocation.getArgument(0))
+                .limit(((Pageable) invocation.getArgument(1)).getPageSize())
+                .toList());
+        when(bookingEventRepository.findByEventIdBetweenOrderByEventId(anyLong(), anyLong()))
+            .thenAnswer(invocation -> committed.stream()
+                .filter(event -> event.getEventId() >= (Long) invocation.getArgument(0)
+                    && event.getEventId() <= (Long) invocation.getArgument(1))
+                .toList());
+        
+        projection = new BookingProjection() {
+            @Override
+            public String getName() {
+                return NAME;
+            }
+            
+            @Override
+            public void apply(List<BookingEvent> events) {
+                events.forEach(event -> applied.add(event.getEventId()));
+            }
+        };
+        runner = new BookingProjectionRunner(List.of(projection), bookingEventRepository, checkpointRepository,
+            mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(runner, "batchSize", 500);
+        ReflectionTestUtils.setField(runner, "gapTimeoutMinutes", 60L);
+        ReflectionTestUtils.setField(runner, "maxGaps", 200);
+    }
+    
+    @Test
+    void lateCommitWithOldOccurredAtIsStillApplied() {
+        commit(1, LocalDateTime.now().minusHours(2));
+        commit(3, LocalDateTime.now());
+        runner.run(projection);
+        
+        assertThat(applied).containsExactly(1L, 3L);
+        assertThat(checkpoint.getLastEventId()).isEqualTo(3L);
+        assertThat(checkpoint.getPendingGaps()).startsWith("2-2@");
+        
+        // Event 2 was written two hours ago but only commits now
+        commit(2, LocalDateTime.now().minusHours(2));
+        runner.run(projection);
+        
+        assertThat(applied).containsExactly(1L, 3L, 2L);
+        assertThat(checkpoint.getPendingGaps()).isNull();
+    }
+    
+    @Test
+    void gapIsDroppedOnlyAfterTimeoutSinceItWasNoticed() {
+        commit(1, LocalDateTime.now());
+        commit(4, LocalDateTime.now());
+        long noticed = System.currentTimeMillis() / 1000;
+        checkpoint.setLastEventId(3L);
+        checkpoint.setPendingGaps("2-3@" + noticed);
+        applied.add(1L);
+        
+        runner.run(projection);
+        
+        assertThat(checkpoint.getPendingGaps()).isEqualTo("2-3@" + noticed);
+        
+        checkpoint.setPendingGaps("2-3@" + (noticed - 61 * 60));
+        runner.run(projection);
+        
+        assertThat(checkpoint.getPendingGaps()).isNull();
+        assertThat(applied).containsExactly(1L, 4L);
+    }
+    
+    @Test
+    void fillingMiddleOfRangeKeepsBothSides() {
+        EventGaps gaps = EventGaps.parse("10-14@100");
+        
+        assertThat(gaps.fill(12)).isTrue();
+        assertThat(gaps.fill(20)).isFalse();
+        assertThat(gaps.format()).isEqualTo("10-11@100,13-14@100");
+        
+        gaps.open(16, 16, 200);
+        assertThat(gaps.expire(250, 100)).extracting(EventGaps.Range::from).containsExactly(10L, 13L);
+        assertThat(gaps.trim(0)).extracting(EventGaps.Range::from).containsExactly(16L);
+    }
+    
+    private void commit(long eventId, LocalDateTime occurredAt) {
+        committed.add(BookingEvent.builder().eventId(eventId).occurredAt(occurredAt).build());
+        committed.sort((a, b) -> Long.compare(a.getEventId(), b.getEventId()));
+    }
+}
@@ -0,0 +1,125 @@
+package com.myspot.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookingReferenceGeneratorTest {
+    
+    private static final long NOW = BookingReferenceGenerator.EPOCH_MILLIS + 86_400_000L * 500;
+    
+    @Test
+    void referencesFitTheColumnAndSortByCreation() {
+        BookingReferenceGenerator generator = new BookingReferenceGenerator(7, System::currentTimeMillis);
+        
+        String previous = "";
+        for (int i = 0; i < 10_000; i++) {
+            String reference = generator.nextReference(123L);
+            assertThat(reference).hasSize(18).startsWith("BK").endsWith("03F");
+            assertThat(reference).isGreaterThan(previous);
+            previous = reference;
+        }
+    }
+    
+    @Test
+    void frozenOrBackwardClockStillYieldsIncreasingIds() {
+        AtomicLong clock = new AtomicLong(NOW);
+        BookingReferenceGenerator generator = new BookingReferenceGenerator(1, clock::get);
+        
+        long previous = generator.nextId();
+        // More than one millisecond's worth of sequence numbers with the clock stopped
+        for (int i = 0; i < 3 * (BookingReferenceGenerator.SEQUENCE_MASK + 1); i++) {
+            if (i == 5_000) {
+                clock.addAndGet(-10_000);
+            }
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+    }
+    
+    @Test
+    void concurrentCallersNeverCollide() throws InterruptedException {
+        BookingReferenceGenerator generator = new BookingReferenceGenerator(3, System::currentTimeMillis);
+        Set<String> references = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 20_000; i++) {
+                    references.add(generator.nextReference(1L));
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(references).hasSize(8 * 20_000);
+    }
+    
+    @Test
+    void differentNodesNeverCollideInTheSameMillisecond() {
+        Set<Long> ids = new HashSet<>();
+        for (long node = 0; node <= BookingReferenceGenerator.MAX_NODE_ID; node++) {
+            BookingReferenceGenerator generator = new BookingReferenceGenerator(node, () -> NOW);
+            assertThat(ids.add(generator.nextId())).isTrue();
+        }
+        assertThatThrownBy(() -> new BookingReferenceGenerator(BookingReferenceGenerator.MAX_NODE_ID + 1, () -> NOW))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void unsetNodeIdIsClaimedAsAFreeLease() {
+        SchedulerLockService locks = mock(SchedulerLockService.class);
+        Set<String> taken = new HashSet<>();
+        for (long node = 0; node < BookingReferenceGenerator.MAX_NODE_ID; node++) {
+            taken.add("booking-ref-node-" + node);
+        }
+        when(locks.tryAcquire(anyString(), any())).thenAnswer(invocation -> !taken.contains(invocation.<String>getArgument(0)));
+        
+        BookingReferenceGenerator generator = new BookingReferenceGenerator(-1, Duration.ofMinutes(10), locks, () -> NOW);
+        
+        assertThat(generator.getNodeId()).isEqualTo(BookingReferenceGenerator.MAX_NODE_ID);
+        taken.add("booking-ref-node-" + BookingReferenceGenerator.MAX_NODE_ID);
+        assertThatThrownBy(() -> new BookingReferenceGenerator(-1, Duration.ofMinutes(10), locks, () -> NOW))
+            .isInstanceOf(IllegalStateException.class);
+    }
+    
+    @Test
+    void referencesPauseWhenTheLeaseIsNotRenewedAndResumeAfterANewClaim() {
+        SchedulerLockService locks = mock(SchedulerLockService.class);
+        when(locks.tryAcquire(anyString(), any())).thenReturn(true);
+        AtomicLong clock = new AtomicLong(NOW);
+        BookingReferenceGenerator generator = new BookingReferenceGenerator(-1, Duration.ofMinutes(10), locks, clock::get);
+        generator.nextId();
+        
+        clock.addAndGet(Duration.ofMinutes(5).toMillis());
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+        
+        when(locks.renew(anyString(), any())).thenReturn(false);
+        generator.renewNodeId();
+        assertThat(generator.nextId()).isPositive();
+    }
+}
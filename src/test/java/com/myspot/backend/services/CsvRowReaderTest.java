@@ -0,0 +1,59 @@
+package com.myspot.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvRowReaderTest {
+    
+    @Test
+    void readsBackWhatCsvRowWriterWrites() throws IOException {
+        List<List<String>> rows = List.of(
+            List.of("fullName", "emailAddress", "notes"),
+            List.of("Priya Nair", "priya@mail.com", "says \"hi\", often"),
+            List.of("Rohan Iyer", "", "line one\r\nline two"),
+            List.of("", "", ""));
+        StringWriter out = new StringWriter();
+        CsvRowWriter writer = new CsvRowWriter(out);
+        for (List<String> row : rows) {
+            for (String field : row) {
+                writer.field(field);
+            }
+            writer.endRow();
+        }
+        
+        CsvRowReader reader = new CsvRowReader(new StringReader(out.toString()));
+        List<List<String>> read = new ArrayList<>();
+        List<String> row;
+        while ((row = reader.next()) != null) {
+            read.add(row);
+        }
+        
+        assertThat(read).isEqualTo(rows);
+        assertThat(reader.getRowNumber()).isEqualTo(4);
+    }
+    
+    @Test
+    void skipsBlankLinesAndAcceptsBareLineFeeds() throws IOException {
+        CsvRowReader reader = new CsvRowReader(new StringReader("a,b\n\n\nc,d"));
+        
+        assertThat(reader.next()).containsExactly("a", "b");
+        assertThat(reader.next()).containsExactly("c", "d");
+        assertThat(reader.getRowNumber()).isEqualTo(2);
+        assertThat(reader.next()).isNull();
+    }
+    
+    @Test
+    void rejectsUnterminatedQuotes() {
+        CsvRowReader reader = new CsvRowReader(new StringReader("a,\"b\nc"));
+        
+        assertThatThrownBy(reader::next).isInstanceOf(IOException.class).hasMessageContaining("row 1");
+    }
+}
@@ -0,0 +1,32 @@
+package com.myspot.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvRowWriterTest {
+    
+    @Test
+    void quotesOnlyFieldsThatNeedIt() throws IOException {
+        StringWriter out = new StringWriter();
+        
+        new CsvRowWriter(out).row("plain", "a,b", "says \"hi\"", "two\nlines", "cr\rhere", "");
+        
+        assertThat(out.toString()).isEqualTo("plain,\"a,b\",\"says \"\"hi\"\"\",\"two\nlines\",\"cr\rhere\",\r\n");
+    }
+    
+    @Test
+    void nullsAreEmptyFieldsAndOtherValuesUseToString() throws IOException {
+        StringWriter out = new StringWriter();
+        CsvRowWriter writer = new CsvRowWriter(out);
+        
+        writer.field(null).field(new BigDecimal("12.50")).field(null).endRow();
+        writer.field(true).field(null).endRow();
+        
+        assertThat(out.toString()).isEqualTo(",12.50,\r\ntrue,\r\n");
+    }
+}
@@ -0,0 +1,125 @@
+package com.myspot.backend.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ExportServiceTest {
+    
+    private Connection connection;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private ExportService exportService;
+    
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        
+        exportService = new ExportService(dataSource, Integer.MIN_VALUE);
+    }
+    
+    private static List<List<String>> gunzipCsv(byte[] bytes) throws IOException {
+        CsvRowReader reader = new CsvRowReader(new InputStreamReader(
+            new GZIPInputStream(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8));
+        List<List<String>> rows = new ArrayList<>();
+        List<String> row;
+        while ((row = reader.next()) != null) {
+            rows.add(row);
+        }
+        return rows;
+    }
+    
+    @Test
+    void streamsHeaderAndRowsAsGzipCsv() throws Exception {
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getString(anyInt())).thenAnswer(invocation -> "v" + invocation.getArgument(0, Integer.class));
+        when(resultSet.getString(2)).thenReturn("Nair, Priya", "Rohan \"Ro\" Iyer");
+        when(resultSet.getString(3)).thenReturn(null, "rohan@mail.com");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        long rows = exportService.exportGuests(7L, out);
+        
+        List<List<String>> csv = gunzipCsv(out.toByteArray());
+        assertThat(rows).isEqualTo(2);
+        assertThat(csv).hasSize(3);
+        assertThat(csv.get(0)).hasSize(19).startsWith("Guest ID", "Full Name", "Email Address");
+        assertThat(csv.get(1)).hasSize(19).startsWith("v1", "Nair, Priya", "", "v4");
+        assertThat(csv.get(2)).hasSize(19).startsWith("v1", "Rohan \"Ro\" Iyer", "rohan@mail.com");
+        verify(statement).setFetchSize(Integer.MIN_VALUE);
+        verify(statement).setLong(1, 7L);
+        var order = inOrder(connection);
+        order.verify(connection).setReadOnly(true);
+        order.verify(connection).setReadOnly(false);
+    }
+    
+    @Test
+    void failedQueryLeavesTheDownloadTruncated() throws Exception {
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(anyInt())).thenReturn("v");
+        when(resultSet.getString(5)).thenReturn("101").thenThrow(new SQLException("Connection reset"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        assertThatThrownBy(() -> exportService.exportBookings(7L, out)).isInstanceOf(DataAccessException.class);
+        
+        assertThatThrownBy(() -> gunzipCsv(out.toByteArray())).isInstanceOf(EOFException.class);
+    }
+    
+    @Test
+    void clientDisconnectCancelsTheQuery() throws Exception {
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(anyInt())).thenAnswer(invocation -> UUID.randomUUID().toString());
+        // Accepts the gzip header, then fails like a closed connection
+        OutputStream out = new OutputStream() {
+            private int written;
+            
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+            
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                if (written + length > 10) {
+                    throw new IOException("Broken pipe");
+                }
+                written += length;
+            }
+        };
+        
+        assertThatThrownBy(() -> exportService.exportBookings(7L, out)).isInstanceOf(IOException.class).hasMessage("Broken pipe");
+        
+        verify(statement).cancel();
+    }
+}
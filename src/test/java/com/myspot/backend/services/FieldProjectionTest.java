@@ -0,0 +1,42 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.Guest;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FieldProjectionTest {
+    
+    @Test
+    void selectsOnlyTheColumnsRequestedFieldsNeed() {
+        FieldProjection.Fields fields = GuestService.LIST_FIELDS.parse("fullName, guestStatus,isCurrentGuest,fullName");
+        
+        assertThat(fields.names()).containsExactly("fullName", "guestStatus", "isCurrentGuest");
+        assertThat(fields.paths()).containsExactly("fullName", "guestStatus", "checkInDate", "checkOutDate");
+        assertThat(GuestService.LIST_FIELDS.parse(" , ")).isNull();
+    }
+    
+    @Test
+    void rowsContainExactlyTheRequestedFieldsInOrder() {
+        FieldProjection.Fields fields = GuestService.LIST_FIELDS.parse("isCurrentGuest,guestStatus,fullName");
+        
+        Map<String, Object> row = GuestService.LIST_FIELDS.toRow(fields,
+            new Object[] {Guest.GuestStatus.ACTIVE, LocalDate.now().minusDays(3), null, "Priya Nair"});
+        
+        assertThat(row).containsExactly(
+            Map.entry("isCurrentGuest", true),
+            Map.entry("guestStatus", "ACTIVE"),
+            Map.entry("fullName", "Priya Nair"));
+    }
+    
+    @Test
+    void rejectsFieldsOutsideTheWhitelist() {
+        assertThatThrownBy(() -> BookingService.LIST_FIELDS.parse("bookingId,pgManagementOwner"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageStartingWith("Unknown field: pgManagementOwner");
+    }
+}
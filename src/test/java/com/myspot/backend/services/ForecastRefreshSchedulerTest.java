@@ -0,0 +1,120 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.ForecastModel;
+import com.myspot.backend.repository.ForecastModelRepository;
+import com.myspot.backend.repository.PGManagementOwnerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.Invocation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ForecastRefreshSchedulerTest {
+    
+    private final LocalDate today = LocalDate.now();
+    private final LocalDate yesterday = today.minusDays(1);
+    private final Map<ForecastModel.Key, ForecastModel> stored = new HashMap<>();
+    private JdbcTemplate jdbcTemplate;
+    private ForecastService forecastService;
+    private ForecastRefreshScheduler scheduler;
+    
+    @BeforeEach
+    void setUp() {
+        ForecastModelRepository forecastModelRepository = mock(ForecastModelRepository.class);
+        PGManagementOwnerRepository pgManagementOwnerRepository = mock(PGManagementOwnerRepository.class);
+        SchedulerLockService schedulerLockService = mock(SchedulerLockService.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        forecastService = mock(ForecastService.class);
+        
+        when(schedulerLockService.tryAcquire(anyString(), any())).thenReturn(true);
+        when(pgManagementOwnerRepository.findIdsAfter(anyLong(), any())).thenReturn(List.of(1L, 2L, 3L));
+        when(forecastModelRepository.findByPgIdRange(1L, 3L)).thenAnswer(invocation -> new ArrayList<>(stored.values()));
+        when(forecastModelRepository.saveAll(any())).thenAnswer(invocation -> {
+            invocation.<Iterable<ForecastModel>>getArgument(0).forEach(row -> stored.put(row.getId(), row));
+            return null;
+        });
+        
+        scheduler = new ForecastRefreshScheduler(forecastModelRepository, pgManagementOwnerRepository, new LeasedJobRunner(schedulerLockService),
+            mock(PlatformTransactionManager.class), jdbcTemplate, forecastService);
+        ReflectionTestUtils.setField(scheduler, "chunkSize", 500);
+        ReflectionTestUtils.setField(scheduler, "historyDays", 365);
+        ReflectionTestUtils.setField(scheduler, "leaseMinutes", 10L);
+        ReflectionTestUtils.setField(scheduler, "enabled", true);
+    }
+    
+    @Test
+    void eachPgIsReadFromItsOwnLastDate() {
+        LocalDate current = today.minusDays(2);
+        LocalDate stale = today.minusDays(10);
+        store(1L, ForecastModel.Series.OCCUPANCY_RATE, 20, current);
+        store(1L, ForecastModel.Series.DAILY_REVENUE, 20, current);
+        store(2L, ForecastModel.Series.OCCUPANCY_RATE, 20, current);
+        store(2L, ForecastModel.Series.DAILY_REVENUE, 20, stale);
+        
+        scheduler.run();
+        
+        assertThat(historyReads()).containsExactlyInAnyOrder(
+            List.of(3L, Date.valueOf(today.minusDays(366)), Date.valueOf(today)),
+            List.of(2L, Date.valueOf(stale), Date.valueOf(today)),
+            List.of(1L, Date.valueOf(current), Date.valueOf(today)));
+        verify(forecastService).evictAll();
+    }
+    
+    @Test
+    void pgWithoutHistoryIsStoredEmptyAndNotSeededAgain() {
+        scheduler.run();
+        
+        ForecastModel revenue = stored.get(new ForecastModel.Key(3L, ForecastModel.Series.DAILY_REVENUE));
+        ForecastModel occupancy = stored.get(new ForecastModel.Key(3L, ForecastModel.Series.OCCUPANCY_RATE));
+        assertThat(revenue.getObservations()).isZero();
+        assertThat(revenue.getLastDate()).isEqualTo(yesterday);
+        assertThat(occupancy.getLastDate()).isEqualTo(yesterday);
+        
+        clearInvocations(jdbcTemplate);
+        scheduler.run();
+        
+        assertThat(historyReads()).isEmpty();
+    }
+    
+    private void store(Long pgId, ForecastModel.Series series, long observations, LocalDate lastDate) {
+        HoltWintersModel model = new HoltWintersModel();
+        ForecastModel.Key key = new ForecastModel.Key(pgId, series);
+        stored.put(key, ForecastModel.builder().id(key).level(50).seasonal(model.getSeasonal())
+            .observations(observations).lastDate(lastDate).build());
+    }
+    
+    /**
+     * Distinct argument lists of the history queries; the occupancy and revenue reads share them.
+     */
+    private List<List<Object>> historyReads() {
+        return mockingDetails(jdbcTemplate).getInvocations().stream()
+            .filter(invocation -> invocation.getMethod().getName().equals("query"))
+            .map(ForecastRefreshSchedulerTest::queryArgs)
+            .distinct()
+            .toList();
+    }
+    
+    private static List<Object> queryArgs(Invocation invocation) {
+        Object[] arguments = invocation.getRawArguments();
+        return Arrays.asList((Object[]) arguments[arguments.length - 1]);
+    }
+}
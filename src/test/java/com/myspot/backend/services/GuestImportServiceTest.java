@@ -0,0 +1,164 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.events.GuestsImportedEvent;
+import com.myspot.backend.repository.GuestRepository;
+import com.myspot.backend.repository.PGManagementOwnerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GuestImportServiceTest {
+    
+    private static final Long PG_ID = 1L;
+    private static final String HEADER = "fullName,emailAddress,phoneNumber\n";
+    
+    private GuestRepository guestRepository;
+    private JdbcTemplate jdbcTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private GuestImportService service;
+    
+    @BeforeEach
+    void setUp() {
+        guestRepository = mock(GuestRepository.class);
+        PGManagementOwnerRepository pgManagementOwnerRepository = mock(PGManagementOwnerRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        when(pgManagementOwnerRepository.existsById(PG_ID)).thenReturn(true);
+        when(guestRepository.findExistingEmails(anyCollection())).thenReturn(List.of());
+        when(guestRepository.findExistingPhones(eq(PG_ID), anyCollection())).thenReturn(List.of());
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any())).thenReturn(new int[0][]);
+        
+        service = new GuestImportService(guestRepository, pgManagementOwnerRepository, jdbcTemplate,
+            mock(PlatformTransactionManager.class), eventPublisher);
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "maxErrors", 100);
+    }
+    
+    @Test
+    void invalidAndDuplicateRowsAreReportedAndTheRestImported() throws Exception {
+        String csv = HEADER
+            + "Priya Nair,priya@mail.com,9876543210\n"
+            + "No Email,,9876543211\n"
+            + "Rohan Iyer,PRIYA@mail.com,9876543212\n"
+            + "Asha Rao,asha@mail.com,9876543213\n"
+            + "Vikram Das,vikram@mail.com,9876543214\n";
+        
+        Map<String, Object> result = service.importGuests(PG_ID, new StringReader(csv));
+        
+        assertThat(result).containsEntry("rows", 5).containsEntry("imported", 3).containsEntry("complete", true);
+        assertThat(errorRows(result)).containsExactly(3L, 4L);
+        verify(eventPublisher).publishEvent(new GuestsImportedEvent(PG_ID, 3));
+    }
+    
+    @Test
+    void guestsAlreadyRegisteredAreRejectedBeforeInsert() throws Exception {
+        when(guestRepository.findExistingEmails(anyCollection())).thenReturn(List.of("Asha@Mail.com"));
+        when(guestRepository.findExistingPhones(eq(PG_ID), anyCollection())).thenReturn(List.of("9876543214"));
+        String csv = HEADER
+            + "Priya Nair,priya@mail.com,9876543210\n"
+            + "Asha Rao,asha@mail.com,9876543213\n"
+            + "Vikram Das,vikram@mail.com,9876543214\n";
+        
+        Map<String, Object> result = service.importGuests(PG_ID, new StringReader(csv));
+        
+        assertThat(result).containsEntry("imported", 1);
+        assertThat(errorRows(result)).containsExactly(3L, 4L);
+        assertThat(errorMessages(result)).containsExactly(
+            "Email address cannot be used for a new guest: asha@mail.com",
+            "Phone number already registered in this PG: 9876543214");
+    }
+    
+    @Test
+    void phoneNumberOfAnotherPgsGuestIsAccepted() throws Exception {
+        String csv = HEADER + "Priya Nair,priya@mail.com,9876543210\n";
+        
+        Map<String, Object> result = service.importGuests(PG_ID, new StringReader(csv));
+        
+        assertThat(result).containsEntry("imported", 1);
+        verify(guestRepository).findExistingPhones(eq(PG_ID), anyCollection());
+    }
+    
+    @Test
+    void failedBatchIsRetriedRowByRowRejectingOnlyTheClash() throws Exception {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any()))
+            .thenThrow(new DataIntegrityViolationException("Duplicate entry"));
+        when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenAnswer(invocation -> {
+            PreparedStatement ps = mock(PreparedStatement.class);
+            List<String> bound = new ArrayList<>();
+            doAnswer(call -> bound.add(call.getArgument(1)))
+                .when(ps).setString(eq(5), any());
+            invocation.<PreparedStatementSetter>getArgument(1).setValues(ps);
+            if (bound.contains("asha@mail.com")) {
+                throw new DuplicateKeyException("Duplicate entry 'asha@mail.com'");
+            }
+            return 1;
+        });
+        String csv = HEADER
+            + "Priya Nair,priya@mail.com,9876543210\n"
+            + "Asha Rao,asha@mail.com,9876543213\n";
+        
+        Map<String, Object> result = service.importGuests(PG_ID, new StringReader(csv));
+        
+        assertThat(result).containsEntry("imported", 1);
+        assertThat(errorRows(result)).containsExactly(3L);
+    }
+    
+    @Test
+    void readErrorPartWayReturnsPartialReport() throws Exception {
+        String csv = HEADER
+            + "Priya Nair,priya@mail.com,9876543210\n"
+            + "Asha Rao,asha@mail.com,9876543213\n"
+            + "Vikram Das,vikram@mail.com,9876543214\n"
+            + "\"Broken,broken@mail.com,9876543215\n";
+        
+        Map<String, Object> result = service.importGuests(PG_ID, new StringReader(csv));
+        
+        assertThat(result).containsEntry("rows", 3).containsEntry("imported", 3)
+            .containsEntry("complete", false).containsEntry("stoppedAtRow", 5L);
+        assertThat((String) result.get("stopReason")).contains("Unterminated quoted field");
+        verify(eventPublisher).publishEvent(new GuestsImportedEvent(PG_ID, 3));
+    }
+    
+    @Test
+    void readErrorBeforeAnyRowImportsNothing() throws Exception {
+        Map<String, Object> result = service.importGuests(PG_ID, new StringReader(HEADER + "\"Broken,x@mail.com,9876543215\n"));
+        
+        assertThat(result).containsEntry("imported", 0).containsEntry("complete", false);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static List<String> errorMessages(Map<String, Object> result) {
+        return ((List<Map<String, Object>>) result.get("errors")).stream().map(error -> (String) error.get("message")).toList();
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static List<Long> errorRows(Map<String, Object> result) {
+        return ((List<Map<String, Object>>) result.get("errors")).stream().map(error -> (Long) error.get("row")).toList();
+    }
+}
@@ -0,0 +1,122 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.GuestDoc;
+import com.myspot.backend.entities.Guest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the index against a linear substring scan over randomly generated guests, including
+ * after updates and enough removals to trigger compaction.
+ */
+class GuestNgramIndexTest {
+    
+    private static final String[] FIRST = {"Aarav", "Priya", "Rohan", "Sneha", "Vikram", "Ananya", "Karan", "Meera"};
+    private static final String[] LAST = {"Sharma", "Patel", "Iyer", "Reddy", "Nair", "Gupta", "Khan", "Das"};
+    
+    @Test
+    void matchesLinearScanAfterRandomWrites() {
+        Random random = new Random(42);
+        GuestNgramIndex index = new GuestNgramIndex();
+        Map<Long, GuestDoc> live = new HashMap<>();
+        
+        for (long id = 1; id <= 5_000; id++) {
+            GuestDoc guest = randomGuest(random, id);
+            index.put(guest);
+            live.put(id, guest);
+        }
+        for (int i = 0; i < 3_000; i++) {
+            long id = 1 + random.nextInt(5_000);
+            if (random.nextBoolean()) {
+                index.remove(id);
+                live.remove(id);
+            } else {
+                GuestDoc guest = randomGuest(random, id);
+                index.put(guest);
+                live.put(id, guest);
+            }
+        }
+        assertThat(index.size()).isEqualTo(live.size());
+        
+        List<String> queries = new ArrayList<>(List.of("pr", "sharma", "ohan", "a", "98", "+91 98", "room-1", "@mail"));
+        for (int i = 0; i < 50; i++) {
+            GuestDoc sample = live.values().stream().skip(random.nextInt(live.size())).findFirst().orElseThrow();
+            String phone = sample.phoneNumber();
+            int start = random.nextInt(phone.length() - 4);
+            queries.add(phone.substring(start, start + 4));
+            queries.add(sample.fullName().substring(1, 4));
+        }
+        for (String query : queries) {
+            Set<Long> expected = live.values().stream()
+                .filter(guest -> linearMatch(guest, query))
+                .map(GuestDoc::guestId)
+                .collect(Collectors.toSet());
+            Set<Long> actual = index.search(query).stream()
+                .map(hit -> hit.guest().guestId())
+                .collect(Collectors.toSet());
+            assertThat(actual).as("query %s", query).isEqualTo(expected);
+        }
+    }
+    
+    @Test
+    void ranksExactAndPrefixMatchesFirst() {
+        GuestNgramIndex index = new GuestNgramIndex();
+        index.put(new GuestDoc(1L, 1L, "Rohan", "9000000001", "rohan@mail.com", "A1", Guest.GuestStatus.ACTIVE));
+        index.put(new GuestDoc(2L, 1L, "Mohan Das", "9000000002", "mohan@mail.com", "A2", Guest.GuestStatus.ACTIVE));
+        index.put(new GuestDoc(3L, 1L, "Priya Rohan", "9000000003", "priya@mail.com", "A3", Guest.GuestStatus.ACTIVE));
+        
+        List<GuestNgramIndex.Hit> hits = index.search("rohan");
+        
+        assertThat(hits).extracting(hit -> hit.guest().guestId()).containsExactly(1L, 3L);
+        assertThat(index.search("a2")).extracting(hit -> hit.guest().guestId()).containsExactly(2L);
+        assertThat(index.search("+91 90000 00003")).isEmpty();
+        assertThat(index.search("90000-00003")).extracting(hit -> hit.guest().guestId()).containsExactly(3L);
+    }
+    
+    /**
+     * Same semantics as the index without the index: queries of three or more characters match
+     * any substring of a field, shorter ones only the start of a field or of a word in it.
+     * Phone numbers are compared digits-only.
+     */
+    private static boolean linearMatch(GuestDoc guest, String query) {
+        String text = GuestNgramIndex.normaliseText(query);
+        String digits = GuestNgramIndex.queryDigits(query);
+        List<String> fields = List.of(GuestNgramIndex.normaliseText(guest.fullName()),
+            GuestNgramIndex.digitsOnly(guest.phoneNumber()),
+            GuestNgramIndex.normaliseText(guest.emailAddress()),
+            GuestNgramIndex.normaliseText(guest.roomNumber()));
+        for (String field : fields) {
+            if (matches(field, text) || (digits != null && matches(field, digits))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean matches(String field, String query) {
+        if (query.length() >= 3) {
+            return field.contains(query);
+        }
+        return field.startsWith(query) || Pattern.compile("[\\s@._+-]" + Pattern.quote(query)).matcher(field).find();
+    }
+    
+    private static GuestDoc randomGuest(Random random, long id) {
+        String first = FIRST[random.nextInt(FIRST.length)];
+        String last = LAST[random.nextInt(LAST.length)];
+        String phone = "+91 " + (90000 + random.nextInt(10000)) + " " + (10000 + random.nextInt(90000));
+        String email = first.toLowerCase(Locale.ROOT) + "." + last.toLowerCase(Locale.ROOT) + id + "@mail.com";
+        return new GuestDoc(id, 1L, first + " " + last, phone, email, "room-" + (1 + random.nextInt(60)),
+            Guest.GuestStatus.ACTIVE);
+    }
+}
@@ -0,0 +1,108 @@
+package com.myspot.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HoltWintersModelTest {
+    
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    
+    private static double weekly(LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY ? 90 : 60;
+    }
+    
+    @Test
+    void learnsWeeklySeason() {
+        HoltWintersModel model = new HoltWintersModel();
+        for (int day = 0; day < 140; day++) {
+            model.update(START.plusDays(day), weekly(START.plusDays(day)));
+        }
+        
+        LocalDate last = START.plusDays(139);
+        for (int ahead = 1; ahead <= 14; ahead++) {
+            LocalDate date = last.plusDays(ahead);
+            assertThat(model.forecast(date)).isCloseTo(weekly(date), within(3.0));
+        }
+    }
+    
+    @Test
+    void followsTrend() {
+        HoltWintersModel model = new HoltWintersModel();
+        for (int day = 0; day < 120; day++) {
+            model.update(START.plusDays(day), 100 + day * 2.0);
+        }
+        
+        LocalDate last = START.plusDays(119);
+        assertThat(model.forecast(last.plusDays(1))).isGreaterThan(model.getLevel());
+        assertThat(model.forecast(last.plusDays(30))).isGreaterThan(model.forecast(last.plusDays(1)));
+    }
+    
+    @Test
+    void ignoresReplayedDays() {
+        HoltWintersModel model = new HoltWintersModel();
+        assertThat(model.update(START, 50)).isTrue();
+        assertThat(model.update(START.plusDays(1), 55)).isTrue();
+        double level = model.getLevel();
+        
+        assertThat(model.update(START.plusDays(1), 999)).isFalse();
+        assertThat(model.update(START, 999)).isFalse();
+        assertThat(model.getLevel()).isEqualTo(level);
+        assertThat(model.getObservations()).isEqualTo(2);
+    }
+    
+    @Test
+    void skippedStartOnlyMovesAnEmptyModel() {
+        HoltWintersModel model = new HoltWintersModel();
+        model.skipUntil(START.plusDays(5));
+        
+        assertThat(model.getObservations()).isZero();
+        assertThat(model.forecast(START.plusDays(6))).isZero();
+        assertThat(model.update(START.plusDays(5), 40)).isFalse();
+        assertThat(model.update(START.plusDays(6), 40)).isTrue();
+        assertThat(model.getLevel()).isEqualTo(40);
+        
+        model.skipUntil(START.plusDays(10));
+        assertThat(model.getLastDate()).isEqualTo(START.plusDays(6));
+    }
+    
+    @Test
+    void restoredModelContinuesLikeTheOriginal() {
+        HoltWintersModel original = new HoltWintersModel();
+        for (int day = 0; day < 60; day++) {
+            original.update(START.plusDays(day), weekly(START.plusDays(day)) + day % 5);
+        }
+        HoltWintersModel restored = HoltWintersModel.restore(original.getLevel(), original.getTrend(),
+            original.getSeasonal(), original.getObservations(), original.getLastDate());
+        
+        for (int day = 60; day < 70; day++) {
+            original.update(START.plusDays(day), weekly(START.plusDays(day)));
+            restored.update(START.plusDays(day), weekly(START.plusDays(day)));
+        }
+        LocalDate next = START.plusDays(70);
+        assertThat(restored.forecast(next)).isCloseTo(original.forecast(next), within(1e-3));
+    }
+    
+    @Test
+    void skippedDaysKeepTheModelOnTrack() {
+        HoltWintersModel model = new HoltWintersModel();
+        for (int day = 0; day < 60; day++) {
+            if (day % 10 != 3) {
+                model.update(START.plusDays(day), 75);
+            }
+        }
+        
+        assertThat(model.forecast(START.plusDays(60))).isCloseTo(75, within(1.0));
+    }
+    
+    @Test
+    void rejectsMalformedSeasonalState() {
+        assertThatThrownBy(() -> HoltWintersModel.restore(1, 0, "1,2,3", 10, START))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
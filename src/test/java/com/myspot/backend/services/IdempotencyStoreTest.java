@@ -0,0 +1,59 @@
+package com.myspot.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdempotencyStoreTest {
+    
+    private final IdempotencyStore store = new IdempotencyStore(null, 100, 60, false);
+    
+    @Test
+    void duplicateWaitsForFirstRequestAndReceivesItsResponse() throws Exception {
+        IdempotencyStore.Claim first = store.claim("user:key-1", "fp");
+        IdempotencyStore.Claim duplicate = store.claim("user:key-1", "fp");
+        assertThat(first.owner()).isTrue();
+        assertThat(duplicate.owner()).isFalse();
+        assertThat(duplicate.response()).isNotDone();
+        
+        IdempotencyStore.StoredResponse response =
+            new IdempotencyStore.StoredResponse(200, "application/json", "{}".getBytes(StandardCharsets.UTF_8));
+        CompletableFuture.runAsync(() -> store.complete("user:key-1", response));
+        
+        assertThat(duplicate.response().get(5, TimeUnit.SECONDS)).isSameAs(response);
+        assertThat(store.claim("user:key-1", "fp").response().getNow(null)).isSameAs(response);
+    }
+    
+    @Test
+    void reusingKeyForDifferentRequestIsRejected() {
+        store.claim("user:key-2", "fp-a");
+        assertThat(store.claim("user:key-2", "fp-b").fingerprintMismatch()).isTrue();
+    }
+    
+    @Test
+    void abandonedKeyReleasesWaitersAndCanBeClaimedAgain() {
+        store.claim("user:key-3", "fp");
+        IdempotencyStore.Claim waiter = store.claim("user:key-3", "fp");
+        
+        store.abandon("user:key-3");
+        
+        assertThat(waiter.response().getNow(new IdempotencyStore.StoredResponse(0, null, null))).isNull();
+        assertThat(store.claim("user:key-3", "fp").owner()).isTrue();
+    }
+    
+    @Test
+    void completedEntriesAreEvictedPastCapacityButInFlightOnesStay() {
+        IdempotencyStore small = new IdempotencyStore(null, 2, 60, false);
+        small.claim("in-flight", "fp");
+        for (int i = 0; i < 5; i++) {
+            small.claim("done-" + i, "fp");
+            small.complete("done-" + i, new IdempotencyStore.StoredResponse(200, null, new byte[0]));
+        }
+        assertThat(small.claim("in-flight", "fp").owner()).isFalse();
+        assertThat(small.claim("done-0", "fp").owner()).isTrue();
+    }
+}
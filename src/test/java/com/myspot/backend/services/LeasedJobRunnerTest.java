@@ -0,0 +1,84 @@
+package com.myspot.backend.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LeasedJobRunnerTest {
+    
+    private static final Duration LEASE = Duration.ofMinutes(10);
+    
+    private SchedulerLockService schedulerLockService;
+    private LeasedJobRunner runner;
+    
+    @BeforeEach
+    void setUp() {
+        schedulerLockService = mock(SchedulerLockService.class);
+        runner = new LeasedJobRunner(schedulerLockService);
+    }
+    
+    @Test
+    void chunksFollowTheLastIdAndStopOnAShortChunk() {
+        when(schedulerLockService.renew(anyString(), any())).thenReturn(true);
+        List<Long> cursors = new ArrayList<>();
+        
+        LeasedJobRunner.ChunkTotals totals = runner.runChunks("job", LEASE, 2, afterId -> {
+            cursors.add(afterId);
+            List<Long> ids = afterId == 0 ? List.of(3L, 7L) : afterId == 7 ? List.of(9L, 12L) : List.of(15L);
+            return LeasedJobRunner.ChunkResult.ofIds(ids, 1);
+        });
+        
+        assertThat(cursors).containsExactly(0L, 7L, 12L);
+        assertThat(totals).isEqualTo(new LeasedJobRunner.ChunkTotals(5, 3));
+        verify(schedulerLockService, times(2)).renew("job", LEASE);
+    }
+    
+    @Test
+    void lostLeaseStopsAfterTheCurrentChunk() {
+        List<Long> cursors = new ArrayList<>();
+        
+        LeasedJobRunner.ChunkTotals totals = runner.runChunks("job", LEASE, 2, afterId -> {
+            cursors.add(afterId);
+            return LeasedJobRunner.ChunkResult.ofIds(List.of(afterId + 1, afterId + 2), 2);
+        });
+        
+        assertThat(cursors).containsExactly(0L);
+        assertThat(totals).isEqualTo(new LeasedJobRunner.ChunkTotals(2, 2));
+    }
+    
+    @Test
+    void unleasedChunksNeverRenew() {
+        LeasedJobRunner.ChunkTotals totals = runner.runChunks(null, LEASE, 1, afterId ->
+            afterId < 3 ? LeasedJobRunner.ChunkResult.ofIds(List.of(afterId + 1), 0) : LeasedJobRunner.ChunkResult.EMPTY);
+        
+        assertThat(totals.scanned()).isEqualTo(3);
+        verify(schedulerLockService, never()).renew(any(), any());
+    }
+    
+    @Test
+    void leasedRunIsSkippedWhileAnotherNodeHoldsTheLease() {
+        AtomicBoolean ran = new AtomicBoolean();
+        
+        assertThat(runner.runLeased("job", LEASE, () -> ran.set(true))).isFalse();
+        assertThat(ran).isFalse();
+        verify(schedulerLockService, never()).release(any());
+        
+        when(schedulerLockService.tryAcquire("job", LEASE)).thenReturn(true);
+        assertThat(runner.runLeased("job", LEASE, () -> ran.set(true))).isTrue();
+        assertThat(ran).isTrue();
+        verify(schedulerLockService).release("job");
+    }
+}
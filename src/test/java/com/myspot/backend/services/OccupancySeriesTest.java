@@ -0,0 +1,80 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.OccupancySnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OccupancySeriesTest {
+    
+    private static OccupancySnapshot snapshot(LocalDate date, int doubleOccupied) {
+        return OccupancySnapshot.builder()
+            .id(new OccupancySnapshot.Key(1L, date))
+            .totalBeds(10)
+            .occupiedBeds(doubleOccupied)
+            .doubleTotal(10)
+            .doubleOccupied(doubleOccupied)
+            .activeGuests(doubleOccupied)
+            .build();
+    }
+    
+    private static List<OccupancySnapshot> days(LocalDate from, int... occupied) {
+        List<OccupancySnapshot> snapshots = new ArrayList<>();
+        for (int i = 0; i < occupied.length; i++) {
+            snapshots.add(snapshot(from.plusDays(i), occupied[i]));
+        }
+        return snapshots;
+    }
+    
+    @Test
+    void dayGranularityKeepsOnePointPerSnapshot() {
+        List<Map<String, Object>> points = OccupancySeries.downsample(
+            days(LocalDate.of(2026, 3, 1), 4, 6, 8), OccupancySeries.Granularity.DAY);
+        
+        assertThat(points).extracting(point -> point.get("period")).containsExactly("2026-03-01", "2026-03-02", "2026-03-03");
+        assertThat((BigDecimal) points.get(2).get("occupancyRate")).isEqualByComparingTo("80");
+    }
+    
+    @Test
+    void weeksStartOnMondayAndAverageTheirDays() {
+        // 2026-03-01 is a Sunday, so it closes the week starting 2026-02-23
+        List<Map<String, Object>> points = OccupancySeries.downsample(
+            days(LocalDate.of(2026, 3, 1), 2, 4, 6, 8), OccupancySeries.Granularity.WEEK);
+        
+        assertThat(points).hasSize(2);
+        assertThat(points.get(0).get("period")).isEqualTo("2026-02-23");
+        assertThat(points.get(0).get("days")).isEqualTo(1);
+        assertThat(points.get(1).get("period")).isEqualTo("2026-03-02");
+        assertThat((BigDecimal) points.get(1).get("averageOccupiedBeds")).isEqualByComparingTo("6.0");
+        assertThat(points.get(1).get("minOccupiedBeds")).isEqualTo(4);
+        assertThat(points.get(1).get("maxOccupiedBeds")).isEqualTo(8);
+        assertThat((BigDecimal) points.get(1).get("occupancyRate")).isEqualByComparingTo("60");
+    }
+    
+    @Test
+    void monthsSkipMissingDaysAndBreakDownRoomTypes() {
+        List<OccupancySnapshot> snapshots = new ArrayList<>(days(LocalDate.of(2026, 1, 30), 5, 7));
+        snapshots.addAll(days(LocalDate.of(2026, 2, 10), 9));
+        
+        List<Map<String, Object>> points = OccupancySeries.downsample(snapshots, OccupancySeries.Granularity.MONTH);
+        
+        assertThat(points).extracting(point -> point.get("period")).containsExactly("2026-01-01", "2026-02-01");
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> roomTypes = (Map<String, Map<String, Object>>) points.get(0).get("roomTypes");
+        assertThat((BigDecimal) roomTypes.get("DOUBLE_SHARING").get("averageOccupiedBeds")).isEqualByComparingTo("6.0");
+        assertThat((BigDecimal) roomTypes.get("SINGLE_SHARING").get("occupancyRate")).isEqualByComparingTo("0");
+    }
+    
+    @Test
+    void rejectsUnknownGranularity() {
+        assertThat(OccupancySeries.Granularity.parse(null)).isEqualTo(OccupancySeries.Granularity.DAY);
+        assertThatThrownBy(() -> OccupancySeries.Granularity.parse("hour")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
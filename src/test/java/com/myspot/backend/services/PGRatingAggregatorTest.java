@@ -0,0 +1,107 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.ReviewRating;
+import com.myspot.backend.events.ReviewChangedEvent;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PGRatingAggregatorTest {
+    
+    private static ReviewRating rating(boolean active, boolean verified, String overall, String cleanliness) {
+        return new ReviewRating(7L, active, verified, new BigDecimal(overall),
+            cleanliness != null ? new BigDecimal(cleanliness) : null, null, null, null, null, null);
+    }
+    
+    @Test
+    void newActiveReviewAddsItsRatings() {
+        Object[] delta = PGRatingAggregator.delta(null, rating(true, false, "4.50", "4.00"));
+        
+        assertThat(delta[0]).isEqualTo(7L);
+        assertThat(delta[1]).isEqualTo(1L);
+        assertThat(delta[2]).isEqualTo(0L);
+        assertThat((BigDecimal) delta[3]).isEqualByComparingTo("4.50");
+        assertThat((BigDecimal) delta[4]).isEqualByComparingTo("4.00");
+        assertThat(delta[5]).isEqualTo(1L);
+        assertThat(delta[7]).isEqualTo(0L);
+    }
+    
+    @Test
+    void deactivationRemovesEverythingTheReviewContributed() {
+        Object[] delta = PGRatingAggregator.delta(rating(true, true, "3.00", "2.00"), rating(false, true, "3.00", "2.00"));
+        
+        assertThat(delta[1]).isEqualTo(-1L);
+        assertThat(delta[2]).isEqualTo(-1L);
+        assertThat((BigDecimal) delta[3]).isEqualByComparingTo("-3.00");
+        assertThat((BigDecimal) delta[4]).isEqualByComparingTo("-2.00");
+        assertThat(delta[5]).isEqualTo(-1L);
+    }
+    
+    @Test
+    void editMovesSumsAndCategoryCounts() {
+        Object[] delta = PGRatingAggregator.delta(rating(true, false, "3.00", null), rating(true, false, "4.00", "5.00"));
+        
+        assertThat(delta[1]).isEqualTo(0L);
+        assertThat((BigDecimal) delta[3]).isEqualByComparingTo("1.00");
+        assertThat((BigDecimal) delta[4]).isEqualByComparingTo("5.00");
+        assertThat(delta[5]).isEqualTo(1L);
+    }
+    
+    @Test
+    void verificationOnlyMovesTheVerifiedCount() {
+        Object[] delta = PGRatingAggregator.delta(rating(true, false, "4.00", "4.00"), rating(true, true, "4.00", "4.00"));
+        
+        assertThat(delta[1]).isEqualTo(0L);
+        assertThat(delta[2]).isEqualTo(1L);
+        assertThat((BigDecimal) delta[3]).isEqualByComparingTo("0");
+    }
+    
+    @Test
+    void changesThatDoNotTouchRatingsProduceNoDelta() {
+        assertThat(PGRatingAggregator.delta(rating(true, true, "4.00", null), rating(true, true, "4.00", null))).isNull();
+        assertThat(PGRatingAggregator.delta(rating(false, false, "2.00", null), rating(false, true, "5.00", "1.00"))).isNull();
+    }
+    
+    @Test
+    void firstChangeForPgWithoutAggregateRebuildsItFromReviews() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(jdbcTemplate.update(startsWith("UPDATE pg_rating_aggregates"), any(Object[].class))).thenReturn(0);
+        PGRatingAggregator aggregator = new PGRatingAggregator(jdbcTemplate, entityManager);
+        
+        aggregator.onReviewChanged(new ReviewChangedEvent(3L, rating(true, false, "3.00", null), rating(false, false, "3.00", null)));
+        
+        InOrder order = inOrder(jdbcTemplate, entityManager);
+        order.verify(jdbcTemplate).update(startsWith("UPDATE pg_rating_aggregates"), any(Object[].class));
+        order.verify(entityManager).flush();
+        order.verify(jdbcTemplate).update(startsWith("INSERT INTO pg_rating_aggregates"), eq(7L), eq(7L));
+        order.verify(jdbcTemplate).update(startsWith("UPDATE pg_details"), eq(7L));
+    }
+    
+    @Test
+    void changeForPgWithAggregateOnlyAppliesTheDelta() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(jdbcTemplate.update(startsWith("UPDATE pg_rating_aggregates"), any(Object[].class))).thenReturn(1);
+        PGRatingAggregator aggregator = new PGRatingAggregator(jdbcTemplate, entityManager);
+        
+        aggregator.onReviewChanged(new ReviewChangedEvent(3L, null, rating(true, false, "4.00", null)));
+        
+        verify(entityManager, never()).flush();
+        verify(jdbcTemplate, never()).update(startsWith("INSERT INTO pg_rating_aggregates"), any(Object[].class));
+        verify(jdbcTemplate).update(startsWith("UPDATE pg_details"), eq(7L));
+    }
+}
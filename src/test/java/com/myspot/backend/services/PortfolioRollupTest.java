@@ -0,0 +1,76 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.PgRollup;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PortfolioRollupTest {
+    
+    private static PgRollup pg(long id, String city, String state, String status, long capacity, long occupied,
+                               long reviews, String ratingSum, String revenue) {
+        return new PgRollup(id, city, state, status, true, capacity, occupied, reviews,
+            new BigDecimal(ratingSum), reviews, new BigDecimal(revenue));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void groupsByCityStateAndStatus() {
+        PortfolioRollup rollup = new PortfolioRollup();
+        rollup.add(pg(1, "Pune", "Maharashtra", "VERIFIED", 10, 8, 2, "9.00", "1000.00"));
+        rollup.add(pg(2, " pune ", "maharashtra", "PENDING", 10, 2, 0, "0", "500.00"));
+        rollup.add(pg(3, "Aurangabad", "Bihar", "VERIFIED", 20, 10, 1, "3.00", "0"));
+        rollup.add(pg(4, "Aurangabad", "Maharashtra", "VERIFIED", 0, 0, 0, "0", "0"));
+        
+        Map<String, Object> result = rollup.toMap(10);
+        
+        Map<String, Object> totals = (Map<String, Object>) result.get("totals");
+        assertThat(totals.get("pgs")).isEqualTo(4L);
+        assertThat(totals.get("occupancyRate")).isEqualTo(50.0);
+        assertThat(totals.get("averageRating")).isEqualTo(new BigDecimal("4.00"));
+        assertThat(totals.get("revenue")).isEqualTo(new BigDecimal("1500.00"));
+        
+        List<Map<String, Object>> cities = (List<Map<String, Object>>) result.get("cities");
+        assertThat(result.get("cityCount")).isEqualTo(3);
+        assertThat(cities.get(0)).containsEntry("city", "Pune").containsEntry("state", "Maharashtra").containsEntry("pgs", 2L);
+        
+        List<Map<String, Object>> states = (List<Map<String, Object>>) result.get("states");
+        assertThat(states).extracting(state -> state.get("state")).containsExactly("Maharashtra", "Bihar");
+        
+        Map<String, Object> statuses = (Map<String, Object>) result.get("verificationStatus");
+        assertThat(((Map<String, Object>) statuses.get("verified")).get("pgs")).isEqualTo(3L);
+        assertThat(((Map<String, Object>) statuses.get("pending")).get("pgs")).isEqualTo(1L);
+    }
+    
+    @Test
+    void mergingPartitionsMatchesOnePass() {
+        Random random = new Random(7);
+        String[] cities = {"Pune", "Mumbai", "Delhi", "Bengaluru", "Chennai"};
+        String[] statuses = {"PENDING", "VERIFIED", "REJECTED"};
+        List<PgRollup> rows = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            rows.add(new PgRollup(i, cities[random.nextInt(cities.length)], "State " + random.nextInt(3),
+                statuses[random.nextInt(statuses.length)], random.nextBoolean(), random.nextInt(40), random.nextInt(40),
+                random.nextInt(20), BigDecimal.valueOf(random.nextInt(100)), random.nextInt(30),
+                BigDecimal.valueOf(random.nextInt(100_000), 2)));
+        }
+        
+        PortfolioRollup single = new PortfolioRollup();
+        rows.forEach(single::add);
+        PortfolioRollup merged = new PortfolioRollup();
+        for (int from = 0; from < rows.size(); from += 1_337) {
+            PortfolioRollup partition = new PortfolioRollup();
+            rows.subList(from, Math.min(rows.size(), from + 1_337)).forEach(partition::add);
+            merged.merge(partition);
+        }
+        
+        assertThat(merged.pgCount()).isEqualTo(10_000);
+        assertThat(merged.toMap(100)).isEqualTo(single.toMap(100));
+    }
+}
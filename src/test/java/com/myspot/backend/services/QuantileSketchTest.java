@@ -0,0 +1,101 @@
+package com.myspot.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTest {
+    
+    private static double exact(double[] sorted, double q) {
+        return sorted[(int) Math.floor(q * (sorted.length - 1))];
+    }
+    
+    @Test
+    void quantilesStayWithinRelativeAccuracy() {
+        Random random = new Random(11);
+        double[] values = new double[50_000];
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(random.nextGaussian() * 1.5 + 8);
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+        
+        for (double q : new double[] {0.0, 0.1, 0.5, 0.9, 0.99, 1.0}) {
+            double expected = exact(values, q);
+            assertThat(sketch.quantile(q)).isCloseTo(expected, within(expected * 0.0101));
+        }
+        assertThat(sketch.count()).isEqualTo(50_000);
+    }
+    
+    @Test
+    void mergeEqualsAddingEverythingToOneSketch() {
+        QuantileSketch whole = new QuantileSketch();
+        QuantileSketch left = new QuantileSketch();
+        QuantileSketch right = new QuantileSketch();
+        for (int days = 0; days < 400; days++) {
+            whole.add(days);
+            (days % 3 == 0 ? left : right).add(days);
+        }
+        
+        left.merge(right);
+        
+        assertThat(left.toBytes()).isEqualTo(whole.toBytes());
+        assertThat(left.quantile(0.5)).isEqualTo(whole.quantile(0.5));
+    }
+    
+    @Test
+    void removeUndoesAdd() {
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.add(30);
+        sketch.add(0);
+        byte[] before = sketch.toBytes();
+        
+        sketch.add(12_500.50);
+        sketch.add(90);
+        sketch.remove(12_500.50);
+        sketch.remove(90);
+        
+        assertThat(sketch.toBytes()).isEqualTo(before);
+        assertThat(sketch.count()).isEqualTo(2);
+        assertThat(sketch.mean()).isEqualTo(15.0);
+    }
+    
+    @Test
+    void roundTripsThroughBytes() {
+        QuantileSketch sketch = new QuantileSketch();
+        for (int i = 1; i <= 1000; i++) {
+            sketch.add(i * 7.5);
+        }
+        sketch.add(0);
+        
+        byte[] bytes = sketch.toBytes();
+        QuantileSketch restored = QuantileSketch.fromBytes(bytes);
+        
+        assertThat(restored.count()).isEqualTo(sketch.count());
+        assertThat(restored.sum()).isEqualTo(sketch.sum());
+        assertThat(restored.summary()).isEqualTo(sketch.summary());
+        assertThat(bytes.length).isLessThan(1000);
+    }
+    
+    @Test
+    void emptySketchSummarisesToZeros() {
+        QuantileSketch sketch = QuantileSketch.fromBytes(new QuantileSketch().toBytes());
+        
+        assertThat(sketch.isEmpty()).isTrue();
+        assertThat(sketch.summary()).containsEntry("count", 0L).containsEntry("p50", 0.0);
+    }
+    
+    @Test
+    void rejectsNegativeValuesAndMismatchedAccuracy() {
+        assertThatThrownBy(() -> new QuantileSketch().add(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new QuantileSketch(0.01).merge(new QuantileSketch(0.02)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,135 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.Guest;
+import com.myspot.backend.entities.PGManagementOwner;
+import com.myspot.backend.repository.GuestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RentDueSchedulerTest {
+    
+    private final LocalDate today = LocalDate.now();
+    private GuestRepository guestRepository;
+    private EmailService emailService;
+    private RentDueScheduler scheduler;
+    
+    @BeforeEach
+    void setUp() {
+        guestRepository = mock(GuestRepository.class);
+        emailService = mock(EmailService.class);
+        scheduler = new RentDueScheduler(guestRepository, mock(NotificationService.class), emailService,
+            mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(scheduler, "enabled", true);
+        ReflectionTestUtils.setField(scheduler, "leadDays", 3);
+        ReflectionTestUtils.setField(scheduler, "reminderHour", 9);
+        ReflectionTestUtils.setField(scheduler, "horizonDays", 45);
+        ReflectionTestUtils.setField(scheduler, "retryBackoffSeconds", 0L);
+        ReflectionTestUtils.setField(scheduler, "maxAttempts", 3);
+        
+        PGManagementOwner owner = PGManagementOwner.builder().pgId(1L).build();
+        when(guestRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(Guest.builder()
+            .guestId(invocation.getArgument(0))
+            .pgManagementOwner(owner)
+            .fullName("Guest " + invocation.getArgument(0))
+            .emailAddress("guest@example.com")
+            .roomNumber("101")
+            .monthlyRent(BigDecimal.valueOf(8000))
+            .build()));
+        when(guestRepository.claimRentReminder(anyLong(), any())).thenReturn(1);
+    }
+    
+    @Test
+    void dueEntriesAreSentEarliestFirstAndFutureOnesWait() {
+        scheduler.schedule(3L, today.minusDays(1));
+        scheduler.schedule(1L, today.minusDays(5));
+        scheduler.schedule(4L, today.plusDays(20));
+        scheduler.schedule(2L, today.minusDays(3));
+        
+        assertThat(scheduler.drainReady()).isEqualTo(3);
+        
+        ArgumentCaptor<Long> guestIds = ArgumentCaptor.forClass(Long.class);
+        verify(guestRepository, times(3)).claimRentReminder(guestIds.capture(), any());
+        assertThat(guestIds.getAllValues()).containsExactly(1L, 2L, 3L);
+        assertThat(scheduler.getPendingCount()).isEqualTo(1);
+    }
+    
+    @Test
+    void repeatedAndRescheduledEntriesClaimOnlyTheCurrentDueDate() {
+        LocalDate first = today.minusDays(2);
+        LocalDate moved = today.minusDays(1);
+        scheduler.schedule(1L, first);
+        scheduler.schedule(1L, first);
+        scheduler.schedule(1L, moved);
+        
+        scheduler.drainReady();
+        
+        verify(guestRepository, never()).claimRentReminder(1L, first);
+        verify(guestRepository, times(1)).claimRentReminder(1L, moved);
+        verify(emailService, times(1)).sendRentReminderEmail(anyString(), anyString(), any(), eq(moved), anyBoolean());
+    }
+    
+    @Test
+    void claimTakenByAnotherNodeSendsNothing() {
+        when(guestRepository.claimRentReminder(1L, today)).thenReturn(0);
+        scheduler.schedule(1L, today);
+        
+        scheduler.drainReady();
+        
+        verify(emailService, never()).sendRentReminderEmail(anyString(), anyString(), any(), any(), anyBoolean());
+    }
+    
+    @Test
+    void failedClaimIsRequeuedUntilItSucceeds() {
+        when(guestRepository.claimRentReminder(1L, today))
+            .thenThrow(new DataAccessResourceFailureException("connection reset"))
+            .thenReturn(1);
+        scheduler.schedule(1L, today);
+        
+        scheduler.drainReady();
+        
+        verify(guestRepository, times(2)).claimRentReminder(1L, today);
+        verify(emailService, times(1)).sendRentReminderEmail(anyString(), anyString(), any(), eq(today), anyBoolean());
+        assertThat(scheduler.getPendingCount()).isZero();
+    }
+    
+    @Test
+    void failingClaimGivesUpAfterMaxAttempts() {
+        when(guestRepository.claimRentReminder(1L, today)).thenThrow(new DataAccessResourceFailureException("down"));
+        scheduler.schedule(1L, today);
+        
+        scheduler.drainReady();
+        
+        verify(guestRepository, times(3)).claimRentReminder(1L, today);
+        assertThat(scheduler.getPendingCount()).isZero();
+    }
+    
+    @Test
+    void disabledSchedulerQueuesNothing() {
+        ReflectionTestUtils.setField(scheduler, "enabled", false);
+        
+        scheduler.schedule(1L, today);
+        
+        assertThat(scheduler.getPendingCount()).isZero();
+        assertThat(scheduler.drainReady()).isZero();
+    }
+}
@@ -0,0 +1,149 @@
+package com.myspot.backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.myspot.backend.dto.request.ReportJobRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReportJobServiceTest {
+    
+    private static final Long PG_ID = 1L;
+    
+    @TempDir
+    Path resultDir;
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    private AnalyticsService analyticsService;
+    private DashboardService dashboardService;
+    private ReportJobService service;
+    
+    @BeforeEach
+    void setUp() {
+        analyticsService = mock(AnalyticsService.class);
+        dashboardService = mock(DashboardService.class);
+        when(analyticsService.getMonthlyReport(anyLong(), anyString())).thenReturn(Map.of("bookings", 3));
+        // These jobs stay running until the test releases them
+        when(analyticsService.getMonthlyReport(PG_ID, "2025-04")).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Map.of("bookings", 4);
+        });
+        when(dashboardService.getDashboardOverview(anyLong())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Map.of("guests", 5);
+        });
+        service = newService(0);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+    
+    @Test
+    void identicalSubmissionReturnsTheSameJob() throws Exception {
+        Map<String, Object> first = service.submit(PG_ID, request("monthly-report", "2025-03"));
+        Map<String, Object> again = service.submit(PG_ID, request("MONTHLY_REPORT", "2025-03"));
+        Map<String, Object> otherMonth = service.submit(PG_ID, request("monthly-report", "2025-06"));
+        
+        assertThat(again.get("jobId")).isEqualTo(first.get("jobId"));
+        assertThat(again.get("reused")).isEqualTo(true);
+        assertThat(otherMonth.get("jobId")).isNotEqualTo(first.get("jobId"));
+        
+        await((String) first.get("jobId"));
+        await((String) otherMonth.get("jobId"));
+        Map<String, Object> afterFinish = service.submit(PG_ID, request("monthly-report", "2025-03"));
+        assertThat(afterFinish.get("jobId")).isEqualTo(first.get("jobId"));
+        verify(analyticsService, times(1)).getMonthlyReport(PG_ID, "2025-03");
+    }
+    
+    @Test
+    void ownerAtTheLimitIsRejectedUntilAJobFinishes() throws Exception {
+        String overview = (String) service.submit(PG_ID, request("dashboard-overview", null)).get("jobId");
+        String slowReport = (String) service.submit(PG_ID, request("monthly-report", "2025-04")).get("jobId");
+        
+        assertThatThrownBy(() -> service.submit(PG_ID, request("monthly-report", "2025-05")))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("At most 2 report jobs");
+        // The limit is per owner
+        assertThat(service.submit(2L, request("monthly-report", "2025-05")).get("reused")).isEqualTo(false);
+        
+        release.countDown();
+        await(overview);
+        await(slowReport);
+        assertThat(service.submit(PG_ID, request("monthly-report", "2025-05")).get("reused")).isEqualTo(false);
+    }
+    
+    @Test
+    void longPollReturnsOnCompletionOrAfterTheWait() throws Exception {
+        String jobId = (String) service.submit(PG_ID, request("dashboard-overview", null)).get("jobId");
+        
+        Map<String, Object> timedOut = service.awaitJob(PG_ID, jobId, 1).get(5, TimeUnit.SECONDS);
+        assertThat(timedOut.get("status")).isIn("queued", "running");
+        
+        var waiting = service.awaitJob(PG_ID, jobId, 30);
+        release.countDown();
+        assertThat(waiting.get(5, TimeUnit.SECONDS).get("status")).isEqualTo("completed");
+    }
+    
+    @Test
+    void expiredJobsAndTheirResultsArePurged() throws Exception {
+        String jobId = (String) service.submit(PG_ID, request("monthly-report", "2025-03")).get("jobId");
+        await(jobId);
+        Path result = service.getResult(PG_ID, jobId).path();
+        assertThat(result).exists();
+        Path leftover = Files.writeString(resultDir.resolve("previous-run.json"), "{}");
+        Files.setLastModifiedTime(leftover, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        Thread.sleep(5);
+        
+        service.purgeExpired();
+        
+        assertThat(result).doesNotExist();
+        assertThat(leftover).doesNotExist();
+        assertThatThrownBy(() -> service.getJob(PG_ID, jobId)).hasMessage("Report job not found");
+    }
+    
+    @Test
+    void unexpiredJobsSurviveThePurge() throws Exception {
+        service.shutdown();
+        service = newService(60);
+        String jobId = (String) service.submit(PG_ID, request("monthly-report", "2025-03")).get("jobId");
+        await(jobId);
+        
+        service.purgeExpired();
+        
+        assertThat(service.getJob(PG_ID, jobId).get("status")).isEqualTo("completed");
+        assertThat(service.getResult(PG_ID, jobId).path()).exists();
+    }
+    
+    private ReportJobService newService(long ttlMinutes) {
+        return new ReportJobService(analyticsService, dashboardService, mock(ExportService.class), new ObjectMapper(),
+            2, 10, 2, 300, ttlMinutes, resultDir.toString());
+    }
+    
+    private void await(String jobId) throws Exception {
+        service.awaitJob(PG_ID, jobId, 5).get(10, TimeUnit.SECONDS);
+    }
+    
+    private static ReportJobRequest request(String type, String month) {
+        return new ReportJobRequest(type, month, null, null);
+    }
+}
@@ -0,0 +1,57 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.entities.Review;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReviewFeedCursorTest {
+    
+    private static Review review(long id, String rating, LocalDateTime respondedAt) {
+        return Review.builder()
+            .reviewId(id)
+            .overallRating(new BigDecimal(rating))
+            .createdAt(LocalDateTime.of(2026, 3, 14, 9, 30, 15, 123_456_000))
+            .respondedAt(respondedAt)
+            .build();
+    }
+    
+    @Test
+    void roundTripsEverySort() {
+        Review answered = review(42, "4.50", LocalDateTime.of(2026, 3, 15, 18, 0));
+        for (ReviewFeedCursor.Sort sort : ReviewFeedCursor.Sort.values()) {
+            ReviewFeedCursor cursor = ReviewFeedCursor.after(sort, answered);
+            
+            assertThat(ReviewFeedCursor.decode(cursor.encode(), sort)).isEqualTo(cursor);
+        }
+    }
+    
+    @Test
+    void unansweredSortTracksItsPhase() {
+        assertThat(ReviewFeedCursor.after(ReviewFeedCursor.Sort.UNANSWERED, review(1, "3.00", null)).phase()).isZero();
+        assertThat(ReviewFeedCursor.after(ReviewFeedCursor.Sort.UNANSWERED, review(1, "3.00", LocalDateTime.now())).phase()).isOne();
+    }
+    
+    @Test
+    void rejectsCursorsFromAnotherSortOrGarbage() {
+        String newest = ReviewFeedCursor.after(ReviewFeedCursor.Sort.NEWEST, review(7, "2.00", null)).encode();
+        
+        assertThatThrownBy(() -> ReviewFeedCursor.decode(newest, ReviewFeedCursor.Sort.HIGHEST))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ReviewFeedCursor.decode("not a cursor!", ReviewFeedCursor.Sort.NEWEST))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ReviewFeedCursor.Sort.parse("random"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void firstPageSentinelsSortBeforeRealRows() {
+        assertThat(ReviewFeedCursor.first(ReviewFeedCursor.Sort.HIGHEST).rating()).isGreaterThan(new BigDecimal("5"));
+        assertThat(ReviewFeedCursor.first(ReviewFeedCursor.Sort.LOWEST).rating()).isLessThan(BigDecimal.ZERO);
+        assertThat(ReviewFeedCursor.first(ReviewFeedCursor.Sort.NEWEST).createdAt()).isAfter(LocalDateTime.now().plusYears(100));
+    }
+}
@@ -0,0 +1,76 @@
+package com.myspot.backend.services;
+
+import com.myspot.backend.dto.projection.ReviewRating;
+import com.myspot.backend.dto.projection.ReviewStats;
+import com.myspot.backend.events.ReviewChangedEvent;
+import com.myspot.backend.repository.ReviewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReviewStatsCacheTest {
+    
+    private static final Long PG_ID = 1L;
+    
+    private ReviewRepository reviewRepository;
+    private ReviewStatsCache cache;
+    
+    @BeforeEach
+    void setUp() {
+        reviewRepository = mock(ReviewRepository.class);
+        when(reviewRepository.getReviewStats(PG_ID)).thenReturn(stats(3), stats(4));
+        cache = new ReviewStatsCache(reviewRepository);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "ttlMinutes", 5L);
+    }
+    
+    @Test
+    void statsAreReadOnceUntilAReviewChanges() {
+        assertThat(cache.get(PG_ID).totalReviews()).isEqualTo(3);
+        assertThat(cache.get(PG_ID).totalReviews()).isEqualTo(3);
+        
+        cache.onReviewChanged(changed(PG_ID));
+        
+        assertThat(cache.get(PG_ID).totalReviews()).isEqualTo(4);
+        verify(reviewRepository, times(2)).getReviewStats(PG_ID);
+    }
+    
+    @Test
+    void expiredEntryIsReadAgain() {
+        ReflectionTestUtils.setField(cache, "ttlMinutes", -1L);
+        
+        cache.get(PG_ID);
+        
+        assertThat(cache.get(PG_ID).totalReviews()).isEqualTo(4);
+    }
+    
+    @Test
+    void loadThatRacedWithAnEvictionIsNotKept() {
+        when(reviewRepository.getReviewStats(PG_ID)).thenAnswer(invocation -> {
+            cache.onReviewChanged(changed(2L));
+            return stats(3);
+        });
+        
+        cache.get(PG_ID);
+        cache.get(PG_ID);
+        
+        verify(reviewRepository, times(2)).getReviewStats(PG_ID);
+    }
+    
+    private static ReviewStats stats(long reviews) {
+        return new ReviewStats(reviews, BigDecimal.ONE, null, null, null, null, null, null, reviews, 0, 0, 0, 0);
+    }
+    
+    private static ReviewChangedEvent changed(Long pgId) {
+        ReviewRating rating = new ReviewRating(pgId, true, false, BigDecimal.ONE, null, null, null, null, null, null);
+        return new ReviewChangedEvent(9L, rating, rating);
+    }
+}
@@ -0,0 +1,100 @@
+package com.myspot.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReviewTermIndexTest {
+    
+    private static List<Long> ids(List<ReviewTermIndex.Hit> hits) {
+        return hits.stream().map(ReviewTermIndex.Hit::reviewId).toList();
+    }
+    
+    @Test
+    void tokenizeDropsStopwordsAndStemsSuffixes() {
+        assertThat(ReviewTermIndex.tokenize("The rooms were cleaned, and the Wi-Fi is great!"))
+            .containsExactly("room", "clean", "wi", "fi", "great", "wifi");
+        assertThat(ReviewTermIndex.tokenize("Facilities: stopped cleaning; staff classes"))
+            .containsExactly("facility", "stop", "clean", "staff", "class");
+        assertThat(ReviewTermIndex.stem("bus")).isEqualTo("bus");
+        assertThat(ReviewTermIndex.stem("tired")).isEqualTo("tired");
+    }
+    
+    @Test
+    void searchRequiresEveryTermAndRanksByMentionsThenNewest() {
+        ReviewTermIndex index = new ReviewTermIndex();
+        index.put(1, "Water supply is poor, water cuts daily", null);
+        index.put(2, "Food is tasty", "We fixed the water heater");
+        index.put(3, "Hot water and good food");
+        index.put(4, "Wi-Fi is slow");
+        
+        assertThat(ids(index.search("water"))).containsExactly(1L, 3L, 2L);
+        assertThat(ids(index.search("food water"))).containsExactly(3L, 2L);
+        assertThat(ids(index.search("wifi"))).containsExactly(4L);
+        assertThat(ids(index.search("the"))).isEmpty();
+        assertThat(ids(index.search("parking"))).isEmpty();
+    }
+    
+    @Test
+    void putReplacesAndRemoveForgets() {
+        ReviewTermIndex index = new ReviewTermIndex();
+        index.put(1, "noisy neighbours");
+        index.put(1, "quiet rooms");
+        
+        assertThat(index.search("noisy")).isEmpty();
+        assertThat(ids(index.search("quiet"))).containsExactly(1L);
+        
+        assertThat(index.remove(1)).isTrue();
+        assertThat(index.size()).isZero();
+        assertThat(index.termCount()).isZero();
+    }
+    
+    @Test
+    void topTermsCountsReviewsNotMentions() {
+        ReviewTermIndex index = new ReviewTermIndex();
+        index.put(1, "food food food");
+        index.put(2, "wifi and food");
+        index.put(3, "wifi");
+        index.put(4, "water");
+        
+        assertThat(index.topTerms(2)).containsExactly(
+            new ReviewTermIndex.TermCount("food", 2), new ReviewTermIndex.TermCount("wifi", 2));
+    }
+    
+    @Test
+    void segmentRoundTripPreservesSearchAndRemoval() throws IOException {
+        ReviewTermIndex index = new ReviewTermIndex();
+        Random random = new Random(7);
+        String[] words = {"water", "wifi", "food", "clean", "staff", "noise", "location", "rent", "bed", "laundry"};
+        for (long id = 1; id <= 2_000; id++) {
+            StringBuilder text = new StringBuilder();
+            for (int w = 0; w < 6; w++) {
+                text.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            index.put(id * 3, text.toString());
+        }
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.writeTo(new DataOutputStream(bytes));
+        ReviewTermIndex restored = ReviewTermIndex.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        
+        assertThat(restored.size()).isEqualTo(index.size());
+        assertThat(restored.postingCount()).isEqualTo(index.postingCount());
+        for (String word : words) {
+            assertThat(restored.search(word)).isEqualTo(index.search(word));
+        }
+        assertThat(restored.search("water wifi")).isEqualTo(index.search("water wifi"));
+        
+        restored.remove(3);
+        index.remove(3);
+        assertThat(restored.search("food")).isEqualTo(index.search("food"));
+    }
+}
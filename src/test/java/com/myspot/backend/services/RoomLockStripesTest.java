@@ -0,0 +1,31 @@
+package com.myspot.backend.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RoomLockStripesTest {
+    
+    @Test
+    void heldStripeFailsFastInsteadOfWaiting() throws InterruptedException {
+        RoomLockStripes stripes = new RoomLockStripes(16, 20);
+        ReentrantLock held = stripes.tryLock(1L, "101");
+        assertThat(held).isNotNull();
+        
+        long[] waitedMillis = new long[1];
+        Object[] result = new Object[1];
+        Thread contender = new Thread(() -> {
+            long started = System.nanoTime();
+            result[0] = stripes.tryLock(1L, "101");
+            waitedMillis[0] = (System.nanoTime() - started) / 1_000_000;
+        });
+        contender.start();
+        contender.join();
+        held.unlock();
+        
+        assertThat(result[0]).isNull();
+        assertThat(waitedMillis[0]).isLessThan(1_000);
+    }
+}